@@ -0,0 +1,97 @@
+package com.meallab.api.cache;
+
+/*
+ * Immutable snapshot of a cache's counters.
+ *
+ * Use it to size a cache: a low hit rate with many evictions usually means
+ * the cache is too small, while many rejections mean the admission policy
+ * is protecting frequently used entries from one-off lookups.
+ */
+
+public class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expiredCount;
+    private final long rejectedCount;
+    private final int entryCount;
+    private final long estimatedBytes;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long expiredCount,
+                      long rejectedCount, int entryCount, long estimatedBytes) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expiredCount = expiredCount;
+        this.rejectedCount = rejectedCount;
+        this.entryCount = entryCount;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /*
+     * Entries removed to make room for newer ones (size or byte limit).
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /*
+     * Entries dropped because their time-to-live ran out.
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /*
+     * New entries that the admission policy refused to store.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    // Utility Methods
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /*
+     * Fraction of lookups served from the cache (0.0 when nothing was requested).
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    // Override Methods
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hitCount +
+                ", misses=" + missCount +
+                ", evictions=" + evictionCount +
+                ", expired=" + expiredCount +
+                ", rejected=" + rejectedCount +
+                ", entries=" + entryCount +
+                ", bytes=" + estimatedBytes +
+                '}';
+    }
+}
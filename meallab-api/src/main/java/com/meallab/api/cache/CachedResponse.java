@@ -0,0 +1,87 @@
+package com.meallab.api.cache;
+
+/*
+ * A response body stored by DiskResponseCache, with the validators needed
+ * to revalidate it (ETag, Last-Modified) and the time until which it is fresh.
+ *
+ * Times are wall-clock milliseconds since the epoch. Header values are kept
+ * exactly as the server sent them (null when absent).
+ */
+
+public final class CachedResponse {
+
+    private final String url;
+    private final byte[] body;
+    private final String etag;
+    private final String lastModified;
+    private final String date;
+    private final long storedAtMillis;
+    private final long freshUntilMillis;
+
+    public CachedResponse(String url, byte[] body, String etag, String lastModified, String date,
+                          long storedAtMillis, long freshUntilMillis) {
+        this.url = url;
+        this.body = body;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.date = date;
+        this.storedAtMillis = storedAtMillis;
+        this.freshUntilMillis = freshUntilMillis;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /*
+     * The stored body (shared, do not modify)
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public long getStoredAtMillis() {
+        return storedAtMillis;
+    }
+
+    public long getFreshUntilMillis() {
+        return freshUntilMillis;
+    }
+
+    /*
+     * True if a conditional GET can revalidate this response
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    /*
+     * True if the response can still be used without asking the server
+     */
+    public boolean isFreshAt(long nowMillis) {
+        return nowMillis < freshUntilMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedResponse{" +
+                "url='" + url + '\'' +
+                ", bytes=" + body.length +
+                ", etag='" + etag + '\'' +
+                ", lastModified='" + lastModified + '\'' +
+                ", freshUntilMillis=" + freshUntilMillis +
+                '}';
+    }
+}
@@ -0,0 +1,722 @@
+package com.meallab.api.cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Disk-backed cache of raw HTTP response bodies, used by HttpClientTransport
+ * so a restarted application does not download everything again.
+ *
+ * Freshness and revalidation:
+ * - A response is fresh for Cache-Control max-age, or Expires minus Date,
+ *   or otherwise for the configured default freshness. Fresh responses are
+ *   served from disk without contacting the server.
+ * - A stale response with an ETag or Last-Modified is revalidated with a
+ *   conditional GET; a 304 Not Modified refreshes it without a body.
+ * - A stale response without validators is simply downloaded again.
+ * - no-store responses and random.php (a different answer every time)
+ *   are never stored.
+ *
+ * Layout (in the spirit of DiskLruCache): one file per entry, named by a
+ * hash of the URL, plus an append-only journal of DIRTY / CLEAN / READ /
+ * REMOVE lines. Entries are written to a temporary file, forced to disk and
+ * renamed into place before their CLEAN line is appended, so a crash leaves
+ * either the old entry or the new one; a DIRTY line without a CLEAN line is
+ * discarded on the next start. READ lines keep the LRU order across restarts;
+ * they are buffered and go out with the next write (a crash only loses some
+ * of the order). The journal is compacted once it is mostly redundant.
+ *
+ * Serializing an entry and forcing its temporary file to disk happen outside
+ * the cache's lock, so lookups never wait for an fsync; the lock is held only
+ * for the rename, the journal lines and the accounting.
+ *
+ * The total size is capped; the least recently used entries are evicted first.
+ * I/O errors never fail a request: the entry is dropped and the response is
+ * fetched from the network instead. All methods are thread-safe.
+ */
+
+public class DiskResponseCache implements AutoCloseable {
+
+    /*
+     * Default limits
+     */
+    public static final long DEFAULT_MAX_BYTES = 50L * 1024 * 1024;
+    public static final Duration DEFAULT_FRESHNESS = Duration.ofHours(24);
+
+    static final String JOURNAL_FILE = "journal";
+    private static final String JOURNAL_TEMP_FILE = "journal.tmp";
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String MAGIC = "meallab.DiskResponseCache";
+    private static final String VERSION = "1";
+    private static final int ENTRY_FORMAT = 1;
+
+    private static final String CLEAN = "CLEAN";
+    private static final String DIRTY = "DIRTY";
+    private static final String REMOVE = "REMOVE";
+    private static final String READ = "READ";
+
+    /*
+     * Journal lines beyond the live entries before it is compacted
+     */
+    private static final int COMPACT_THRESHOLD = 2000;
+
+    /*
+     * Responses that must not be reused
+     */
+    private static final String UNCACHEABLE_PATH = "/random.php";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long defaultFreshnessMillis;
+    private final LongSupplier clock;
+
+    // Distinguishes the temporary files of concurrent writes of one entry
+    private final AtomicLong tempFileIds = new AtomicLong();
+
+    // Entry key -> size in bytes, access-ordered (first = least recently used)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private BufferedWriter journal;
+    private int redundantOps;
+    private volatile boolean closed;
+
+    // Counters (guarded by this)
+    private long hitCount;
+    private long staleCount;
+    private long missCount;
+    private long revalidatedCount;
+    private long writeCount;
+    private long evictionCount;
+
+    /*
+     * Test hook: runs after an entry's temporary file is on disk, before the lock is taken
+     */
+    volatile Runnable beforeCommit;
+
+    /*
+     * Opens (or creates) a cache in the directory with the default limits.
+     */
+    public DiskResponseCache(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_BYTES, DEFAULT_FRESHNESS);
+    }
+
+    /*
+     * Opens (or creates) a cache in the directory.
+     *
+     * @param maxBytes          size cap for all entries together
+     * @param defaultFreshness  how long a response without Cache-Control/Expires is served without revalidation
+     */
+    public DiskResponseCache(Path directory, long maxBytes, Duration defaultFreshness) throws IOException {
+        this(directory, maxBytes, defaultFreshness, System::currentTimeMillis);
+    }
+
+    /*
+     * Constructor with a custom wall clock, so tests can control freshness.
+     */
+    DiskResponseCache(Path directory, long maxBytes, Duration defaultFreshness, LongSupplier clock) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Cache directory cannot be null");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        if (defaultFreshness == null || defaultFreshness.isNegative()) {
+            throw new IllegalArgumentException("Default freshness cannot be negative");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.defaultFreshnessMillis = defaultFreshness.toMillis();
+        this.clock = clock;
+
+        Files.createDirectories(directory);
+        open();
+    }
+
+    // Cache Operations
+
+    /*
+     * True if responses for the URL may be stored.
+     */
+    public boolean isCacheable(String url) {
+        return !url.contains(UNCACHEABLE_PATH);
+    }
+
+    /*
+     * Returns the stored response for the URL (fresh or stale), or null.
+     */
+    public synchronized CachedResponse get(String url) {
+        String key = key(url);
+        if (closed || !entries.containsKey(key)) {
+            missCount++;
+            return null;
+        }
+
+        CachedResponse response;
+        try {
+            response = readEntry(key);
+        } catch (IOException e) {
+            removeEntry(key);
+            missCount++;
+            return null;
+        }
+        if (!url.equals(response.getUrl())) {
+            // Hash collision: treat as a miss, the next put replaces it
+            missCount++;
+            return null;
+        }
+
+        entries.get(key);  // Mark as recently used
+        try {
+            journal.write(READ + ' ' + key + '\n');  // Flushed with the next write
+        } catch (IOException e) {
+            // Only the LRU order is lost
+        }
+        redundantOps++;
+        compactIfNeeded();
+
+        if (response.isFreshAt(clock.getAsLong())) {
+            hitCount++;
+        } else {
+            staleCount++;
+        }
+        return response;
+    }
+
+    /*
+     * True if the response can be served without asking the server.
+     */
+    public boolean isFresh(CachedResponse response) {
+        return response.isFreshAt(clock.getAsLong());
+    }
+
+    /*
+     * Stores a 200 response. Returns the stored entry, or null if the
+     * response may not be stored (no-store, random.php) or the write failed.
+     */
+    public CachedResponse put(String url, HttpHeaders headers, byte[] body) {
+        if (closed || !isCacheable(url)) {
+            return null;
+        }
+        if (hasDirective(headers, "no-store")) {
+            remove(url);
+            return null;
+        }
+
+        long now = clock.getAsLong();
+        CachedResponse response = new CachedResponse(url, body,
+                headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null),
+                headers.firstValue("Date").orElse(null),
+                now, freshUntil(headers, now));
+        return write(key(url), response) ? response : null;
+    }
+
+    /*
+     * Records a 304 Not Modified for a stored response: its freshness (and
+     * validators, if the server sent new ones) are updated and the stored
+     * body stays. Returns the updated entry.
+     */
+    public CachedResponse revalidated(CachedResponse cached, HttpHeaders headers) {
+        long now = clock.getAsLong();
+        CachedResponse response = new CachedResponse(cached.getUrl(), cached.getBody(),
+                headers.firstValue("ETag").orElse(cached.getETag()),
+                headers.firstValue("Last-Modified").orElse(cached.getLastModified()),
+                headers.firstValue("Date").orElse(cached.getDate()),
+                now, freshUntil(headers, now));
+        synchronized (this) {
+            revalidatedCount++;
+        }
+
+        if (!closed) {
+            write(key(cached.getUrl()), response);
+        }
+        return response;
+    }
+
+    /*
+     * Removes the stored response for the URL, if any.
+     */
+    public synchronized void remove(String url) {
+        String key = key(url);
+        if (!closed && entries.containsKey(key)) {
+            removeEntry(key);
+        }
+    }
+
+    /*
+     * Removes every stored response (counters are kept).
+     */
+    public synchronized void clear() throws IOException {
+        for (String key : entries.keySet()) {
+            Files.deleteIfExists(entryFile(key));
+        }
+        entries.clear();
+        totalBytes = 0;
+        if (!closed) {
+            rebuildJournal();
+        }
+    }
+
+    /*
+     * Closes the journal. Afterwards every lookup is a miss and nothing is stored.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            // Nothing left to write
+        }
+    }
+
+    // Getters
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Duration getDefaultFreshness() {
+        return Duration.ofMillis(defaultFreshnessMillis);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /*
+     * Lookups that found a fresh response
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /*
+     * Lookups that found a stale response (revalidated or downloaded again)
+     */
+    public synchronized long getStaleCount() {
+        return staleCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /*
+     * Stale responses confirmed by 304 Not Modified
+     */
+    public synchronized long getRevalidatedCount() {
+        return revalidatedCount;
+    }
+
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    // Journal
+
+    /*
+     * Replays the journal, drops unfinished writes and starts a compact journal.
+     */
+    private void open() throws IOException {
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        if (Files.exists(journalFile)) {
+            try {
+                readJournal(journalFile);
+            } catch (IOException e) {
+                // Unreadable journal: start over rather than trust the files
+                entries.clear();
+                deleteEntryFiles();
+            }
+        }
+
+        // Temporary files are left-overs of interrupted writes
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TEMP_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        totalBytes = 0;
+        for (Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Long> entry = it.next();
+            if (Files.exists(entryFile(entry.getKey()))) {
+                totalBytes += entry.getValue();
+            } else {
+                it.remove();
+            }
+        }
+
+        rebuildJournal();
+        trimToSize();
+    }
+
+    private void readJournal(Path journalFile) throws IOException {
+        Set<String> dirty = new HashSet<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            if (!MAGIC.equals(reader.readLine()) || !VERSION.equals(reader.readLine())) {
+                throw new IOException("Unexpected journal header");
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length < 2) {
+                    break;  // Truncated by a crash
+                }
+                String key = parts[1];
+                switch (parts[0]) {
+                    case CLEAN:
+                        if (parts.length != 3) {
+                            break;
+                        }
+                        entries.put(key, Long.parseLong(parts[2]));
+                        dirty.remove(key);
+                        break;
+                    case DIRTY:
+                        dirty.add(key);
+                        break;
+                    case REMOVE:
+                        entries.remove(key);
+                        dirty.remove(key);
+                        break;
+                    case READ:
+                        entries.get(key);
+                        break;
+                    default:
+                        throw new IOException("Unexpected journal line: " + line);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt journal", e);
+        }
+
+        // A write that never completed: its file may be partial
+        for (String key : dirty) {
+            entries.remove(key);
+            Files.deleteIfExists(entryFile(key));
+        }
+    }
+
+    /*
+     * Writes a journal with one CLEAN line per entry (in LRU order) and swaps it in.
+     */
+    private void rebuildJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+
+        Path temp = directory.resolve(JOURNAL_TEMP_FILE);
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(MAGIC + '\n' + VERSION + '\n');
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                writer.write(CLEAN + ' ' + entry.getKey() + ' ' + entry.getValue() + '\n');
+            }
+        }
+        move(temp, directory.resolve(JOURNAL_FILE));
+
+        journal = Files.newBufferedWriter(directory.resolve(JOURNAL_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        redundantOps = 0;
+    }
+
+    private void compactIfNeeded() {
+        if (redundantOps >= COMPACT_THRESHOLD && redundantOps >= entries.size()) {
+            try {
+                rebuildJournal();
+            } catch (IOException e) {
+                // Keep appending to the old journal
+            }
+        }
+    }
+
+    private void append(String line) throws IOException {
+        journal.write(line);
+        journal.write('\n');
+        journal.flush();
+    }
+
+    private void appendQuietly(String line) {
+        try {
+            append(line);
+        } catch (IOException e) {
+            // Only the LRU order is lost
+        }
+    }
+
+    // Entries
+
+    /*
+     * Writes an entry crash-safely: temp file forced to disk, then (under the
+     * lock) DIRTY, rename, CLEAN. The slow part runs without the lock, so
+     * lookups and other writes go on meanwhile.
+     */
+    private boolean write(String key, CachedResponse response) {
+        Path temp = directory.resolve(key + '.' + tempFileIds.incrementAndGet() + ENTRY_SUFFIX + TEMP_SUFFIX);
+        int length;
+        try {
+            byte[] data = serialize(response);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            length = data.length;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            return false;  // The stored entry (if any) is untouched
+        }
+
+        Runnable hook = beforeCommit;
+        if (hook != null) {
+            hook.run();
+        }
+        return commit(key, temp, length);
+    }
+
+    /*
+     * Moves a written temp file into place and records it.
+     */
+    private synchronized boolean commit(String key, Path temp, int length) {
+        if (closed) {
+            deleteQuietly(temp);
+            return false;
+        }
+        try {
+            append(DIRTY + ' ' + key);
+            move(temp, entryFile(key));
+
+            Long previous = entries.put(key, (long) length);
+            totalBytes += length - (previous != null ? previous : 0);
+            append(CLEAN + ' ' + key + ' ' + length);
+            redundantOps++;
+            writeCount++;
+
+            trimToSize();
+            compactIfNeeded();
+            return true;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            if (entries.containsKey(key)) {
+                removeEntry(key);
+            }
+            return false;
+        }
+    }
+
+    private CachedResponse readEntry(String key) throws IOException {
+        try (InputStream in = Files.newInputStream(entryFile(key));
+             DataInputStream data = new DataInputStream(in)) {
+            if (data.readInt() != ENTRY_FORMAT) {
+                throw new IOException("Unknown entry format");
+            }
+            String url = data.readUTF();
+            String etag = emptyToNull(data.readUTF());
+            String lastModified = emptyToNull(data.readUTF());
+            String date = emptyToNull(data.readUTF());
+            long storedAt = data.readLong();
+            long freshUntil = data.readLong();
+            byte[] body = new byte[data.readInt()];
+            data.readFully(body);
+            return new CachedResponse(url, body, etag, lastModified, date, storedAt, freshUntil);
+        }
+    }
+
+    private static byte[] serialize(CachedResponse response) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(response.getBody().length + 256);
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeInt(ENTRY_FORMAT);
+            data.writeUTF(response.getUrl());
+            data.writeUTF(nullToEmpty(response.getETag()));
+            data.writeUTF(nullToEmpty(response.getLastModified()));
+            data.writeUTF(nullToEmpty(response.getDate()));
+            data.writeLong(response.getStoredAtMillis());
+            data.writeLong(response.getFreshUntilMillis());
+            data.writeInt(response.getBody().length);
+            data.write(response.getBody());
+        }
+        return bytes.toByteArray();
+    }
+
+    private void removeEntry(String key) {
+        Long bytes = entries.remove(key);
+        if (bytes != null) {
+            totalBytes -= bytes;
+        }
+        try {
+            Files.deleteIfExists(entryFile(key));
+        } catch (IOException e) {
+            // Not in the journal any more, so it is never read again
+        }
+        appendQuietly(REMOVE + ' ' + key);
+        redundantOps++;
+    }
+
+    private void trimToSize() {
+        while (totalBytes > maxBytes && !entries.isEmpty()) {
+            removeEntry(entries.keySet().iterator().next());
+            evictionCount++;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Removed on the next start
+        }
+    }
+
+    private void deleteEntryFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path entryFile(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    // Helper Methods
+
+    /*
+     * Freshness lifetime from Cache-Control max-age, Expires - Date, or the default.
+     */
+    private long freshUntil(HttpHeaders headers, long now) {
+        if (hasDirective(headers, "no-cache")) {
+            return now;
+        }
+
+        String cacheControl = headers.firstValue("Cache-Control").orElse("");
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim().toLowerCase(Locale.ROOT);
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    long age = headers.firstValueAsLong("Age").orElse(0);
+                    return now + Math.max(0, Long.parseLong(trimmed.substring(8)) - age) * 1000;
+                } catch (NumberFormatException e) {
+                    return now;
+                }
+            }
+        }
+
+        String expiresHeader = headers.firstValue("Expires").orElse(null);
+        if (expiresHeader != null) {
+            Long expires = parseDate(expiresHeader);
+            if (expires == null) {
+                return now;  // Invalid Expires (e.g. "0") means already expired
+            }
+            Long date = parseDate(headers.firstValue("Date").orElse(null));
+            return now + Math.max(0, expires - (date != null ? date : now));
+        }
+
+        return now + defaultFreshnessMillis;
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String directive) {
+        for (String value : headers.allValues("Cache-Control")) {
+            for (String part : value.split(",")) {
+                if (part.trim().equalsIgnoreCase(directive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Long parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /*
+     * File name for a URL: the first 16 bytes of its SHA-256, in hex.
+     */
+    static String key(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
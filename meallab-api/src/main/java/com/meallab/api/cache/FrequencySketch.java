@@ -0,0 +1,116 @@
+package com.meallab.api.cache;
+
+/*
+ * Approximate access-frequency counter used by RecipeCache's admission policy.
+ *
+ * This is a count-min sketch with 4-bit counters (the "TinyLFU" idea):
+ * every key is hashed into 4 counters and its frequency is the smallest of them.
+ * Sixteen counters are packed into each long, so the sketch needs only
+ * 8 bytes per expected cache entry no matter how many distinct keys it sees.
+ *
+ * To let old popularity fade, all counters are halved once the number of
+ * recorded accesses reaches a sample size of 10x the cache capacity.
+ *
+ * Not thread-safe: RecipeCache only calls it while holding its own lock.
+ */
+
+class FrequencySketch {
+
+    /*
+     * Seeds for the 4 hash functions (large odd constants)
+     */
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    /*
+     * Clears the top bit of every 4-bit counter after a right shift
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /*
+     * Largest value a 4-bit counter can hold
+     */
+    static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedEntries) - 1) << 1;
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = 10 * Math.max(16, expectedEntries);
+    }
+
+    /*
+     * Returns the estimated number of recent accesses of the key (0-15).
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /*
+     * Records one access of the key, aging all counters when the sample is full.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    /*
+     * Increments the j-th 4-bit counter of table[i] unless it is saturated.
+     */
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = 0xfL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /*
+     * Halves every counter so that old popularity decays.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = additions >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    /*
+     * Spreads weak hash codes (e.g. short numeric strings) over all bits.
+     */
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
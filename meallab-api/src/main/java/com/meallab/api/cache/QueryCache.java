@@ -0,0 +1,292 @@
+package com.meallab.api.cache;
+
+import com.meallab.api.model.LookupResult;
+import com.meallab.api.model.MealListResponse;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.model.SimplifiedMeal;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/*
+ * Bounded cache of search results (searchByIngredient, searchByName),
+ * keyed by the normalized query.
+ *
+ * "Chicken", " chicken " and "CHICKEN" share one entry: queries are
+ * trimmed, NFKC-normalized, case-folded and have their inner whitespace
+ * collapsed (see normalize).
+ *
+ * Both outcomes are cached, each with its own time-to-live:
+ * - Hits: a name search keeps only the meal IDs and resolves them through
+ *   the client's RecipeCache, so recipes are stored once. If any recipe
+ *   is no longer in the RecipeCache the entry counts as a miss and the
+ *   search goes upstream again. An ingredient search (filter.php) returns
+ *   simplified meals that the RecipeCache does not hold, so those entries
+ *   keep the SimplifiedMeal list itself.
+ * - Misses ("no results"): answered as LookupResult.NotFound without
+ *   calling the API.
+ *
+ * Eviction order is least-recently-used. All methods are thread-safe.
+ */
+
+public class QueryCache {
+
+    /*
+     * Default limits
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    public static final Duration DEFAULT_HIT_TTL = Duration.ofMinutes(15);
+    public static final Duration DEFAULT_MISS_TTL = Duration.ofMinutes(5);
+
+    private static final char INGREDIENT_PREFIX = 'i';
+    private static final char NAME_PREFIX = 's';
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxEntries;
+    private final long hitTtlNanos;
+    private final long missTtlNanos;
+    private final LongSupplier ticker;
+
+    // Access-ordered: the first entry is always the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Counters (guarded by this)
+    private long hitCount;
+    private long negativeHitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /*
+     * Creates a cache with the default limits.
+     */
+    public QueryCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_HIT_TTL, DEFAULT_MISS_TTL);
+    }
+
+    public QueryCache(int maxEntries, Duration hitTtl, Duration missTtl) {
+        this(maxEntries, hitTtl, missTtl, System::nanoTime);
+    }
+
+    /*
+     * Constructor with a custom clock, so tests can control expiry.
+     */
+    QueryCache(int maxEntries, Duration hitTtl, Duration missTtl, LongSupplier ticker) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        if (hitTtl == null || hitTtl.isNegative() || hitTtl.isZero()
+                || missTtl == null || missTtl.isNegative() || missTtl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.hitTtlNanos = hitTtl.toNanos();
+        this.missTtlNanos = missTtl.toNanos();
+        this.ticker = ticker;
+    }
+
+    /*
+     * The cache key form of a query: trimmed, NFKC-normalized, case-folded,
+     * with runs of whitespace collapsed to one space.
+     */
+    public static String normalize(String query) {
+        String normalized = Normalizer.normalize(query.trim(), Normalizer.Form.NFKC);
+        // Upper then lower case folds characters like 'ß' -> "ss" consistently
+        normalized = normalized.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ");
+    }
+
+    // Ingredient Searches
+
+    /*
+     * Returns the cached result of an ingredient search: Found, NotFound for a
+     * cached miss, or null when the query is not cached.
+     */
+    public synchronized LookupResult<MealListResponse> getIngredientResults(String ingredient) {
+        Entry entry = lookup(key(INGREDIENT_PREFIX, ingredient));
+        if (entry == null) {
+            return null;
+        }
+        if (entry.meals == null) {
+            negativeHitCount++;
+            return LookupResult.notFound();
+        }
+
+        hitCount++;
+        return LookupResult.found(new MealListResponse(new ArrayList<>(entry.meals)));
+    }
+
+    /*
+     * Stores the meals an ingredient search returned (empty list = no results).
+     */
+    public synchronized void putIngredientResults(String ingredient, List<SimplifiedMeal> meals) {
+        if (meals == null || meals.isEmpty()) {
+            store(key(INGREDIENT_PREFIX, ingredient), new Entry(null, null, now() + missTtlNanos));
+        } else {
+            store(key(INGREDIENT_PREFIX, ingredient), new Entry(null, List.copyOf(meals), now() + hitTtlNanos));
+        }
+    }
+
+    // Name Searches
+
+    /*
+     * Returns the cached result of a name search: Found (recipes resolved through
+     * recipeCache), NotFound for a cached miss, or null when the query is not
+     * cached or a recipe is no longer in recipeCache.
+     */
+    public synchronized LookupResult<MealResponse> getNameResults(String name, RecipeCache recipeCache) {
+        String key = key(NAME_PREFIX, name);
+        Entry entry = lookup(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.mealIds == null) {
+            negativeHitCount++;
+            return LookupResult.notFound();
+        }
+
+        if (recipeCache == null) {
+            missCount++;
+            return null;
+        }
+        List<Recipe> recipes = new ArrayList<>(entry.mealIds.size());
+        for (String mealId : entry.mealIds) {
+            Recipe recipe = recipeCache.get(mealId);
+            if (recipe == null) {
+                // Incomplete: search again (and refill the recipe cache)
+                entries.remove(key);
+                missCount++;
+                return null;
+            }
+            recipes.add(recipe);
+        }
+
+        hitCount++;
+        return LookupResult.found(new MealResponse(recipes));
+    }
+
+    /*
+     * Stores the IDs of the recipes a name search returned (empty list = no results).
+     */
+    public synchronized void putNameResults(String name, List<Recipe> meals) {
+        if (meals == null || meals.isEmpty()) {
+            store(key(NAME_PREFIX, name), new Entry(null, null, now() + missTtlNanos));
+            return;
+        }
+
+        List<String> mealIds = new ArrayList<>(meals.size());
+        for (Recipe recipe : meals) {
+            mealIds.add(recipe.getId());
+        }
+        store(key(NAME_PREFIX, name), new Entry(List.copyOf(mealIds), null, now() + hitTtlNanos));
+    }
+
+    // Maintenance
+
+    /*
+     * Removes every entry (counters are kept).
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /*
+     * Lookups answered with results
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /*
+     * Lookups answered with a cached "no results"
+     */
+    public synchronized long getNegativeHitCount() {
+        return negativeHitCount;
+    }
+
+    /*
+     * Lookups that had to go upstream (not cached, expired or unresolvable)
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public Duration getHitTtl() {
+        return Duration.ofNanos(hitTtlNanos);
+    }
+
+    public Duration getMissTtl() {
+        return Duration.ofNanos(missTtlNanos);
+    }
+
+    // Helper Methods
+
+    private static String key(char prefix, String query) {
+        return prefix + normalize(query);
+    }
+
+    private long now() {
+        return ticker.getAsLong();
+    }
+
+    /*
+     * Returns the live entry for the key, dropping it if it has expired.
+     */
+    private Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (now() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            missCount++;
+            return null;
+        }
+        return entry;
+    }
+
+    private void store(String key, Entry entry) {
+        entries.put(key, entry);
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, Entry> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+            evictionCount++;
+        }
+    }
+
+    /*
+     * A cached search result. Exactly one of mealIds (name search) and meals
+     * (ingredient search) is set for a hit; both are null for a miss.
+     */
+    private static class Entry {
+        final List<String> mealIds;
+        final List<SimplifiedMeal> meals;
+        final long expiresAt;
+
+        Entry(List<String> mealIds, List<SimplifiedMeal> meals, long expiresAt) {
+            this.mealIds = mealIds;
+            this.meals = meals;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
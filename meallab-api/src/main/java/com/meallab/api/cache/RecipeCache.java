@@ -0,0 +1,302 @@
+package com.meallab.api.cache;
+
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/*
+ * Bounded in-memory cache of full recipes, keyed by meal ID.
+ *
+ * MealDbApiClient consults it before calling lookup.php and fills it with
+ * every Recipe it receives (lookup, search by name, random meal).
+ *
+ * Limits:
+ * - Maximum number of entries
+ * - Maximum estimated size in bytes (see estimateBytes)
+ * - Time-to-live after an entry is written
+ *
+ * Eviction order is least-recently-used, but a new recipe only replaces the
+ * LRU victims if it has been requested more often than they have
+ * (TinyLFU admission, tracked by a FrequencySketch). This way a scan of
+ * one-off lookups cannot push the popular recipes out of the cache.
+ *
+ * All methods are thread-safe.
+ */
+
+public class RecipeCache {
+
+    /*
+     * Default limits used by MealDbApiClient's built-in cache
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1_000;
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+
+    // Access-ordered: the first entry is always the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long currentBytes;
+
+    // Counters (guarded by this)
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expiredCount;
+    private long rejectedCount;
+
+    /*
+     * Creates a cache with the default limits.
+     */
+    public RecipeCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, DEFAULT_TTL);
+    }
+
+    public RecipeCache(int maxEntries, long maxBytes, Duration ttl) {
+        this(maxEntries, maxBytes, ttl, System::nanoTime);
+    }
+
+    /*
+     * Constructor with a custom clock, so tests can control expiry.
+     */
+    RecipeCache(int maxEntries, long maxBytes, Duration ttl, LongSupplier ticker) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    /*
+     * Returns the cached recipe for the meal ID, or null on a miss.
+     * Every call counts towards the ID's popularity.
+     */
+    public synchronized Recipe get(String mealId) {
+        sketch.increment(mealId);
+
+        Entry entry = entries.get(mealId);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (entry.isExpired(ticker.getAsLong())) {
+            remove(mealId, entry);
+            expiredCount++;
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return entry.recipe;
+    }
+
+    /*
+     * Offers a recipe to the cache.
+     *
+     * Recipes already in the cache are always refreshed. New recipes are stored
+     * if there is room, or if they are more popular than the entries they would evict.
+     *
+     * Returns true if the recipe is now cached.
+     */
+    public synchronized boolean put(Recipe recipe) {
+        if (recipe == null || recipe.getId() == null) {
+            return false;
+        }
+
+        String mealId = recipe.getId();
+        long bytes = estimateBytes(recipe);
+        long expiresAt = ticker.getAsLong() + ttlNanos;
+
+        if (bytes > maxBytes) {
+            rejectedCount++;
+            return false;
+        }
+
+        Entry previous = entries.remove(mealId);
+        if (previous != null) {
+            currentBytes -= previous.bytes;
+        }
+
+        if (!makeRoom(mealId, bytes, previous != null)) {
+            rejectedCount++;
+            return false;
+        }
+
+        entries.put(mealId, new Entry(recipe, bytes, expiresAt));
+        currentBytes += bytes;
+        return true;
+    }
+
+    /*
+     * Removes one recipe from the cache.
+     */
+    public synchronized void invalidate(String mealId) {
+        Entry entry = entries.get(mealId);
+        if (entry != null) {
+            remove(mealId, entry);
+        }
+    }
+
+    /*
+     * Removes every recipe (counters are kept).
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        return currentBytes;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, expiredCount,
+                rejectedCount, entries.size(), currentBytes);
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    // Helper Methods
+
+    /*
+     * Frees space for a candidate entry.
+     *
+     * First drops expired entries, then picks LRU victims until the candidate fits.
+     * The victims are evicted only if the candidate is more popular than each of them
+     * (or if the candidate was already cached and is just being refreshed).
+     */
+    private boolean makeRoom(String candidate, long bytes, boolean refreshing) {
+        if (fits(bytes, 0, 0)) {
+            return true;
+        }
+
+        purgeExpired();
+        if (fits(bytes, 0, 0)) {
+            return true;
+        }
+
+        // Collect LRU victims until the candidate would fit
+        List<String> victims = new ArrayList<>();
+        long freedBytes = 0;
+        int candidateFrequency = sketch.frequency(candidate);
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (fits(bytes, victims.size(), freedBytes)) {
+                break;
+            }
+            if (!refreshing && sketch.frequency(e.getKey()) >= candidateFrequency) {
+                return false;
+            }
+            victims.add(e.getKey());
+            freedBytes += e.getValue().bytes;
+        }
+
+        for (String victim : victims) {
+            remove(victim, entries.get(victim));
+            evictionCount++;
+        }
+        return true;
+    }
+
+    private boolean fits(long bytes, int freedEntries, long freedBytes) {
+        return entries.size() - freedEntries < maxEntries
+                && currentBytes - freedBytes + bytes <= maxBytes;
+    }
+
+    private void purgeExpired() {
+        long now = ticker.getAsLong();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.isExpired(now)) {
+                it.remove();
+                currentBytes -= entry.bytes;
+                expiredCount++;
+            }
+        }
+    }
+
+    private void remove(String mealId, Entry entry) {
+        entries.remove(mealId);
+        currentBytes -= entry.bytes;
+    }
+
+    /*
+     * Rough estimate of the heap retained by a recipe.
+     *
+     * Counts a fixed overhead per object plus one byte per character
+     * (Latin-1 compact strings). It does not need to be exact,
+     * only consistent, to keep the cache within its byte budget.
+     */
+    public static long estimateBytes(Recipe recipe) {
+        long bytes = 96;  // Recipe object header and fields
+        bytes += stringBytes(recipe.getId());
+        bytes += stringBytes(recipe.getName());
+        bytes += stringBytes(recipe.getCategory());
+        bytes += stringBytes(recipe.getArea());
+        bytes += stringBytes(recipe.getInstructions());
+        bytes += stringBytes(recipe.getThumbnailUrl());
+        bytes += stringBytes(recipe.getTags());
+        bytes += stringBytes(recipe.getYoutubeUrl());
+
+        List<Ingredient> ingredients = recipe.getIngredients();
+        bytes += 40 + 8L * ingredients.size();  // List and its backing array
+        for (Ingredient ingredient : ingredients) {
+            bytes += 24 + stringBytes(ingredient.getName()) + stringBytes(ingredient.getMeasure());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length();
+    }
+
+    /*
+     * A cached recipe with its size and expiry time.
+     */
+    private static class Entry {
+        final Recipe recipe;
+        final long bytes;
+        final long expiresAt;
+
+        Entry(Recipe recipe, long bytes, long expiresAt) {
+            this.recipe = recipe;
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
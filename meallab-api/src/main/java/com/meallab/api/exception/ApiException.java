@@ -16,8 +16,22 @@ package com.meallab.api.exception;
 
 public class ApiException extends Exception {
 
+    /*
+     * HTTP status code of the failed response, or 0 when the error
+     * did not come from an HTTP response (network, parsing, ...)
+     */
+    private final int statusCode;
+
     public ApiException(String message) {
+        this(message, 0);
+    }
+
+    /*
+     * Constructs an ApiException for a response with a non-200 status code.
+     */
+    public ApiException(String message, int statusCode) {
         super(message);
+        this.statusCode = statusCode;
     }
 
     /*
@@ -28,5 +42,13 @@ public class ApiException extends Exception {
      */
     public ApiException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = 0;
+    }
+
+    /*
+     * Returns the HTTP status code that caused this error, or 0 if there was none.
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
 }
@@ -0,0 +1,19 @@
+package com.meallab.api.exception;
+
+/*
+ * Exception thrown instead of sending a request while the circuit breaker
+ * for its endpoint family is open.
+ *
+ * This occurs when:
+ * - The API failed repeatedly (network errors, 429, 5xx) shortly before
+ * - No last known good response is available to serve instead
+ *
+ * Failing fast keeps the application responsive while TheMealDB is
+ * degraded, instead of waiting out a timeout for every request.
+ */
+
+public class CircuitOpenException extends ApiException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.meallab.api.image;
+
+import java.io.IOException;
+
+/*
+ * Turns encoded image bytes (JPEG, PNG) into an image ThumbnailService can
+ * keep in memory and hand to the UI.
+ *
+ * The library ships ImageIoDecoder (BufferedImage). A JavaFX application
+ * plugs in a decoder producing javafx.scene.image.Image, so the API module
+ * does not depend on JavaFX.
+ *
+ * Decoders are called on ThumbnailService's decode threads, never on the
+ * thread that asked for the image, and must be thread-safe.
+ */
+
+public interface ImageDecoder<I> {
+
+    /*
+     * Decodes the image scaled to fit within width x height (aspect ratio
+     * kept, never enlarged). Throws IOException for unreadable data.
+     */
+    I decode(byte[] data, int width, int height) throws IOException;
+
+    /*
+     * Approximate memory held by a decoded image, in bytes (for the memory budget).
+     */
+    long sizeOf(I image);
+}
@@ -0,0 +1,504 @@
+package com.meallab.api.image;
+
+import com.meallab.api.cache.CachedResponse;
+import com.meallab.api.cache.DiskResponseCache;
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.limit.AdaptiveConcurrencyLimit;
+import com.meallab.api.limit.RequestLimiter;
+import com.meallab.api.service.MealDbTransport;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Loads meal thumbnails (Recipe/SimplifiedMeal.getThumbnailUrl()) for
+ * display at a given size, so a result grid neither downloads nor decodes
+ * the same image twice.
+ *
+ * - Memory tier: decoded images, least-recently-used first out once the
+ *   byte budget is exceeded
+ * - Disk tier (optional, see setDiskCache): the encoded image files, kept
+ *   across restarts in a DiskResponseCache. Stored images are used however
+ *   old they are (a meal's image does not change under its URL); they only
+ *   leave the disk tier through its size cap.
+ * - Downloads go through the transport with at most maxConcurrentDownloads
+ *   in flight; the rest wait in a FIFO queue (a RequestLimiter with a fixed
+ *   limit). Concurrent loads of the same file share one download, whatever
+ *   sizes they decode it to.
+ * - For small targets TheMealDB's preview variant (image URL + "/preview",
+ *   about 250x250) is fetched instead of the full-size JPEG, falling back
+ *   to the full image when the preview is not available
+ * - Disk reads and decoding run on decode threads at the target size,
+ *   never on the caller's (UI) thread
+ *
+ * The decoder decides the image type: ImageIoDecoder for BufferedImage,
+ * or an application-supplied one (e.g. JavaFX Image).
+ *
+ * Use a transport of its own for images, asking for image types and without
+ * a response cache (the disk tier already keeps the files).
+ *
+ * Example usage:
+ * <pre>
+ * HttpClientTransport imageTransport = new HttpClientTransport();
+ * imageTransport.setAccept(ThumbnailService.IMAGE_ACCEPT);
+ * imageTransport.setCompression(false);  // JPEGs are already compressed
+ * ThumbnailService&lt;BufferedImage&gt; thumbnails = ThumbnailService.withImageIo(imageTransport);
+ * thumbnails.setDiskCache(new DiskResponseCache(Path.of("cache/images")));
+ * thumbnails.prefetch(urlsOfNextPage, 120, 120);
+ * thumbnails.load(meal.getThumbnailUrl(), 120, 120).thenAccept(image -> ...);
+ * </pre>
+ */
+
+public class ThumbnailService<I> implements AutoCloseable {
+
+    /*
+     * Default limits
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 4;
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    /*
+     * TheMealDB's small variant of a meal image, and its size in pixels
+     */
+    public static final String DEFAULT_PREVIEW_SUFFIX = "/preview";
+    public static final int PREVIEW_SIZE = 250;
+
+    /*
+     * Accept header for image downloads (see HttpClientTransport.setAccept)
+     */
+    public static final String IMAGE_ACCEPT = "image/jpeg, image/png, image/*;q=0.8";
+
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.of(Map.of(), (name, value) -> true);
+
+    private final MealDbTransport transport;
+    private final ImageDecoder<I> decoder;
+    private final RequestLimiter downloadLimiter;
+    private final long memoryBudgetBytes;
+    private final Executor decodeExecutor;
+    private final ExecutorService ownedExecutor;
+
+    private volatile DiskResponseCache diskCache;
+    private volatile String previewSuffix = DEFAULT_PREVIEW_SUFFIX;
+    private volatile boolean closed;
+
+    // Access-ordered: the first entry is always the least recently used (guarded by memory)
+    private final LinkedHashMap<String, MemoryEntry<I>> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private long evictionCount;
+
+    // Loads in progress, by memory key (guarded by inFlight)
+    private final Map<String, CompletableFuture<I>> inFlight = new HashMap<>();
+
+    // Downloads in progress, by fetched URL (guarded by downloads)
+    private final Map<String, CompletableFuture<Fetched>> downloads = new HashMap<>();
+
+    // Statistics
+    private final LongAdder memoryHitCount = new LongAdder();
+    private final LongAdder diskHitCount = new LongAdder();
+    private final LongAdder downloadCount = new LongAdder();
+    private final LongAdder previewFallbackCount = new LongAdder();
+
+    /*
+     * Service decoding with ImageIO into BufferedImages, with the default limits.
+     */
+    public static ThumbnailService<BufferedImage> withImageIo(MealDbTransport transport) {
+        return new ThumbnailService<>(transport, new ImageIoDecoder());
+    }
+
+    /*
+     * Constructor with the default limits and its own decode threads.
+     */
+    public ThumbnailService(MealDbTransport transport, ImageDecoder<I> decoder) {
+        this(transport, decoder, DEFAULT_MAX_CONCURRENT_DOWNLOADS, DEFAULT_MEMORY_BUDGET_BYTES, null);
+    }
+
+    /*
+     * Constructor
+     *
+     * @param maxConcurrentDownloads  downloads in flight at once
+     * @param memoryBudgetBytes       memory for decoded images (see ImageDecoder.sizeOf)
+     * @param decodeExecutor          runs disk reads and decoding (null = own daemon threads, stopped by close())
+     */
+    public ThumbnailService(MealDbTransport transport, ImageDecoder<I> decoder,
+                            int maxConcurrentDownloads, long memoryBudgetBytes, Executor decodeExecutor) {
+        if (transport == null || decoder == null) {
+            throw new IllegalArgumentException("Transport and decoder cannot be null");
+        }
+        if (maxConcurrentDownloads < 1 || memoryBudgetBytes < 1) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.transport = transport;
+        this.decoder = decoder;
+        this.downloadLimiter = new RequestLimiter(
+                new AdaptiveConcurrencyLimit(maxConcurrentDownloads, maxConcurrentDownloads, maxConcurrentDownloads),
+                null, RequestLimiter.DEFAULT_QUEUE_TIMEOUT);
+        this.memoryBudgetBytes = memoryBudgetBytes;
+
+        if (decodeExecutor != null) {
+            this.decodeExecutor = decodeExecutor;
+            this.ownedExecutor = null;
+        } else {
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            AtomicLong counter = new AtomicLong();
+            this.ownedExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "meallab-thumbnail-decode-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.decodeExecutor = ownedExecutor;
+        }
+    }
+
+    /*
+     * Returns the image scaled to fit within width x height. The future is
+     * already complete when the image was in memory; otherwise it completes
+     * on a decode thread, or with an ApiException if the image could not be
+     * downloaded or decoded.
+     */
+    public CompletableFuture<I> load(String imageUrl, int width, int height) {
+        if (closed) {
+            throw new IllegalStateException("Thumbnail service is closed");
+        }
+        if (imageUrl == null || imageUrl.isBlank()) {
+            throw new IllegalArgumentException("Image URL cannot be empty");
+        }
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Target size must be positive");
+        }
+
+        String key = memoryKey(imageUrl, width, height);
+        I image = getIfPresent(key);
+        if (image != null) {
+            memoryHitCount.increment();
+            return CompletableFuture.completedFuture(image);
+        }
+
+        CompletableFuture<I> result;
+        synchronized (inFlight) {
+            CompletableFuture<I> pending = inFlight.get(key);
+            if (pending != null) {
+                return pending;
+            }
+            result = new CompletableFuture<>();
+            inFlight.put(key, result);
+        }
+
+        boolean preview = usePreview(width, height);
+        CompletableFuture.supplyAsync(() -> readDisk(imageUrl, preview), decodeExecutor)
+                .thenCompose(stored -> stored != null ? CompletableFuture.completedFuture(stored) : download(imageUrl, preview))
+                .thenApplyAsync(fetched -> decode(fetched, width, height), decodeExecutor)
+                .whenComplete((decoded, error) -> {
+                    if (decoded != null) {
+                        remember(key, decoded);
+                    }
+                    synchronized (inFlight) {
+                        inFlight.remove(key);
+                    }
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(decoded);
+                    }
+                });
+        return result;
+    }
+
+    /*
+     * Returns the image if it is already decoded in memory at this size, or null.
+     * Never starts a download.
+     */
+    public I getIfPresent(String imageUrl, int width, int height) {
+        return getIfPresent(memoryKey(imageUrl, width, height));
+    }
+
+    /*
+     * Starts loading images that are about to be shown (e.g. the next page of
+     * results), so they are in memory by the time they scroll into view.
+     * Failures are ignored; load() reports them when the image is needed.
+     */
+    public void prefetch(Collection<String> imageUrls, int width, int height) {
+        for (String imageUrl : imageUrls) {
+            if (imageUrl != null && !imageUrl.isBlank()) {
+                load(imageUrl, width, height);
+            }
+        }
+    }
+
+    /*
+     * Drops every decoded image (the disk tier is kept).
+     */
+    public void invalidateMemory() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+    }
+
+    /*
+     * Stops the decode threads this service created and drops the decoded
+     * images. The disk cache is not closed (it may be shared).
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+        invalidateMemory();
+    }
+
+    // Getters and Setters
+
+    public DiskResponseCache getDiskCache() {
+        return diskCache;
+    }
+
+    /*
+     * Keeps downloaded image files on disk (see DiskResponseCache).
+     * Pass null to disable (the default).
+     */
+    public void setDiskCache(DiskResponseCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    public String getPreviewSuffix() {
+        return previewSuffix;
+    }
+
+    /*
+     * Suffix appended to an image URL for its small variant.
+     * Pass null to always fetch the full-size image.
+     */
+    public void setPreviewSuffix(String previewSuffix) {
+        this.previewSuffix = previewSuffix;
+    }
+
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    public int getMaxConcurrentDownloads() {
+        return downloadLimiter.getConcurrencyLimit().getMaxLimit();
+    }
+
+    // Statistics
+
+    /*
+     * Number of decoded images in memory
+     */
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    public long getEvictionCount() {
+        synchronized (memory) {
+            return evictionCount;
+        }
+    }
+
+    /*
+     * Loads answered with an already decoded image
+     */
+    public long getMemoryHitCount() {
+        return memoryHitCount.sum();
+    }
+
+    /*
+     * Loads answered from the disk tier (decoded, not downloaded)
+     */
+    public long getDiskHitCount() {
+        return diskHitCount.sum();
+    }
+
+    /*
+     * Images downloaded successfully
+     */
+    public long getDownloadCount() {
+        return downloadCount.sum();
+    }
+
+    /*
+     * Preview downloads that failed and were retried with the full-size image
+     */
+    public long getPreviewFallbackCount() {
+        return previewFallbackCount.sum();
+    }
+
+    // Helper Methods
+
+    private static String memoryKey(String imageUrl, int width, int height) {
+        return imageUrl + '@' + width + 'x' + height;
+    }
+
+    private boolean usePreview(int width, int height) {
+        return previewSuffix != null && width <= PREVIEW_SIZE && height <= PREVIEW_SIZE;
+    }
+
+    private I getIfPresent(String key) {
+        synchronized (memory) {
+            MemoryEntry<I> entry = memory.get(key);
+            return entry != null ? entry.image : null;
+        }
+    }
+
+    private void remember(String key, I image) {
+        long bytes = Math.max(1, decoder.sizeOf(image));
+        if (bytes > memoryBudgetBytes) {
+            return;  // Would evict everything else
+        }
+
+        synchronized (memory) {
+            MemoryEntry<I> previous = memory.put(key, new MemoryEntry<>(image, bytes));
+            memoryBytes += bytes - (previous != null ? previous.bytes : 0);
+
+            Iterator<MemoryEntry<I>> eldest = memory.values().iterator();
+            while (memoryBytes > memoryBudgetBytes) {
+                memoryBytes -= eldest.next().bytes;
+                eldest.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    /*
+     * Looks for the image on disk: the preview (if wanted), then the full image.
+     */
+    private Fetched readDisk(String imageUrl, boolean preview) {
+        DiskResponseCache cache = diskCache;
+        if (cache == null) {
+            return null;
+        }
+
+        String previewUrl = preview ? imageUrl + previewSuffix : null;
+        for (String url : new String[] {previewUrl, imageUrl}) {
+            if (url == null) {
+                continue;
+            }
+            CachedResponse stored = cache.get(url);
+            if (stored != null) {
+                diskHitCount.increment();
+                return new Fetched(url, stored.getBody(), true);
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Downloads the preview (if wanted), falling back to the full image.
+     */
+    private CompletableFuture<Fetched> download(String imageUrl, boolean preview) {
+        if (!preview) {
+            return fetch(imageUrl);
+        }
+
+        return fetch(imageUrl + previewSuffix)
+                .handle((fetched, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(fetched);
+                    }
+                    previewFallbackCount.increment();
+                    return fetch(imageUrl);
+                })
+                .thenCompose(future -> future);
+    }
+
+    /*
+     * Downloads one file, or joins its download if one is already in flight.
+     * The file is stored on disk (on a decode thread) before the download
+     * counts as done, so a later load finds it there.
+     */
+    private CompletableFuture<Fetched> fetch(String url) {
+        CompletableFuture<Fetched> result;
+        synchronized (downloads) {
+            CompletableFuture<Fetched> pending = downloads.get(url);
+            if (pending != null) {
+                return pending;
+            }
+            result = new CompletableFuture<>();
+            downloads.put(url, result);
+        }
+
+        downloadLimiter.execute(() -> transport.get(url))
+                .thenApplyAsync(body -> {
+                    downloadCount.increment();
+                    DiskResponseCache cache = diskCache;
+                    if (cache != null) {
+                        cache.put(url, NO_HEADERS, body);
+                    }
+                    return new Fetched(url, body, false);
+                }, decodeExecutor)
+                .whenComplete((fetched, error) -> {
+                    synchronized (downloads) {
+                        downloads.remove(url);
+                    }
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(fetched);
+                    }
+                });
+        return result;
+    }
+
+    /*
+     * Decodes an image at the target size (runs on a decode thread).
+     */
+    private I decode(Fetched fetched, int width, int height) {
+        DiskResponseCache cache = diskCache;
+        try {
+            return decoder.decode(fetched.body, width, height);
+        } catch (IOException | RuntimeException e) {
+            if (fetched.fromDisk && cache != null) {
+                cache.remove(fetched.url);  // Corrupt on disk: download it next time
+            }
+            throw new CompletionException(new ApiException(
+                    "Could not decode image " + fetched.url + ": " + e.getMessage(), e));
+        }
+    }
+
+    /*
+     * Encoded image bytes and where they came from.
+     */
+    private static class Fetched {
+        final String url;
+        final byte[] body;
+        final boolean fromDisk;
+
+        Fetched(String url, byte[] body, boolean fromDisk) {
+            this.url = url;
+            this.body = body;
+            this.fromDisk = fromDisk;
+        }
+    }
+
+    private static class MemoryEntry<I> {
+        final I image;
+        final long bytes;
+
+        MemoryEntry(I image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+}
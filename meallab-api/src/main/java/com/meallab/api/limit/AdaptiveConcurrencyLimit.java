@@ -0,0 +1,138 @@
+package com.meallab.api.limit;
+
+/*
+ * Concurrency limit that adapts to the upstream, in the style of TCP
+ * congestion control (AIMD with a latency gradient).
+ *
+ * - Additive increase: every fast response grows the limit by 1/limit,
+ *   i.e. by about one request per round trip, while the limit is in use
+ * - Multiplicative decrease on latency: when a response is much slower
+ *   than the baseline (the lowest recent latency), queues are building up
+ *   upstream, so the limit shrinks by 10%
+ * - Multiplicative decrease on drops: 429s, 5xx and network errors halve
+ *   the limit
+ *
+ * Decreases happen at most once per round trip (limit samples), so a burst
+ * of slow or failed responses caused by one overload is not punished many
+ * times over. The baseline slowly drifts up towards current latencies, so
+ * one unusually fast response does not hold the limit down forever.
+ *
+ * Not thread-safe on its own; RequestLimiter calls it under its lock.
+ */
+
+public class AdaptiveConcurrencyLimit {
+
+    /*
+     * Responses slower than this multiple of the baseline count as congestion
+     */
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private static final double LATENCY_BACKOFF = 0.9;
+    private static final double DROP_BACKOFF = 0.5;
+
+    /*
+     * Fraction of the gap to the current latency the baseline moves per sample
+     */
+    private static final double BASELINE_DRIFT = 0.001;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private double baselineNanos;
+
+    /*
+     * Samples seen since the last decrease
+     */
+    private int samplesSinceDecrease = Integer.MAX_VALUE;
+
+    /*
+     * Starts at 8 concurrent requests, adapting between 1 and 64.
+     */
+    public AdaptiveConcurrencyLimit() {
+        this(8, 1, 64);
+    }
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Initial limit must be between min and max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /*
+     * Current number of requests allowed in flight.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /*
+     * Latency the limit currently treats as "uncongested" (0 before the first sample).
+     */
+    public long getBaselineNanos() {
+        return (long) baselineNanos;
+    }
+
+    /*
+     * Feeds back a completed request.
+     *
+     * inFlight is the number of requests that were running when it was sent;
+     * the limit only grows while it is actually being used.
+     */
+    public void onSuccess(long latencyNanos, int inFlight) {
+        if (baselineNanos == 0 || latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+        }
+
+        if (latencyNanos > baselineNanos * LATENCY_TOLERANCE) {
+            decrease(LATENCY_BACKOFF);
+        } else {
+            countSample();
+            if (inFlight * 2 >= limit) {
+                setLimit(limit + 1.0 / limit);
+            }
+        }
+    }
+
+    /*
+     * Feeds back a request rejected or failed because of load (429, 5xx, timeout).
+     */
+    public void onDropped() {
+        decrease(DROP_BACKOFF);
+    }
+
+    private void decrease(double factor) {
+        if (samplesSinceDecrease >= limit) {
+            setLimit(limit * factor);
+            samplesSinceDecrease = 0;
+        } else {
+            countSample();
+        }
+    }
+
+    private void countSample() {
+        if (samplesSinceDecrease < Integer.MAX_VALUE) {
+            samplesSinceDecrease++;
+        }
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
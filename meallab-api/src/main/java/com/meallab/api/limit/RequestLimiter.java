@@ -0,0 +1,288 @@
+package com.meallab.api.limit;
+
+import com.meallab.api.exception.ApiException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Client-side limiter for outbound requests.
+ *
+ * - The number of requests in flight is capped by an AdaptiveConcurrencyLimit,
+ *   which grows while the upstream answers quickly and shrinks when latency
+ *   rises or it answers with 429/5xx/network errors
+ * - An optional TokenBucket additionally caps the request rate
+ * - Requests over the limit wait in a FIFO queue (first come, first served)
+ *   instead of failing; a request that waits longer than the queue timeout
+ *   fails with an ApiException
+ *
+ * Install it with MealDbApiClient.setRequestLimiter(); bulk jobs can then use
+ * a high bulk concurrency and let the limiter find what the upstream can take.
+ *
+ * Usage example:
+ * <pre>
+ * client.setRequestLimiter(new RequestLimiter(
+ *         new AdaptiveConcurrencyLimit(4, 1, 32),
+ *         new TokenBucket(20, 5),           // at most 20 requests/second
+ *         Duration.ofSeconds(10)));
+ * </pre>
+ */
+
+public class RequestLimiter {
+
+    public static final Duration DEFAULT_QUEUE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final TokenBucket rateLimit;
+    private final long queueTimeoutNanos;
+
+    // Guarded by this
+    private final ArrayDeque<Waiter<?>> queue = new ArrayDeque<>();
+    private int inFlight;
+    private boolean dispatchScheduled;
+
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    /*
+     * Adaptive limit with default bounds, no rate cap, 30 second queue timeout.
+     */
+    public RequestLimiter() {
+        this(new AdaptiveConcurrencyLimit(), null, DEFAULT_QUEUE_TIMEOUT);
+    }
+
+    /*
+     * rateLimit may be null for no rate cap.
+     */
+    public RequestLimiter(AdaptiveConcurrencyLimit limit, TokenBucket rateLimit, Duration queueTimeout) {
+        if (limit == null) {
+            throw new IllegalArgumentException("Concurrency limit cannot be null");
+        }
+        if (queueTimeout == null || queueTimeout.isNegative() || queueTimeout.isZero()) {
+            throw new IllegalArgumentException("Queue timeout must be positive");
+        }
+        this.limit = limit;
+        this.rateLimit = rateLimit;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+    }
+
+    /*
+     * Runs the request as soon as the limits allow.
+     *
+     * The returned future completes with the request's outcome, or with an
+     * ApiException if the request could not start within the queue timeout.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request cannot be null");
+        }
+
+        Waiter<T> waiter = new Waiter<>(request);
+        synchronized (this) {
+            queue.addLast(waiter);
+        }
+        dispatch();
+
+        synchronized (this) {
+            if (!waiter.started) {
+                CompletableFuture.delayedExecutor(queueTimeoutNanos, TimeUnit.NANOSECONDS)
+                        .execute(() -> expire(waiter));
+            }
+        }
+        return waiter.result;
+    }
+
+    // Statistics
+
+    public synchronized int getLimit() {
+        return limit.getLimit();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueueLength() {
+        return queue.size();
+    }
+
+    /*
+     * Requests that failed because they waited longer than the queue timeout.
+     */
+    public long getTimedOutCount() {
+        return timedOutCount.sum();
+    }
+
+    /*
+     * Requests that failed with an overload signal (429, 5xx, network error).
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return limit;
+    }
+
+    public TokenBucket getRateLimit() {
+        return rateLimit;
+    }
+
+    public Duration getQueueTimeout() {
+        return Duration.ofNanos(queueTimeoutNanos);
+    }
+
+    // Helper Methods
+
+    /*
+     * Starts queued requests, oldest first, while both limits allow it.
+     */
+    private void dispatch() {
+        List<Waiter<?>> ready = null;
+        synchronized (this) {
+            while (!queue.isEmpty() && inFlight < limit.getLimit()) {
+                Waiter<?> next = queue.peekFirst();
+                if (next.result.isDone()) {
+                    // Cancelled by the caller while waiting
+                    queue.pollFirst();
+                    continue;
+                }
+
+                if (rateLimit != null) {
+                    long waitNanos = rateLimit.tryAcquire();
+                    if (waitNanos > 0) {
+                        scheduleDispatch(waitNanos);
+                        break;
+                    }
+                }
+
+                queue.pollFirst();
+                inFlight++;
+                next.started = true;
+                next.inFlightAtStart = inFlight;
+                if (ready == null) {
+                    ready = new ArrayList<>();
+                }
+                ready.add(next);
+            }
+        }
+
+        // Start requests outside the lock
+        if (ready != null) {
+            for (Waiter<?> waiter : ready) {
+                start(waiter);
+            }
+        }
+    }
+
+    /*
+     * Retries dispatching once the token bucket has a token again.
+     */
+    private void scheduleDispatch(long delayNanos) {
+        if (dispatchScheduled) {
+            return;
+        }
+        dispatchScheduled = true;
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            synchronized (this) {
+                dispatchScheduled = false;
+            }
+            dispatch();
+        });
+    }
+
+    private <T> void start(Waiter<T> waiter) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = waiter.request.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((value, error) -> {
+            release(System.nanoTime() - startNanos, waiter.inFlightAtStart, error);
+            if (error != null) {
+                waiter.result.completeExceptionally(error);
+            } else {
+                waiter.result.complete(value);
+            }
+        });
+    }
+
+    /*
+     * Frees the slot of a finished request and feeds its outcome to the limit.
+     */
+    private void release(long latencyNanos, int inFlightAtStart, Throwable error) {
+        boolean overload = error != null && isOverload(error);
+        if (overload) {
+            droppedCount.increment();
+        }
+
+        synchronized (this) {
+            inFlight--;
+            if (overload) {
+                limit.onDropped();
+            } else {
+                limit.onSuccess(latencyNanos, inFlightAtStart);
+            }
+        }
+        dispatch();
+    }
+
+    /*
+     * Fails a request that is still queued when its timeout runs out.
+     */
+    private void expire(Waiter<?> waiter) {
+        synchronized (this) {
+            if (waiter.started || !queue.remove(waiter)) {
+                return;
+            }
+        }
+        timedOutCount.increment();
+        waiter.result.completeExceptionally(new ApiException(
+                "Request timed out after " + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos) +
+                        " ms waiting for a free request slot"));
+    }
+
+    /*
+     * Whether a failure means the upstream is overloaded: too many requests,
+     * server errors, or no response at all (network errors, timeouts).
+     */
+    private static boolean isOverload(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (!(cause instanceof ApiException)) {
+            return false;
+        }
+        int statusCode = ((ApiException) cause).getStatusCode();
+        return statusCode == 0 || statusCode == 429 || statusCode >= 500;
+    }
+
+    /*
+     * A request waiting for (or holding) a slot.
+     */
+    private static class Waiter<T> {
+        final Supplier<CompletableFuture<T>> request;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        // Guarded by the limiter
+        boolean started;
+        int inFlightAtStart;
+
+        Waiter(Supplier<CompletableFuture<T>> request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.meallab.api.limit;
+
+import java.util.function.LongSupplier;
+
+/*
+ * Token bucket rate limiter.
+ *
+ * Tokens are added continuously at the configured rate, up to the burst
+ * size; every request takes one. A full bucket lets a short burst through
+ * at once, after which requests are spaced out to the average rate.
+ */
+
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final int burst;
+    private final LongSupplier ticker;
+
+    private double tokens;
+    private long lastRefill;
+
+    /*
+     * Allows permitsPerSecond requests on average, and up to burst at once.
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier ticker) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1");
+        }
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.burst = burst;
+        this.ticker = ticker;
+        this.tokens = burst;
+        this.lastRefill = ticker.getAsLong();
+    }
+
+    /*
+     * Takes a token if one is available and returns 0. Otherwise takes
+     * nothing and returns how many nanoseconds until the next token.
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1.0 - tokens) / tokensPerNano));
+    }
+
+    /*
+     * Number of whole tokens currently in the bucket.
+     */
+    public synchronized int getAvailableTokens() {
+        refill();
+        return (int) tokens;
+    }
+
+    public double getPermitsPerSecond() {
+        return tokensPerNano * 1_000_000_000.0;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    private void refill() {
+        long now = ticker.getAsLong();
+        if (now > lastRefill) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.meallab.api.metrics;
+
+/*
+ * The TheMealDB endpoints MealDbApiClient calls, used to label metrics.
+ */
+
+public enum ApiEndpoint {
+    FILTER_BY_INGREDIENT("filter.php?i", EndpointFamily.FILTER),
+    SEARCH_BY_NAME("search.php?s", EndpointFamily.SEARCH),
+    SEARCH_BY_FIRST_LETTER("search.php?f", EndpointFamily.SEARCH),
+    LOOKUP_BY_ID("lookup.php", EndpointFamily.LOOKUP),
+    RANDOM_MEAL("random.php", EndpointFamily.RANDOM),
+    LIST_INGREDIENTS("list.php?i", EndpointFamily.LOOKUP);
+
+    private final String path;
+    private final EndpointFamily family;
+
+    ApiEndpoint(String path, EndpointFamily family) {
+        this.path = path;
+        this.family = family;
+    }
+
+    /*
+     * Short form of the request path, e.g. "lookup.php"
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /*
+     * Family whose circuit breaker this endpoint shares (the ingredient
+     * list is a static lookup, so it goes with LOOKUP)
+     */
+    public EndpointFamily getFamily() {
+        return family;
+    }
+}
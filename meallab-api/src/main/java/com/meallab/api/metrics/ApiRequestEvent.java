@@ -0,0 +1,46 @@
+package com.meallab.api.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Java Flight Recorder event for one HTTP request to TheMealDB.
+ *
+ * The duration covers sending the request until the whole body has
+ * arrived (or the request failed). The event is committed on the HTTP
+ * client's thread, so the thread that issued the call is recorded
+ * separately in callerThread, e.g. to match it with a stalled UI thread.
+ */
+
+@Name("com.meallab.api.ApiRequest")
+@Label("MealDB API Request")
+@Category({"MealLab", "API"})
+@Description("HTTP request sent by MealDbApiClient")
+@StackTrace(false)
+public class ApiRequestEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Status Code")
+    @Description("HTTP status code, or 0 when no response was received")
+    public int statusCode;
+
+    @Label("Bytes Received")
+    @DataAmount
+    public long bytes;
+
+    @Label("Error")
+    public String error;
+
+    @Label("Caller Thread")
+    public Thread callerThread;
+}
@@ -0,0 +1,175 @@
+package com.meallab.api.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * Call metrics for MealDbApiClient, per endpoint:
+ * - request counts and error counts by HTTP status
+ * - bytes received
+ * - retries, and hedged requests sent and won
+ * - latency histograms (p50/p99/p999), split into network time and
+ *   JSON deserialization time
+ *
+ * The record methods are lock-free and allocation-free (LongAdder counters,
+ * fixed-size histogram arrays), so metrics can stay enabled in production.
+ * Read them with snapshot(), or over JMX after registerMBean().
+ *
+ * Usage example:
+ * <pre>
+ * ClientMetrics metrics = client.getMetrics();
+ * metrics.registerMBean("main");
+ * ...
+ * EndpointSnapshot lookups = metrics.snapshot().getEndpoint(ApiEndpoint.LOOKUP_BY_ID);
+ * System.out.println(lookups.getNetworkLatency().getP99Micros());
+ * </pre>
+ */
+
+public class ClientMetrics implements ClientMetricsMXBean {
+
+    /*
+     * JMX domain of the registered MBeans
+     */
+    public static final String JMX_DOMAIN = "com.meallab.api";
+
+    private static final ApiEndpoint[] ENDPOINTS = ApiEndpoint.values();
+
+    /*
+     * Indexed by ApiEndpoint.ordinal()
+     */
+    private final EndpointMetrics[] endpoints = new EndpointMetrics[ENDPOINTS.length];
+
+    private ObjectName registeredName;
+
+    public ClientMetrics() {
+        for (ApiEndpoint endpoint : ENDPOINTS) {
+            endpoints[endpoint.ordinal()] = new EndpointMetrics(endpoint);
+        }
+    }
+
+    // Recording
+
+    /*
+     * Records a successful HTTP response.
+     */
+    public void recordResponse(ApiEndpoint endpoint, long networkNanos, long bytes) {
+        endpoints[endpoint.ordinal()].recordResponse(networkNanos, bytes);
+    }
+
+    /*
+     * Records a failed HTTP request; statusCode is 0 when there was no response.
+     */
+    public void recordFailure(ApiEndpoint endpoint, long networkNanos, int statusCode) {
+        endpoints[endpoint.ordinal()].recordFailure(networkNanos, statusCode);
+    }
+
+    /*
+     * Records the time spent parsing a response body, and whether it parsed.
+     */
+    public void recordDeserialization(ApiEndpoint endpoint, long nanos, boolean success) {
+        endpoints[endpoint.ordinal()].recordDeserialization(nanos, success);
+    }
+
+    public void recordRetry(ApiEndpoint endpoint) {
+        endpoints[endpoint.ordinal()].recordRetry();
+    }
+
+    /*
+     * Records a hedged (duplicate) request being sent.
+     */
+    public void recordHedge(ApiEndpoint endpoint) {
+        endpoints[endpoint.ordinal()].recordHedge();
+    }
+
+    /*
+     * Records a hedged request answering before the original one.
+     */
+    public void recordHedgeWon(ApiEndpoint endpoint) {
+        endpoints[endpoint.ordinal()].recordHedgeWon();
+    }
+
+    // Reading
+
+    public MetricsSnapshot snapshot() {
+        Map<ApiEndpoint, EndpointSnapshot> snapshots = new EnumMap<>(ApiEndpoint.class);
+        for (ApiEndpoint endpoint : ENDPOINTS) {
+            snapshots.put(endpoint, endpoints[endpoint.ordinal()].snapshot());
+        }
+        return new MetricsSnapshot(snapshots);
+    }
+
+    public EndpointSnapshot snapshot(ApiEndpoint endpoint) {
+        return endpoints[endpoint.ordinal()].snapshot();
+    }
+
+    @Override
+    public MetricsSnapshot getSnapshot() {
+        return snapshot();
+    }
+
+    @Override
+    public long getRequestCount() {
+        return snapshot().getRequestCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return snapshot().getErrorCount();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return snapshot().getBytesReceived();
+    }
+
+    @Override
+    public void reset() {
+        for (EndpointMetrics metrics : endpoints) {
+            metrics.reset();
+        }
+    }
+
+    // JMX
+
+    /*
+     * Registers these metrics with the platform MBean server as
+     * com.meallab.api:type=ClientMetrics,name=<name>.
+     *
+     * Each name can be registered once; use different names for several clients.
+     */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("MBean name cannot be null or empty");
+        }
+        if (registeredName != null) {
+            throw new IllegalStateException("Metrics are already registered as " + registeredName);
+        }
+
+        ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=ClientMetrics,name=" + name.trim());
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        registeredName = objectName;
+        return objectName;
+    }
+
+    /*
+     * Removes the MBean registered by registerMBean(); does nothing if there is none.
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (registeredName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(registeredName)) {
+            server.unregisterMBean(registeredName);
+        }
+        registeredName = null;
+    }
+
+    public synchronized ObjectName getRegisteredName() {
+        return registeredName;
+    }
+}
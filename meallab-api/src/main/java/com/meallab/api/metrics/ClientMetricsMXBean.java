@@ -0,0 +1,24 @@
+package com.meallab.api.metrics;
+
+/*
+ * JMX view of ClientMetrics (see ClientMetrics.registerMBean()).
+ *
+ * Shows up in JConsole / VisualVM under "com.meallab.api"; the snapshot
+ * attribute contains the per-endpoint counters and latency percentiles.
+ */
+
+public interface ClientMetricsMXBean {
+
+    long getRequestCount();
+
+    long getErrorCount();
+
+    long getBytesReceived();
+
+    MetricsSnapshot getSnapshot();
+
+    /*
+     * Clears all counters and histograms.
+     */
+    void reset();
+}
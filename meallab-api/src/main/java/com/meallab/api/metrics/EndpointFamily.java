@@ -0,0 +1,13 @@
+package com.meallab.api.metrics;
+
+/*
+ * Groups of endpoints that share a circuit breaker: they are served by the
+ * same kind of backend work upstream, so they tend to fail together.
+ */
+
+public enum EndpointFamily {
+    FILTER,
+    SEARCH,
+    LOOKUP,
+    RANDOM
+}
@@ -0,0 +1,99 @@
+package com.meallab.api.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Live counters and histograms of one endpoint (see ClientMetrics).
+ */
+
+class EndpointMetrics {
+
+    /*
+     * Error counters are indexed by HTTP status; slot 0 counts
+     * failures without a (valid) status, e.g. network errors
+     */
+    private static final int STATUS_SLOTS = 600;
+
+    private final ApiEndpoint endpoint;
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder deserializationErrorCount = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final AtomicLongArray errorsByStatus = new AtomicLongArray(STATUS_SLOTS);
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder hedgeCount = new LongAdder();
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    private final LatencyHistogram networkLatency = new LatencyHistogram();
+    private final LatencyHistogram deserializationLatency = new LatencyHistogram();
+
+    EndpointMetrics(ApiEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void recordResponse(long networkNanos, long bytes) {
+        requestCount.increment();
+        bytesReceived.add(bytes);
+        networkLatency.recordNanos(networkNanos);
+    }
+
+    void recordFailure(long networkNanos, int statusCode) {
+        requestCount.increment();
+        errorCount.increment();
+        errorsByStatus.incrementAndGet(statusCode > 0 && statusCode < STATUS_SLOTS ? statusCode : 0);
+        networkLatency.recordNanos(networkNanos);
+    }
+
+    void recordDeserialization(long nanos, boolean success) {
+        if (!success) {
+            deserializationErrorCount.increment();
+        }
+        deserializationLatency.recordNanos(nanos);
+    }
+
+    void recordRetry() {
+        retryCount.increment();
+    }
+
+    void recordHedge() {
+        hedgeCount.increment();
+    }
+
+    void recordHedgeWon() {
+        hedgeWinCount.increment();
+    }
+
+    EndpointSnapshot snapshot() {
+        Map<Integer, Long> statuses = new LinkedHashMap<>();
+        for (int status = 0; status < STATUS_SLOTS; status++) {
+            long count = errorsByStatus.get(status);
+            if (count > 0) {
+                statuses.put(status, count);
+            }
+        }
+
+        return new EndpointSnapshot(endpoint, requestCount.sum(), errorCount.sum(),
+                deserializationErrorCount.sum(), bytesReceived.sum(), statuses,
+                retryCount.sum(), hedgeCount.sum(), hedgeWinCount.sum(),
+                networkLatency.snapshot(), deserializationLatency.snapshot());
+    }
+
+    void reset() {
+        requestCount.reset();
+        errorCount.reset();
+        deserializationErrorCount.reset();
+        bytesReceived.reset();
+        retryCount.reset();
+        hedgeCount.reset();
+        hedgeWinCount.reset();
+        for (int status = 0; status < STATUS_SLOTS; status++) {
+            errorsByStatus.set(status, 0);
+        }
+        networkLatency.reset();
+        deserializationLatency.reset();
+    }
+}
@@ -0,0 +1,111 @@
+package com.meallab.api.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/*
+ * Immutable view of one endpoint's metrics.
+ *
+ * - requestCount: HTTP requests that completed (successfully or not);
+ *   calls served from a cache, a mirror or a coalesced request are not counted
+ * - errorCount: requests that failed, broken down by HTTP status in
+ *   getErrorsByStatus() (status 0 = no response, e.g. a network error)
+ * - retryCount: requests sent again after a failure (see RetryPolicy)
+ * - hedgeCount / hedgeWinCount: duplicate requests sent because the first
+ *   was slow, and how many of them answered first (see HedgePolicy)
+ * - networkLatency: from sending the request until the body has arrived
+ * - deserializationLatency: JSON parsing of the body
+ */
+
+public class EndpointSnapshot {
+
+    private final ApiEndpoint endpoint;
+    private final long requestCount;
+    private final long errorCount;
+    private final long deserializationErrorCount;
+    private final long bytesReceived;
+    private final Map<Integer, Long> errorsByStatus;
+    private final long retryCount;
+    private final long hedgeCount;
+    private final long hedgeWinCount;
+    private final HistogramSnapshot networkLatency;
+    private final HistogramSnapshot deserializationLatency;
+
+    public EndpointSnapshot(ApiEndpoint endpoint, long requestCount, long errorCount,
+                            long deserializationErrorCount, long bytesReceived,
+                            Map<Integer, Long> errorsByStatus,
+                            long retryCount, long hedgeCount, long hedgeWinCount,
+                            HistogramSnapshot networkLatency, HistogramSnapshot deserializationLatency) {
+        this.endpoint = endpoint;
+        this.requestCount = requestCount;
+        this.errorCount = errorCount;
+        this.deserializationErrorCount = deserializationErrorCount;
+        this.bytesReceived = bytesReceived;
+        this.errorsByStatus = Collections.unmodifiableMap(errorsByStatus);
+        this.retryCount = retryCount;
+        this.hedgeCount = hedgeCount;
+        this.hedgeWinCount = hedgeWinCount;
+        this.networkLatency = networkLatency;
+        this.deserializationLatency = deserializationLatency;
+    }
+
+    public ApiEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getDeserializationErrorCount() {
+        return deserializationErrorCount;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public Map<Integer, Long> getErrorsByStatus() {
+        return errorsByStatus;
+    }
+
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount;
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWinCount;
+    }
+
+    public HistogramSnapshot getNetworkLatency() {
+        return networkLatency;
+    }
+
+    public HistogramSnapshot getDeserializationLatency() {
+        return deserializationLatency;
+    }
+
+    // Override Methods
+
+    @Override
+    public String toString() {
+        return "EndpointSnapshot{" +
+                "endpoint=" + endpoint +
+                ", requests=" + requestCount +
+                ", errors=" + errorsByStatus +
+                ", bytes=" + bytesReceived +
+                ", retries=" + retryCount +
+                ", hedges=" + hedgeCount + "/" + hedgeWinCount + " won" +
+                ", network=" + networkLatency +
+                ", deserialization=" + deserializationLatency +
+                '}';
+    }
+}
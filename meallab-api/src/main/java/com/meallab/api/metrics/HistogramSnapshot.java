@@ -0,0 +1,91 @@
+package com.meallab.api.metrics;
+
+/*
+ * Immutable copy of a LatencyHistogram at one point in time.
+ *
+ * All values are in microseconds. Percentiles are reported as the upper
+ * bound of the bucket holding that rank (never above the recorded maximum),
+ * so they are at most ~3% higher than the exact value.
+ */
+
+public class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalMicros;
+    private final long maxMicros;
+
+    HistogramSnapshot(long[] counts, long count, long totalMicros, long maxMicros) {
+        this.counts = counts;
+        this.count = count;
+        this.totalMicros = totalMicros;
+        this.maxMicros = maxMicros;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    /*
+     * Average of all recorded values (0.0 when empty).
+     */
+    public double getMeanMicros() {
+        return count == 0 ? 0.0 : (double) totalMicros / count;
+    }
+
+    public long getP50Micros() {
+        return getValueAtPercentile(50.0);
+    }
+
+    public long getP90Micros() {
+        return getValueAtPercentile(90.0);
+    }
+
+    public long getP99Micros() {
+        return getValueAtPercentile(99.0);
+    }
+
+    public long getP999Micros() {
+        return getValueAtPercentile(99.9);
+    }
+
+    /*
+     * Value below or at which the given percentage (0-100) of the recorded
+     * values fall. Returns 0 when nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.bucketUpperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    // Override Methods
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+                "count=" + count +
+                ", p50=" + getP50Micros() +
+                ", p99=" + getP99Micros() +
+                ", p999=" + getP999Micros() +
+                ", max=" + maxMicros +
+                " (us)}";
+    }
+}
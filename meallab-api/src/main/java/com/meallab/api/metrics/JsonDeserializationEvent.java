@@ -0,0 +1,35 @@
+package com.meallab.api.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Java Flight Recorder event for parsing one API response body with Jackson.
+ */
+
+@Name("com.meallab.api.JsonDeserialization")
+@Label("MealDB JSON Deserialization")
+@Category({"MealLab", "API"})
+@Description("Deserialization of a TheMealDB response body")
+@StackTrace(false)
+public class JsonDeserializationEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Type")
+    @Description("Class the body was deserialized into")
+    public Class<?> type;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,139 @@
+package com.meallab.api.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Concurrent latency histogram with log-linear buckets (in the style of HdrHistogram).
+ *
+ * Values are recorded in microseconds. Every power of two is split into
+ * 32 linear sub-buckets, so any percentile is reported within ~3% of the
+ * real value, from 1 microsecond up to about 35 minutes (larger values
+ * land in the last bucket). The whole range fits in a fixed array of
+ * 896 counters.
+ *
+ * record() is lock-free and allocation-free: it computes the bucket index
+ * with a few bit operations and increments an array slot, so it can stay
+ * on in production. Reading percentiles goes through snapshot().
+ */
+
+public class LatencyHistogram {
+
+    /*
+     * log2 of the number of linear sub-buckets per power of two
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /*
+     * Values up to 2^(MAX_EXPONENT + 1) - 1 microseconds get their own bucket
+     */
+    private static final int MAX_EXPONENT = 31;
+    private static final long MAX_TRACKABLE_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /*
+     * Records one duration given in nanoseconds (e.g. a System.nanoTime() difference).
+     * Negative values are recorded as 0.
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /*
+     * Records one duration given in microseconds.
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalMicros.add(value);
+
+        // Update the maximum without allocating (plain CAS loop)
+        long max = maxMicros.get();
+        while (value > max && !maxMicros.compareAndSet(max, value)) {
+            max = maxMicros.get();
+        }
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /*
+     * Copies the current counters into an immutable snapshot.
+     *
+     * Recording may continue while the copy is taken, so the snapshot can be
+     * off by the few values recorded at the same time.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new HistogramSnapshot(copy, count, totalMicros.sum(), maxMicros.get());
+    }
+
+    /*
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    // Bucket Arithmetic
+
+    /*
+     * Maps a value to its bucket: values below 32 get one bucket each, above
+     * that the position of the highest bit selects the power of two and the
+     * next 5 bits the linear sub-bucket within it.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /*
+     * Smallest value that falls into the given bucket.
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+
+    /*
+     * Largest value that falls into the given bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return bucketLowerBound(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.meallab.api.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Java Flight Recorder event for a search or lookup that found no meals.
+ *
+ * An instant event (no duration); source tells whether the answer came
+ * from the API ("api"), a local CatalogMirror ("mirror") or a cached miss
+ * in the QueryCache ("cache").
+ */
+
+@Name("com.meallab.api.MealNotFound")
+@Label("Meal Not Found")
+@Category({"MealLab", "API"})
+@Description("Search or lookup that returned no meals")
+@StackTrace(false)
+public class MealNotFoundEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Query")
+    @Description("Ingredient, name or meal ID that was asked for")
+    public String query;
+
+    @Label("Source")
+    public String source;
+}
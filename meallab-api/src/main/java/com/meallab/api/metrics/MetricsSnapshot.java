@@ -0,0 +1,67 @@
+package com.meallab.api.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/*
+ * Immutable view of a client's metrics: one EndpointSnapshot per endpoint,
+ * plus totals across all endpoints.
+ */
+
+public class MetricsSnapshot {
+
+    private final Map<ApiEndpoint, EndpointSnapshot> endpoints;
+
+    public MetricsSnapshot(Map<ApiEndpoint, EndpointSnapshot> endpoints) {
+        this.endpoints = Collections.unmodifiableMap(endpoints);
+    }
+
+    public Map<ApiEndpoint, EndpointSnapshot> getEndpoints() {
+        return endpoints;
+    }
+
+    /*
+     * Snapshot of one endpoint (all counters are 0 if it was never called).
+     */
+    public EndpointSnapshot getEndpoint(ApiEndpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    // Utility Methods
+
+    public long getRequestCount() {
+        long total = 0;
+        for (EndpointSnapshot snapshot : endpoints.values()) {
+            total += snapshot.getRequestCount();
+        }
+        return total;
+    }
+
+    public long getErrorCount() {
+        long total = 0;
+        for (EndpointSnapshot snapshot : endpoints.values()) {
+            total += snapshot.getErrorCount();
+        }
+        return total;
+    }
+
+    public long getBytesReceived() {
+        long total = 0;
+        for (EndpointSnapshot snapshot : endpoints.values()) {
+            total += snapshot.getBytesReceived();
+        }
+        return total;
+    }
+
+    // Override Methods
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "requests=" + getRequestCount() +
+                ", errors=" + getErrorCount() +
+                ", bytes=" + getBytesReceived() +
+                ", endpoints=" + endpoints.values() +
+                '}';
+    }
+}
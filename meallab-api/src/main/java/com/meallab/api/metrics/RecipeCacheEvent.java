@@ -0,0 +1,31 @@
+package com.meallab.api.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Java Flight Recorder event for a getMealById() lookup in the RecipeCache.
+ *
+ * Lookups are frequent, so the event is disabled unless a recording
+ * turns it on (e.g. jfr configure or a custom .jfc setting).
+ */
+
+@Name("com.meallab.api.RecipeCacheLookup")
+@Label("Recipe Cache Lookup")
+@Category({"MealLab", "Cache"})
+@Description("Lookup of a meal ID in the client's recipe cache")
+@StackTrace(false)
+@Enabled(false)
+public class RecipeCacheEvent extends Event {
+
+    @Label("Meal ID")
+    public String mealId;
+
+    @Label("Hit")
+    public boolean hit;
+}
@@ -0,0 +1,388 @@
+package com.meallab.api.mirror;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.LookupResult;
+import com.meallab.api.model.MealListResponse;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.model.SimplifiedMeal;
+import com.meallab.api.model.StringPool;
+import com.meallab.api.service.MealDbApiClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Local copy of the complete TheMealDB catalog.
+ *
+ * The catalog has only a few hundred meals, so it can be held in memory
+ * and on disk. The mirror:
+ * - Crawls the whole catalog once with search.php?f=<letter> (26 requests, in parallel)
+ * - Saves it to a JSON file, so the next start (or an offline start) can load it
+ * - Answers the four client operations locally, in microseconds
+ * - Can refresh itself in the background
+ *
+ * Usage example:
+ * <pre>
+ * MealDbApiClient client = new MealDbApiClient();
+ * CatalogMirror mirror = new CatalogMirror(client, Path.of("data/catalog.json"));
+ * if (!mirror.load()) {
+ *     mirror.refresh();                  // first run: crawl the API
+ * }
+ * mirror.startBackgroundRefresh(Duration.ofHours(12));
+ * client.setCatalogMirror(mirror);       // client calls are now answered locally
+ * </pre>
+ *
+ * The query methods throw the same exceptions as MealDbApiClient
+ * (MealNotFoundException when nothing matches).
+ */
+
+public class CatalogMirror implements AutoCloseable {
+
+    /*
+     * First letters used to crawl the catalog
+     */
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private final MealDbApiClient client;
+    private final Path storageFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Current catalog (null until loaded or crawled)
+    private volatile CatalogSnapshot snapshot;
+
+    // Background refresh
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refreshTask;
+    private volatile Exception lastRefreshError;
+
+    public CatalogMirror(MealDbApiClient client, Path storageFile) {
+        if (client == null || storageFile == null) {
+            throw new IllegalArgumentException("Client and storage file cannot be null");
+        }
+        this.client = client;
+        this.storageFile = storageFile;
+    }
+
+    // Loading and refreshing
+
+    /*
+     * Loads the catalog saved by a previous refresh.
+     *
+     * Returns false if there is no saved catalog yet.
+     */
+    public boolean load() throws ApiException {
+        if (!Files.exists(storageFile)) {
+            return false;
+        }
+
+        ObjectReader reader = objectMapper.readerFor(MirrorFile.class);
+        StringPool pool = client.getStringPool();
+        if (pool != null) {
+            reader = reader.withAttribute(StringPool.class, pool);
+        }
+
+        try (InputStream in = Files.newInputStream(storageFile)) {
+            MirrorFile file = reader.readValue(in);
+            List<Recipe> meals = file.meals != null ? file.meals : new ArrayList<>();
+            this.snapshot = new CatalogSnapshot(meals, file.refreshedAt);
+            return true;
+        } catch (IOException e) {
+            throw new ApiException("Failed to read catalog mirror: " + storageFile, e);
+        }
+    }
+
+    /*
+     * Crawls the whole catalog from the API, saves it and makes it current.
+     *
+     * If any letter fails (e.g. network down), the previous catalog is kept
+     * and an ApiException is thrown.
+     */
+    public void refresh() throws ApiException {
+        try {
+            refreshAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ApiException) {
+                throw (ApiException) e.getCause();
+            }
+            throw new ApiException("Catalog refresh failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /*
+     * Non-blocking version of refresh().
+     */
+    public CompletableFuture<Void> refreshAsync() {
+        List<CompletableFuture<List<Recipe>>> letters = new ArrayList<>();
+        for (char letter : LETTERS.toCharArray()) {
+            letters.add(client.searchByFirstLetterAsync(letter)
+                    .thenApply(MealResponse::getMeals)
+                    .exceptionally(error -> {
+                        // Some letters have no meals at all; anything else fails the crawl
+                        if (error instanceof MealNotFoundException
+                                || error.getCause() instanceof MealNotFoundException) {
+                            return new ArrayList<>();
+                        }
+                        throw error instanceof CompletionException
+                                ? (CompletionException) error
+                                : new CompletionException(error);
+                    }));
+        }
+
+        return CompletableFuture.allOf(letters.toArray(new CompletableFuture<?>[0])).thenAccept(ignored -> {
+            List<Recipe> recipes = new ArrayList<>();
+            for (CompletableFuture<List<Recipe>> letter : letters) {
+                recipes.addAll(letter.join());
+            }
+
+            CatalogSnapshot fresh = new CatalogSnapshot(recipes, System.currentTimeMillis());
+            try {
+                save(fresh);
+            } catch (IOException e) {
+                throw new CompletionException(new ApiException("Failed to save catalog mirror: " + storageFile, e));
+            }
+            this.snapshot = fresh;
+        });
+    }
+
+    /*
+     * Refreshes the catalog periodically on a background thread.
+     *
+     * Failures keep the previous catalog and are available from getLastRefreshError().
+     */
+    public synchronized void startBackgroundRefresh(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        stopBackgroundRefresh();
+
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "meallab-catalog-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        long millis = interval.toMillis();
+        refreshTask = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+                lastRefreshError = null;
+            } catch (Exception e) {
+                lastRefreshError = e;
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopBackgroundRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+    }
+
+    /*
+     * Stops the background refresh thread.
+     */
+    @Override
+    public synchronized void close() {
+        stopBackgroundRefresh();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Query Methods (same contract as MealDbApiClient)
+
+    /*
+     * Meals that use the ingredient (exact ingredient name, case-insensitive).
+     */
+    public MealListResponse searchByIngredient(String ingredient) throws ApiException {
+        LookupResult<MealListResponse> result = findByIngredient(ingredient);
+        if (!result.isFound()) {
+            throw new MealNotFoundException("No meals found for ingredient: " + ingredient);
+        }
+        return result.get();
+    }
+
+    /*
+     * Like searchByIngredient(), but returns NotFound instead of throwing MealNotFoundException.
+     */
+    public LookupResult<MealListResponse> findByIngredient(String ingredient) throws ApiException {
+        if (ingredient == null || ingredient.trim().isEmpty()) {
+            throw new IllegalArgumentException("Ingredient cannot be null or empty");
+        }
+
+        List<SimplifiedMeal> meals = current().searchByIngredient(ingredient);
+        if (meals.isEmpty()) {
+            return LookupResult.notFound();
+        }
+        return LookupResult.found(new MealListResponse(meals));
+    }
+
+    /*
+     * Meals whose name contains the text (case-insensitive).
+     */
+    public MealResponse searchByName(String name) throws ApiException {
+        LookupResult<MealResponse> result = findByName(name);
+        if (!result.isFound()) {
+            throw new MealNotFoundException("No meals found with name: " + name);
+        }
+        return result.get();
+    }
+
+    /*
+     * Like searchByName(), but returns NotFound instead of throwing MealNotFoundException.
+     */
+    public LookupResult<MealResponse> findByName(String name) throws ApiException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be null or empty");
+        }
+
+        List<Recipe> meals = current().searchByName(name.trim());
+        if (meals.isEmpty()) {
+            return LookupResult.notFound();
+        }
+        return LookupResult.found(new MealResponse(meals));
+    }
+
+    public Recipe getMealById(String mealId) throws ApiException {
+        LookupResult<Recipe> result = findMealById(mealId);
+        if (!result.isFound()) {
+            throw new MealNotFoundException("No meal found with ID: " + mealId);
+        }
+        return result.get();
+    }
+
+    /*
+     * Like getMealById(), but returns NotFound instead of throwing MealNotFoundException.
+     */
+    public LookupResult<Recipe> findMealById(String mealId) throws ApiException {
+        if (mealId == null || mealId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Meal ID cannot be null or empty");
+        }
+
+        Recipe recipe = current().getById(mealId.trim());
+        if (recipe == null) {
+            return LookupResult.notFound();
+        }
+        return LookupResult.found(recipe);
+    }
+
+    public Recipe getRandomMeal() throws ApiException {
+        List<Recipe> recipes = current().getRecipes();
+        if (recipes.isEmpty()) {
+            throw new ApiException("Catalog mirror is empty");
+        }
+        return recipes.get(ThreadLocalRandom.current().nextInt(recipes.size()));
+    }
+
+    // Status
+
+    /*
+     * True once a catalog has been loaded from disk or crawled.
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public int size() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current.size() : 0;
+    }
+
+    /*
+     * All recipes in the mirror (empty if not loaded).
+     */
+    public List<Recipe> getRecipes() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current.getRecipes() : new ArrayList<>();
+    }
+
+    /*
+     * When the current catalog was crawled, or null if not loaded.
+     */
+    public Instant getLastRefreshed() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? Instant.ofEpochMilli(current.getRefreshedAtMillis()) : null;
+    }
+
+    /*
+     * The error of the last failed background refresh, or null.
+     */
+    public Exception getLastRefreshError() {
+        return lastRefreshError;
+    }
+
+    public Path getStorageFile() {
+        return storageFile;
+    }
+
+    // Helper Methods
+
+    private CatalogSnapshot current() throws ApiException {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            throw new ApiException("Catalog mirror is not loaded yet");
+        }
+        return current;
+    }
+
+    /*
+     * Writes the catalog crash-safely: to a temporary file first, then renamed
+     * over the old one, so a crash never leaves a half-written mirror.
+     */
+    private void save(CatalogSnapshot catalog) throws IOException {
+        Path directory = storageFile.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+
+        Path temp = Files.createTempFile(directory, storageFile.getFileName().toString(), ".tmp");
+        try {
+            MirrorFile file = new MirrorFile();
+            file.refreshedAt = catalog.getRefreshedAtMillis();
+            file.meals = catalog.getRecipes();
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                objectMapper.writeValue(out, file);
+            }
+
+            try {
+                Files.move(temp, storageFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, storageFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /*
+     * On-disk layout of the mirror: {"refreshedAt": ..., "meals": [...]}.
+     */
+    static class MirrorFile {
+        public long refreshedAt;
+        public List<Recipe> meals;
+    }
+}
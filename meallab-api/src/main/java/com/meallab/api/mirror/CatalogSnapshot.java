@@ -0,0 +1,119 @@
+package com.meallab.api.mirror;
+
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.model.SimplifiedMeal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Immutable, query-ready copy of the whole catalog.
+ *
+ * Built once per crawl (or file load) and then swapped into CatalogMirror
+ * in a single step, so readers never see a half-refreshed catalog.
+ *
+ * Lookups:
+ * - by meal ID: hash map
+ * - by ingredient: map from normalized ingredient name to meal stubs
+ * - by name: scan of lower-cased names (a few hundred entries)
+ */
+
+class CatalogSnapshot {
+
+    private final Map<String, Recipe> recipesById;
+    private final List<Recipe> recipes;
+    private final List<String> lowerCaseNames;
+    private final Map<String, List<SimplifiedMeal>> mealsByIngredient;
+    private final long refreshedAtMillis;
+
+    CatalogSnapshot(List<Recipe> recipes, long refreshedAtMillis) {
+        Map<String, Recipe> byId = new LinkedHashMap<>();
+        for (Recipe recipe : recipes) {
+            if (recipe.getId() != null) {
+                byId.put(recipe.getId(), recipe);
+            }
+        }
+
+        List<Recipe> distinct = new ArrayList<>(byId.values());
+        List<String> names = new ArrayList<>(distinct.size());
+        Map<String, List<SimplifiedMeal>> byIngredient = new HashMap<>();
+
+        for (Recipe recipe : distinct) {
+            names.add(recipe.getName() != null ? recipe.getName().toLowerCase(Locale.ROOT) : "");
+
+            SimplifiedMeal stub = new SimplifiedMeal(recipe.getId(), recipe.getName(), recipe.getThumbnailUrl());
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                String key = normalizeIngredient(ingredient.getName());
+                if (key.isEmpty()) {
+                    continue;
+                }
+                List<SimplifiedMeal> meals = byIngredient.computeIfAbsent(key, k -> new ArrayList<>());
+                // A recipe may list the same ingredient twice
+                if (meals.isEmpty() || meals.get(meals.size() - 1) != stub) {
+                    meals.add(stub);
+                }
+            }
+        }
+
+        this.recipesById = Collections.unmodifiableMap(byId);
+        this.recipes = Collections.unmodifiableList(distinct);
+        this.lowerCaseNames = names;
+        this.mealsByIngredient = byIngredient;
+        this.refreshedAtMillis = refreshedAtMillis;
+    }
+
+    Recipe getById(String mealId) {
+        return recipesById.get(mealId);
+    }
+
+    /*
+     * Meals whose name contains the text (case-insensitive), like search.php?s=.
+     */
+    List<Recipe> searchByName(String text) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        List<Recipe> matches = new ArrayList<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            if (lowerCaseNames.get(i).contains(needle)) {
+                matches.add(recipes.get(i));
+            }
+        }
+        return matches;
+    }
+
+    /*
+     * Meals that list exactly this ingredient, like filter.php?i=.
+     */
+    List<SimplifiedMeal> searchByIngredient(String ingredient) {
+        List<SimplifiedMeal> meals = mealsByIngredient.get(normalizeIngredient(ingredient));
+        return meals != null ? new ArrayList<>(meals) : new ArrayList<>();
+    }
+
+    List<Recipe> getRecipes() {
+        return recipes;
+    }
+
+    int size() {
+        return recipes.size();
+    }
+
+    long getRefreshedAtMillis() {
+        return refreshedAtMillis;
+    }
+
+    /*
+     * Ingredient key: trimmed, lower-case, underscores read as spaces
+     * (TheMealDB accepts "chicken_breast" for "Chicken Breast").
+     */
+    static String normalizeIngredient(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.trim().replace('_', ' ').toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,105 @@
+package com.meallab.api.model;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Result of a bulk lookup (MealDbApiClient.getMealsByIds).
+ *
+ * A bulk lookup never fails as a whole: every requested ID ends up either
+ * as a Recipe or as the ApiException that its lookup produced
+ * (MealNotFoundException for unknown IDs).
+ *
+ * Both the recipes and the failures keep the order in which the IDs
+ * were requested, with duplicate IDs removed.
+ */
+
+public class BulkMealResponse {
+
+    private final List<String> requestedIds;
+    private final Map<String, Recipe> meals;
+    private final Map<String, ApiException> failures;
+
+    /*
+     * Constructor used by the client once every lookup has finished.
+     * Maps are expected to iterate in request order (e.g. LinkedHashMap).
+     */
+    public BulkMealResponse(List<String> requestedIds, Map<String, Recipe> meals,
+                            Map<String, ApiException> failures) {
+        this.requestedIds = Collections.unmodifiableList(new ArrayList<>(requestedIds));
+        this.meals = Collections.unmodifiableMap(new LinkedHashMap<>(meals));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    /*
+     * The distinct IDs that were looked up, in request order.
+     */
+    public List<String> getRequestedIds() {
+        return requestedIds;
+    }
+
+    /*
+     * The recipes that were found, in request order.
+     */
+    public List<Recipe> getMeals() {
+        return new ArrayList<>(meals.values());
+    }
+
+    /*
+     * Gets the recipe for one ID, or null if that lookup failed.
+     */
+    public Recipe getMeal(String mealId) {
+        return meals.get(mealId);
+    }
+
+    /*
+     * The failed lookups, keyed by meal ID, in request order.
+     */
+    public Map<String, ApiException> getFailures() {
+        return failures;
+    }
+
+    /*
+     * IDs whose lookup failed only because the meal does not exist.
+     */
+    public List<String> getNotFoundIds() {
+        List<String> notFound = new ArrayList<>();
+        for (Map.Entry<String, ApiException> entry : failures.entrySet()) {
+            if (entry.getValue() instanceof MealNotFoundException) {
+                notFound.add(entry.getKey());
+            }
+        }
+        return notFound;
+    }
+
+    // Utility Methods
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public int getMealCount() {
+        return meals.size();
+    }
+
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    // Override Methods
+
+    @Override
+    public String toString() {
+        return "BulkMealResponse{" +
+                "requested=" + requestedIds.size() +
+                ", found=" + getMealCount() +
+                ", failed=" + getFailureCount() +
+                '}';
+    }
+}
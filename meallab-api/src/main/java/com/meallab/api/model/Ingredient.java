@@ -1,5 +1,7 @@
 package com.meallab.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Objects;
 
 /*
@@ -12,6 +14,10 @@ import java.util.Objects;
  * The TheMealDB API returns ingredients and measures as separate
  * fields (strIngredient1-20, strMeasure1-20), but this class
  * provides a cleaner way to work with ingredient data.
+ *
+ * Ingredients parsed by RecipeDeserializer share their name and measure
+ * strings through a StringPool, and carry the pool's dictionary ID of the
+ * name for cheap grouping and comparison.
  */
 
 public class Ingredient {
@@ -19,6 +25,9 @@ public class Ingredient {
     private String name;
     private String measure;
 
+    // Dictionary ID of the name in a StringPool, or StringPool.NO_ID
+    private int nameId = StringPool.NO_ID;
+
     /*
      * Default no-argument constructor.
      * Required by Jackson library for JSON deserialization.
@@ -35,12 +44,34 @@ public class Ingredient {
         this.measure = measure;
     }
 
+    /*
+     * Constructor used by RecipeDeserializer for pooled values.
+     */
+    Ingredient(String name, String measure, int nameId) {
+        this.name = name;
+        this.measure = measure;
+        this.nameId = nameId;
+    }
+
     public String getName(){
         return name;
     }
 
     public void setName(String name){
         this.name = name;
+        this.nameId = StringPool.NO_ID;
+    }
+
+    /*
+     * Dictionary ID of the name in the StringPool used while parsing.
+     *
+     * Two ingredients parsed with the same pool have the same ID exactly when
+     * their names are equal, so IDs can be used as cheap grouping keys.
+     * Returns StringPool.NO_ID (-1) if the name was not pooled.
+     */
+    @JsonIgnore
+    public int getNameId(){
+        return nameId;
     }
 
     public String getMeasure(){
@@ -61,6 +92,7 @@ public class Ingredient {
      *
      * Returns true if the ingredient has no name or measure, false otherwise
      */
+    @JsonIgnore
     public boolean isEmpty(){
         return (name == null || name.trim().isEmpty()) &&
                 (measure == null || measure.trim().isEmpty());
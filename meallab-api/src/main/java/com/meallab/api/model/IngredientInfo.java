@@ -0,0 +1,102 @@
+package com.meallab.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Objects;
+
+/*
+ * Represents one entry of TheMealDB's ingredient list (list.php?i=list).
+ *
+ * {
+ *   "idIngredient": "1",
+ *   "strIngredient": "Chicken",
+ *   "strDescription": "The chicken is a type of domesticated fowl...",
+ *   "strType": null
+ * }
+ */
+
+@JsonIgnoreProperties(ignoreUnknown = true)  // Ignore fields we don't need from API
+public class IngredientInfo {
+
+    @JsonProperty("idIngredient")
+    private String id;
+
+    @JsonProperty("strIngredient")
+    private String name;
+
+    @JsonProperty("strDescription")
+    private String description;
+
+    @JsonProperty("strType")
+    private String type;
+
+    public IngredientInfo() {
+    }
+
+    public IngredientInfo(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    //Override Methods
+
+    @Override
+    public String toString() {
+        return "IngredientInfo{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                '}';
+    }
+
+    /*
+     * Two ingredients are equal if they have the same ID.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj){
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()){
+            return false;
+        }
+        IngredientInfo that = (IngredientInfo) obj;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
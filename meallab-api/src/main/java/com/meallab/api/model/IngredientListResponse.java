@@ -0,0 +1,62 @@
+package com.meallab.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Wrapper class for the ingredient list response (list.php?i=list).
+ *
+ * The API reuses the "meals" key for the list:
+ * {
+ *   "meals": [
+ *     { "idIngredient": "1", "strIngredient": "Chicken", ... }
+ *   ]
+ * }
+ */
+
+public class IngredientListResponse {
+
+    @JsonProperty("meals")
+    private List<IngredientInfo> ingredients;
+
+    /*
+     * Default constructor.
+     * Required by Jackson for deserialization.
+     */
+    public IngredientListResponse() {
+        this.ingredients = new ArrayList<>();
+    }
+
+    public IngredientListResponse(List<IngredientInfo> ingredients) {
+        this.ingredients = ingredients != null ? ingredients : new ArrayList<>();
+    }
+
+    public List<IngredientInfo> getIngredients() {
+        return ingredients != null ? ingredients : new ArrayList<>();
+    }
+
+    public void setIngredients(List<IngredientInfo> ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    // Utility Methods
+
+    public boolean hasIngredients() {
+        return ingredients != null && !ingredients.isEmpty();
+    }
+
+    public int getIngredientCount() {
+        return hasIngredients() ? ingredients.size() : 0;
+    }
+
+    // Override Methods
+
+    @Override
+    public String toString() {
+        return "IngredientListResponse{" +
+                "ingredientCount=" + getIngredientCount() +
+                '}';
+    }
+}
@@ -0,0 +1,132 @@
+package com.meallab.api.model;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/*
+ * Outcome of a lookup that may legitimately find nothing.
+ *
+ * Returned by the MealDbApiClient find... methods, which report an empty
+ * result as NotFound instead of throwing MealNotFoundException. NotFound is
+ * a shared instance, so a miss costs no exception and no stack trace.
+ *
+ * Example usage:
+ * <pre>
+ * LookupResult&lt;Recipe&gt; result = client.findMealById(id);
+ * if (result instanceof LookupResult.Found&lt;Recipe&gt; found) {
+ *     show(found.get());
+ * } else {
+ *     showNoResults();
+ * }
+ * </pre>
+ */
+
+public sealed interface LookupResult<T> permits LookupResult.Found, LookupResult.NotFound {
+
+    /*
+     * A successful lookup
+     */
+    static <T> LookupResult<T> found(T value) {
+        return new Found<>(value);
+    }
+
+    /*
+     * The shared empty result
+     */
+    @SuppressWarnings("unchecked")
+    static <T> LookupResult<T> notFound() {
+        return (LookupResult<T>) NotFound.INSTANCE;
+    }
+
+    boolean isFound();
+
+    /*
+     * The value, or NoSuchElementException when nothing was found
+     */
+    T get();
+
+    /*
+     * The value, or other when nothing was found
+     */
+    T orElse(T other);
+
+    default Optional<T> toOptional() {
+        return Optional.ofNullable(orElse(null));
+    }
+
+    /*
+     * Result holding the value that was found
+     */
+    final class Found<T> implements LookupResult<T> {
+        private final T value;
+
+        private Found(T value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Found value cannot be null");
+            }
+            this.value = value;
+        }
+
+        @Override
+        public boolean isFound() {
+            return true;
+        }
+
+        @Override
+        public T get() {
+            return value;
+        }
+
+        @Override
+        public T orElse(T other) {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Found)) return false;
+            return value.equals(((Found<?>) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Found{" + value + '}';
+        }
+    }
+
+    /*
+     * Result of a lookup that matched nothing (single shared instance)
+     */
+    final class NotFound<T> implements LookupResult<T> {
+        private static final NotFound<Object> INSTANCE = new NotFound<>();
+
+        private NotFound() {
+        }
+
+        @Override
+        public boolean isFound() {
+            return false;
+        }
+
+        @Override
+        public T get() {
+            throw new NoSuchElementException("No value found");
+        }
+
+        @Override
+        public T orElse(T other) {
+            return other;
+        }
+
+        @Override
+        public String toString() {
+            return "NotFound";
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.meallab.api.model;
 
 import com.fasterxml. jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,10 +20,21 @@ import java.util.Objects;
  * (strIngredient1-20, strMeasure1-20), but this class converts them into
  * a clean List<Ingredient> for easier use.
  *
+ * JSON is read by RecipeDeserializer, which builds the ingredient list once
+ * while parsing and does not keep the 40 raw slot strings around.
+ * Recipes created that way have an unmodifiable ingredient list, and the
+ * library does not change them afterwards. The class is still a mutable
+ * bean without synchronization: share a recipe between threads only through
+ * a safe handoff (a concurrent collection, a completed CompletableFuture)
+ * and do not call its setters once it is shared.
+ * Repeated values (category, area, ingredient names and measures) are shared
+ * through a StringPool when one is configured.
+ *
  * Jackson annotations are used to map JSON field names to Java properties.
  */
 
 @JsonIgnoreProperties(ignoreUnknown = true)  // Ignore fields we don't need from API
+@JsonDeserialize(using = RecipeDeserializer.class)
 public class Recipe {
 
     @JsonProperty("idMeal")
@@ -50,56 +63,13 @@ public class Recipe {
 
     private List<Ingredient> ingredients;
 
-    // The API provides 20 ingredient and measure fields
-    // We'll use these temporarily during deserialization, then convert to List<Ingredient>
-    @JsonProperty("strIngredient1") private String ingredient1;
-    @JsonProperty("strIngredient2") private String ingredient2;
-    @JsonProperty("strIngredient3") private String ingredient3;
-    @JsonProperty("strIngredient4") private String ingredient4;
-    @JsonProperty("strIngredient5") private String ingredient5;
-    @JsonProperty("strIngredient6") private String ingredient6;
-    @JsonProperty("strIngredient7") private String ingredient7;
-    @JsonProperty("strIngredient8") private String ingredient8;
-    @JsonProperty("strIngredient9") private String ingredient9;
-    @JsonProperty("strIngredient10") private String ingredient10;
-    @JsonProperty("strIngredient11") private String ingredient11;
-    @JsonProperty("strIngredient12") private String ingredient12;
-    @JsonProperty("strIngredient13") private String ingredient13;
-    @JsonProperty("strIngredient14") private String ingredient14;
-    @JsonProperty("strIngredient15") private String ingredient15;
-    @JsonProperty("strIngredient16") private String ingredient16;
-    @JsonProperty("strIngredient17") private String ingredient17;
-    @JsonProperty("strIngredient18") private String ingredient18;
-    @JsonProperty("strIngredient19") private String ingredient19;
-    @JsonProperty("strIngredient20") private String ingredient20;
-
-    @JsonProperty("strMeasure1") private String measure1;
-    @JsonProperty("strMeasure2") private String measure2;
-    @JsonProperty("strMeasure3") private String measure3;
-    @JsonProperty("strMeasure4") private String measure4;
-    @JsonProperty("strMeasure5") private String measure5;
-    @JsonProperty("strMeasure6") private String measure6;
-    @JsonProperty("strMeasure7") private String measure7;
-    @JsonProperty("strMeasure8") private String measure8;
-    @JsonProperty("strMeasure9") private String measure9;
-    @JsonProperty("strMeasure10") private String measure10;
-    @JsonProperty("strMeasure11") private String measure11;
-    @JsonProperty("strMeasure12") private String measure12;
-    @JsonProperty("strMeasure13") private String measure13;
-    @JsonProperty("strMeasure14") private String measure14;
-    @JsonProperty("strMeasure15") private String measure15;
-    @JsonProperty("strMeasure16") private String measure16;
-    @JsonProperty("strMeasure17") private String measure17;
-    @JsonProperty("strMeasure18") private String measure18;
-    @JsonProperty("strMeasure19") private String measure19;
-    @JsonProperty("strMeasure20") private String measure20;
+    // Dictionary IDs of category and area in a StringPool, or StringPool.NO_ID
+    private int categoryId = StringPool.NO_ID;
+    private int areaId = StringPool.NO_ID;
 
     /*
      * Default no-argument constructor.
-     * Required by Jackson for JSON deserialization.
-     *
-     * After Jackson creates the object and sets all fields,
-     * we process the 20 ingredient/measure pairs into a clean list.
+     * Creates an empty recipe whose ingredient list can be filled in manually.
      */
     public Recipe() {
         this.ingredients = new ArrayList<>();
@@ -126,6 +96,26 @@ public class Recipe {
         this.ingredients = new ArrayList<>();
     }
 
+    /*
+     * Constructor used by RecipeDeserializer with every field already parsed.
+     * The ingredient list is taken as-is and should be unmodifiable.
+     */
+    Recipe(String id, String name, String category, String area, String instructions,
+           String thumbnailUrl, String tags, String youtubeUrl, List<Ingredient> ingredients,
+           int categoryId, int areaId) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.area = area;
+        this.instructions = instructions;
+        this.thumbnailUrl = thumbnailUrl;
+        this.tags = tags;
+        this.youtubeUrl = youtubeUrl;
+        this.ingredients = ingredients;
+        this.categoryId = categoryId;
+        this.areaId = areaId;
+    }
+
     public String getId() {
         return id;
     }
@@ -148,6 +138,16 @@ public class Recipe {
 
     public void setCategory(String category) {
         this.category = category;
+        this.categoryId = StringPool.NO_ID;
+    }
+
+    /*
+     * Dictionary ID of the category in the StringPool used while parsing,
+     * or StringPool.NO_ID (-1) if it was not pooled.
+     */
+    @JsonIgnore
+    public int getCategoryId() {
+        return categoryId;
     }
 
     public String getArea() {
@@ -156,6 +156,16 @@ public class Recipe {
 
     public void setArea(String area) {
         this.area = area;
+        this.areaId = StringPool.NO_ID;
+    }
+
+    /*
+     * Dictionary ID of the area in the StringPool used while parsing,
+     * or StringPool.NO_ID (-1) if it was not pooled.
+     */
+    @JsonIgnore
+    public int getAreaId() {
+        return areaId;
     }
 
     public String getInstructions() {
@@ -192,15 +202,13 @@ public class Recipe {
 
     /*
      * Gets the list of ingredients.
-     * If not yet processed, builds the list from individual fields.
+     *
+     * For recipes parsed from JSON the list is built once during parsing
+     * and is unmodifiable.
      *
      * Returns List of non-empty ingredients
      */
     public List<Ingredient> getIngredients() {
-        // Lazy initialization - build list if empty
-        if (ingredients. isEmpty()) {
-            buildIngredientList();
-        }
         return ingredients;
     }
 
@@ -208,52 +216,12 @@ public class Recipe {
         this.ingredients = ingredients;
     }
 
-    // Helper Methods
-
-    /*
-     * Converts the 20 separate ingredient/measure fields into a List<Ingredient>.
-     *
-     * This method:
-     * 1. Pairs each strIngredient with its corresponding strMeasure
-     * 2. Creates Ingredient objects
-     * 3. Filters out empty ingredients
-     * 4. Adds to the ingredients list
-     *
-     * Called automatically when getIngredients() is first accessed.
-     */
-    private void buildIngredientList() {
-        // Array of all ingredient names
-        String[] ingredientNames = {
-                ingredient1, ingredient2, ingredient3, ingredient4, ingredient5,
-                ingredient6, ingredient7, ingredient8, ingredient9, ingredient10,
-                ingredient11, ingredient12, ingredient13, ingredient14, ingredient15,
-                ingredient16, ingredient17, ingredient18, ingredient19, ingredient20
-        };
-
-        // Array of all measures
-        String[] measures = {
-                measure1, measure2, measure3, measure4, measure5,
-                measure6, measure7, measure8, measure9, measure10,
-                measure11, measure12, measure13, measure14, measure15,
-                measure16, measure17, measure18, measure19, measure20
-        };
-
-        // Combine pairs and add non-empty ones to list
-        for (int i = 0; i < 20; i++) {
-            Ingredient ingredient = new Ingredient(ingredientNames[i], measures[i]);
-
-            // Only add if ingredient has content
-            if (!ingredient.isEmpty()) {
-                ingredients.add(ingredient);
-            }
-        }
-    }
-
     /*
      * Gets tags as a list instead of comma-separated string.
      *
      * Returns List of individual tags, or empty list if no tags
      */
+    @JsonIgnore
     public List<String> getTagsList() {
         List<String> tagList = new ArrayList<>();
 
@@ -0,0 +1,241 @@
+package com.meallab.api.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Reads a Recipe directly from the JSON token stream.
+ *
+ * TheMealDB sends every ingredient in two numbered slots
+ * (strIngredient1-20 and strMeasure1-20), most of them empty strings.
+ * Instead of binding those 40 values to fields that the Recipe keeps forever,
+ * this deserializer collects them in temporary arrays and builds the
+ * List<Ingredient> once, keeping only the non-empty pairs.
+ *
+ * Also accepts an "ingredients" array of {"name", "measure"} objects,
+ * which is how a Recipe looks when Jackson serializes it.
+ *
+ * Unknown fields (strSource, dateModified, ...) are skipped.
+ *
+ * If the reader carries a StringPool attribute, category, area and
+ * ingredient names/measures are canonicalized through it, so values that
+ * repeat across recipes are stored once. Tags are not: the tag string is
+ * nearly unique per recipe and would use up the pool's bounded slots.
+ */
+
+public class RecipeDeserializer extends StdDeserializer<Recipe> {
+
+    private static final long serialVersionUID = 1L;
+
+    /*
+     * Number of ingredient/measure slots in the API response
+     */
+    private static final int SLOT_COUNT = 20;
+
+    private static final String INGREDIENT_PREFIX = "strIngredient";
+    private static final String MEASURE_PREFIX = "strMeasure";
+
+    public RecipeDeserializer() {
+        super(Recipe.class);
+    }
+
+    @Override
+    public Recipe deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String id = null;
+        String name = null;
+        String category = null;
+        String area = null;
+        String instructions = null;
+        String thumbnailUrl = null;
+        String tags = null;
+        String youtubeUrl = null;
+        List<Ingredient> listedIngredients = null;
+        StringPool pool = (StringPool) ctxt.getAttribute(StringPool.class);
+
+        // Temporary slot values, discarded once the ingredient list is built
+        String[] slotNames = new String[SLOT_COUNT];
+        String[] slotMeasures = new String[SLOT_COUNT];
+
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+
+            switch (field) {
+                case "idMeal":
+                    id = text(p);
+                    break;
+                case "strMeal":
+                    name = text(p);
+                    break;
+                case "strCategory":
+                    category = text(p);
+                    break;
+                case "strArea":
+                    area = text(p);
+                    break;
+                case "strInstructions":
+                    instructions = text(p);
+                    break;
+                case "strMealThumb":
+                    thumbnailUrl = text(p);
+                    break;
+                case "strTags":
+                    tags = text(p);
+                    break;
+                case "strYoutube":
+                    youtubeUrl = text(p);
+                    break;
+                case "ingredients":
+                    listedIngredients = readIngredientArray(p, pool);
+                    break;
+                default:
+                    int slot;
+                    if ((slot = slotIndex(field, INGREDIENT_PREFIX)) >= 0) {
+                        slotNames[slot] = text(p);
+                    } else if ((slot = slotIndex(field, MEASURE_PREFIX)) >= 0) {
+                        slotMeasures[slot] = text(p);
+                    } else {
+                        p.skipChildren();
+                    }
+            }
+        }
+
+        List<Ingredient> ingredients = listedIngredients != null
+                ? listedIngredients
+                : buildIngredientList(slotNames, slotMeasures, pool);
+
+        // Share repeated values through the pool (if any)
+        StringPool.Symbol categorySymbol = pool != null ? pool.lookup(category) : null;
+        StringPool.Symbol areaSymbol = pool != null ? pool.lookup(area) : null;
+
+        return new Recipe(id, name,
+                categorySymbol != null ? categorySymbol.value : category,
+                areaSymbol != null ? areaSymbol.value : area,
+                instructions, thumbnailUrl,
+                tags,
+                youtubeUrl,
+                Collections.unmodifiableList(ingredients),
+                categorySymbol != null ? categorySymbol.id : StringPool.NO_ID,
+                areaSymbol != null ? areaSymbol.id : StringPool.NO_ID);
+    }
+
+    // Helper Methods
+
+    /*
+     * Pairs each slot name with its measure and keeps the non-empty ones.
+     */
+    private static List<Ingredient> buildIngredientList(String[] names, String[] measures, StringPool pool) {
+        int count = 0;
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (!isBlank(names[i]) || !isBlank(measures[i])) {
+                count++;
+            }
+        }
+
+        // Sized exactly, so no spare capacity is retained
+        List<Ingredient> ingredients = new ArrayList<>(count);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (!isBlank(names[i]) || !isBlank(measures[i])) {
+                ingredients.add(newIngredient(names[i], measures[i], pool));
+            }
+        }
+        return ingredients;
+    }
+
+    /*
+     * Reads [{"name": ..., "measure": ...}, ...], skipping empty entries.
+     */
+    private static List<Ingredient> readIngredientArray(JsonParser p, StringPool pool) throws IOException {
+        List<Ingredient> ingredients = new ArrayList<>();
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return ingredients;
+        }
+
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            String measure = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                if ("name".equals(field)) {
+                    name = text(p);
+                } else if ("measure".equals(field)) {
+                    measure = text(p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (!isBlank(name) || !isBlank(measure)) {
+                ingredients.add(newIngredient(name, measure, pool));
+            }
+        }
+        return ingredients;
+    }
+
+    /*
+     * Creates an ingredient, sharing its strings through the pool when there is one.
+     */
+    private static Ingredient newIngredient(String name, String measure, StringPool pool) {
+        if (pool == null) {
+            return new Ingredient(name, measure);
+        }
+        StringPool.Symbol nameSymbol = pool.lookup(name);
+        return new Ingredient(
+                nameSymbol != null ? nameSymbol.value : name,
+                pool.canonicalize(measure),
+                nameSymbol != null ? nameSymbol.id : StringPool.NO_ID);
+    }
+
+    /*
+     * Returns the 0-based slot of fields like "strIngredient7", or -1.
+     */
+    private static int slotIndex(String field, String prefix) {
+        if (!field.startsWith(prefix) || field.length() == prefix.length()
+                || field.length() > prefix.length() + 2) {
+            return -1;
+        }
+
+        int slot = 0;
+        for (int i = prefix.length(); i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            slot = slot * 10 + (c - '0');
+        }
+        return slot >= 1 && slot <= SLOT_COUNT ? slot - 1 : -1;
+    }
+
+    /*
+     * Current value as text: null for JSON null, numbers as strings,
+     * and nested objects/arrays skipped.
+     */
+    private static String text(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        return p.getValueAsString();
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
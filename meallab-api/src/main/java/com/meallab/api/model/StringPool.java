@@ -0,0 +1,135 @@
+package com.meallab.api.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Canonicalizing pool for strings that repeat across many recipes.
+ *
+ * Ingredient names ("Salt", "Onion"), measures ("1 tsp"), categories and areas
+ * come back from the API as separate String copies in every recipe.
+ * RecipeDeserializer passes them through this pool, so all recipes share
+ * one instance per distinct value.
+ *
+ * Every pooled value also gets a small dictionary ID (0, 1, 2, ...), which
+ * can be used to compare or group values without hashing the full string
+ * (see Ingredient.getNameId, Recipe.getCategoryId, Recipe.getAreaId).
+ *
+ * Retention is bounded: once maxEntries distinct values are pooled, new
+ * values are returned unchanged and get no ID (-1). Pooled values are never
+ * removed, so IDs stay stable for the lifetime of the pool.
+ *
+ * All methods are thread-safe.
+ *
+ * The pool is handed to the deserializer as a Jackson attribute:
+ * <pre>
+ * ObjectReader reader = mapper.readerFor(MealResponse.class)
+ *         .withAttribute(StringPool.class, pool);
+ * </pre>
+ */
+
+public class StringPool {
+
+    /*
+     * Default capacity, comfortably above the number of distinct
+     * ingredients, measures, categories and areas in TheMealDB
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 16_384;
+
+    /*
+     * ID returned for values that are not in the pool
+     */
+    public static final int NO_ID = -1;
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Symbol> symbols = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> valuesById;
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public StringPool() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public StringPool(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.valuesById = new AtomicReferenceArray<>(maxEntries);
+    }
+
+    /*
+     * Returns the pooled instance equal to the value, adding it if there is room.
+     * Returns the value itself if the pool is full (and null for null).
+     */
+    public String canonicalize(String value) {
+        Symbol symbol = lookup(value);
+        return symbol != null ? symbol.value : value;
+    }
+
+    /*
+     * Returns the dictionary ID of the value, adding it if there is room.
+     * Returns NO_ID for null or when the pool is full.
+     */
+    public int idOf(String value) {
+        Symbol symbol = lookup(value);
+        return symbol != null ? symbol.id : NO_ID;
+    }
+
+    /*
+     * Returns the value with the given dictionary ID, or null if unknown.
+     */
+    public String valueOf(int id) {
+        return id >= 0 && id < maxEntries ? valuesById.get(id) : null;
+    }
+
+    /*
+     * Number of distinct values currently pooled.
+     */
+    public int size() {
+        return symbols.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    // Helper Methods
+
+    /*
+     * Finds or creates the symbol for a value (null when it cannot be pooled).
+     */
+    Symbol lookup(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        Symbol symbol = symbols.get(value);
+        if (symbol != null || nextId.get() >= maxEntries) {
+            return symbol;
+        }
+
+        return symbols.computeIfAbsent(value, key -> {
+            int id = nextId.getAndIncrement();
+            if (id >= maxEntries) {
+                return null;  // Pool is full: do not retain the value
+            }
+            valuesById.set(id, key);
+            return new Symbol(key, id);
+        });
+    }
+
+    /*
+     * A pooled value together with its dictionary ID.
+     */
+    static final class Symbol {
+        final String value;
+        final int id;
+
+        Symbol(String value, int id) {
+            this.value = value;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.meallab.api.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+ * Circuit breaker for one family of endpoints.
+ *
+ * - CLOSED: requests pass; failureThreshold consecutive failures open it
+ * - OPEN: requests are rejected right away; after openDuration it turns half-open
+ * - HALF_OPEN: up to halfOpenTrials trial requests pass; a success closes
+ *   the breaker, a failure opens it again for another openDuration
+ *
+ * Only signs of an unhealthy upstream count as failures (see
+ * CircuitBreakerPolicy); a 404 is a healthy answer.
+ */
+
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenTrials;
+    private final LongSupplier ticker;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int trialsStarted;
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /*
+     * Opens after 5 consecutive failures, for 30 seconds, then allows 1 trial request.
+     */
+    public CircuitBreaker() {
+        this(5, Duration.ofSeconds(30), 1);
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenTrials) {
+        this(failureThreshold, openDuration, halfOpenTrials, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenTrials, LongSupplier ticker) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1");
+        }
+        if (openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("Open duration must be positive");
+        }
+        if (halfOpenTrials < 1) {
+            throw new IllegalArgumentException("Half-open trials must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenTrials = halfOpenTrials;
+        this.ticker = ticker;
+    }
+
+    /*
+     * Asks to send a request. Returns false (and counts a rejection) when
+     * the breaker is open, or half-open with all trial requests taken.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (ticker.getAsLong() - openedAt < openNanos) {
+                rejectedCount.increment();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenTrials) {
+                rejectedCount.increment();
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    /*
+     * Reports a request that got a healthy answer.
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+        }
+    }
+
+    /*
+     * Reports a request that failed because of the upstream.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = ticker.getAsLong();
+        }
+    }
+
+    /*
+     * Current state; an OPEN breaker whose open duration has passed
+     * reports HALF_OPEN only once the next request asks to pass.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /*
+     * Requests rejected without being sent.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return Duration.ofNanos(openNanos);
+    }
+
+    public int getHalfOpenTrials() {
+        return halfOpenTrials;
+    }
+}
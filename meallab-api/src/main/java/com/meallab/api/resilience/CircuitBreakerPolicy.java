@@ -0,0 +1,104 @@
+package com.meallab.api.resilience;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.CircuitOpenException;
+import com.meallab.api.metrics.ApiEndpoint;
+import com.meallab.api.metrics.EndpointFamily;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/*
+ * One CircuitBreaker per endpoint family (filter, search, lookup, random).
+ *
+ * A request whose breaker is open fails right away with a
+ * CircuitOpenException instead of waiting out a timeout. Network errors,
+ * 429 and 5xx responses count as failures; everything else (including
+ * 404s and empty results) counts as a healthy answer.
+ *
+ * Usage example:
+ * <pre>
+ * client.setCircuitBreakerPolicy(new CircuitBreakerPolicy());
+ * client.setStaleResponseCache(new StaleResponseCache());  // serve last good responses meanwhile
+ * </pre>
+ */
+
+public class CircuitBreakerPolicy {
+
+    private final Map<EndpointFamily, CircuitBreaker> breakers = new EnumMap<>(EndpointFamily.class);
+
+    /*
+     * Default breakers (see CircuitBreaker()) for every family.
+     */
+    public CircuitBreakerPolicy() {
+        for (EndpointFamily family : EndpointFamily.values()) {
+            breakers.put(family, new CircuitBreaker());
+        }
+    }
+
+    /*
+     * Breakers with the given settings (see CircuitBreaker), one per family.
+     */
+    public CircuitBreakerPolicy(int failureThreshold, Duration openDuration, int halfOpenTrials) {
+        for (EndpointFamily family : EndpointFamily.values()) {
+            breakers.put(family, new CircuitBreaker(failureThreshold, openDuration, halfOpenTrials));
+        }
+    }
+
+    /*
+     * Sends the request if the endpoint's breaker allows it, and reports the outcome.
+     */
+    public <T> CompletableFuture<T> execute(ApiEndpoint endpoint, Supplier<CompletableFuture<T>> request) {
+        EndpointFamily family = endpoint.getFamily();
+        CircuitBreaker breaker = breakers.get(family);
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException(
+                    "Circuit breaker is open for " + family.name().toLowerCase(Locale.ROOT) + " requests"));
+        }
+
+        CompletableFuture<T> call;
+        try {
+            call = request.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        return call.whenComplete((value, error) -> {
+            if (error != null && isUpstreamFailure(error)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        });
+    }
+
+    public CircuitBreaker getBreaker(EndpointFamily family) {
+        return breakers.get(family);
+    }
+
+    /*
+     * Whether a failure says the upstream is unhealthy: no response at all
+     * (network error, timeout), 429 or 5xx. Also true for CircuitOpenException.
+     */
+    public static boolean isUpstreamFailure(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof CircuitOpenException) {
+            return true;
+        }
+        if (!(cause instanceof ApiException)) {
+            return false;
+        }
+        int statusCode = ((ApiException) cause).getStatusCode();
+        return statusCode == 0 || statusCode == 429 || statusCode >= 500;
+    }
+}
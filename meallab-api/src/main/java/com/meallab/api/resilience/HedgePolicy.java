@@ -0,0 +1,203 @@
+package com.meallab.api.resilience;
+
+import com.meallab.api.metrics.ApiEndpoint;
+import com.meallab.api.metrics.ClientMetrics;
+import com.meallab.api.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Hedged requests: if a request has not answered within a high percentile
+ * of recently observed latency, send an identical second request and use
+ * whichever answers first.
+ *
+ * A few straggling connections otherwise set the p99 (each can cost the
+ * full request timeout). With the default 95th percentile at most ~5% of
+ * requests are duplicated, while most stragglers are cut short.
+ *
+ * - The delay is tracked per endpoint, from successful responses only
+ * - Until MIN_SAMPLES responses have been seen, initialDelay is used
+ * - The delay is kept between minDelay and maxDelay
+ * - The result fails only when every request sent has failed
+ *
+ * The slower request is not cancelled; its response is simply ignored.
+ */
+
+public class HedgePolicy {
+
+    public static final double DEFAULT_PERCENTILE = 95.0;
+
+    /*
+     * Responses needed before the observed percentile is trusted
+     */
+    static final int MIN_SAMPLES = 20;
+
+    /*
+     * The hedge delay is recomputed every this many responses
+     */
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    /*
+     * Histograms are cleared after this many samples so the delay follows changes
+     */
+    private static final long MAX_SAMPLES = 10_000;
+
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private final EndpointLatency[] endpoints = new EndpointLatency[ApiEndpoint.values().length];
+
+    private final LongAdder hedgeCount = new LongAdder();
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    /*
+     * Hedges at the 95th percentile, starting at 500 ms, between 20 ms and 5 s.
+     */
+    public HedgePolicy() {
+        this(DEFAULT_PERCENTILE, Duration.ofMillis(500), Duration.ofMillis(20), Duration.ofSeconds(5));
+    }
+
+    public HedgePolicy(double percentile, Duration initialDelay, Duration minDelay, Duration maxDelay) {
+        if (!(percentile > 0.0 && percentile < 100.0)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100 (exclusive)");
+        }
+        if (minDelay == null || minDelay.isNegative() || maxDelay == null || maxDelay.compareTo(minDelay) < 0) {
+            throw new IllegalArgumentException("Delays must satisfy 0 <= min delay <= max delay");
+        }
+        if (initialDelay == null || initialDelay.isNegative()) {
+            throw new IllegalArgumentException("Initial delay cannot be null or negative");
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.initialDelayNanos = clamp(initialDelay.toNanos());
+
+        for (ApiEndpoint endpoint : ApiEndpoint.values()) {
+            endpoints[endpoint.ordinal()] = new EndpointLatency(initialDelayNanos);
+        }
+    }
+
+    /*
+     * Runs the request, hedging it if it is slow.
+     *
+     * Hedges sent and won are counted here and in metrics (may be null).
+     */
+    public <T> CompletableFuture<T> execute(ApiEndpoint endpoint, Supplier<CompletableFuture<T>> request,
+                                            ClientMetrics metrics) {
+        EndpointLatency latency = endpoints[endpoint.ordinal()];
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        // Requests that may still complete the result; 0 = all have failed
+        AtomicInteger pending = new AtomicInteger(1);
+
+        send(request, latency, result, pending, false, endpoint, metrics);
+
+        CompletableFuture.delayedExecutor(latency.delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone() || pending.getAndUpdate(p -> p == 0 ? 0 : p + 1) == 0) {
+                return;
+            }
+            hedgeCount.increment();
+            if (metrics != null) {
+                metrics.recordHedge(endpoint);
+            }
+            send(request, latency, result, pending, true, endpoint, metrics);
+        });
+
+        return result;
+    }
+
+    /*
+     * Current hedge delay for an endpoint.
+     */
+    public Duration getHedgeDelay(ApiEndpoint endpoint) {
+        return Duration.ofNanos(endpoints[endpoint.ordinal()].delayNanos);
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWinCount.sum();
+    }
+
+    // Helper Methods
+
+    private <T> void send(Supplier<CompletableFuture<T>> request, EndpointLatency latency,
+                          CompletableFuture<T> result, AtomicInteger pending, boolean hedge,
+                          ApiEndpoint endpoint, ClientMetrics metrics) {
+        long start = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = request.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((value, error) -> {
+            int remaining = pending.decrementAndGet();
+            if (error == null) {
+                record(latency, System.nanoTime() - start);
+
+                // Count the win before completing, so callers see up-to-date counters
+                synchronized (result) {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    if (hedge) {
+                        hedgeWinCount.increment();
+                        if (metrics != null) {
+                            metrics.recordHedgeWon(endpoint);
+                        }
+                    }
+                    result.complete(value);
+                }
+            } else if (remaining == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    private void record(EndpointLatency latency, long nanos) {
+        latency.histogram.recordNanos(nanos);
+        long samples = latency.samples.incrementAndGet();
+        if (samples < MIN_SAMPLES || (samples != MIN_SAMPLES && samples % RECOMPUTE_INTERVAL != 0)) {
+            return;
+        }
+
+        long micros = latency.histogram.snapshot().getValueAtPercentile(percentile);
+        latency.delayNanos = clamp(TimeUnit.MICROSECONDS.toNanos(micros));
+        if (latency.histogram.getCount() >= MAX_SAMPLES) {
+            latency.histogram.reset();
+        }
+    }
+
+    private long clamp(long nanos) {
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, nanos));
+    }
+
+    /*
+     * Observed latency and current hedge delay of one endpoint.
+     */
+    private static class EndpointLatency {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final AtomicLong samples = new AtomicLong();
+        volatile long delayNanos;
+
+        EndpointLatency(long initialDelayNanos) {
+            this.delayNanos = initialDelayNanos;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.meallab.api.resilience;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.metrics.ApiEndpoint;
+import com.meallab.api.metrics.ClientMetrics;
+
+import java.io.IOException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * Retries failed GET requests with jittered exponential backoff.
+ *
+ * All TheMealDB calls are idempotent GETs, so they can safely be sent again.
+ * Only transient failures are retried:
+ * - 5xx responses
+ * - connection errors (refused, reset, connect timeout, ...)
+ *
+ * A request that timed out after connecting is not retried (it would cost
+ * another full timeout; HedgePolicy is the tool for slow responses), and
+ * neither are 4xx responses or parsing errors.
+ *
+ * The wait before retry n is drawn uniformly from [cap/2, cap], where
+ * cap = min(maxDelay, baseDelay * 2^(n-1)). The jitter keeps many clients
+ * that failed together from retrying in lockstep.
+ */
+
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+    /*
+     * Up to 3 attempts, waiting about 100 ms and then 200 ms.
+     */
+    public RetryPolicy() {
+        this(3, Duration.ofMillis(100), Duration.ofSeconds(2));
+    }
+
+    /*
+     * maxAttempts counts the first request, so 1 means "never retry".
+     */
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        if (baseDelay == null || baseDelay.isNegative() || maxDelay == null || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("Delays must satisfy 0 <= base delay <= max delay");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    /*
+     * Runs the request, retrying transient failures.
+     *
+     * Retries are counted in metrics (may be null). The returned future
+     * fails with the last attempt's error once the attempts run out.
+     */
+    public <T> CompletableFuture<T> execute(ApiEndpoint endpoint, Supplier<CompletableFuture<T>> request,
+                                            ClientMetrics metrics) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(1, endpoint, request, metrics, result);
+        return result;
+    }
+
+    /*
+     * Whether the failure is transient, i.e. worth another attempt.
+     */
+    public boolean isRetryable(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (!(cause instanceof ApiException)) {
+            return false;
+        }
+
+        int statusCode = ((ApiException) cause).getStatusCode();
+        if (statusCode != 0) {
+            return statusCode >= 500;
+        }
+
+        // No response: retry connection problems, but not read timeouts
+        for (Throwable t = cause.getCause(); t != null; t = t.getCause()) {
+            if (t instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+            if (t instanceof HttpTimeoutException) {
+                return false;
+            }
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getBaseDelay() {
+        return Duration.ofNanos(baseDelayNanos);
+    }
+
+    public Duration getMaxDelay() {
+        return Duration.ofNanos(maxDelayNanos);
+    }
+
+    // Helper Methods
+
+    private <T> void attempt(int attempt, ApiEndpoint endpoint, Supplier<CompletableFuture<T>> request,
+                             ClientMetrics metrics, CompletableFuture<T> result) {
+        CompletableFuture<T> call;
+        try {
+            call = request.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (attempt < maxAttempts && !result.isDone() && isRetryable(error)) {
+                if (metrics != null) {
+                    metrics.recordRetry(endpoint);
+                }
+                CompletableFuture.delayedExecutor(backoffNanos(attempt), TimeUnit.NANOSECONDS)
+                        .execute(() -> attempt(attempt + 1, endpoint, request, metrics, result));
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    /*
+     * Wait before the given retry (1 = first retry), with "equal jitter".
+     */
+    long backoffNanos(int retry) {
+        long cap = baseDelayNanos << Math.min(retry - 1, 30);
+        if (cap > maxDelayNanos || cap < 0) {
+            cap = maxDelayNanos;
+        }
+        long half = cap / 2;
+        return half + ThreadLocalRandom.current().nextLong(cap - half + 1);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,137 @@
+package com.meallab.api.resilience;
+
+import com.meallab.api.service.EncodedBody;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+ * Last known good response body per request, for stale-while-revalidate.
+ *
+ * MealDbApiClient stores every successful response here and serves the
+ * stored body instead of failing or waiting:
+ * - while the circuit breaker for the endpoint is open
+ * - when the request fails with a network error, 429 or 5xx
+ * - to callers that arrive while the same request is already in flight
+ *
+ * Bounded by entries and bytes (least recently used bodies are dropped
+ * first) and by age: bodies older than maxAge are never served. Bodies are
+ * kept as received, so compressed ones count (and cost) their compressed size.
+ */
+
+public class StaleResponseCache {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long maxAgeNanos;
+    private final LongSupplier ticker;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder servedCount = new LongAdder();
+
+    /*
+     * Up to 1000 responses / 32 MB, served for at most a day.
+     */
+    public StaleResponseCache() {
+        this(1000, 32L * 1024 * 1024, Duration.ofDays(1));
+    }
+
+    public StaleResponseCache(int maxEntries, long maxBytes, Duration maxAge) {
+        this(maxEntries, maxBytes, maxAge, System::nanoTime);
+    }
+
+    StaleResponseCache(int maxEntries, long maxBytes, Duration maxAge, LongSupplier ticker) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Max entries and max bytes must be positive");
+        }
+        if (maxAge == null || maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Max age must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.ticker = ticker;
+    }
+
+    /*
+     * Remembers the body as the last good response for the key.
+     * Bodies larger than the byte limit are not stored.
+     */
+    public synchronized void put(String key, EncodedBody body) {
+        if (key == null || body == null) {
+            throw new IllegalArgumentException("Key and body cannot be null");
+        }
+
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.body.length();
+        }
+        if (body.length() > maxBytes) {
+            return;
+        }
+
+        entries.put(key, new Entry(body, ticker.getAsLong()));
+        totalBytes += body.length();
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().body.length();
+            eldest.remove();
+        }
+    }
+
+    /*
+     * Returns the last good body for the key to be served, or null if there
+     * is none or it is older than maxAge.
+     */
+    public synchronized EncodedBody get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ticker.getAsLong() - entry.storedAt > maxAgeNanos) {
+            entries.remove(key);
+            totalBytes -= entry.body.length();
+            return null;
+        }
+        servedCount.increment();
+        return entry.body;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    /*
+     * Number of times a stale body was served.
+     */
+    public long getServedCount() {
+        return servedCount.sum();
+    }
+
+    private static class Entry {
+        final EncodedBody body;
+        final long storedAt;
+
+        Entry(EncodedBody body, long storedAt) {
+            this.body = body;
+            this.storedAt = storedAt;
+        }
+    }
+}
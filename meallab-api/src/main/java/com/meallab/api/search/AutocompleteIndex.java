@@ -0,0 +1,412 @@
+package com.meallab.api.search;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.IngredientInfo;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.service.MealDbApiClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Type-ahead suggestions for meal names and ingredient names.
+ *
+ * Calling searchByName() or searchByIngredient() on every keystroke floods
+ * TheMealDB and fails with MealNotFoundException for every half-typed word.
+ * This index answers from memory instead:
+ * - Prefix completions ("chi" -> "Chicken", "Chicken Handi", ...)
+ * - Completions of any word of a meal name ("curry" -> "Chicken Curry")
+ * - Fuzzy completions for typos ("chiken" -> "Chicken")
+ *
+ * Suggestions are ranked by how many known recipes use an ingredient,
+ * then by length (shorter first), then alphabetically.
+ *
+ * The index is fed from recipes the application already has (client
+ * listener, catalog mirror) and from TheMealDB's ingredient list
+ * (list.php?i=list). Added names become searchable after rebuild(),
+ * which refresh() and the background refresh call automatically.
+ *
+ * Usage example:
+ * <pre>
+ * AutocompleteIndex autocomplete = new AutocompleteIndex();
+ * client.addRecipeListener(autocomplete::addMeal);
+ * autocomplete.addMeals(mirror.getRecipes());
+ * autocomplete.refresh(client);                           // ingredient list + rebuild
+ * autocomplete.startBackgroundRefresh(client, Duration.ofMinutes(10));
+ *
+ * List&lt;Suggestion&gt; suggestions = autocomplete.suggest("chik", 8);
+ * autocomplete.close();                                   // on shutdown: ends the refresh thread
+ * </pre>
+ *
+ * Queries are lock-free reads of an immutable trie; rebuilding swaps in a new one.
+ */
+
+public class AutocompleteIndex implements AutoCloseable {
+
+    /*
+     * Number of best suggestions precomputed per trie node
+     */
+    private static final int BEST_PER_NODE = 10;
+
+    /*
+     * Shortest input for which typos are corrected, and for which two are
+     */
+    private static final int ONE_TYPO_MIN_LENGTH = 3;
+    private static final int TWO_TYPOS_MIN_LENGTH = 7;
+
+    // Sources (meal ID -> recipe, folded ingredient name -> display name)
+    private final Map<String, MealSource> meals = new ConcurrentHashMap<>();
+    private final Map<String, String> ingredients = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    // Current searchable snapshot
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Background refresh
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refreshTask;
+    private volatile Exception lastRefreshError;
+
+    // Feeding
+
+    /*
+     * Adds (or updates) a meal name and the ingredients it uses.
+     */
+    public void addMeal(Recipe recipe) {
+        if (recipe == null || recipe.getId() == null || isBlank(recipe.getName())) {
+            return;
+        }
+
+        List<String> used = new ArrayList<>();
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            if (!isBlank(ingredient.getName())) {
+                String display = ingredient.getName().trim();
+                ingredients.putIfAbsent(TextTokenizer.fold(display), display);
+                used.add(TextTokenizer.fold(display));
+            }
+        }
+        meals.put(recipe.getId().trim(), new MealSource(recipe.getName().trim(), used));
+        dirty = true;
+    }
+
+    public void addMeals(Collection<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            addMeal(recipe);
+        }
+    }
+
+    /*
+     * Adds ingredient names, e.g. from MealDbApiClient.listIngredients().
+     */
+    public void addIngredients(Collection<IngredientInfo> list) {
+        for (IngredientInfo info : list) {
+            if (!isBlank(info.getName())) {
+                String display = info.getName().trim();
+                ingredients.putIfAbsent(TextTokenizer.fold(display), display);
+            }
+        }
+        dirty = true;
+    }
+
+    /*
+     * Makes everything added so far searchable.
+     */
+    public synchronized void rebuild() {
+        dirty = false;
+        this.snapshot = Snapshot.build(meals, ingredients);
+    }
+
+    /*
+     * Downloads the ingredient list and rebuilds the index.
+     */
+    public void refresh(MealDbApiClient client) throws ApiException {
+        addIngredients(client.listIngredients().getIngredients());
+        rebuild();
+    }
+
+    /*
+     * Refreshes periodically on a background thread (first run immediately).
+     *
+     * Between downloads, meals added in the meantime are picked up as well.
+     * Failures keep the current suggestions and are available from getLastRefreshError().
+     */
+    public synchronized void startBackgroundRefresh(MealDbApiClient client, Duration interval) {
+        if (client == null) {
+            throw new IllegalArgumentException("Client cannot be null");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        stopBackgroundRefresh();
+
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "meallab-autocomplete-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        refreshTask = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh(client);
+                lastRefreshError = null;
+            } catch (Exception e) {
+                lastRefreshError = e;
+                if (dirty) {
+                    rebuild();
+                }
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopBackgroundRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+    }
+
+    /*
+     * Stops the background refresh thread.
+     */
+    @Override
+    public synchronized void close() {
+        stopBackgroundRefresh();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Queries
+
+    /*
+     * Exact prefix completions first, then fuzzy ones if there is room.
+     */
+    public List<Suggestion> suggest(String text, int limit) {
+        List<Suggestion> result = complete(text, limit);
+        if (result.size() < limit) {
+            String query = normalizeQuery(text);
+            int maxEdits = query.length() >= TWO_TYPOS_MIN_LENGTH ? 2
+                    : query.length() >= ONE_TYPO_MIN_LENGTH ? 1 : 0;
+            if (maxEdits > 0) {
+                for (Suggestion suggestion : completeFuzzy(text, maxEdits, limit)) {
+                    if (result.size() < limit && !result.contains(suggestion)) {
+                        result.add(suggestion);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Names (or words of names) starting with the text, best first.
+     */
+    public List<Suggestion> complete(String text, int limit) {
+        checkLimit(limit);
+        String prefix = normalizeQuery(text);
+        Snapshot current = snapshot;
+        List<Suggestion> result = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            return result;
+        }
+
+        int node = current.trie.find(prefix);
+        if (node < 0) {
+            return result;
+        }
+
+        int[] best = current.trie.best(node);
+        if (best.length < limit && best.length == BEST_PER_NODE) {
+            // More results wanted than precomputed: walk the subtree
+            List<Integer> all = new ArrayList<>();
+            current.trie.collectAll(node, all);
+            best = all.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        }
+
+        for (int i = 0; i < best.length && result.size() < limit; i++) {
+            result.add(current.suggestion(best[i], 0));
+        }
+        return result;
+    }
+
+    /*
+     * Completions of names within maxEdits typos of the text,
+     * fewest typos first, then best first.
+     */
+    public List<Suggestion> completeFuzzy(String text, int maxEdits, int limit) {
+        checkLimit(limit);
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Edit distance cannot be negative");
+        }
+        String query = normalizeQuery(text);
+        Snapshot current = snapshot;
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Entry ID -> fewest edits it was reached with
+        Map<Integer, Integer> distances = new HashMap<>();
+        current.trie.fuzzy(query, maxEdits, (node, distance) -> {
+            for (int entryId : current.trie.best(node)) {
+                distances.merge(entryId, distance, Math::min);
+            }
+        });
+
+        List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(distances.entrySet());
+        ranked.sort((a, b) -> !a.getValue().equals(b.getValue())
+                ? Integer.compare(a.getValue(), b.getValue())
+                : Integer.compare(a.getKey(), b.getKey()));
+
+        List<Suggestion> result = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && result.size() < limit; i++) {
+            result.add(current.suggestion(ranked.get(i).getKey(), ranked.get(i).getValue()));
+        }
+        return result;
+    }
+
+    /*
+     * Number of searchable suggestions (meals plus ingredients).
+     */
+    public int size() {
+        return snapshot.entries.length;
+    }
+
+    /*
+     * True if names were added since the last rebuild().
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public Exception getLastRefreshError() {
+        return lastRefreshError;
+    }
+
+    // Helper Methods
+
+    private static String normalizeQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        return TextTokenizer.fold(text.trim()).replaceAll("\\s+", " ");
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    /*
+     * A meal name and the folded names of its ingredients.
+     */
+    private static final class MealSource {
+        final String name;
+        final List<String> ingredientKeys;
+
+        MealSource(String name, List<String> ingredientKeys) {
+            this.name = name;
+            this.ingredientKeys = ingredientKeys;
+        }
+    }
+
+    /*
+     * Immutable, searchable state: the ranked suggestions and the trie over them.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Suggestion[0],
+                CompactTrie.build(new ArrayList<>(), new ArrayList<>(), BEST_PER_NODE));
+
+        final Suggestion[] entries;  // Index = entry ID = rank
+        final CompactTrie trie;
+
+        Snapshot(Suggestion[] entries, CompactTrie trie) {
+            this.entries = entries;
+            this.trie = trie;
+        }
+
+        Suggestion suggestion(int entryId, int editDistance) {
+            Suggestion entry = entries[entryId];
+            return editDistance == 0 ? entry
+                    : new Suggestion(entry.getText(), entry.getType(), entry.getMealId(), editDistance);
+        }
+
+        static Snapshot build(Map<String, MealSource> meals, Map<String, String> ingredients) {
+            // Popularity of each ingredient among known meals
+            Map<String, Integer> usage = new HashMap<>();
+            for (MealSource meal : meals.values()) {
+                for (String key : new HashSet<>(meal.ingredientKeys)) {
+                    usage.merge(key, 1, Integer::sum);
+                }
+            }
+
+            List<Suggestion> suggestions = new ArrayList<>();
+            Map<Suggestion, Integer> weights = new HashMap<>();
+            for (Map.Entry<String, MealSource> meal : meals.entrySet()) {
+                Suggestion s = new Suggestion(meal.getValue().name, Suggestion.Type.MEAL, meal.getKey(), 0);
+                suggestions.add(s);
+                weights.put(s, 1);
+            }
+            for (Map.Entry<String, String> ingredient : ingredients.entrySet()) {
+                Suggestion s = new Suggestion(ingredient.getValue(), Suggestion.Type.INGREDIENT, null, 0);
+                suggestions.add(s);
+                weights.put(s, 1 + usage.getOrDefault(ingredient.getKey(), 0));
+            }
+
+            // Rank: more popular, then shorter, then alphabetical
+            suggestions.sort((a, b) -> {
+                int byWeight = Integer.compare(weights.get(b), weights.get(a));
+                if (byWeight != 0) {
+                    return byWeight;
+                }
+                int byLength = Integer.compare(a.getText().length(), b.getText().length());
+                return byLength != 0 ? byLength : a.getText().compareToIgnoreCase(b.getText());
+            });
+
+            // One key for the full name and one for every later word in it
+            Map<String, Set<Integer>> keys = new LinkedHashMap<>();
+            for (int id = 0; id < suggestions.size(); id++) {
+                String folded = normalizeQuery(suggestions.get(id).getText());
+                keys.computeIfAbsent(folded, k -> new HashSet<>()).add(id);
+                for (int i = 1; i < folded.length(); i++) {
+                    if (!Character.isLetterOrDigit(folded.charAt(i - 1))
+                            && Character.isLetterOrDigit(folded.charAt(i))) {
+                        keys.computeIfAbsent(folded.substring(i), k -> new HashSet<>()).add(id);
+                    }
+                }
+            }
+
+            List<String> keyList = new ArrayList<>();
+            List<Integer> idList = new ArrayList<>();
+            for (Map.Entry<String, Set<Integer>> key : keys.entrySet()) {
+                for (int id : key.getValue()) {
+                    keyList.add(key.getKey());
+                    idList.add(id);
+                }
+            }
+
+            return new Snapshot(suggestions.toArray(new Suggestion[0]),
+                    CompactTrie.build(keyList, idList, BEST_PER_NODE));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.meallab.api.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Immutable character trie stored in flat arrays, used by AutocompleteIndex.
+ *
+ * Node 0 is the root. Each node has one label character, its first child
+ * and its next sibling, so the whole trie is a handful of primitive arrays
+ * instead of one object (and one map) per node.
+ *
+ * Every key points to an entry ID. Entry IDs double as ranks: a lower ID is
+ * a better suggestion. Each node stores the best few IDs found anywhere below
+ * it, so the top completions of a prefix are read directly from the node
+ * the prefix ends at.
+ */
+
+final class CompactTrie {
+
+    private static final int[] NONE = new int[0];
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[][] terminals;   // Entry IDs of keys ending at each node
+    private final int[][] best;        // Lowest entry IDs in each node's subtree
+    private final int nodeCount;
+
+    private CompactTrie(char[] labels, int[] firstChild, int[] nextSibling,
+                        int[][] terminals, int[][] best, int nodeCount) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.terminals = terminals;
+        this.best = best;
+        this.nodeCount = nodeCount;
+    }
+
+    /*
+     * Builds a trie from parallel lists of keys and entry IDs,
+     * keeping up to bestPerNode IDs per node.
+     */
+    static CompactTrie build(List<String> keys, List<Integer> entryIds, int bestPerNode) {
+        int capacity = 1;
+        for (String key : keys) {
+            capacity += key.length();
+        }
+
+        char[] labels = new char[capacity];
+        int[] firstChild = new int[capacity];
+        int[] nextSibling = new int[capacity];
+        List<List<Integer>> ends = new ArrayList<>();
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        ends.add(null);
+        int nodeCount = 1;
+
+        for (int k = 0; k < keys.size(); k++) {
+            String key = keys.get(k);
+            int node = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                int child = firstChild[node];
+                while (child >= 0 && labels[child] != c) {
+                    child = nextSibling[child];
+                }
+                if (child < 0) {
+                    child = nodeCount++;
+                    labels[child] = c;
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                    ends.add(null);
+                }
+                node = child;
+            }
+            if (ends.get(node) == null) {
+                ends.set(node, new ArrayList<>(1));
+            }
+            ends.get(node).add(entryIds.get(k));
+        }
+
+        int[][] terminals = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            List<Integer> ids = ends.get(node);
+            terminals[node] = ids == null ? NONE : ids.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        }
+
+        // Children always have higher numbers than their parent,
+        // so walking backwards visits every subtree before its root
+        int[][] best = new int[nodeCount][];
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            int[] merged = terminals[node];
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                merged = mergeLowest(merged, best[child], bestPerNode);
+            }
+            best[node] = merged.length > bestPerNode ? Arrays.copyOf(merged, bestPerNode) : merged;
+        }
+
+        return new CompactTrie(
+                Arrays.copyOf(labels, nodeCount),
+                Arrays.copyOf(firstChild, nodeCount),
+                Arrays.copyOf(nextSibling, nodeCount),
+                terminals, best, nodeCount);
+    }
+
+    /*
+     * The node reached by following the prefix, or -1.
+     */
+    int find(String prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node >= 0; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /*
+     * Best entry IDs in the node's subtree, ascending (at most bestPerNode).
+     */
+    int[] best(int node) {
+        return best[node];
+    }
+
+    /*
+     * Adds every entry ID in the node's subtree to the list (unsorted, may repeat).
+     */
+    void collectAll(int node, List<Integer> out) {
+        for (int id : terminals[node]) {
+            out.add(id);
+        }
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            collectAll(child, out);
+        }
+    }
+
+    /*
+     * Calls the visitor for every node whose path is within maxEdits
+     * edits (Levenshtein distance) of the query.
+     */
+    void fuzzy(String query, int maxEdits, FuzzyVisitor visitor) {
+        int[] row = new int[query.length() + 1];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = j;
+        }
+        for (int child = firstChild[0]; child >= 0; child = nextSibling[child]) {
+            fuzzy(child, query, row, maxEdits, visitor);
+        }
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    // Helper Methods
+
+    private void fuzzy(int node, String query, int[] previous, int maxEdits, FuzzyVisitor visitor) {
+        char c = labels[node];
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        int rowMin = row[0];
+        for (int j = 1; j < row.length; j++) {
+            int substitute = previous[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(substitute, Math.min(previous[j] + 1, row[j - 1] + 1));
+            rowMin = Math.min(rowMin, row[j]);
+        }
+
+        if (row[query.length()] <= maxEdits) {
+            visitor.visit(node, row[query.length()]);
+        }
+        if (rowMin > maxEdits) {
+            return;  // No extension of this path can get back within range
+        }
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            fuzzy(child, query, row, maxEdits, visitor);
+        }
+    }
+
+    private int child(int node, char c) {
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            if (labels[child] == c) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Merges two ascending ID arrays, dropping duplicates and keeping at most limit IDs.
+     */
+    private static int[] mergeLowest(int[] a, int[] b, int limit) {
+        if (b.length == 0) {
+            return a;
+        }
+        if (a.length == 0) {
+            return b;
+        }
+
+        int[] out = new int[Math.min(limit, a.length + b.length)];
+        int i = 0, j = 0, n = 0;
+        while (n < out.length && (i < a.length || j < b.length)) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                next = a[i++];
+            } else {
+                next = b[j++];
+            }
+            if (n == 0 || out[n - 1] != next) {
+                out[n++] = next;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /*
+     * Receives the nodes matched by a fuzzy search.
+     */
+    interface FuzzyVisitor {
+        void visit(int node, int editDistance);
+    }
+}
@@ -0,0 +1,449 @@
+package com.meallab.api.search;
+
+import com.meallab.api.model.Recipe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Local full-text search over recipe names, instructions, tags, category and area,
+ * ranked with BM25.
+ *
+ * searchByName() only matches meal names on TheMealDB's side, and nothing
+ * searches instructions or tags. This index keeps, for every term, the recipes
+ * that contain it together with the term's positions, so it can:
+ * - Rank recipes for free-text queries ("slow cooker overnight")
+ * - Require exact phrases written in quotes ("\"slow cooker\" overnight")
+ *
+ * Stop words are never scored, but their positions are kept too, so the
+ * phrase "salt and pepper" matches neither "salt or pepper" nor "salt, pepper".
+ *
+ * Matches in the name count more than matches in tags, category or area,
+ * which count more than matches in the instructions (see the *_WEIGHT constants).
+ *
+ * Recipes are added and removed incrementally, e.g. as the client fetches them:
+ * <pre>
+ * FullTextIndex index = new FullTextIndex();
+ * client.addRecipeListener(index::add);
+ * List<SearchHit> hits = index.search("slow cooker overnight", 10);
+ * </pre>
+ *
+ * All methods are thread-safe (many readers, one writer at a time).
+ */
+
+public class FullTextIndex {
+
+    /*
+     * BM25 parameters (the usual defaults)
+     */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /*
+     * How much one occurrence of a term counts, per field
+     */
+    private static final int NAME_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int AREA_WEIGHT = 2;
+    private static final int INSTRUCTIONS_WEIGHT = 1;
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+
+    // Recipe stored under each document number (null = free slot)
+    private final List<Recipe> documents = new ArrayList<>();
+
+    // Distinct terms of each document, so it can be removed again
+    private final List<String[]> documentTerms = new ArrayList<>();
+
+    // Weighted length of each document
+    private int[] documentLengths = new int[16];
+    private long totalLength;
+
+    // Meal ID -> document number
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final ArrayDeque<Integer> freeDocIds = new ArrayDeque<>();
+
+    // Term -> (document number -> occurrences of the term in that document)
+    private final Map<String, Map<Integer, Posting>> postings = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexing
+
+    /*
+     * Adds a recipe, replacing any previous version with the same ID.
+     * Recipes without an ID are ignored.
+     */
+    public void add(Recipe recipe) {
+        if (recipe == null || recipe.getId() == null) {
+            return;
+        }
+
+        String mealId = recipe.getId().trim();
+
+        // Tokenize outside the lock
+        Map<String, PostingBuilder> terms = new HashMap<>();
+        int[] position = {0};
+        int length = addField(terms, position, recipe.getName(), NAME_WEIGHT)
+                + addField(terms, position, recipe.getCategory(), CATEGORY_WEIGHT)
+                + addField(terms, position, recipe.getArea(), AREA_WEIGHT)
+                + addField(terms, position, String.join(" ", recipe.getTagsList()), TAG_WEIGHT)
+                + addField(terms, position, recipe.getInstructions(), INSTRUCTIONS_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIds.get(mealId);
+            int docId;
+            if (existing != null) {
+                docId = existing;
+                unpost(docId);
+            } else {
+                docId = freeDocIds.isEmpty() ? documents.size() : freeDocIds.pop();
+                if (docId == documents.size()) {
+                    documents.add(null);
+                    documentTerms.add(null);
+                    if (docId == documentLengths.length) {
+                        documentLengths = Arrays.copyOf(documentLengths, docId * 2);
+                    }
+                }
+                docIds.put(mealId, docId);
+            }
+
+            for (Map.Entry<String, PostingBuilder> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>())
+                        .put(docId, term.getValue().build());
+            }
+            documents.set(docId, recipe);
+            documentTerms.set(docId, terms.keySet().toArray(new String[0]));
+            documentLengths[docId] = length;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            add(recipe);
+        }
+    }
+
+    /*
+     * Removes the recipe with the given meal ID.
+     *
+     * Returns false if it was not indexed.
+     */
+    public boolean remove(String mealId) {
+        if (mealId == null) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.remove(mealId.trim());
+            if (docId == null) {
+                return false;
+            }
+            unpost(docId);
+            documents.set(docId, null);
+            documentTerms.set(docId, null);
+            freeDocIds.push(docId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            documentTerms.clear();
+            documentLengths = new int[16];
+            totalLength = 0;
+            docIds.clear();
+            freeDocIds.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Queries
+
+    /*
+     * Returns the best matching recipes, best first, at most limit of them.
+     *
+     * Words are matched individually and ranked with BM25; text in double
+     * quotes must appear as an exact phrase. Returns an empty list when
+     * nothing matches (no exception, unlike the API client).
+     */
+    public List<SearchHit> search(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Query cannot be null or empty");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+
+        // Split into quoted phrases and individual terms
+        List<List<String>> phrases = new ArrayList<>();
+        Matcher matcher = PHRASE.matcher(query);
+        while (matcher.find()) {
+            List<String> phrase = trimStopWords(TextTokenizer.words(matcher.group(1)));
+            if (!phrase.isEmpty()) {
+                phrases.add(phrase);
+            }
+        }
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = docIds.size();
+            if (documentCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            // Accumulate BM25 scores per document
+            double[] scores = new double[documents.size()];
+            BitSet matched = new BitSet(documents.size());
+            for (String term : terms) {
+                Map<Integer, Posting> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Integer, Posting> entry : posting.entrySet()) {
+                    int docId = entry.getKey();
+                    double tf = entry.getValue().weightedFrequency;
+                    double norm = K1 * (1 - B + B * documentLengths[docId] / averageLength);
+                    scores[docId] += idf * tf * (K1 + 1) / (tf + norm);
+                    matched.set(docId);
+                }
+            }
+
+            // Quoted phrases are required
+            for (List<String> phrase : phrases) {
+                matched.and(phraseMatches(phrase));
+            }
+
+            return topK(scores, matched, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Number of indexed recipes.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Number of distinct terms in the index (not counting stop words,
+     * which are only kept for phrases).
+     */
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            int count = postings.size();
+            for (String term : postings.keySet()) {
+                if (TextTokenizer.isStopWord(term)) {
+                    count--;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String mealId) {
+        if (mealId == null) {
+            return false;
+        }
+
+        lock.readLock().lock();
+        try {
+            return docIds.containsKey(mealId.trim());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper Methods
+
+    /*
+     * Tokenizes one field into the document's postings.
+     * Returns the field's weighted length.
+     *
+     * Stop words get a position but no weight: queries never score them,
+     * and phrases can still check them word for word.
+     */
+    private static int addField(Map<String, PostingBuilder> terms, int[] position, String text, int weight) {
+        int length = 0;
+        for (String word : TextTokenizer.words(text)) {
+            boolean stopWord = TextTokenizer.isStopWord(word);
+            terms.computeIfAbsent(word, k -> new PostingBuilder()).add(position[0]++, stopWord ? 0 : weight);
+            if (!stopWord) {
+                length += weight;
+            }
+        }
+        position[0]++;  // Gap, so phrases never span two fields
+        return length;
+    }
+
+    /*
+     * Drops stop words from both ends of a phrase ("the slow cooker" matches
+     * "a slow cooker"); those inside it must match exactly.
+     */
+    private static List<String> trimStopWords(List<String> phrase) {
+        int from = 0;
+        int to = phrase.size();
+        while (from < to && TextTokenizer.isStopWord(phrase.get(from))) {
+            from++;
+        }
+        while (to > from && TextTokenizer.isStopWord(phrase.get(to - 1))) {
+            to--;
+        }
+        return phrase.subList(from, to);
+    }
+
+    /*
+     * Documents in which the terms appear next to each other, in order.
+     * Caller holds the lock.
+     */
+    private BitSet phraseMatches(List<String> phrase) {
+        BitSet result = new BitSet();
+        List<Map<Integer, Posting>> termPostings = new ArrayList<>(phrase.size());
+        for (String term : phrase) {
+            Map<Integer, Posting> posting = postings.get(term);
+            if (posting == null) {
+                return result;
+            }
+            termPostings.add(posting);
+        }
+
+        for (Map.Entry<Integer, Posting> first : termPostings.get(0).entrySet()) {
+            int docId = first.getKey();
+            for (int start : first.getValue().positions) {
+                if (followedBy(termPostings, docId, start)) {
+                    result.set(docId);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean followedBy(List<Map<Integer, Posting>> termPostings, int docId, int start) {
+        for (int i = 1; i < termPostings.size(); i++) {
+            Posting posting = termPostings.get(i).get(docId);
+            if (posting == null || Arrays.binarySearch(posting.positions, start + i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Picks the limit best documents with a bounded min-heap, best first.
+     * Caller holds the lock.
+     */
+    private List<SearchHit> topK(double[] scores, BitSet matched, int limit) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, matched.cardinality()) + 1,
+                (a, b) -> scores[a] != scores[b] ? Double.compare(scores[a], scores[b]) : Integer.compare(b, a));
+
+        for (int docId = matched.nextSetBit(0); docId >= 0; docId = matched.nextSetBit(docId + 1)) {
+            if (heap.size() < limit) {
+                heap.add(docId);
+            } else if (scores[docId] > scores[heap.peek()]) {
+                heap.poll();
+                heap.add(docId);
+            }
+        }
+
+        SearchHit[] hits = new SearchHit[heap.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            int docId = heap.poll();
+            hits[i] = new SearchHit(documents.get(docId), scores[docId]);
+        }
+        return new ArrayList<>(Arrays.asList(hits));
+    }
+
+    /*
+     * Removes a document from the postings of its terms.
+     * Caller holds the write lock.
+     */
+    private void unpost(int docId) {
+        for (String term : documentTerms.get(docId)) {
+            Map<Integer, Posting> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(docId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= documentLengths[docId];
+        documentLengths[docId] = 0;
+    }
+
+    /*
+     * Occurrences of one term in one document.
+     */
+    private static final class Posting {
+        final int weightedFrequency;
+        final int[] positions;  // Ascending
+
+        Posting(int weightedFrequency, int[] positions) {
+            this.weightedFrequency = weightedFrequency;
+            this.positions = positions;
+        }
+    }
+
+    /*
+     * Collects a Posting while a document is being tokenized.
+     */
+    private static final class PostingBuilder {
+        private int weightedFrequency;
+        private int[] positions = new int[4];
+        private int count;
+
+        void add(int position, int weight) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+            weightedFrequency += weight;
+        }
+
+        Posting build() {
+            return new Posting(weightedFrequency, Arrays.copyOf(positions, count));
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.meallab.api.search;
+
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Local inverted index from ingredient name to the recipes that use it.
+ *
+ * TheMealDB's filter.php only accepts one ingredient, so a question like
+ * "chicken AND garlic NOT cream" would need several remote calls plus a
+ * lookup per meal. This index answers it in memory instead.
+ *
+ * Every indexed recipe gets a small dense document number (0, 1, 2, ...),
+ * and every normalized ingredient name maps to a BitSet of those numbers.
+ * AND/OR/NOT are then plain BitSet and/or/andNot operations.
+ *
+ * Recipes can be added and removed at any time; numbers of removed recipes
+ * are reused, so the bitsets stay as small as the catalog.
+ *
+ * To index every recipe the client fetches:
+ * <pre>
+ * IngredientIndex index = new IngredientIndex();
+ * client.addRecipeListener(index::add);
+ * </pre>
+ *
+ * All methods are thread-safe (many readers, one writer at a time).
+ */
+
+public class IngredientIndex {
+
+    // Recipe stored under each document number (null = free slot)
+    private final List<Recipe> documents = new ArrayList<>();
+
+    // Meal ID -> document number
+    private final Map<String, Integer> docIds = new HashMap<>();
+
+    // Normalized ingredient name -> document numbers of recipes using it
+    private final Map<String, BitSet> postings = new HashMap<>();
+
+    // Document numbers in use, and freed ones waiting to be reused
+    private final BitSet live = new BitSet();
+    private final ArrayDeque<Integer> freeDocIds = new ArrayDeque<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexing
+
+    /*
+     * Adds a recipe, replacing any previous version with the same ID.
+     * Recipes without an ID are ignored.
+     */
+    public void add(Recipe recipe) {
+        if (recipe == null || recipe.getId() == null) {
+            return;
+        }
+
+        String mealId = recipe.getId().trim();
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIds.get(mealId);
+            int docId;
+            if (existing != null) {
+                docId = existing;
+                unpost(docId, documents.get(docId));
+            } else {
+                docId = freeDocIds.isEmpty() ? documents.size() : freeDocIds.pop();
+                if (docId == documents.size()) {
+                    documents.add(null);
+                }
+                docIds.put(mealId, docId);
+            }
+
+            documents.set(docId, recipe);
+            live.set(docId);
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                String key = normalize(ingredient.getName());
+                if (!key.isEmpty()) {
+                    postings.computeIfAbsent(key, k -> new BitSet()).set(docId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            add(recipe);
+        }
+    }
+
+    /*
+     * Removes the recipe with the given meal ID.
+     *
+     * Returns false if it was not indexed.
+     */
+    public boolean remove(String mealId) {
+        if (mealId == null) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.remove(mealId.trim());
+            if (docId == null) {
+                return false;
+            }
+            unpost(docId, documents.get(docId));
+            documents.set(docId, null);
+            live.clear(docId);
+            freeDocIds.push(docId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            docIds.clear();
+            postings.clear();
+            live.clear();
+            freeDocIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Queries
+
+    /*
+     * Recipes matching the boolean query, in no particular order.
+     *
+     * An empty query matches every indexed recipe.
+     */
+    public List<Recipe> search(IngredientQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+
+        lock.readLock().lock();
+        try {
+            return collect(match(query));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Number of recipes matching the query, without building the result list.
+     */
+    public int count(IngredientQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+
+        lock.readLock().lock();
+        try {
+            return match(query).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Recipes that contain every one of the ingredients.
+     */
+    public List<Recipe> searchAll(String... ingredients) {
+        return search(new IngredientQuery().all(ingredients));
+    }
+
+    /*
+     * Recipes that contain at least one of the ingredients.
+     */
+    public List<Recipe> searchAny(String... ingredients) {
+        return search(new IngredientQuery().any(ingredients));
+    }
+
+    public boolean contains(String mealId) {
+        if (mealId == null) {
+            return false;
+        }
+
+        lock.readLock().lock();
+        try {
+            return docIds.containsKey(mealId.trim());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Number of indexed recipes.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Number of distinct (normalized) ingredient names.
+     */
+    public int getIngredientCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Number of indexed recipes that use the ingredient.
+     */
+    public int getRecipeCount(String ingredient) {
+        lock.readLock().lock();
+        try {
+            BitSet posting = postings.get(normalize(ingredient));
+            return posting != null ? posting.cardinality() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Normalizes an ingredient name for lookup: trimmed, lower case,
+     * '_' as space (like filter.php) and single spaces between words.
+     */
+    public static String normalize(String ingredient) {
+        if (ingredient == null) {
+            return "";
+        }
+        return ingredient.trim()
+                .replace('_', ' ')
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // Helper Methods (callers hold the lock)
+
+    /*
+     * Evaluates the query to a fresh BitSet of document numbers.
+     */
+    private BitSet match(IngredientQuery query) {
+        BitSet result = null;
+
+        // AND: start from the rarest ingredient so the intersection shrinks fast
+        List<String> allOf = new ArrayList<>(query.getAllOf());
+        allOf.sort((a, b) -> Integer.compare(cardinality(a), cardinality(b)));
+        for (String ingredient : allOf) {
+            BitSet posting = postings.get(normalize(ingredient));
+            if (posting == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) posting.clone();
+            } else {
+                result.and(posting);
+            }
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+
+        // OR
+        if (!query.getAnyOf().isEmpty()) {
+            BitSet union = new BitSet();
+            for (String ingredient : query.getAnyOf()) {
+                BitSet posting = postings.get(normalize(ingredient));
+                if (posting != null) {
+                    union.or(posting);
+                }
+            }
+            if (result == null) {
+                result = union;
+            } else {
+                result.and(union);
+            }
+        }
+
+        if (result == null) {
+            result = (BitSet) live.clone();
+        }
+
+        // NOT
+        for (String ingredient : query.getNoneOf()) {
+            BitSet posting = postings.get(normalize(ingredient));
+            if (posting != null) {
+                result.andNot(posting);
+            }
+        }
+        return result;
+    }
+
+    private int cardinality(String ingredient) {
+        BitSet posting = postings.get(normalize(ingredient));
+        return posting != null ? posting.cardinality() : 0;
+    }
+
+    private List<Recipe> collect(BitSet docs) {
+        List<Recipe> recipes = new ArrayList<>(docs.cardinality());
+        for (int docId = docs.nextSetBit(0); docId >= 0; docId = docs.nextSetBit(docId + 1)) {
+            recipes.add(documents.get(docId));
+        }
+        return recipes;
+    }
+
+    /*
+     * Clears a document from the postings of its ingredients.
+     */
+    private void unpost(int docId, Recipe recipe) {
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            String key = normalize(ingredient.getName());
+            BitSet posting = postings.get(key);
+            if (posting != null) {
+                posting.clear(docId);
+                if (posting.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+}
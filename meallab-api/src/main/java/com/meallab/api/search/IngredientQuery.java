@@ -0,0 +1,93 @@
+package com.meallab.api.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Boolean query over ingredient names, evaluated by IngredientIndex.
+ *
+ * A recipe matches when it has:
+ * - every ingredient added with all()        (AND)
+ * - at least one ingredient added with any() (OR, ignored if none were added)
+ * - none of the ingredients added with none() (NOT)
+ *
+ * Usage example ("chicken AND garlic NOT cream"):
+ * <pre>
+ * IngredientQuery query = new IngredientQuery().all("chicken", "garlic").none("cream");
+ * List<Recipe> recipes = index.search(query);
+ * </pre>
+ *
+ * Names are matched case-insensitively (see IngredientIndex.normalize).
+ */
+
+public class IngredientQuery {
+    private final List<String> allOf = new ArrayList<>();
+    private final List<String> anyOf = new ArrayList<>();
+    private final List<String> noneOf = new ArrayList<>();
+
+    /*
+     * Recipes must contain all of these ingredients.
+     */
+    public IngredientQuery all(String... ingredients) {
+        add(allOf, ingredients);
+        return this;
+    }
+
+    /*
+     * Recipes must contain at least one of these ingredients.
+     */
+    public IngredientQuery any(String... ingredients) {
+        add(anyOf, ingredients);
+        return this;
+    }
+
+    /*
+     * Recipes must not contain any of these ingredients.
+     */
+    public IngredientQuery none(String... ingredients) {
+        add(noneOf, ingredients);
+        return this;
+    }
+
+    // Getters
+
+    public List<String> getAllOf() {
+        return Collections.unmodifiableList(allOf);
+    }
+
+    public List<String> getAnyOf() {
+        return Collections.unmodifiableList(anyOf);
+    }
+
+    public List<String> getNoneOf() {
+        return Collections.unmodifiableList(noneOf);
+    }
+
+    /*
+     * True if no ingredient was added at all.
+     */
+    public boolean isEmpty() {
+        return allOf.isEmpty() && anyOf.isEmpty() && noneOf.isEmpty();
+    }
+
+    // Helper Methods
+
+    private static void add(List<String> target, String[] ingredients) {
+        for (String ingredient : ingredients) {
+            if (ingredient == null || ingredient.trim().isEmpty()) {
+                throw new IllegalArgumentException("Ingredient cannot be null or empty");
+            }
+            target.add(ingredient);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IngredientQuery{" +
+                "all=" + allOf +
+                ", any=" + anyOf +
+                ", none=" + noneOf +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package com.meallab.api.search;
+
+import com.meallab.api.model.Recipe;
+
+/*
+ * One ranked result of a FullTextIndex search.
+ *
+ * Higher scores are better matches; scores are only comparable
+ * between hits of the same search.
+ */
+
+public class SearchHit {
+    private final Recipe recipe;
+    private final double score;
+
+    public SearchHit(Recipe recipe, double score) {
+        this.recipe = recipe;
+        this.score = score;
+    }
+
+    // Getters
+
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+                "id='" + recipe.getId() + '\'' +
+                ", name='" + recipe.getName() + '\'' +
+                ", score=" + String.format("%.3f", score) +
+                '}';
+    }
+}
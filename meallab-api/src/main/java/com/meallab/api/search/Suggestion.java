@@ -0,0 +1,90 @@
+package com.meallab.api.search;
+
+import java.util.Objects;
+
+/*
+ * One autocomplete suggestion: a meal name or an ingredient name.
+ */
+
+public class Suggestion {
+
+    public enum Type {
+        MEAL,
+        INGREDIENT
+    }
+
+    private final String text;
+    private final Type type;
+    private final String mealId;
+    private final int editDistance;
+
+    public Suggestion(String text, Type type, String mealId, int editDistance) {
+        this.text = text;
+        this.type = type;
+        this.mealId = mealId;
+        this.editDistance = editDistance;
+    }
+
+    // Getters
+
+    /*
+     * The name to show (original case and accents).
+     */
+    public String getText() {
+        return text;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /*
+     * Meal ID for MEAL suggestions, null for ingredients.
+     */
+    public String getMealId() {
+        return mealId;
+    }
+
+    /*
+     * 0 for exact prefix matches, otherwise the number of typos corrected.
+     */
+    public int getEditDistance() {
+        return editDistance;
+    }
+
+    public boolean isFuzzy() {
+        return editDistance > 0;
+    }
+
+    // Override Methods
+
+    @Override
+    public String toString() {
+        return "Suggestion{" +
+                "text='" + text + '\'' +
+                ", type=" + type +
+                (mealId != null ? ", mealId='" + mealId + '\'' : "") +
+                ", editDistance=" + editDistance +
+                '}';
+    }
+
+    /*
+     * Two suggestions are equal if they name the same meal or ingredient.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Suggestion that = (Suggestion) obj;
+        return type == that.type && Objects.equals(text, that.text) && Objects.equals(mealId, that.mealId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, type, mealId);
+    }
+}
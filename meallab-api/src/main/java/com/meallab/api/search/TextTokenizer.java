@@ -0,0 +1,86 @@
+package com.meallab.api.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+ * Splits recipe text into search terms.
+ *
+ * - Words are runs of letters and digits; everything else separates them
+ * - Terms are lower case, with accents removed ("Crème" -> "creme")
+ * - Very common English words ("the", "and", ...) are dropped
+ *
+ * The same rules are applied to indexed text and to queries,
+ * so both sides always agree on what a term is.
+ *
+ * words() keeps the stop words, for callers that need every word's
+ * position (phrase matching).
+ */
+
+final class TextTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from",
+            "if", "in", "into", "is", "it", "of", "on", "or", "so", "that", "the",
+            "then", "there", "this", "to", "until", "was", "will", "with");
+
+    private TextTokenizer() {
+    }
+
+    /*
+     * Returns the terms of the text, in order (empty for null).
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = words(text);
+        terms.removeIf(TextTokenizer::isStopWord);
+        return terms;
+    }
+
+    /*
+     * Returns every word of the text, stop words included, in order
+     * (empty for null). A word's index in the list is its position.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /*
+     * Whether the (folded) word is dropped from the search terms.
+     */
+    static boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word);
+    }
+
+    /*
+     * Lower case with accents removed. ASCII text (most of the catalog)
+     * skips the Unicode normalization step.
+     */
+    static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+                return decomposed.replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+            }
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
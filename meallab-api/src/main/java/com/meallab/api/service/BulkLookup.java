@@ -0,0 +1,130 @@
+package com.meallab.api.service;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.BulkMealResponse;
+import com.meallab.api.model.LookupResult;
+import com.meallab.api.model.Recipe;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/*
+ * Runs the lookups of one getMealsByIds() call with a bounded number in flight.
+ *
+ * Instead of one thread per lookup, this keeps a sliding window of at most
+ * maxConcurrency async requests: whenever one completes, the next ID is started.
+ * Each outcome is stored by position so the final response keeps the request order.
+ *
+ * Lookups return LookupResult, so an unknown ID travels as the shared
+ * NotFound result; its MealNotFoundException is only built for the response.
+ */
+
+class BulkLookup {
+
+    private final List<String> ids;
+    private final Function<String, CompletableFuture<LookupResult<Recipe>>> lookup;
+    private final int maxConcurrency;
+
+    // The LookupResult or the Throwable that its lookup failed with, per position
+    private final AtomicReferenceArray<Object> outcomes;
+    private final CompletableFuture<BulkMealResponse> result = new CompletableFuture<>();
+
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger remaining;
+
+    // Guards drain() against re-entrance when lookups complete synchronously
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    BulkLookup(List<String> ids, int maxConcurrency, Function<String, CompletableFuture<LookupResult<Recipe>>> lookup) {
+        this.ids = ids;
+        this.lookup = lookup;
+        this.maxConcurrency = maxConcurrency;
+        this.outcomes = new AtomicReferenceArray<>(ids.size());
+        this.remaining = new AtomicInteger(ids.size());
+    }
+
+    /*
+     * Starts the first window of lookups and returns the combined result.
+     */
+    CompletableFuture<BulkMealResponse> start() {
+        if (ids.isEmpty()) {
+            result.complete(buildResponse());
+        } else {
+            drain();
+        }
+        return result;
+    }
+
+    /*
+     * Starts lookups until the window is full or every ID has been started.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (inFlight.get() < maxConcurrency && nextIndex.get() < ids.size()) {
+                int index = nextIndex.getAndIncrement();
+                inFlight.incrementAndGet();
+                launch(index);
+            }
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    private void launch(int index) {
+        CompletableFuture<LookupResult<Recipe>> future;
+        try {
+            future = lookup.apply(ids.get(index));
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((found, error) -> {
+            outcomes.set(index, error != null ? error : found);
+            inFlight.decrementAndGet();
+
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(buildResponse());
+            } else {
+                drain();
+            }
+        });
+    }
+
+    private BulkMealResponse buildResponse() {
+        Map<String, Recipe> meals = new LinkedHashMap<>();
+        Map<String, ApiException> failures = new LinkedHashMap<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            Object outcome = outcomes.get(i);
+            if (outcome instanceof LookupResult.Found<?> found) {
+                meals.put(ids.get(i), (Recipe) found.get());
+            } else if (outcome instanceof LookupResult.NotFound) {
+                failures.put(ids.get(i), new MealNotFoundException("No meal found with ID: " + ids.get(i)));
+            } else {
+                failures.put(ids.get(i), toApiException((Throwable) outcome));
+            }
+        }
+
+        return new BulkMealResponse(ids, meals, failures);
+    }
+
+    private static ApiException toApiException(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof ApiException) {
+            return (ApiException) cause;
+        }
+        return new ApiException("Lookup failed: " + cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,256 @@
+package com.meallab.api.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/*
+ * A response body as it came over the network: the bytes and their
+ * Content-Encoding (gzip, deflate, or none).
+ *
+ * openStream() decodes while the body is read, so a compressed response
+ * can go straight into the JSON parser without a decoded copy ever being
+ * held in memory. decode() produces the plain bytes for callers that need
+ * them (e.g. a cache).
+ *
+ * "deflate" should be zlib-wrapped, but some servers send a raw deflate
+ * stream; the zlib header tells the two apart.
+ */
+
+public class EncodedBody {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte[] bytes;
+    private final String contentEncoding;
+
+    /*
+     * Body that is not compressed
+     */
+    public EncodedBody(byte[] bytes) {
+        this(bytes, null);
+    }
+
+    /*
+     * @param contentEncoding  the response's Content-Encoding (null or "identity" = as is)
+     */
+    public EncodedBody(byte[] bytes, String contentEncoding) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Body cannot be null");
+        }
+        this.bytes = bytes;
+        this.contentEncoding = normalize(contentEncoding);
+    }
+
+    /*
+     * The bytes as received
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /*
+     * "gzip", "deflate" or null (not compressed); other codings as sent
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public boolean isCompressed() {
+        return contentEncoding != null;
+    }
+
+    /*
+     * Number of bytes received
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /*
+     * Returns a stream of the decoded body. Throws an IOException for an
+     * unsupported Content-Encoding; a corrupt body fails while it is read.
+     *
+     * Closing the stream reads the rest of a compressed body first, so the
+     * gzip checksum is always verified (a reader like Jackson may stop and
+     * close the stream right after the last token).
+     */
+    public InputStream openStream() throws IOException {
+        if (contentEncoding == null) {
+            return new ByteArrayInputStream(bytes);
+        }
+        return new DecodingStream(decoder());
+    }
+
+    /*
+     * Decodes the whole body. Plain bodies are returned as they are.
+     */
+    public byte[] decode() throws IOException {
+        if (contentEncoding == null) {
+            return bytes;
+        }
+
+        byte[] decoded;
+        try (InputStream in = openStream()) {
+            int size = gzipSize();
+            if (size < 0) {
+                decoded = in.readAllBytes();
+            } else {
+                // The gzip trailer holds the decoded size, so the array is allocated once
+                decoded = new byte[size];
+                int read = in.readNBytes(decoded, 0, size);
+                if (read < size) {
+                    throw new IOException("Gzip body is shorter than its trailer says");
+                }
+                int next = in.read();
+                if (next >= 0) {
+                    // More than one member: the trailer only covers the last one
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(size * 2);
+                    out.write(decoded);
+                    out.write(next);
+                    in.transferTo(out);
+                    decoded = out.toByteArray();
+                }
+            }
+        }
+        return decoded;
+    }
+
+    /*
+     * Called once a compressed body has been decoded to the end (through
+     * openStream() or decode()). A corrupt body never gets here.
+     */
+    protected void decoded(long decodedLength) {
+    }
+
+    // Helper Methods
+
+    private static String normalize(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "":
+            case "identity":
+                return null;
+            case "x-gzip":
+                return "gzip";
+            default:
+                return encoding;
+        }
+    }
+
+    private InputStream decoder() throws IOException {
+        InputStream raw = new ByteArrayInputStream(bytes);
+        switch (contentEncoding) {
+            case "gzip":
+                return new GZIPInputStream(raw, BUFFER_SIZE);
+            case "deflate":
+                if (isZlib()) {
+                    return new InflaterInputStream(raw);
+                }
+                return new InflaterInputStream(raw, new Inflater(true), BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        inf.end();  // Not done for an Inflater passed in
+                    }
+                };
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    /*
+     * Whether the body starts with a zlib header (RFC 1950), not a raw deflate stream.
+     */
+    private boolean isZlib() {
+        if (bytes.length < 2) {
+            return true;
+        }
+        int cmf = bytes[0] & 0xFF;
+        int flg = bytes[1] & 0xFF;
+        return (cmf & 0x0F) == 8 && (cmf << 8 | flg) % 31 == 0;
+    }
+
+    /*
+     * Decoded size from the gzip trailer (ISIZE), or -1 if unknown.
+     */
+    private int gzipSize() {
+        if (!"gzip".equals(contentEncoding) || bytes.length < 18) {
+            return -1;
+        }
+        int end = bytes.length;
+        long size = (bytes[end - 4] & 0xFFL)
+                | (bytes[end - 3] & 0xFFL) << 8
+                | (bytes[end - 2] & 0xFFL) << 16
+                | (bytes[end - 1] & 0xFFL) << 24;
+        // Deflate cannot expand more than about 1032:1; a larger claim is not trusted
+        return size <= Integer.MAX_VALUE - 8 && size <= bytes.length * 1032L ? (int) size : -1;
+    }
+
+    /*
+     * Counts the decoded bytes and reports them at the end of the stream.
+     */
+    private class DecodingStream extends FilterInputStream {
+        private long count;
+        private boolean reported;
+        private boolean closed;
+
+        DecodingStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                reportEnd();
+            } else {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n < 0) {
+                reportEnd();
+            } else {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                byte[] rest = new byte[BUFFER_SIZE];
+                while (read(rest, 0, rest.length) >= 0) {
+                    // Verify the remainder (trailing whitespace, checksum)
+                }
+            } finally {
+                super.close();
+            }
+        }
+
+        private void reportEnd() {
+            if (!reported) {
+                reported = true;
+                decoded(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.meallab.api.service;
+
+import com.meallab.api.cache.CachedResponse;
+import com.meallab.api.cache.DiskResponseCache;
+import com.meallab.api.exception.ApiException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * MealDbTransport backed by Java's built-in HttpClient.
+ *
+ * With a DiskResponseCache (see setResponseCache), fresh responses are read
+ * from disk without a request, and stale ones that carry an ETag or
+ * Last-Modified are revalidated with If-None-Match / If-Modified-Since.
+ *
+ * Requests ask for gzip or deflate compressed bodies (Accept-Encoding), which
+ * the JDK HttpClient does not decode itself. getEncoded() hands them over
+ * still compressed (see EncodedBody), so MealDbApiClient decodes them while
+ * parsing; get() and the response cache see the decoded bytes.
+ * getBytesReceived() and getBytesDecoded() show how much was saved.
+ * Brotli is not offered: the JDK has no decoder for it.
+ */
+
+public class HttpClientTransport implements MealDbTransport {
+
+    /*
+     * Request timeout in seconds
+     */
+    private static final int TIMEOUT_SECONDS = 10;
+
+    /*
+     * Content codings offered in Accept-Encoding
+     */
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /*
+     * Default Accept header: TheMealDB answers in JSON
+     */
+    public static final String DEFAULT_ACCEPT = "application/json";
+
+    private final HttpClient httpClient;
+
+    /*
+     * Stored responses reused across restarts (null = disabled)
+     */
+    private volatile DiskResponseCache responseCache;
+
+    private volatile boolean compression = true;
+    private volatile String accept = DEFAULT_ACCEPT;
+
+    // Statistics (bodies of successful responses)
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesDecoded = new LongAdder();
+    private final LongAdder compressedResponseCount = new LongAdder();
+
+    /*
+     * Uses an HTTP/2 client with connect timeout and redirects enabled.
+     */
+    public HttpClientTransport() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)  // Use HTTP/2 for better performance
+                .connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))  // Connection timeout
+                .followRedirects(HttpClient.Redirect.NORMAL)  // Follow redirects automatically
+                .build());
+    }
+
+    public HttpClientTransport(HttpClient httpClient) {
+        if (httpClient == null) {
+            throw new IllegalArgumentException("HttpClient cannot be null");
+        }
+        this.httpClient = httpClient;
+    }
+
+    /*
+     * Sends an HTTP GET request to the specified URL without blocking the caller,
+     * or answers it from the response cache.
+     */
+    @Override
+    public CompletableFuture<byte[]> get(String url) {
+        DiskResponseCache cache = responseCache;
+        if (cache == null || !cache.isCacheable(url)) {
+            return send(url, null).thenCompose(response -> {
+                EncodedBody body = body(url, response);
+                if (!body.isCompressed()) {
+                    return CompletableFuture.completedFuture(body.getBytes());
+                }
+                return CompletableFuture.supplyAsync(() -> decode(url, body), executor());
+            });
+        }
+
+        // Disk reads happen off the caller's thread
+        return CompletableFuture.supplyAsync(() -> cache.get(url), executor()).thenCompose(cached -> {
+            if (cached != null && cache.isFresh(cached)) {
+                return CompletableFuture.completedFuture(cached.getBody());
+            }
+            // Revalidate what can be revalidated, download the rest again
+            CachedResponse validated = cached != null && cached.hasValidators() ? cached : null;
+            return send(url, validated).thenApplyAsync(response -> store(url, response, validated, cache), executor());
+        });
+    }
+
+    /*
+     * Like get(), but a compressed body is handed over as it arrived, to be
+     * decoded while it is parsed. Responses that go through the response
+     * cache come decoded (the cache keeps them that way).
+     */
+    @Override
+    public CompletableFuture<EncodedBody> getEncoded(String url) {
+        DiskResponseCache cache = responseCache;
+        if (cache != null && cache.isCacheable(url)) {
+            return get(url).thenApply(EncodedBody::new);
+        }
+        return send(url, null).thenApply(response -> body(url, response));
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public DiskResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /*
+     * Stores successful responses on disk and reuses them (see DiskResponseCache).
+     * Pass null to disable (the default).
+     */
+    public void setResponseCache(DiskResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /*
+     * Asks for gzip/deflate compressed responses (enabled by default).
+     */
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public String getAccept() {
+        return accept;
+    }
+
+    /*
+     * Media types asked for in the Accept header (DEFAULT_ACCEPT by default),
+     * e.g. image types for a transport that downloads images.
+     */
+    public void setAccept(String accept) {
+        if (accept == null || accept.isBlank()) {
+            throw new IllegalArgumentException("Accept cannot be empty");
+        }
+        this.accept = accept;
+    }
+
+    // Statistics
+
+    /*
+     * Body bytes as they came over the network (compressed or not)
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /*
+     * Body bytes after decoding, i.e. the JSON handed to the parser
+     */
+    public long getBytesDecoded() {
+        return bytesDecoded.sum();
+    }
+
+    /*
+     * Responses that arrived with a gzip or deflate Content-Encoding
+     */
+    public long getCompressedResponseCount() {
+        return compressedResponseCount.sum();
+    }
+
+    /*
+     * Sends the GET request, conditional when there is a cached response.
+     * The future completes on one of the HttpClient's threads, so nothing
+     * slow (decoding, disk writes) may be chained to it directly.
+     *
+     * The body is kept as bytes: decoding it into a String first would only
+     * be thrown away again by the parser, doubling allocation for large responses.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(String url, CachedResponse cached) {
+        // Build HTTP GET request
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .header("Accept", accept)
+                .GET();
+        if (compression) {
+            builder.header("Accept-Encoding", ACCEPT_ENCODING);
+        }
+        if (cached != null) {
+            if (cached.getETag() != null) {
+                builder.header("If-None-Match", cached.getETag());
+            }
+            if (cached.getLastModified() != null) {
+                builder.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        throw new CompletionException(new ApiException(
+                                "Network error while communicating with API:  " + cause.getMessage(), cause));
+                    }
+                    return response;
+                });
+    }
+
+    /*
+     * The body of a successful (200) response, counted in the statistics.
+     */
+    private EncodedBody body(String url, HttpResponse<byte[]> response) {
+        // Check HTTP status code
+        int statusCode = response.statusCode();
+        if (statusCode != 200) {
+            throw new CompletionException(new ApiException(
+                    "API request failed with status code " + statusCode +
+                            " for URL: " + url, statusCode
+            ));
+        }
+
+        byte[] bytes = response.body();
+        bytesReceived.add(bytes.length);
+        EncodedBody body = newBody(bytes, response.headers().firstValue("Content-Encoding").orElse(null));
+        if (!body.isCompressed()) {
+            bytesDecoded.add(bytes.length);
+        }
+        return body;
+    }
+
+    /*
+     * Handles the answer to a request that goes through the response cache:
+     * a 304 returns the cached body, a 200 is decoded and stored.
+     * Runs on the executor (decoding, disk writes).
+     */
+    private byte[] store(String url, HttpResponse<byte[]> response, CachedResponse cached, DiskResponseCache cache) {
+        // Not modified: the cached body is still current
+        if (response.statusCode() == 304 && cached != null) {
+            return cache.revalidated(cached, response.headers()).getBody();
+        }
+
+        // The cache keeps the decoded body
+        byte[] body = decode(url, body(url, response));
+        cache.put(url, response.headers(), body);
+        return body;
+    }
+
+    private static byte[] decode(String url, EncodedBody body) {
+        try {
+            return body.decode();
+        } catch (IOException e) {
+            throw new CompletionException(new ApiException(
+                    "Invalid compressed response for URL: " + url + " (" + e.getMessage() + ")", e));
+        }
+    }
+
+    /*
+     * A body whose decoding is counted once it has succeeded.
+     */
+    private EncodedBody newBody(byte[] bytes, String contentEncoding) {
+        return new EncodedBody(bytes, contentEncoding) {
+            @Override
+            protected void decoded(long decodedLength) {
+                compressedResponseCount.increment();
+                bytesDecoded.add(decodedLength);
+            }
+        };
+    }
+
+    /*
+     * Decodes a body by its Content-Encoding (see EncodedBody).
+     */
+    byte[] decode(String contentEncoding, byte[] body) throws IOException {
+        return newBody(body, contentEncoding).decode();
+    }
+
+    /*
+     * Runs disk I/O and decoding: the HttpClient's executor, or the common pool
+     */
+    private Executor executor() {
+        return httpClient.executor().orElse(ForkJoinPool.commonPool());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
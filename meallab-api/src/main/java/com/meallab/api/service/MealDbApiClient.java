@@ -1,18 +1,44 @@
 package com.meallab.api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.meallab.api.cache.QueryCache;
+import com.meallab.api.cache.RecipeCache;
 import com.meallab.api.exception.ApiException;
 import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.limit.RequestLimiter;
+import com.meallab.api.metrics.ApiEndpoint;
+import com.meallab.api.metrics.ApiRequestEvent;
+import com.meallab.api.metrics.ClientMetrics;
+import com.meallab.api.metrics.JsonDeserializationEvent;
+import com.meallab.api.metrics.MealNotFoundEvent;
+import com.meallab.api.metrics.RecipeCacheEvent;
+import com.meallab.api.mirror.CatalogMirror;
 import com.meallab.api.model.*;
+import com.meallab.api.resilience.CircuitBreakerPolicy;
+import com.meallab.api.resilience.HedgePolicy;
+import com.meallab.api.resilience.RetryPolicy;
+import com.meallab.api.resilience.StaleResponseCache;
 
 import java.io.IOException;
-import java.net.URI;
+import java.io.InputStream;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 /*
  * Client for interacting with TheMealDB API.
@@ -22,9 +48,28 @@ import java.time.Duration;
  * - Search for meals by name
  * - Get detailed meal information by ID
  * - Get a random meal suggestion
+ * - Get full details for many meal IDs at once
+ * - List all known ingredients
+ *
+ * Full recipes are kept in a bounded RecipeCache, so repeated lookups of the
+ * same meal ID are answered from memory (see setRecipeCache). Identical requests
+ * that are in flight at the same time are coalesced into a single HTTP call.
+ * An optional QueryCache (see setQueryCache) remembers search results and
+ * "no results" answers per normalized query.
+ * With a loaded CatalogMirror (see setCatalogMirror) the four operations are
+ * answered from the local copy of the catalog instead of the API.
+ * Request counts, errors and latencies are recorded per endpoint in
+ * ClientMetrics (see getMetrics), which can also be exposed over JMX.
+ * Requests, JSON parsing and empty results are also emitted as Java Flight
+ * Recorder events (see the com.meallab.api.metrics event classes).
+ *
+ * Every operation is available in two flavours:
+ * - A blocking method (e.g. getMealById) that returns the result or throws ApiException
+ * - A non-blocking method (e.g. getMealByIdAsync) that returns a CompletableFuture
  *
  * It uses Java's built-in HttpClient for HTTP requests
- * and Jackson for JSON deserialization.
+ * and Jackson for JSON deserialization. Both the server (base URL) and the
+ * transport can be replaced, e.g. to run against a local MealDbStubServer.
  *
  * Usage example:
  * <pre>
@@ -44,38 +89,52 @@ public class MealDbApiClient {
     /*
      * Base URL for TheMealDB API (version 1)
      */
-    private static final String BASE_URL = "https://www.themealdb.com/api/json/v1/1";
+    public static final String DEFAULT_BASE_URL = "https://www.themealdb.com/api/json/v1/1";
 
     /*
      * Endpoint for filtering meals by ingredient
      */
-    private static final String FILTER_BY_INGREDIENT_URL = BASE_URL + "/filter.php?i=";
+    private static final String FILTER_BY_INGREDIENT_PATH = "/filter.php?i=";
 
     /*
      * Endpoint for searching meals by name
      */
-    private static final String SEARCH_BY_NAME_URL = BASE_URL + "/search.php?s=";
+    private static final String SEARCH_BY_NAME_PATH = "/search.php?s=";
+
+    /*
+     * Endpoint for listing meals by first letter
+     */
+    private static final String SEARCH_BY_FIRST_LETTER_PATH = "/search.php?f=";
+
+    /*
+     * Endpoint for listing all ingredients
+     */
+    private static final String LIST_INGREDIENTS_PATH = "/list.php?i=list";
 
     /*
      * Endpoint for looking up a meal by ID
      */
-    private static final String LOOKUP_BY_ID_URL = BASE_URL + "/lookup.php?i=";
+    private static final String LOOKUP_BY_ID_PATH = "/lookup.php?i=";
 
     /*
      * Endpoint for getting a random meal
      */
-    private static final String RANDOM_MEAL_URL = BASE_URL + "/random.php";
+    private static final String RANDOM_MEAL_PATH = "/random.php";
+
+    /*
+     * Default number of lookups a bulk call keeps in flight at the same time
+     */
+    private static final int DEFAULT_BULK_CONCURRENCY = 8;
 
     /*
-     * Request timeout in seconds
+     * Carries the HTTP requests (HttpClientTransport unless one is injected).
      */
-    private static final int TIMEOUT_SECONDS = 10;
+    private final MealDbTransport transport;
 
     /*
-     * HTTP client for making requests.
-     * Reusable across multiple requests for better performance.
+     * Base URL the endpoint paths are appended to (without trailing slash).
      */
-    private final HttpClient httpClient;
+    private final String baseUrl;
 
     /*
      * Jackson ObjectMapper for JSON deserialization.
@@ -83,24 +142,133 @@ public class MealDbApiClient {
      */
     private final ObjectMapper objectMapper;
 
+    /*
+     * Prebuilt readers, one per response type.
+     * They parse the raw response bytes directly, so the body is never
+     * decoded into an intermediate String.
+     */
+    private volatile ObjectReader mealResponseReader;
+    private volatile ObjectReader mealListResponseReader;
+    private volatile ObjectReader ingredientListResponseReader;
+
+    /*
+     * Pool that parsed recipes share repeated strings through (null = no pooling).
+     */
+    private volatile StringPool stringPool = new StringPool();
+
+    /*
+     * Executor that runs JSON parsing for the async methods.
+     * Keeps deserialization off the HttpClient's I/O threads.
+     */
+    private final Executor parseExecutor;
+
+    /*
+     * Maximum number of concurrent lookups used by getMealsByIds().
+     */
+    private volatile int bulkConcurrency = DEFAULT_BULK_CONCURRENCY;
+
+    /*
+     * In-memory cache of full recipes keyed by meal ID (null = caching disabled).
+     */
+    private volatile RecipeCache recipeCache = new RecipeCache();
+
+    /*
+     * Search results and misses by normalized query (null = disabled).
+     */
+    private volatile QueryCache queryCache;
+
+    /*
+     * Shares one in-flight HTTP call between identical concurrent requests.
+     */
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    /*
+     * Local copy of the catalog that answers queries once loaded (null = always use the API).
+     */
+    private volatile CatalogMirror catalogMirror;
+
+    /*
+     * Callbacks told about every full recipe received from the API (e.g. local indexes).
+     */
+    private final List<Consumer<Recipe>> recipeListeners = new CopyOnWriteArrayList<>();
+
+    /*
+     * Per-endpoint request counts, errors and latencies (null = disabled)
+     */
+    private volatile ClientMetrics metrics = new ClientMetrics();
+
+    /*
+     * Caps concurrent and per-second HTTP requests (null = unlimited)
+     */
+    private volatile RequestLimiter requestLimiter;
+
+    /*
+     * Retries transient failures (null = no retries)
+     */
+    private volatile RetryPolicy retryPolicy;
+
+    /*
+     * Sends a second request when the first one is slow (null = no hedging)
+     */
+    private volatile HedgePolicy hedgePolicy;
+
+    /*
+     * Fails fast while an endpoint family is unhealthy (null = disabled)
+     */
+    private volatile CircuitBreakerPolicy circuitBreakerPolicy;
+
+    /*
+     * Last known good responses, served while the API is unavailable (null = disabled)
+     */
+    private volatile StaleResponseCache staleResponseCache;
+
     public MealDbApiClient() {
-        // Build HTTP client with configuration
-        this.httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_2)  // Use HTTP/2 for better performance
-                .connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))  // Connection timeout
-                .followRedirects(HttpClient.Redirect.NORMAL)  // Follow redirects automatically
-                .build();
+        this(DEFAULT_BASE_URL);
+    }
 
-        // Create Jackson ObjectMapper for JSON processing
-        this.objectMapper = new ObjectMapper();
+    /*
+     * Constructor for another TheMealDB-compatible server, e.g. a local
+     * MealDbStubServer for load testing ("http://127.0.0.1:8080/api/json/v1/1").
+     */
+    public MealDbApiClient(String baseUrl) {
+        this(new HttpClientTransport(), baseUrl, ForkJoinPool.commonPool());
     }
 
     /*
      * Constructor for dependency injection (useful for testing with mock HttpClient).
      */
     public MealDbApiClient(HttpClient httpClient) {
-        this.httpClient = httpClient;
+        this(httpClient, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Constructor that also chooses where JSON parsing of async responses runs.
+     *
+     * Useful when the application wants parsing on its own worker pool
+     * instead of the common ForkJoinPool.
+     */
+    public MealDbApiClient(HttpClient httpClient, Executor parseExecutor) {
+        this(httpClient != null ? new HttpClientTransport(httpClient) : null, DEFAULT_BASE_URL, parseExecutor);
+    }
+
+    /*
+     * Fully configurable constructor: how requests are carried, where they go,
+     * and where JSON parsing runs.
+     */
+    public MealDbApiClient(MealDbTransport transport, String baseUrl, Executor parseExecutor) {
+        if (transport == null || parseExecutor == null) {
+            throw new IllegalArgumentException("Transport and parse executor cannot be null");
+        }
+        if (baseUrl == null || baseUrl.trim().isEmpty()) {
+            throw new IllegalArgumentException("Base URL cannot be null or empty");
+        }
+        this.transport = transport;
+        this.baseUrl = baseUrl.trim().replaceAll("/+$", "");
+        this.parseExecutor = parseExecutor;
+
+        // Create Jackson ObjectMapper for JSON processing
         this.objectMapper = new ObjectMapper();
+        buildReaders();
     }
 
     // API Methods
@@ -118,32 +286,79 @@ public class MealDbApiClient {
      * </pre>
      */
     public MealListResponse searchByIngredient(String ingredient) throws ApiException {
+        return await(searchByIngredientAsync(ingredient));
+    }
+
+    /*
+     * Non-blocking version of searchByIngredient().
+     *
+     * The returned future completes with the MealListResponse, or completes
+     * exceptionally with MealNotFoundException (no results) or ApiException
+     * (network, HTTP or parsing errors).
+     */
+    public CompletableFuture<MealListResponse> searchByIngredientAsync(String ingredient) {
+        return findByIngredientAsync(ingredient).thenApply(result -> {
+            if (!result.isFound()) {
+                throw new CompletionException(new MealNotFoundException("No meals found for ingredient: " + ingredient));
+            }
+            return result.get();
+        });
+    }
+
+    /*
+     * Like searchByIngredient(), but an empty result is returned as
+     * LookupResult.NotFound instead of throwing MealNotFoundException.
+     * Other errors still throw ApiException.
+     */
+    public LookupResult<MealListResponse> findByIngredient(String ingredient) throws ApiException {
+        return await(findByIngredientAsync(ingredient));
+    }
+
+    /*
+     * Non-blocking version of findByIngredient().
+     */
+    public CompletableFuture<LookupResult<MealListResponse>> findByIngredientAsync(String ingredient) {
         // Validate input
         if (ingredient == null || ingredient.trim().isEmpty()) {
             throw new IllegalArgumentException("Ingredient cannot be null or empty");
         }
 
-        try {
-            // URL-encode the ingredient to handle special characters
-            String encodedIngredient = URLEncoder.encode(ingredient.trim(), StandardCharsets.UTF_8);
-            String url = FILTER_BY_INGREDIENT_URL + encodedIngredient;
+        // Answer locally when a mirror of the catalog is loaded
+        CatalogMirror mirror = catalogMirror;
+        if (mirror != null && mirror.isLoaded()) {
+            return findInMirror(ApiEndpoint.FILTER_BY_INGREDIENT, ingredient, () -> mirror.findByIngredient(ingredient));
+        }
 
-            // Make HTTP request and get response
-            String jsonResponse = makeHttpRequest(url);
+        // Serve repeated queries (and known misses) from the query cache
+        QueryCache queries = queryCache;
+        if (queries != null) {
+            LookupResult<MealListResponse> cached = queries.getIngredientResults(ingredient);
+            if (cached != null) {
+                return fromQueryCache(ApiEndpoint.FILTER_BY_INGREDIENT, ingredient, cached);
+            }
+        }
 
+        // URL-encode the ingredient to handle special characters
+        String encodedIngredient = URLEncoder.encode(ingredient.trim(), StandardCharsets.UTF_8);
+        String url = baseUrl + FILTER_BY_INGREDIENT_PATH + encodedIngredient;
+
+        return coalescedRequest(ApiEndpoint.FILTER_BY_INGREDIENT, url, (jsonResponse, fresh) -> {
             // Deserialize JSON to MealListResponse
-            MealListResponse response = objectMapper.readValue(jsonResponse, MealListResponse.class);
+            MealListResponse response = parse(ApiEndpoint.FILTER_BY_INGREDIENT, jsonResponse, mealListResponseReader,
+                    "Failed to parse API response for ingredient: " + ingredient);
+
+            // Remember the answer (including "no results") for repeated queries
+            if (fresh && queries != null) {
+                queries.putIngredientResults(ingredient, response.getMeals());
+            }
 
             // Check if results were found
             if (!response.hasMeals()) {
-                throw new MealNotFoundException("No meals found for ingredient: " + ingredient);
+                return notFoundResult(ApiEndpoint.FILTER_BY_INGREDIENT, ingredient);
             }
 
-            return response;
-
-        } catch (IOException e) {
-            throw new ApiException("Failed to parse API response for ingredient: " + ingredient, e);
-        }
+            return LookupResult.found(response);
+        });
     }
 
     /*
@@ -158,32 +373,82 @@ public class MealDbApiClient {
      * </pre>
      */
     public MealResponse searchByName(String name) throws ApiException {
+        return await(searchByNameAsync(name));
+    }
+
+    /*
+     * Non-blocking version of searchByName().
+     */
+    public CompletableFuture<MealResponse> searchByNameAsync(String name) {
+        return findByNameAsync(name).thenApply(result -> {
+            if (!result.isFound()) {
+                throw new CompletionException(new MealNotFoundException("No meals found with name: " + name));
+            }
+            return result.get();
+        });
+    }
+
+    /*
+     * Like searchByName(), but an empty result is returned as
+     * LookupResult.NotFound instead of throwing MealNotFoundException.
+     */
+    public LookupResult<MealResponse> findByName(String name) throws ApiException {
+        return await(findByNameAsync(name));
+    }
+
+    /*
+     * Non-blocking version of findByName().
+     */
+    public CompletableFuture<LookupResult<MealResponse>> findByNameAsync(String name) {
         // Validate input
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Name cannot be null or empty");
         }
 
-        try {
-            // URL-encode the name
-            String encodedName = URLEncoder.encode(name.trim(), StandardCharsets.UTF_8);
-            String url = SEARCH_BY_NAME_URL + encodedName;
+        // Answer locally when a mirror of the catalog is loaded
+        CatalogMirror mirror = catalogMirror;
+        if (mirror != null && mirror.isLoaded()) {
+            return findInMirror(ApiEndpoint.SEARCH_BY_NAME, name, () -> mirror.findByName(name));
+        }
+
+        // Serve repeated queries (and known misses) from the query cache
+        QueryCache queries = queryCache;
+        if (queries != null) {
+            LookupResult<MealResponse> cached = queries.getNameResults(name, recipeCache);
+            if (cached != null) {
+                return fromQueryCache(ApiEndpoint.SEARCH_BY_NAME, name, cached);
+            }
+        }
 
-            // Make HTTP request
-            String jsonResponse = makeHttpRequest(url);
+        // URL-encode the name
+        String encodedName = URLEncoder.encode(name.trim(), StandardCharsets.UTF_8);
+        String url = baseUrl + SEARCH_BY_NAME_PATH + encodedName;
 
+        return coalescedRequest(ApiEndpoint.SEARCH_BY_NAME, url, (jsonResponse, fresh) -> {
             // Deserialize JSON to MealResponse
-            MealResponse response = objectMapper.readValue(jsonResponse, MealResponse.class);
+            MealResponse response = parse(ApiEndpoint.SEARCH_BY_NAME, jsonResponse, mealResponseReader,
+                    "Failed to parse API response for name: " + name);
 
             // Check if results were found
             if (!response.hasMeals()) {
-                throw new MealNotFoundException("No meals found with name: " + name);
+                if (fresh && queries != null) {
+                    queries.putNameResults(name, List.of());
+                }
+                return notFoundResult(ApiEndpoint.SEARCH_BY_NAME, name);
             }
 
-            return response;
+            // Search results carry full recipes, so they can serve later lookups
+            if (fresh) {
+                cacheRecipes(response.getMeals());
 
-        } catch (IOException e) {
-            throw new ApiException("Failed to parse API response for name: " + name, e);
-        }
+                // The query cache keeps only the IDs, resolved through the recipe cache
+                if (queries != null && recipeCache != null) {
+                    queries.putNameResults(name, response.getMeals());
+                }
+            }
+
+            return LookupResult.found(response);
+        });
     }
 
     /*
@@ -199,32 +464,85 @@ public class MealDbApiClient {
      * </pre>
      */
     public Recipe getMealById(String mealId) throws ApiException {
+        return await(getMealByIdAsync(mealId));
+    }
+
+    /*
+     * Non-blocking version of getMealById().
+     *
+     * Returns an already completed future when the recipe is in the cache.
+     */
+    public CompletableFuture<Recipe> getMealByIdAsync(String mealId) {
+        return findMealByIdAsync(mealId).thenApply(result -> {
+            if (!result.isFound()) {
+                throw new CompletionException(new MealNotFoundException("No meal found with ID: " + mealId));
+            }
+            return result.get();
+        });
+    }
+
+    /*
+     * Like getMealById(), but an unknown ID is returned as
+     * LookupResult.NotFound instead of throwing MealNotFoundException.
+     */
+    public LookupResult<Recipe> findMealById(String mealId) throws ApiException {
+        return await(findMealByIdAsync(mealId));
+    }
+
+    /*
+     * Non-blocking version of findMealById().
+     *
+     * Returns an already completed future when the recipe is in the cache.
+     */
+    public CompletableFuture<LookupResult<Recipe>> findMealByIdAsync(String mealId) {
         // Validate input
         if (mealId == null || mealId.trim().isEmpty()) {
             throw new IllegalArgumentException("Meal ID cannot be null or empty");
         }
 
-        try {
-            // Construct URL
-            String url = LOOKUP_BY_ID_URL + mealId.trim();
+        // Answer locally when a mirror of the catalog is loaded
+        CatalogMirror mirror = catalogMirror;
+        if (mirror != null && mirror.isLoaded()) {
+            return findInMirror(ApiEndpoint.LOOKUP_BY_ID, mealId, () -> mirror.findMealById(mealId));
+        }
+
+        // Serve from the cache when possible
+        RecipeCache cache = recipeCache;
+        if (cache != null) {
+            Recipe cached = cache.get(mealId.trim());
+
+            RecipeCacheEvent event = new RecipeCacheEvent();
+            if (event.shouldCommit()) {
+                event.mealId = mealId.trim();
+                event.hit = cached != null;
+                event.commit();
+            }
+
+            if (cached != null) {
+                return CompletableFuture.completedFuture(LookupResult.found(cached));
+            }
+        }
 
-            // Make HTTP request
-            String jsonResponse = makeHttpRequest(url);
+        // Construct URL
+        String url = baseUrl + LOOKUP_BY_ID_PATH + mealId.trim();
 
+        return coalescedRequest(ApiEndpoint.LOOKUP_BY_ID, url, (jsonResponse, fresh) -> {
             // Deserialize JSON to MealResponse
-            MealResponse response = objectMapper.readValue(jsonResponse, MealResponse.class);
+            MealResponse response = parse(ApiEndpoint.LOOKUP_BY_ID, jsonResponse, mealResponseReader,
+                    "Failed to parse API response for meal ID: " + mealId);
 
             // Get the first (and only) meal from response
             Recipe meal = response.getFirstMeal();
             if (meal == null) {
-                throw new MealNotFoundException("No meal found with ID: " + mealId);
+                return notFoundResult(ApiEndpoint.LOOKUP_BY_ID, mealId);
             }
 
-            return meal;
+            if (fresh) {
+                cacheRecipes(response.getMeals());
+            }
 
-        } catch (IOException e) {
-            throw new ApiException("Failed to parse API response for meal ID: " + mealId, e);
-        }
+            return LookupResult.found(meal);
+        });
     }
 
     /*
@@ -240,69 +558,732 @@ public class MealDbApiClient {
      * </pre>
      */
     public Recipe getRandomMeal() throws ApiException {
-        try {
-            // Make HTTP request
-            String jsonResponse = makeHttpRequest(RANDOM_MEAL_URL);
+        return await(getRandomMealAsync());
+    }
 
+    /*
+     * Non-blocking version of getRandomMeal().
+     *
+     * Random requests are never coalesced: each caller gets its own suggestion.
+     */
+    public CompletableFuture<Recipe> getRandomMealAsync() {
+        // Answer locally when a mirror of the catalog is loaded
+        CatalogMirror mirror = catalogMirror;
+        if (mirror != null && mirror.isLoaded()) {
+            return fromMirror(ApiEndpoint.RANDOM_MEAL, "", mirror::getRandomMeal);
+        }
+
+        return makeHttpRequestAsync(ApiEndpoint.RANDOM_MEAL, baseUrl + RANDOM_MEAL_PATH).thenApplyAsync(fetched -> {
             // Deserialize JSON to MealResponse
-            MealResponse response = objectMapper.readValue(jsonResponse, MealResponse.class);
+            MealResponse response = parse(ApiEndpoint.RANDOM_MEAL, fetched.body, mealResponseReader,
+                    "Failed to parse API response for random meal");
 
             // Get the random meal
             Recipe meal = response.getFirstMeal();
             if (meal == null) {
-                throw new ApiException("API returned no random meal");
+                throw new CompletionException(new ApiException("API returned no random meal"));
+            }
+
+            if (!fetched.stale) {
+                cacheRecipes(response.getMeals());
             }
 
             return meal;
+        }, parseExecutor);
+    }
 
-        } catch (IOException e) {
-            throw new ApiException("Failed to parse API response for random meal", e);
+    /*
+     * Lists all meals whose name starts with the given letter.
+     *
+     * Returns full recipe details. Mainly used to crawl the whole catalog
+     * (see CatalogMirror); always goes to the API.
+     */
+    public MealResponse searchByFirstLetter(char letter) throws ApiException {
+        return await(searchByFirstLetterAsync(letter));
+    }
+
+    /*
+     * Non-blocking version of searchByFirstLetter().
+     */
+    public CompletableFuture<MealResponse> searchByFirstLetterAsync(char letter) {
+        // Validate input
+        if (!Character.isLetterOrDigit(letter)) {
+            throw new IllegalArgumentException("First letter must be a letter or digit");
         }
+
+        String url = baseUrl + SEARCH_BY_FIRST_LETTER_PATH + Character.toLowerCase(letter);
+
+        return coalescedRequest(ApiEndpoint.SEARCH_BY_FIRST_LETTER, url, (jsonResponse, fresh) -> {
+            // Deserialize JSON to MealResponse
+            MealResponse response = parse(ApiEndpoint.SEARCH_BY_FIRST_LETTER, jsonResponse, mealResponseReader,
+                    "Failed to parse API response for first letter: " + letter);
+
+            // Check if results were found
+            if (!response.hasMeals()) {
+                throw notFound(ApiEndpoint.SEARCH_BY_FIRST_LETTER, String.valueOf(letter),
+                        "No meals found starting with: " + letter);
+            }
+
+            if (fresh) {
+                cacheRecipes(response.getMeals());
+            }
+
+            return response;
+        });
     }
 
-    // Helper Methods
+    /*
+     * Lists every ingredient TheMealDB knows about (a few hundred entries).
+     *
+     * Useful for autocompletion and ingredient pickers; always goes to the API.
+     */
+    public IngredientListResponse listIngredients() throws ApiException {
+        return await(listIngredientsAsync());
+    }
+
+    /*
+     * Non-blocking version of listIngredients().
+     */
+    public CompletableFuture<IngredientListResponse> listIngredientsAsync() {
+        String url = baseUrl + LIST_INGREDIENTS_PATH;
+
+        return coalescedRequest(ApiEndpoint.LIST_INGREDIENTS, url, (jsonResponse, fresh) -> {
+            // Deserialize JSON to IngredientListResponse
+            IngredientListResponse response = parse(ApiEndpoint.LIST_INGREDIENTS, jsonResponse, ingredientListResponseReader,
+                    "Failed to parse ingredient list");
+
+            // Check if results were found
+            if (!response.hasIngredients()) {
+                throw notFound(ApiEndpoint.LIST_INGREDIENTS, "", "No ingredients found");
+            }
+
+            return response;
+        });
+    }
 
     /*
-     * Makes an HTTP GET request to the specified URL and returns the response body.
+     * Gets full recipe details for many meal IDs at once.
+     *
+     * This is the bulk counterpart of getMealById(), meant for turning the
+     * SimplifiedMeal stubs returned by searchByIngredient() into full recipes
+     * without paying one sequential round trip per meal.
+     *
+     * - Duplicate IDs are looked up only once
+     * - Results keep the order of the input IDs
+     * - At most getBulkConcurrency() lookups are in flight at any time
+     * - A failed lookup is reported per ID instead of failing the whole batch
      *
-     * This method handles:
-     * - Building the HTTP request
-     * - Sending the request
-     * - Receiving the response
-     * - Checking for HTTP errors
-     * - Extracting the response body
-     */
-    private String makeHttpRequest(String url) throws ApiException {
+     * Example:
+     * <pre>
+     * List&lt;String&gt; ids = ... // IDs from searchByIngredient("chicken")
+     * BulkMealResponse bulk = client.getMealsByIds(ids);
+     * for (Recipe recipe : bulk.getMeals()) { ... }
+     * </pre>
+     */
+    public BulkMealResponse getMealsByIds(Collection<String> mealIds) throws ApiException {
+        return await(getMealsByIdsAsync(mealIds, bulkConcurrency));
+    }
+
+    /*
+     * Same as getMealsByIds(), with an explicit limit on concurrent lookups.
+     */
+    public BulkMealResponse getMealsByIds(Collection<String> mealIds, int maxConcurrency) throws ApiException {
+        return await(getMealsByIdsAsync(mealIds, maxConcurrency));
+    }
+
+    /*
+     * Non-blocking version of getMealsByIds().
+     *
+     * The returned future always completes normally; per-ID failures are
+     * available from BulkMealResponse.getFailures().
+     */
+    public CompletableFuture<BulkMealResponse> getMealsByIdsAsync(Collection<String> mealIds) {
+        return getMealsByIdsAsync(mealIds, bulkConcurrency);
+    }
+
+    /*
+     * Non-blocking version of getMealsByIds(Collection, int).
+     */
+    public CompletableFuture<BulkMealResponse> getMealsByIdsAsync(Collection<String> mealIds, int maxConcurrency) {
+        // Validate input
+        if (mealIds == null) {
+            throw new IllegalArgumentException("Meal IDs cannot be null");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+
+        // Trim and drop duplicates while keeping the input order
+        Set<String> distinctIds = new LinkedHashSet<>();
+        for (String mealId : mealIds) {
+            if (mealId == null || mealId.trim().isEmpty()) {
+                throw new IllegalArgumentException("Meal ID cannot be null or empty");
+            }
+            distinctIds.add(mealId.trim());
+        }
+
+        return new BulkLookup(new ArrayList<>(distinctIds), maxConcurrency, this::findMealByIdAsync).start();
+    }
+
+    // Configuration
+
+    public int getBulkConcurrency() {
+        return bulkConcurrency;
+    }
+
+    /*
+     * Sets how many lookups getMealsByIds() keeps in flight at the same time.
+     */
+    public void setBulkConcurrency(int bulkConcurrency) {
+        if (bulkConcurrency < 1) {
+            throw new IllegalArgumentException("Bulk concurrency must be at least 1");
+        }
+        this.bulkConcurrency = bulkConcurrency;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public MealDbTransport getTransport() {
+        return transport;
+    }
+
+    public RecipeCache getRecipeCache() {
+        return recipeCache;
+    }
+
+    /*
+     * Replaces the recipe cache, e.g. with different size or TTL limits.
+     * Pass null to disable caching (every lookup then goes to the API).
+     *
+     * Note: cached Recipe objects are shared between callers,
+     * so they should be treated as read-only.
+     */
+    public void setRecipeCache(RecipeCache recipeCache) {
+        this.recipeCache = recipeCache;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /*
+     * Caches searchByIngredient and searchByName results, including
+     * "no results", by normalized query. Name results resolve through the
+     * RecipeCache, so they are only served while it holds the recipes.
+     * Pass null to disable (the default).
+     */
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    /*
+     * Number of calls that were answered by joining an identical request
+     * already in flight, i.e. HTTP requests saved by coalescing.
+     */
+    public long getCoalescedRequestCount() {
+        return coalescer.getCoalescedCount();
+    }
+
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * Replaces the metrics recorder, e.g. to share one between clients.
+     * Pass null to disable recording.
+     */
+    public void setMetrics(ClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public RequestLimiter getRequestLimiter() {
+        return requestLimiter;
+    }
+
+    /*
+     * Routes every HTTP request through a limiter that adapts the number of
+     * concurrent requests to the upstream and queues the rest.
+     * Pass null (the default) to send requests without limits.
+     */
+    public void setRequestLimiter(RequestLimiter requestLimiter) {
+        this.requestLimiter = requestLimiter;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /*
+     * Retries requests that fail with a 5xx status or a connection error,
+     * with jittered exponential backoff. Pass null (the default) to disable.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public HedgePolicy getHedgePolicy() {
+        return hedgePolicy;
+    }
+
+    /*
+     * Sends a duplicate request when the first has not answered within a
+     * percentile of observed latency, and uses whichever answers first.
+     * Pass null (the default) to disable.
+     */
+    public void setHedgePolicy(HedgePolicy hedgePolicy) {
+        this.hedgePolicy = hedgePolicy;
+    }
+
+    public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return circuitBreakerPolicy;
+    }
+
+    /*
+     * Installs circuit breakers per endpoint family: after repeated failures,
+     * requests fail fast with CircuitOpenException (or are answered from the
+     * StaleResponseCache) until a trial request succeeds.
+     * Pass null (the default) to disable.
+     */
+    public void setCircuitBreakerPolicy(CircuitBreakerPolicy circuitBreakerPolicy) {
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+    }
+
+    public StaleResponseCache getStaleResponseCache() {
+        return staleResponseCache;
+    }
+
+    /*
+     * Keeps the last good response of every request and serves it
+     * (stale-while-revalidate) while the circuit breaker is open, when the
+     * request fails because of the upstream, or while the same request is
+     * already in flight. Pass null (the default) to disable.
+     */
+    public void setStaleResponseCache(StaleResponseCache staleResponseCache) {
+        this.staleResponseCache = staleResponseCache;
+    }
+
+    public CatalogMirror getCatalogMirror() {
+        return catalogMirror;
+    }
+
+    /*
+     * Routes searchByIngredient, searchByName, getMealById and getRandomMeal
+     * to a local catalog mirror once it is loaded. Pass null to use the API again.
+     */
+    public void setCatalogMirror(CatalogMirror catalogMirror) {
+        this.catalogMirror = catalogMirror;
+    }
+
+    /*
+     * Registers a callback that receives every full recipe fetched from the API
+     * (searchByName, getMealById, getRandomMeal, searchByFirstLetter), e.g.
+     * client.addRecipeListener(ingredientIndex::add).
+     *
+     * Callbacks run on the parsing thread, so they should be quick.
+     * Exceptions thrown by a callback are ignored.
+     */
+    public void addRecipeListener(Consumer<Recipe> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        recipeListeners.add(listener);
+    }
+
+    public void removeRecipeListener(Consumer<Recipe> listener) {
+        recipeListeners.remove(listener);
+    }
+
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /*
+     * Replaces the pool used to share ingredient names, measures, categories
+     * and areas between parsed recipes. Pass null to disable pooling.
+     */
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+        buildReaders();
+    }
+
+    // Helper Methods
+
+    /*
+     * Runs a local (mirror) query and wraps its outcome in a completed future.
+     */
+    private static <T> CompletableFuture<T> fromMirror(ApiEndpoint endpoint, String query, MirrorQuery<T> mirrorQuery) {
         try {
-            // Build HTTP GET request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                    .header("Accept", "application/json")  // We expect JSON response
-                    .GET()
-                    .build();
+            return CompletableFuture.completedFuture(mirrorQuery.run());
+        } catch (MealNotFoundException e) {
+            recordNotFound(endpoint, query, "mirror");
+            return CompletableFuture.failedFuture(e);
+        } catch (ApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /*
+     * Runs a local (mirror) find query and wraps its result in a completed future.
+     */
+    private static <T> CompletableFuture<LookupResult<T>> findInMirror(ApiEndpoint endpoint, String query,
+                                                                      MirrorQuery<LookupResult<T>> mirrorQuery) {
+        try {
+            LookupResult<T> result = mirrorQuery.run();
+            if (!result.isFound()) {
+                recordNotFound(endpoint, query, "mirror");
+            }
+            return CompletableFuture.completedFuture(result);
+        } catch (ApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /*
+     * Wraps a QueryCache answer in a completed future.
+     */
+    private static <T> CompletableFuture<LookupResult<T>> fromQueryCache(ApiEndpoint endpoint, String query,
+                                                                        LookupResult<T> cached) {
+        if (!cached.isFound()) {
+            recordNotFound(endpoint, query, "cache");
+        }
+        return CompletableFuture.completedFuture(cached);
+    }
+
+    /*
+     * A CatalogMirror query method, which may throw ApiException.
+     */
+    @FunctionalInterface
+    private interface MirrorQuery<T> {
+        T run() throws ApiException;
+    }
+
+    /*
+     * (Re)creates the per-type readers, carrying the string pool for RecipeDeserializer.
+     */
+    private void buildReaders() {
+        ObjectReader mealReader = objectMapper.readerFor(MealResponse.class);
+        ObjectReader listReader = objectMapper.readerFor(MealListResponse.class);
+        StringPool pool = stringPool;
+        if (pool != null) {
+            mealReader = mealReader.withAttribute(StringPool.class, pool);
+        }
+        this.mealResponseReader = mealReader;
+        this.mealListResponseReader = listReader;
+        this.ingredientListResponseReader = objectMapper.readerFor(IngredientListResponse.class);
+    }
+
+    /*
+     * Builds the MealNotFoundException for an empty API result,
+     * wrapped so it can be thrown from inside a future.
+     */
+    private static CompletionException notFound(ApiEndpoint endpoint, String query, String message) {
+        recordNotFound(endpoint, query, "api");
+        return new CompletionException(new MealNotFoundException(message));
+    }
+
+    /*
+     * The shared NotFound result for an empty API result (no exception is created).
+     */
+    private static <T> LookupResult<T> notFoundResult(ApiEndpoint endpoint, String query) {
+        recordNotFound(endpoint, query, "api");
+        return LookupResult.notFound();
+    }
 
-            // Send request and receive response
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    /*
+     * Emits a MealNotFoundEvent (only when a JFR recording has it enabled).
+     */
+    private static void recordNotFound(ApiEndpoint endpoint, String query, String source) {
+        MealNotFoundEvent event = new MealNotFoundEvent();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint.getPath();
+            event.query = query;
+            event.source = source;
+            event.commit();
+        }
+    }
+
+    /*
+     * Sends a request (joining an identical one in flight, see RequestCoalescer)
+     * and handles the response body on the parse executor.
+     *
+     * With a StaleResponseCache, callers arriving while the request is
+     * already in flight get the last good body right away instead of waiting.
+     *
+     * The handler is told whether the body is fresh from the API; stale
+     * bodies must not go into the recipe or query cache, where they would
+     * look fresh for a whole TTL.
+     */
+    private <T> CompletableFuture<T> coalescedRequest(ApiEndpoint endpoint, String url,
+                                                      BiFunction<EncodedBody, Boolean, T> handler) {
+        String key = coalescingKey(url);
 
-            // Check HTTP status code
-            int statusCode = response.statusCode();
-            if (statusCode != 200) {
-                throw new ApiException(
-                        "API request failed with status code " + statusCode +
-                                " for URL: " + url
-                );
+        StaleResponseCache stale = staleResponseCache;
+        if (stale != null && coalescer.isInFlight(key)) {
+            EncodedBody lastGood = stale.get(key);
+            if (lastGood != null) {
+                return CompletableFuture.supplyAsync(() -> handler.apply(lastGood, false), parseExecutor);
             }
+        }
 
-            // Return the response body (JSON string)
-            return response.body();
+        return coalescer.coalesce(key, () -> makeHttpRequestAsync(endpoint, url)
+                .thenApplyAsync(fetched -> handler.apply(fetched.body, !fetched.stale), parseExecutor));
+    }
+
+    /*
+     * Key under which identical requests are coalesced.
+     *
+     * The URL is already built from the trimmed, URL-encoded input; TheMealDB
+     * matches names and ingredients case-insensitively, so case is folded too.
+     */
+    private static String coalescingKey(String url) {
+        return url.toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * Offers freshly received recipes to the cache (if enabled)
+     * and to the registered recipe listeners.
+     */
+    private void cacheRecipes(List<Recipe> recipes) {
+        RecipeCache cache = recipeCache;
+        if (cache != null) {
+            for (Recipe recipe : recipes) {
+                cache.put(recipe);
+            }
+        }
+
+        for (Consumer<Recipe> listener : recipeListeners) {
+            for (Recipe recipe : recipes) {
+                try {
+                    listener.accept(recipe);
+                } catch (RuntimeException e) {
+                    // A broken listener must not fail the request
+                }
+            }
+        }
+    }
+
+
+    /*
+     * Sends an HTTP GET request to the specified URL without blocking the caller.
+     *
+     * The returned future completes with the response body (UTF-8 JSON bytes,
+     * possibly still compressed) once the full response has arrived, or completes exceptionally with an
+     * ApiException for network errors and non-200 status codes.
+     *
+     * Depending on the configured policies, the request is guarded by a
+     * circuit breaker, failed attempts are retried and slow attempts are
+     * hedged; every request sent may first wait for a slot in the
+     * RequestLimiter. With a StaleResponseCache, upstream failures are
+     * answered with the last good body for the URL when there is one
+     * (marked stale).
+     */
+    private CompletableFuture<FetchedBody> makeHttpRequestAsync(ApiEndpoint endpoint, String url) {
+        StaleResponseCache stale = staleResponseCache;
+        CompletableFuture<EncodedBody> response = guardedRequest(endpoint, url);
+        if (stale == null) {
+            return response.thenApply(body -> new FetchedBody(body, false));
+        }
+
+        String key = coalescingKey(url);
+        return response.handle((body, error) -> {
+            if (error == null) {
+                // A plain copy: serving it again must not count in the transport's statistics
+                stale.put(key, new EncodedBody(body.getBytes(), body.getContentEncoding()));
+                return new FetchedBody(body, false);
+            }
+            if (CircuitBreakerPolicy.isUpstreamFailure(error)) {
+                EncodedBody lastGood = stale.get(key);
+                if (lastGood != null) {
+                    return new FetchedBody(lastGood, true);
+                }
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
+
+    /*
+     * The request behind the circuit breaker, if one is installed.
+     */
+    private CompletableFuture<EncodedBody> guardedRequest(ApiEndpoint endpoint, String url) {
+        CircuitBreakerPolicy breakers = circuitBreakerPolicy;
+        if (breakers == null) {
+            return retriedRequest(endpoint, url);
+        }
+        return breakers.execute(endpoint, () -> retriedRequest(endpoint, url));
+    }
 
+    /*
+     * The request with retries, if a RetryPolicy is installed.
+     */
+    private CompletableFuture<EncodedBody> retriedRequest(ApiEndpoint endpoint, String url) {
+        RetryPolicy retry = retryPolicy;
+        if (retry == null) {
+            return attemptRequest(endpoint, url);
+        }
+        return retry.execute(endpoint, () -> attemptRequest(endpoint, url), metrics);
+    }
+
+    /*
+     * One attempt, hedged if a HedgePolicy is installed.
+     */
+    private CompletableFuture<EncodedBody> attemptRequest(ApiEndpoint endpoint, String url) {
+        HedgePolicy hedge = hedgePolicy;
+        if (hedge == null) {
+            return limitedRequest(endpoint, url);
+        }
+        return hedge.execute(endpoint, () -> limitedRequest(endpoint, url), metrics);
+    }
+
+    /*
+     * One request, sent once the RequestLimiter (if any) has a free slot.
+     */
+    private CompletableFuture<EncodedBody> limitedRequest(ApiEndpoint endpoint, String url) {
+        RequestLimiter limiter = requestLimiter;
+        if (limiter == null) {
+            return sendRequest(endpoint, url);
+        }
+        return limiter.execute(() -> sendRequest(endpoint, url));
+    }
+
+    /*
+     * Sends the request through the transport right away.
+     *
+     * The network time, body size and HTTP status are recorded in the metrics
+     * and, while a JFR recording is running, as an ApiRequestEvent.
+     */
+    private CompletableFuture<EncodedBody> sendRequest(ApiEndpoint endpoint, String url) {
+        ClientMetrics recorder = metrics;
+        ApiRequestEvent event = new ApiRequestEvent();
+        if (recorder == null && !event.isEnabled()) {
+            return transport.getEncoded(url);
+        }
+
+        Thread caller = Thread.currentThread();
+        event.begin();
+        long start = System.nanoTime();
+        return transport.getEncoded(url).whenComplete((body, error) -> {
+            long elapsed = System.nanoTime() - start;
+            Throwable cause = error == null ? null : unwrap(error);
+            int statusCode = cause == null ? 200
+                    : cause instanceof ApiException ? ((ApiException) cause).getStatusCode() : 0;
+
+            if (recorder != null) {
+                if (cause == null) {
+                    recorder.recordResponse(endpoint, elapsed, body.length());
+                } else {
+                    recorder.recordFailure(endpoint, elapsed, statusCode);
+                }
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint.getPath();
+                event.url = url;
+                event.statusCode = statusCode;
+                event.bytes = body == null ? 0 : body.length();
+                event.error = cause == null ? null : cause.getMessage();
+                event.callerThread = caller;
+                event.commit();
+            }
+        });
+    }
+
+    /*
+     * Deserializes the JSON body with a prebuilt reader, turning Jackson errors
+     * into an ApiException that can travel through a CompletableFuture.
+     *
+     * Jackson detects the encoding (UTF-8) and tokenizes the bytes in a single pass.
+     * A compressed body is decoded as Jackson reads it, never held decoded in
+     * full (closing the stream verifies the gzip checksum).
+     * The parse time is recorded in the metrics and as a JsonDeserializationEvent.
+     */
+    private <T> T parse(ApiEndpoint endpoint, EncodedBody json, ObjectReader reader, String errorMessage) {
+        ClientMetrics recorder = metrics;
+        JsonDeserializationEvent event = new JsonDeserializationEvent();
+        event.begin();
+        long start = recorder != null ? System.nanoTime() : 0;
+        boolean success = false;
+        try {
+            T value;
+            if (json.isCompressed()) {
+                try (InputStream in = json.openStream()) {
+                    value = reader.readValue(in);
+                }
+            } else {
+                value = reader.readValue(json.getBytes());
+            }
+            success = true;
+            return value;
         } catch (IOException e) {
-            throw new ApiException("Network error while communicating with API:  " + e.getMessage(), e);
+            throw new CompletionException(new ApiException(errorMessage, e));
+        } finally {
+            if (recorder != null) {
+                recorder.recordDeserialization(endpoint, System.nanoTime() - start, success);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint.getPath();
+                event.type = reader.getValueType().getRawClass();
+                event.bytes = json.length();
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    /*
+     * Waits for an async result on behalf of the blocking API methods.
+     *
+     * Restores the checked ApiException (or MealNotFoundException) that
+     * completed the future, so callers see the same exceptions as before.
+     */
+    static <T> T await(CompletableFuture<T> future) throws ApiException {
+        try {
+            return future.get();
         } catch (InterruptedException e) {
-            // Restore interrupted status
+            // Restore interrupted status and abandon the request
+            future.cancel(true);
             Thread.currentThread().interrupt();
             throw new ApiException("Request was interrupted: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof ApiException) {
+                throw (ApiException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ApiException("Unexpected error while communicating with API: " + cause.getMessage(), cause);
+        }
+    }
+
+    /*
+     * Strips the CompletionException/ExecutionException wrappers that
+     * CompletableFuture puts around the real failure.
+     */
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /*
+     * A response body, and whether it is the last good body from the
+     * StaleResponseCache rather than a fresh answer.
+     */
+    private static final class FetchedBody {
+        final EncodedBody body;
+        final boolean stale;
+
+        FetchedBody(EncodedBody body, boolean stale) {
+            this.body = body;
+            this.stale = stale;
         }
     }
 
@@ -0,0 +1,29 @@
+package com.meallab.api.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * Carries MealDbApiClient's GET requests to TheMealDB (or a stand-in).
+ *
+ * The default implementation is HttpClientTransport. A custom transport can
+ * route requests elsewhere, record them, or serve canned responses.
+ *
+ * Contract of get():
+ * - Never blocks the caller
+ * - Completes with the raw body bytes of a successful (200) response
+ * - Completes exceptionally with an ApiException (possibly wrapped in a
+ *   CompletionException) for network errors and non-200 status codes
+ *
+ * getEncoded() is what MealDbApiClient calls. It may hand over a compressed
+ * body as it arrived, so the client decodes it while parsing instead of
+ * holding a decoded copy first; by default it wraps get().
+ */
+
+public interface MealDbTransport {
+
+    CompletableFuture<byte[]> get(String url);
+
+    default CompletableFuture<EncodedBody> getEncoded(String url) {
+        return get(url).thenApply(EncodedBody::new);
+    }
+}
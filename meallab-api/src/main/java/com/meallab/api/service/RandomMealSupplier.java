@@ -0,0 +1,312 @@
+package com.meallab.api.service;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.model.Recipe;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Keeps a small buffer of random meals fetched ahead of time, so a
+ * "Surprise me" click is answered from memory instead of waiting for
+ * random.php.
+ *
+ * - The buffer holds up to capacity recipes. When it drops below the
+ *   low-water mark, a background refill fetches random meals one after
+ *   another until it is full again.
+ * - A meal already in the buffer, or among the last dedupeWindow meals
+ *   handed out, is dropped instead of being buffered again.
+ * - Meals are fetched with client.getRandomMealAsync(), so they land in
+ *   the client's RecipeCache and reach its recipe listeners like any other
+ *   fetched recipe.
+ * - When the buffer is empty (not filled yet, or the API is failing) get()
+ *   falls back to a direct getRandomMeal() call.
+ *
+ * Example usage:
+ * <pre>
+ * RandomMealSupplier surprise = new RandomMealSupplier(client);
+ * surprise.start();                  // fill the buffer in the background
+ * ...
+ * Recipe meal = surprise.get();      // usually answered from the buffer
+ * </pre>
+ */
+
+public class RandomMealSupplier implements AutoCloseable {
+
+    /*
+     * Default sizes
+     */
+    public static final int DEFAULT_CAPACITY = 8;
+    public static final int DEFAULT_LOW_WATER_MARK = 3;
+    public static final int DEFAULT_DEDUPE_WINDOW = 50;
+
+    /*
+     * Fetches per missing slot before a refill gives up (random.php
+     * repeats itself on a small catalog)
+     */
+    private static final int MAX_ATTEMPTS_PER_SLOT = 3;
+
+    private final MealDbApiClient client;
+    private final int capacity;
+    private final int lowWaterMark;
+    private final int dedupeWindow;
+
+    // Buffered meals and the IDs handed out recently (guarded by this)
+    private final ArrayDeque<Recipe> buffer;
+    private final Set<String> bufferedIds = new HashSet<>();
+    private final LinkedHashSet<String> recentIds = new LinkedHashSet<>();
+
+    // Refill state
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile Throwable lastRefillError;
+
+    // Statistics
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+
+    /*
+     * Constructor with the default capacity, low-water mark and dedupe window
+     */
+    public RandomMealSupplier(MealDbApiClient client) {
+        this(client, DEFAULT_CAPACITY, DEFAULT_LOW_WATER_MARK, DEFAULT_DEDUPE_WINDOW);
+    }
+
+    /*
+     * Constructor
+     *
+     * @param capacity      maximum number of buffered meals
+     * @param lowWaterMark  refill starts when fewer meals are buffered (1..capacity)
+     * @param dedupeWindow  number of recently served meal IDs that are not served again (0 = off)
+     */
+    public RandomMealSupplier(MealDbApiClient client, int capacity, int lowWaterMark, int dedupeWindow) {
+        if (client == null) {
+            throw new IllegalArgumentException("Client cannot be null");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (lowWaterMark < 1 || lowWaterMark > capacity) {
+            throw new IllegalArgumentException("Low-water mark must be between 1 and the capacity");
+        }
+        if (dedupeWindow < 0) {
+            throw new IllegalArgumentException("Dedupe window cannot be negative");
+        }
+        this.client = client;
+        this.capacity = capacity;
+        this.lowWaterMark = lowWaterMark;
+        this.dedupeWindow = dedupeWindow;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    /*
+     * Starts filling the buffer in the background. Calling get() also starts
+     * a refill, so this is only needed to have meals ready for the first click.
+     */
+    public void start() {
+        refill();
+    }
+
+    /*
+     * Returns a random meal, from the buffer when one is available.
+     * Blocks on the API only when the buffer is empty.
+     */
+    public Recipe get() throws ApiException {
+        return MealDbApiClient.await(getAsync());
+    }
+
+    /*
+     * Non-blocking version of get(). The future is already complete
+     * when the meal came from the buffer.
+     */
+    public CompletableFuture<Recipe> getAsync() {
+        Recipe recipe = poll();
+        if (recipe != null) {
+            return CompletableFuture.completedFuture(recipe);
+        }
+
+        missCount.incrementAndGet();
+        return client.getRandomMealAsync().thenApply(fetched -> {
+            synchronized (this) {
+                remember(fetched.getId());
+            }
+            return fetched;
+        });
+    }
+
+    /*
+     * Returns a buffered meal, or null (without calling the API) when the buffer is empty
+     */
+    public Recipe poll() {
+        if (closed) {
+            throw new IllegalStateException("Supplier is closed");
+        }
+
+        Recipe recipe;
+        int remaining;
+        synchronized (this) {
+            recipe = buffer.poll();
+            if (recipe != null) {
+                bufferedIds.remove(recipe.getId());
+                remember(recipe.getId());
+            }
+            remaining = buffer.size();
+        }
+
+        if (recipe != null) {
+            hitCount.incrementAndGet();
+        }
+        if (remaining < lowWaterMark) {
+            refill();
+        }
+        return recipe;
+    }
+
+    /*
+     * Stops refilling and drops the buffered meals
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            buffer.clear();
+            bufferedIds.clear();
+        }
+    }
+
+    // Getters
+
+    public synchronized int size() {
+        return buffer.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getLowWaterMark() {
+        return lowWaterMark;
+    }
+
+    public int getDedupeWindow() {
+        return dedupeWindow;
+    }
+
+    public boolean isRefilling() {
+        return refilling.get();
+    }
+
+    /*
+     * Meals served from the buffer
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /*
+     * Meals fetched on demand because the buffer was empty
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /*
+     * Fetched meals dropped because they were buffered or served recently
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    /*
+     * The error that stopped the last refill, or null
+     */
+    public Throwable getLastRefillError() {
+        return lastRefillError;
+    }
+
+    // Helper Methods
+
+    /*
+     * Starts a refill unless one is already running
+     */
+    private void refill() {
+        if (closed || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        int missing;
+        synchronized (this) {
+            missing = capacity - buffer.size();
+        }
+        fetchNext(missing * MAX_ATTEMPTS_PER_SLOT);
+    }
+
+    /*
+     * Fetches one meal, buffers it and continues until the buffer is full,
+     * the attempts run out or a fetch fails. The next refill() after a
+     * failure tries again.
+     */
+    private void fetchNext(int attemptsLeft) {
+        boolean full;
+        synchronized (this) {
+            full = buffer.size() >= capacity;
+        }
+        if (closed || full || attemptsLeft <= 0) {
+            refilling.set(false);
+            return;
+        }
+
+        client.getRandomMealAsync().whenComplete((recipe, error) -> {
+            if (error != null) {
+                lastRefillError = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                refilling.set(false);
+                return;
+            }
+
+            lastRefillError = null;
+            offer(recipe);
+            fetchNext(attemptsLeft - 1);
+        });
+    }
+
+    /*
+     * Buffers a fetched meal unless it is a duplicate
+     */
+    private synchronized void offer(Recipe recipe) {
+        String id = recipe.getId();
+        if (closed || buffer.size() >= capacity) {
+            return;
+        }
+        if (bufferedIds.contains(id) || recentIds.contains(id)) {
+            duplicateCount.incrementAndGet();
+            return;
+        }
+        bufferedIds.add(id);
+        buffer.add(recipe);
+    }
+
+    /*
+     * Adds a served meal ID to the dedupe window, evicting the oldest (caller holds the lock)
+     */
+    private void remember(String id) {
+        if (dedupeWindow == 0 || id == null) {
+            return;
+        }
+        recentIds.remove(id);
+        recentIds.add(id);
+        if (recentIds.size() > dedupeWindow) {
+            Iterator<String> oldest = recentIds.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.meallab.api.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Single-flight helper: identical requests that overlap in time share one call.
+ *
+ * The first caller for a key starts the real call; every caller that arrives
+ * while it is still running gets the same result (or the same failure)
+ * instead of sending a duplicate HTTP request.
+ *
+ * Each caller receives its own copy of the shared future, so cancelling one
+ * waiter does not cancel the request for the others.
+ */
+
+class RequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /*
+     * Runs the call for the key, or joins the one already in flight.
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> coalesce(String key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<Object> shared = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalescedCount.increment();
+            return (CompletableFuture<T>) existing.copy();
+        }
+
+        try {
+            call.get().whenComplete((value, error) -> {
+                // Unregister first, so callers arriving after completion start a fresh call
+                inFlight.remove(key, shared);
+                if (error != null) {
+                    shared.completeExceptionally(error);
+                } else {
+                    shared.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+        }
+
+        return (CompletableFuture<T>) shared.copy();
+    }
+
+    /*
+     * Number of calls that were answered by joining an in-flight request.
+     */
+    long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /*
+     * Whether a call for the key is currently running.
+     */
+    boolean isInFlight(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    /*
+     * Number of distinct requests currently in flight.
+     */
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+}
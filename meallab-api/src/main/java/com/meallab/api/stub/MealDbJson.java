@@ -0,0 +1,121 @@
+package com.meallab.api.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Writes recipes in TheMealDB's own JSON format.
+ *
+ * Used by MealDbStubServer and by benchmarks that need realistic payloads:
+ * full recipes carry all 20 strIngredient/strMeasure slots (unused ones as
+ * empty strings) and the extra fields the real API sends.
+ */
+
+public final class MealDbJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final byte[] NO_MEALS = "{\"meals\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private MealDbJson() {
+    }
+
+    /*
+     * {"meals":[...full recipes...]}, as returned by search.php, lookup.php and random.php.
+     */
+    public static byte[] mealsResponse(List<Recipe> recipes) {
+        List<byte[]> meals = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            meals.add(fullRecipe(recipe, 0));
+        }
+        return envelope(meals);
+    }
+
+    /*
+     * {"meals":[...simplified meals...]}, as returned by filter.php.
+     */
+    public static byte[] filterResponse(List<Recipe> recipes) {
+        List<byte[]> meals = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            meals.add(simplifiedMeal(recipe));
+        }
+        return envelope(meals);
+    }
+
+    /*
+     * One full recipe object, with padding extra characters appended to the instructions.
+     */
+    public static byte[] fullRecipe(Recipe recipe, int padding) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("idMeal", recipe.getId());
+        json.put("strMeal", recipe.getName());
+        json.put("strDrinkAlternate", null);
+        json.put("strCategory", recipe.getCategory());
+        json.put("strArea", recipe.getArea());
+        json.put("strInstructions", (recipe.getInstructions() != null ? recipe.getInstructions() : "")
+                + " ".repeat(padding));
+        json.put("strMealThumb", recipe.getThumbnailUrl());
+        json.put("strTags", recipe.getTags());
+        json.put("strYoutube", recipe.getYoutubeUrl());
+        List<Ingredient> ingredients = recipe.getIngredients();
+        for (int slot = 1; slot <= 20; slot++) {
+            Ingredient ingredient = slot <= ingredients.size() ? ingredients.get(slot - 1) : null;
+            json.put("strIngredient" + slot, ingredient != null ? ingredient.getName() : "");
+            json.put("strMeasure" + slot, ingredient != null ? ingredient.getMeasure() : "");
+        }
+        json.put("strSource", null);
+        json.put("strImageSource", null);
+        json.put("strCreativeCommonsConfirmed", null);
+        json.put("dateModified", null);
+        return toJson(json);
+    }
+
+    /*
+     * One simplified meal object (name, thumbnail, ID).
+     */
+    public static byte[] simplifiedMeal(Recipe recipe) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("strMeal", recipe.getName());
+        json.put("strMealThumb", recipe.getThumbnailUrl());
+        json.put("idMeal", recipe.getId());
+        return toJson(json);
+    }
+
+    /*
+     * Wraps prerendered meal objects in {"meals":[...]}, or {"meals":null} when empty.
+     */
+    public static byte[] envelope(List<byte[]> meals) {
+        if (meals.isEmpty()) {
+            return NO_MEALS.clone();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("{\"meals\":[".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < meals.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(meals.get(i));
+        }
+        out.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    static byte[] toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,581 @@
+package com.meallab.api.stub;
+
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Local stand-in for TheMealDB, for load tests and benchmarks without network.
+ *
+ * Serves filter.php, search.php (s= and f=), lookup.php, random.php and
+ * list.php?i=list from fixture recipes, in TheMealDB's JSON format
+ * (numbered strIngredient/strMeasure slots, {"meals": null} for no results).
+ *
+ * Behaviour can be tuned at any time, also while running:
+ * - latency and jitter: every response is delayed by latency ± jitter
+ *   (without blocking a server thread, so many requests can wait at once)
+ * - error rate: the fraction of requests answered with HTTP 500
+ * - response size: extra instruction text per full recipe (padding)
+ *   and the maximum number of meals per search/filter response
+ * - ETags: responses (except random.php) carry an ETag, and a matching
+ *   If-None-Match is answered with 304 Not Modified and no body
+ * - gzip: bodies are gzip-compressed for clients that send
+ *   Accept-Encoding: gzip
+ *
+ * Usage example:
+ * <pre>
+ * try (MealDbStubServer server = new MealDbStubServer()) {
+ *     server.setLatency(Duration.ofMillis(40));
+ *     server.setJitter(Duration.ofMillis(10));
+ *     server.start();
+ *
+ *     MealDbApiClient client = new MealDbApiClient(server.getBaseUrl());
+ *     Recipe recipe = client.getMealById("60000");
+ * }
+ * </pre>
+ *
+ * It can also run on its own (see main()).
+ */
+
+public class MealDbStubServer implements AutoCloseable {
+
+    /*
+     * Path under which the endpoints are served, like TheMealDB's
+     */
+    public static final String API_PATH = "/api/json/v1/1";
+
+    private static final byte[] NO_MEALS = "{\"meals\":null}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_BODY = "{\"error\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<Recipe> recipes;
+    private final Map<String, Recipe> recipesById = new HashMap<>();
+
+    // Rendered JSON per recipe (rebuilt when the padding changes)
+    private volatile Map<Recipe, byte[]> fullJson;
+    private volatile Map<Recipe, byte[]> simplifiedJson;
+
+    // Tunables
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double errorRate;
+    private volatile int instructionsPadding;
+    private volatile int maxResults = Integer.MAX_VALUE;
+    private volatile boolean etags;
+    private volatile boolean gzip;
+
+    // Statistics
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong notModifiedCount = new AtomicLong();
+
+    private final int port;
+    private HttpServer server;
+    private ExecutorService handlerPool;
+    private ScheduledExecutorService delayScheduler;
+
+    /*
+     * Serves a generated catalog of StubCatalog.DEFAULT_MEAL_COUNT meals on a free port.
+     */
+    public MealDbStubServer() {
+        this(StubCatalog.generate(StubCatalog.DEFAULT_MEAL_COUNT, 42), 0);
+    }
+
+    /*
+     * Serves the given recipes (e.g. from a CatalogMirror) on a free port.
+     */
+    public MealDbStubServer(List<Recipe> recipes) {
+        this(recipes, 0);
+    }
+
+    /*
+     * Serves the given recipes on a fixed port (0 = any free port).
+     */
+    public MealDbStubServer(List<Recipe> recipes, int port) {
+        if (recipes == null || recipes.isEmpty()) {
+            throw new IllegalArgumentException("Stub server needs at least one recipe");
+        }
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        this.recipes = new ArrayList<>(recipes);
+        this.port = port;
+        for (Recipe recipe : this.recipes) {
+            recipesById.put(recipe.getId(), recipe);
+        }
+        render();
+    }
+
+    // Lifecycle
+
+    /*
+     * Starts listening on 127.0.0.1.
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Stub server is already running");
+        }
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        handlerPool = Executors.newFixedThreadPool(threads, daemon("meallab-stub-http"));
+        delayScheduler = Executors.newScheduledThreadPool(threads, daemon("meallab-stub-delay"));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.createContext(API_PATH, this::handle);
+        server.setExecutor(handlerPool);
+        server.start();
+    }
+
+    /*
+     * Stops the server (pending delayed responses are dropped).
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            handlerPool.shutdownNow();
+            delayScheduler.shutdownNow();
+            server = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /*
+     * Base URL to give to MealDbApiClient, e.g. "http://127.0.0.1:54321/api/json/v1/1".
+     */
+    public synchronized String getBaseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("Stub server is not running");
+        }
+        return "http://127.0.0.1:" + server.getAddress().getPort() + API_PATH;
+    }
+
+    // Tunables
+
+    public Duration getLatency() {
+        return Duration.ofMillis(latencyMillis);
+    }
+
+    public void setLatency(Duration latency) {
+        this.latencyMillis = nonNegativeMillis(latency, "Latency");
+    }
+
+    public Duration getJitter() {
+        return Duration.ofMillis(jitterMillis);
+    }
+
+    /*
+     * Each response is delayed by latency plus a uniform random value in [-jitter, +jitter].
+     */
+    public void setJitter(Duration jitter) {
+        this.jitterMillis = nonNegativeMillis(jitter, "Jitter");
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /*
+     * Fraction of requests (0.0 - 1.0) answered with HTTP 500.
+     */
+    public void setErrorRate(double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.errorRate = errorRate;
+    }
+
+    public int getInstructionsPadding() {
+        return instructionsPadding;
+    }
+
+    /*
+     * Extra characters appended to every recipe's instructions, to test larger payloads.
+     */
+    public synchronized void setInstructionsPadding(int characters) {
+        if (characters < 0) {
+            throw new IllegalArgumentException("Padding cannot be negative");
+        }
+        this.instructionsPadding = characters;
+        render();
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /*
+     * Maximum number of meals in one search/filter response.
+     */
+    public void setMaxResults(int maxResults) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("Max results must be at least 1");
+        }
+        this.maxResults = maxResults;
+    }
+
+    public boolean isEtags() {
+        return etags;
+    }
+
+    /*
+     * Adds ETags to responses and answers matching If-None-Match requests with 304.
+     */
+    public void setEtags(boolean etags) {
+        this.etags = etags;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /*
+     * Compresses bodies with gzip when the request accepts it.
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    // Statistics
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /*
+     * Requests answered with an injected HTTP 500.
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /*
+     * Requests answered with 304 Not Modified.
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public List<Recipe> getRecipes() {
+        return new ArrayList<>(recipes);
+    }
+
+    // Request Handling
+
+    private void handle(HttpExchange exchange) {
+        requestCount.incrementAndGet();
+
+        int status;
+        byte[] body;
+        String etag = null;
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errorCount.incrementAndGet();
+            status = 500;
+            body = ERROR_BODY;
+        } else {
+            String path = exchange.getRequestURI().getPath();
+            String endpoint = path.substring(path.lastIndexOf('/') + 1);
+            body = respond(endpoint, queryParameters(exchange.getRequestURI().getRawQuery()));
+            status = body != null ? 200 : 404;
+            if (body == null) {
+                body = ERROR_BODY;
+            } else if (etags && !endpoint.equals("random.php")) {
+                etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModifiedCount.incrementAndGet();
+                    status = 304;
+                }
+            }
+        }
+
+        long delay = latencyMillis;
+        if (jitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+        }
+
+        boolean compressed = false;
+        if (gzip && status != 304 && acceptsGzip(exchange)) {
+            body = compress(body);
+            compressed = true;
+        }
+
+        final int finalStatus = status;
+        final byte[] finalBody = body;
+        final String finalEtag = etag;
+        final boolean finalCompressed = compressed;
+        if (delay <= 0) {
+            send(exchange, finalStatus, finalBody, finalEtag, finalCompressed);
+        } else {
+            delayScheduler.schedule(() -> send(exchange, finalStatus, finalBody, finalEtag, finalCompressed),
+                    delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /*
+     * Builds the response body for an endpoint, or null for unknown endpoints.
+     */
+    private byte[] respond(String endpoint, Map<String, String> query) {
+        switch (endpoint) {
+            case "filter.php": {
+                String ingredient = normalize(query.get("i"));
+                List<Recipe> matches = new ArrayList<>();
+                for (Recipe recipe : recipes) {
+                    if (matches.size() >= maxResults) {
+                        break;
+                    }
+                    for (Ingredient item : recipe.getIngredients()) {
+                        if (ingredient.equals(normalize(item.getName()))) {
+                            matches.add(recipe);
+                            break;
+                        }
+                    }
+                }
+                return envelope(matches, simplifiedJson);
+            }
+            case "search.php": {
+                List<Recipe> matches = new ArrayList<>();
+                if (query.containsKey("f")) {
+                    String letter = normalize(query.get("f"));
+                    for (Recipe recipe : recipes) {
+                        if (matches.size() < maxResults && !letter.isEmpty()
+                                && normalize(recipe.getName()).startsWith(letter.substring(0, 1))) {
+                            matches.add(recipe);
+                        }
+                    }
+                } else {
+                    String name = normalize(query.get("s"));
+                    for (Recipe recipe : recipes) {
+                        if (matches.size() < maxResults && normalize(recipe.getName()).contains(name)) {
+                            matches.add(recipe);
+                        }
+                    }
+                }
+                return envelope(matches, fullJson);
+            }
+            case "lookup.php": {
+                Recipe recipe = recipesById.get(query.getOrDefault("i", "").trim());
+                return recipe != null ? envelope(List.of(recipe), fullJson) : NO_MEALS;
+            }
+            case "random.php": {
+                Recipe recipe = recipes.get(ThreadLocalRandom.current().nextInt(recipes.size()));
+                return envelope(List.of(recipe), fullJson);
+            }
+            case "list.php":
+                return ingredientList();
+            default:
+                return null;
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body, String etag, boolean compressed) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            if (etag != null) {
+                exchange.getResponseHeaders().set("ETag", etag);
+            }
+            if (compressed) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            if (status == 304) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            bytesSent.addAndGet(body.length);
+        } catch (IOException e) {
+            // Client went away; nothing to do
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        for (String value : exchange.getRequestHeaders().getOrDefault("Accept-Encoding", List.of())) {
+            for (String coding : value.split(",")) {
+                if (coding.trim().toLowerCase(Locale.ROOT).startsWith("gzip")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static byte[] compress(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // In-memory stream, cannot happen
+        }
+        return bytes.toByteArray();
+    }
+
+    // Rendering
+
+    /*
+     * {"meals":[...]} from prerendered meal objects, or {"meals":null}.
+     */
+    private static byte[] envelope(List<Recipe> meals, Map<Recipe, byte[]> rendered) {
+        if (meals.isEmpty()) {
+            return NO_MEALS;
+        }
+
+        List<byte[]> objects = new ArrayList<>(meals.size());
+        for (Recipe recipe : meals) {
+            objects.add(rendered.get(recipe));
+        }
+        return MealDbJson.envelope(objects);
+    }
+
+    private byte[] ingredientList() {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (Recipe recipe : recipes) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                if (ingredient.getName() != null) {
+                    names.putIfAbsent(normalize(ingredient.getName()), ingredient.getName());
+                }
+            }
+        }
+
+        List<Map<String, Object>> list = new ArrayList<>();
+        int id = 1;
+        for (String name : names.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("idIngredient", String.valueOf(id++));
+            entry.put("strIngredient", name);
+            entry.put("strDescription", null);
+            entry.put("strType", null);
+            list.add(entry);
+        }
+        return MealDbJson.toJson(Map.of("meals", list));
+    }
+
+    /*
+     * Prerenders every recipe in TheMealDB's full and simplified formats.
+     */
+    private void render() {
+        Map<Recipe, byte[]> full = new HashMap<>();
+        Map<Recipe, byte[]> simplified = new HashMap<>();
+        for (Recipe recipe : recipes) {
+            full.put(recipe, MealDbJson.fullRecipe(recipe, instructionsPadding));
+            simplified.put(recipe, MealDbJson.simplifiedMeal(recipe));
+        }
+
+        this.fullJson = full;
+        this.simplifiedJson = simplified;
+    }
+
+    // Helper Methods
+
+    private static Map<String, String> queryParameters(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /*
+     * Case-insensitive matching like TheMealDB ('_' also stands for a space).
+     */
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replace('_', ' ').toLowerCase(Locale.ROOT);
+    }
+
+    private static long nonNegativeMillis(Duration duration, String what) {
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException(what + " cannot be null or negative");
+        }
+        return duration.toMillis();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /*
+     * Runs the stub on its own until the process is stopped.
+     *
+     * Options: --port=8080 --meals=300 --latency-ms=0 --jitter-ms=0
+     *          --error-rate=0.0 --padding=0 --max-results=N --etags=false
+     *          --gzip=false
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println("Ignoring unknown argument: " + arg);
+                continue;
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        int meals = Integer.parseInt(options.getOrDefault("meals", String.valueOf(StubCatalog.DEFAULT_MEAL_COUNT)));
+        int port = Integer.parseInt(options.getOrDefault("port", "8080"));
+
+        MealDbStubServer server = new MealDbStubServer(StubCatalog.generate(meals, 42), port);
+        server.setLatency(Duration.ofMillis(Long.parseLong(options.getOrDefault("latency-ms", "0"))));
+        server.setJitter(Duration.ofMillis(Long.parseLong(options.getOrDefault("jitter-ms", "0"))));
+        server.setErrorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")));
+        server.setInstructionsPadding(Integer.parseInt(options.getOrDefault("padding", "0")));
+        server.setEtags(Boolean.parseBoolean(options.getOrDefault("etags", "false")));
+        server.setGzip(Boolean.parseBoolean(options.getOrDefault("gzip", "false")));
+        if (options.containsKey("max-results")) {
+            server.setMaxResults(Integer.parseInt(options.get("max-results")));
+        }
+        server.start();
+
+        System.out.println("MealDB stub serving " + meals + " meals at " + server.getBaseUrl());
+
+        // Server threads are daemons, so keep the JVM alive
+        Thread.currentThread().join();
+    }
+}
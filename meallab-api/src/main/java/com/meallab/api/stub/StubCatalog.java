@@ -0,0 +1,139 @@
+package com.meallab.api.stub;
+
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/*
+ * Generates a synthetic recipe catalog for MealDbStubServer.
+ *
+ * The recipes are shaped like TheMealDB's: 5-15 ingredients drawn from a
+ * shared vocabulary (so names repeat across recipes), a few hundred words
+ * of instructions, a category, an area and tags. The same seed always
+ * produces the same catalog, so benchmark runs are comparable.
+ */
+
+public final class StubCatalog {
+
+    /*
+     * Roughly the size of the real catalog
+     */
+    public static final int DEFAULT_MEAL_COUNT = 300;
+
+    private static final String[] CATEGORIES = {
+            "Beef", "Chicken", "Dessert", "Lamb", "Miscellaneous", "Pasta", "Pork",
+            "Seafood", "Side", "Starter", "Vegan", "Vegetarian", "Breakfast", "Goat"};
+
+    private static final String[] AREAS = {
+            "American", "British", "Canadian", "Chinese", "Croatian", "Dutch", "Egyptian",
+            "French", "Greek", "Indian", "Irish", "Italian", "Jamaican", "Japanese",
+            "Kenyan", "Malaysian", "Mexican", "Moroccan", "Polish", "Portuguese",
+            "Russian", "Spanish", "Thai", "Tunisian", "Turkish", "Vietnamese"};
+
+    private static final String[] DISHES = {
+            "Stew", "Curry", "Pie", "Casserole", "Soup", "Salad", "Roast", "Tart",
+            "Risotto", "Stir Fry", "Tagine", "Burger", "Pasta Bake", "Skewers", "Pudding"};
+
+    private static final String[] STYLES = {
+            "Spicy", "Slow Cooker", "Classic", "Creamy", "Grilled", "Honey Glazed",
+            "Smoky", "Lemon", "Garlic", "Herb", "Crispy", "Rustic"};
+
+    private static final String[] INGREDIENTS = {
+            "Chicken", "Beef", "Lamb", "Pork", "Salmon", "Prawns", "Eggs", "Butter",
+            "Olive Oil", "Onion", "Garlic", "Ginger", "Carrots", "Potatoes", "Tomatoes",
+            "Red Pepper", "Green Chilli", "Mushrooms", "Spinach", "Peas", "Rice",
+            "Spaghetti", "Plain Flour", "Sugar", "Brown Sugar", "Honey", "Milk",
+            "Double Cream", "Cheddar Cheese", "Parmesan", "Mozzarella", "Lemon", "Lime",
+            "Soy Sauce", "Fish Sauce", "Coconut Milk", "Chicken Stock", "Beef Stock",
+            "Cumin", "Coriander", "Paprika", "Turmeric", "Cinnamon", "Bay Leaf",
+            "Thyme", "Rosemary", "Basil", "Parsley", "Salt", "Black Pepper",
+            "Chickpeas", "Lentils", "Kidney Beans", "Sweetcorn", "Celery", "Leek",
+            "Cabbage", "Aubergine", "Courgettes", "Yogurt", "Vanilla Extract",
+            "Baking Powder", "Dark Chocolate", "Almonds", "Walnuts", "Raisins"};
+
+    private static final String[] MEASURES = {
+            "1 tsp", "2 tsp", "1 tbs", "2 tbs", "3 tbs", "100g", "200g", "250g", "500g",
+            "1 kg", "1 cup", "1/2 cup", "2 cups", "1", "2", "3", "pinch", "to taste",
+            "1 chopped", "2 cloves", "400ml", "1 Litre"};
+
+    private static final String[] TAGS = {
+            "Meat", "Casserole", "Curry", "Spicy", "Vegetarian", "Baking", "Cake",
+            "Pudding", "Soup", "Warming", "MainMeal", "Speciality", "Streetfood",
+            "DairyFree", "Light", "Pasta", "Breakfast"};
+
+    private static final String[] WORDS = {
+            "heat", "the", "oil", "in", "a", "large", "pan", "and", "fry", "onion",
+            "until", "soft", "add", "garlic", "stir", "for", "minutes", "season", "with",
+            "salt", "pepper", "simmer", "gently", "cover", "oven", "bake", "serve",
+            "hot", "cool", "slightly", "mix", "bowl", "whisk", "pour", "over", "leave",
+            "overnight", "chop", "finely", "golden", "brown", "tender", "sauce", "thick"};
+
+    private StubCatalog() {
+    }
+
+    /*
+     * Generates count recipes with IDs 60000, 60001, ...
+     */
+    public static List<Recipe> generate(int count, long seed) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Meal count must be positive");
+        }
+
+        Random random = new Random(seed);
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = String.valueOf(60000 + i);
+            String main = pick(random, INGREDIENTS);
+            String name = pick(random, STYLES) + " " + main + " " + pick(random, DISHES);
+
+            Recipe recipe = new Recipe(id, name, pick(random, CATEGORIES), pick(random, AREAS),
+                    instructions(random), "https://www.themealdb.com/images/media/meals/stub" + id + ".jpg");
+            recipe.setTags(pick(random, TAGS) + "," + pick(random, TAGS));
+            recipe.setYoutubeUrl(random.nextBoolean() ? "https://www.youtube.com/watch?v=stub" + id : "");
+
+            // 5-15 distinct ingredients, always including the one in the name
+            Set<String> names = new LinkedHashSet<>();
+            names.add(main);
+            int ingredientCount = 5 + random.nextInt(11);
+            while (names.size() < ingredientCount) {
+                names.add(pick(random, INGREDIENTS));
+            }
+            List<Ingredient> ingredients = new ArrayList<>();
+            for (String ingredient : names) {
+                ingredients.add(new Ingredient(ingredient, pick(random, MEASURES)));
+            }
+            recipe.setIngredients(ingredients);
+
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+
+    // Helper Methods
+
+    private static String instructions(Random random) {
+        int words = 120 + random.nextInt(200);
+        StringBuilder text = new StringBuilder(words * 6);
+        boolean sentenceStart = true;
+        for (int i = 0; i < words; i++) {
+            String word = pick(random, WORDS);
+            if (sentenceStart) {
+                word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            }
+            text.append(word);
+            sentenceStart = random.nextInt(12) == 0;
+            text.append(sentenceStart ? ".\r\n" : " ");
+        }
+        text.append("Enjoy.");
+        return text.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
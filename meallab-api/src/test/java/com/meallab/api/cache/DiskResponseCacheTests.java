@@ -0,0 +1,240 @@
+package com.meallab.api.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DiskResponseCacheTests {
+    private static final String URL = "https://www.themealdb.com/api/json/v1/1/lookup.php?i=52772";
+
+    @TempDir
+    Path directory;
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong(1_700_000_000_000L);
+    }
+
+    private DiskResponseCache open(long maxBytes) throws IOException {
+        return new DiskResponseCache(directory, maxBytes, Duration.ofHours(1), clock::get);
+    }
+
+    private static HttpHeaders headers(String... namesAndValues) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            map.put(namesAndValues[i], List.of(namesAndValues[i + 1]));
+        }
+        return HttpHeaders.of(map, (name, value) -> true);
+    }
+
+    private static byte[] body(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Test that stored responses survive a restart.
+     */
+    @Test
+    public void testSurvivesReopen() throws IOException {
+        try (DiskResponseCache cache = open(1_000_000)) {
+            cache.put(URL, headers("ETag", "\"v1\"", "Last-Modified", "Tue, 15 Nov 1994 12:45:26 GMT"),
+                    body("{\"meals\":[]}"));
+            assertEquals(1, cache.size());
+        }
+
+        try (DiskResponseCache cache = open(1_000_000)) {
+            CachedResponse cached = cache.get(URL);
+            assertEquals("{\"meals\":[]}", new String(cached.getBody(), StandardCharsets.UTF_8));
+            assertEquals("\"v1\"", cached.getETag());
+            assertEquals("Tue, 15 Nov 1994 12:45:26 GMT", cached.getLastModified());
+            assertTrue(cached.hasValidators());
+            assertTrue(cache.isFresh(cached));
+            assertEquals(1, cache.getHitCount());
+            assertNull(cache.get(URL + "0"));
+            assertEquals(1, cache.getMissCount());
+        }
+    }
+
+    /*
+     * Test freshness from Cache-Control, Expires and the default.
+     */
+    @Test
+    public void testFreshness() throws IOException {
+        try (DiskResponseCache cache = open(1_000_000)) {
+            long now = clock.get();
+            assertEquals(now + 3_600_000, cache.put(URL + "1", headers(), body("a")).getFreshUntilMillis());
+            assertEquals(now + 60_000, cache.put(URL + "2",
+                    headers("Cache-Control", "public, max-age=60"), body("b")).getFreshUntilMillis());
+            assertEquals(now + 120_000, cache.put(URL + "3", headers(
+                    "Date", "Tue, 15 Nov 1994 08:12:31 GMT",
+                    "Expires", "Tue, 15 Nov 1994 08:14:31 GMT"), body("c")).getFreshUntilMillis());
+            assertEquals(now, cache.put(URL + "4", headers("Cache-Control", "no-cache"), body("d")).getFreshUntilMillis());
+            assertEquals(now, cache.put(URL + "5", headers("Expires", "0"), body("e")).getFreshUntilMillis());
+
+            assertNull(cache.put(URL + "6", headers("Cache-Control", "no-store"), body("f")));
+            assertNull(cache.put("https://www.themealdb.com/api/json/v1/1/random.php", headers(), body("g")));
+            assertEquals(5, cache.size());
+
+            clock.addAndGet(Duration.ofMinutes(2).toMillis());
+            assertFalse(cache.isFresh(cache.get(URL + "2")));
+            assertTrue(cache.isFresh(cache.get(URL + "1")));
+            assertEquals(1, cache.getStaleCount());
+        }
+    }
+
+    /*
+     * Test that a 304 refreshes a stale entry and keeps its body.
+     */
+    @Test
+    public void testRevalidated() throws IOException {
+        try (DiskResponseCache cache = open(1_000_000)) {
+            cache.put(URL, headers("ETag", "\"v1\"", "Cache-Control", "max-age=10"), body("recipe"));
+            clock.addAndGet(20_000);
+
+            CachedResponse stale = cache.get(URL);
+            assertFalse(cache.isFresh(stale));
+
+            CachedResponse refreshed = cache.revalidated(stale, headers("Cache-Control", "max-age=10"));
+            assertTrue(cache.isFresh(refreshed));
+            assertEquals("\"v1\"", refreshed.getETag());
+            assertArrayEquals(body("recipe"), refreshed.getBody());
+            assertTrue(cache.isFresh(cache.get(URL)), "The refreshed entry is stored");
+            assertEquals(1, cache.getRevalidatedCount());
+        }
+    }
+
+    /*
+     * Test that the least recently used entries are evicted to stay under the size cap,
+     * and that the order survives a restart.
+     */
+    @Test
+    public void testLruEviction() throws IOException {
+        byte[] payload = new byte[300];
+        try (DiskResponseCache cache = open(1_500)) {
+            cache.put(URL + "1", headers(), payload);
+            cache.put(URL + "2", headers(), payload);
+            cache.put(URL + "3", headers(), payload);
+            cache.get(URL + "1");
+        }
+
+        try (DiskResponseCache cache = open(1_500)) {
+            cache.put(URL + "4", headers(), payload);
+
+            assertEquals(3, cache.size());
+            assertEquals(1, cache.getEvictionCount());
+            assertTrue(cache.getTotalBytes() <= 1_500);
+            assertNull(cache.get(URL + "2"), "Least recently used entry should be evicted");
+            assertNotNull(cache.get(URL + "1"));
+        }
+    }
+
+    /*
+     * Test that an interrupted write and left-over temp files are discarded on open.
+     */
+    @Test
+    public void testInterruptedWriteIsDiscarded() throws IOException {
+        try (DiskResponseCache cache = open(1_000_000)) {
+            cache.put(URL, headers(), body("complete"));
+        }
+
+        // Simulate a crash in the middle of rewriting the entry
+        String key = DiskResponseCache.key(URL);
+        Files.writeString(directory.resolve(DiskResponseCache.JOURNAL_FILE), "DIRTY " + key + "\n",
+                StandardOpenOption.APPEND);
+        Files.write(directory.resolve(key + ".entry"), body("partial"));
+        Files.write(directory.resolve(key + ".entry.tmp"), body("partial"));
+
+        try (DiskResponseCache cache = open(1_000_000)) {
+            assertNull(cache.get(URL));
+            assertEquals(0, cache.size());
+            assertFalse(Files.exists(directory.resolve(key + ".entry")));
+            assertFalse(Files.exists(directory.resolve(key + ".entry.tmp")));
+        }
+    }
+
+    /*
+     * Test that an unreadable journal starts an empty cache.
+     */
+    @Test
+    public void testCorruptJournal() throws IOException {
+        try (DiskResponseCache cache = open(1_000_000)) {
+            cache.put(URL, headers(), body("complete"));
+        }
+        Files.writeString(directory.resolve(DiskResponseCache.JOURNAL_FILE), "garbage\n");
+
+        try (DiskResponseCache cache = open(1_000_000)) {
+            assertEquals(0, cache.size());
+            cache.put(URL, headers(), body("again"));
+            assertNotNull(cache.get(URL));
+        }
+    }
+
+    /*
+     * Test that lookups do not wait while another entry is being written to disk.
+     */
+    @Test
+    public void testGetDuringWrite() throws Exception {
+        try (DiskResponseCache cache = open(1_000_000)) {
+            cache.put(URL + "1", headers(), body("first"));
+
+            CountDownLatch written = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            cache.beforeCommit = () -> {
+                written.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            CompletableFuture<CachedResponse> put = CompletableFuture.supplyAsync(
+                    () -> cache.put(URL + "2", headers(), body("second")));
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+
+            // The write is paused after its fsync; the cache must not be locked
+            CachedResponse first = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.get(URL + "1"));
+            assertEquals("first", new String(first.getBody(), StandardCharsets.UTF_8));
+            assertNull(cache.get(URL + "2"), "Not visible before it is committed");
+
+            release.countDown();
+            assertNotNull(put.get(5, TimeUnit.SECONDS));
+            assertNotNull(cache.get(URL + "2"));
+            assertEquals(2, cache.size());
+        }
+    }
+
+    /*
+     * Test that READ lines are not flushed one per lookup, but still reach the journal.
+     */
+    @Test
+    public void testReadLinesAreBatched() throws IOException {
+        Path journal = directory.resolve(DiskResponseCache.JOURNAL_FILE);
+        try (DiskResponseCache cache = open(1_000_000)) {
+            cache.put(URL, headers(), body("cached"));
+            long size = Files.size(journal);
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(cache.get(URL));
+            }
+            assertEquals(size, Files.size(journal));
+        }
+        assertTrue(Files.readString(journal).contains("READ " + DiskResponseCache.key(URL)));
+    }
+}
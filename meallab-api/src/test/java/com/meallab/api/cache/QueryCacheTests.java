@@ -0,0 +1,118 @@
+package com.meallab.api.cache;
+
+import com.meallab.api.model.LookupResult;
+import com.meallab.api.model.MealListResponse;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.model.SimplifiedMeal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class QueryCacheTests {
+    private AtomicLong clock;
+    private QueryCache cache;
+    private RecipeCache recipes;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong();
+        cache = new QueryCache(3, Duration.ofMinutes(10), Duration.ofMinutes(1), clock::get);
+        recipes = new RecipeCache();
+    }
+
+    private static Recipe recipe(String id) {
+        return new Recipe(id, "Recipe " + id, "Category", "Area", "Instructions", "url");
+    }
+
+    /*
+     * Test that equivalent spellings share one key.
+     */
+    @Test
+    public void testNormalize() {
+        assertEquals("chicken", QueryCache.normalize("Chicken"));
+        assertEquals("chicken", QueryCache.normalize("  CHICKEN \t"));
+        assertEquals("olive oil", QueryCache.normalize("Olive   Oil"));
+        assertEquals("creme brulee", QueryCache.normalize("\uFF23\uFF52\uFF45\uFF4D\uFF45\u00A0Brulee"));   // full-width, no-break space
+        assertEquals("strasse", QueryCache.normalize("Stra\u00DFe"));
+    }
+
+    /*
+     * Test ingredient hits and misses under different spellings.
+     */
+    @Test
+    public void testIngredientResults() {
+        assertNull(cache.getIngredientResults("chicken"));
+
+        cache.putIngredientResults("Chicken", List.of(new SimplifiedMeal("1", "A", "url")));
+        cache.putIngredientResults("saffron", List.of());
+
+        LookupResult<MealListResponse> hit = cache.getIngredientResults(" CHICKEN ");
+        assertEquals("1", hit.get().getMeals().get(0).getId());
+        assertFalse(cache.getIngredientResults("Saffron").isFound());
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getNegativeHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /*
+     * Test that name results resolve through the recipe cache.
+     */
+    @Test
+    public void testNameResultsResolveThroughRecipeCache() {
+        recipes.put(recipe("1"));
+        recipes.put(recipe("2"));
+        cache.putNameResults("stew", List.of(recipe("1"), recipe("2")));
+
+        LookupResult<MealResponse> hit = cache.getNameResults("Stew", recipes);
+        assertEquals(2, hit.get().getMealCount());
+        assertSame(recipes.get("1"), hit.get().getMeals().get(0));
+
+        // A recipe dropped from the recipe cache makes the entry unusable
+        recipes.invalidate("2");
+        assertNull(cache.getNameResults("stew", recipes));
+        assertEquals(0, cache.size());
+        assertNull(cache.getNameResults("stew", recipes));
+    }
+
+    /*
+     * Test that hits and misses expire after their own TTL.
+     */
+    @Test
+    public void testSeparateTtls() {
+        cache.putIngredientResults("chicken", List.of(new SimplifiedMeal("1", "A", "url")));
+        cache.putIngredientResults("saffron", List.of());
+
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertNull(cache.getIngredientResults("saffron"), "Miss should have expired");
+        assertTrue(cache.getIngredientResults("chicken").isFound());
+
+        clock.addAndGet(Duration.ofMinutes(9).toNanos());
+        assertNull(cache.getIngredientResults("chicken"), "Hit should have expired");
+    }
+
+    /*
+     * Test that the least recently used query is evicted first.
+     */
+    @Test
+    public void testBoundedSize() {
+        cache.putIngredientResults("a", List.of());
+        cache.putIngredientResults("b", List.of());
+        cache.putIngredientResults("c", List.of());
+        cache.getIngredientResults("a");
+        cache.putIngredientResults("d", List.of());
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.getIngredientResults("b"));
+        assertNotNull(cache.getIngredientResults("a"));
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(0, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(1, Duration.ofMinutes(1), Duration.ZERO));
+    }
+}
@@ -0,0 +1,146 @@
+package com.meallab.api.cache;
+
+import com.meallab.api.model.Recipe;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RecipeCacheTests {
+    private AtomicLong clock;
+    private RecipeCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong();
+        cache = new RecipeCache(3, 1_000_000, Duration.ofMinutes(10), clock::get);
+    }
+
+    private static Recipe recipe(String id) {
+        return new Recipe(id, "Recipe " + id, "Category", "Area", "Instructions", "url");
+    }
+
+    /*
+     * Test a simple put followed by hits and misses.
+     */
+    @Test
+    public void testHitAndMiss() {
+        assertTrue(cache.put(recipe("1")));
+
+        assertEquals("1", cache.get("1").getId());
+        assertNull(cache.get("2"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate(), 0.0001);
+        assertEquals(1, stats.getEntryCount());
+    }
+
+    /*
+     * Test that entries expire after the TTL.
+     */
+    @Test
+    public void testExpiry() {
+        cache.put(recipe("1"));
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertNull(cache.get("1"), "Entry should have expired");
+        assertEquals(1, cache.stats().getExpiredCount());
+        assertEquals(0, cache.size());
+    }
+
+    /*
+     * Test that a scan of one-off lookups does not push out popular recipes.
+     */
+    @Test
+    public void testScanResistance() {
+        // Three popular recipes, requested many times
+        for (String id : new String[]{"1", "2", "3"}) {
+            cache.put(recipe(id));
+            for (int i = 0; i < 5; i++) {
+                cache.get(id);
+            }
+        }
+
+        // A scan of one-off lookups (miss, then put)
+        for (int i = 100; i < 200; i++) {
+            String id = String.valueOf(i);
+            cache.get(id);
+            cache.put(recipe(id));
+        }
+
+        assertNotNull(cache.get("1"));
+        assertNotNull(cache.get("2"));
+        assertNotNull(cache.get("3"));
+        assertEquals(3, cache.size());
+        assertTrue(cache.stats().getRejectedCount() >= 100);
+    }
+
+    /*
+     * Test that a recipe requested more often than the LRU entry replaces it.
+     */
+    @Test
+    public void testPopularNewcomerIsAdmitted() {
+        cache.put(recipe("1"));
+        cache.put(recipe("2"));
+        cache.put(recipe("3"));
+
+        for (int i = 0; i < 4; i++) {
+            cache.get("4");
+        }
+
+        assertTrue(cache.put(recipe("4")));
+        assertNotNull(cache.get("4"));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.stats().getEvictionCount());
+    }
+
+    /*
+     * Test that the byte budget is respected.
+     */
+    @Test
+    public void testByteLimit() {
+        long oneRecipe = RecipeCache.estimateBytes(recipe("1"));
+        RecipeCache small = new RecipeCache(100, oneRecipe * 2, Duration.ofMinutes(1), clock::get);
+
+        small.put(recipe("1"));
+        small.put(recipe("2"));
+        small.get("3");
+        small.get("3");
+        small.put(recipe("3"));
+
+        assertEquals(2, small.size());
+        assertTrue(small.estimatedBytes() <= oneRecipe * 2);
+    }
+
+    /*
+     * Test refreshing an existing entry and invalidation.
+     */
+    @Test
+    public void testRefreshAndInvalidate() {
+        cache.put(recipe("1"));
+        Recipe updated = recipe("1");
+        updated.setName("Updated");
+        cache.put(updated);
+
+        assertEquals("Updated", cache.get("1").getName());
+        assertEquals(1, cache.size());
+
+        cache.invalidate("1");
+        assertNull(cache.get("1"));
+        assertEquals(0, cache.estimatedBytes());
+    }
+
+    /*
+     * Test that invalid limits are rejected.
+     */
+    @Test
+    public void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new RecipeCache(0, 10, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new RecipeCache(10, 10, Duration.ZERO));
+    }
+}
@@ -0,0 +1,53 @@
+package com.meallab.api.image;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class ImageIoDecoderTests {
+    private final ImageIoDecoder decoder = new ImageIoDecoder();
+
+    static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            image.setRGB(x, 0, 0xFF8800);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", bytes);
+        return bytes.toByteArray();
+    }
+
+    /*
+     * Test that images are scaled to fit the target, keeping the aspect ratio.
+     */
+    @Test
+    public void testScaleToFit() throws IOException {
+        BufferedImage image = decoder.decode(jpeg(700, 350), 100, 100);
+        assertEquals(100, image.getWidth());
+        assertEquals(50, image.getHeight());
+        assertEquals(100L * 50 * 4, decoder.sizeOf(image));
+    }
+
+    /*
+     * Test that small images are not enlarged.
+     */
+    @Test
+    public void testNoEnlarging() throws IOException {
+        BufferedImage image = decoder.decode(jpeg(40, 30), 100, 100);
+        assertEquals(40, image.getWidth());
+        assertEquals(30, image.getHeight());
+    }
+
+    /*
+     * Test that unreadable data fails with IOException.
+     */
+    @Test
+    public void testUnreadable() {
+        assertThrows(IOException.class, () -> decoder.decode(new byte[] {1, 2, 3}, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(new byte[0], 0, 100));
+    }
+}
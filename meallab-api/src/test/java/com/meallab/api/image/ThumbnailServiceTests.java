@@ -0,0 +1,173 @@
+package com.meallab.api.image;
+
+import com.meallab.api.cache.DiskResponseCache;
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.service.MealDbTransport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class ThumbnailServiceTests {
+    private static final String IMAGE = "https://www.themealdb.com/images/media/meals/abc.jpg";
+
+    private final Map<String, byte[]> images = new HashMap<>();
+    private final List<String> requested = new ArrayList<>();
+    private MealDbTransport transport;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        images.put(IMAGE, ImageIoDecoderTests.jpeg(700, 700));
+        images.put(IMAGE + "/preview", ImageIoDecoderTests.jpeg(250, 250));
+
+        transport = url -> {
+            synchronized (requested) {
+                requested.add(url);
+            }
+            byte[] body = images.get(url);
+            return body != null
+                    ? CompletableFuture.completedFuture(body)
+                    : CompletableFuture.failedFuture(new ApiException("Not found: " + url, 404));
+        };
+    }
+
+    private ThumbnailService<BufferedImage> service(long memoryBudgetBytes) {
+        return new ThumbnailService<>(transport, new ImageIoDecoder(), 2, memoryBudgetBytes, Runnable::run);
+    }
+
+    /*
+     * Test that small targets use the preview and repeated loads come from memory.
+     */
+    @Test
+    public void testPreviewAndMemoryHit() {
+        try (ThumbnailService<BufferedImage> thumbnails = service(1_000_000)) {
+            BufferedImage image = thumbnails.load(IMAGE, 120, 120).join();
+            assertEquals(120, image.getWidth());
+            assertSame(image, thumbnails.load(IMAGE, 120, 120).join());
+            assertSame(image, thumbnails.getIfPresent(IMAGE, 120, 120));
+            assertNull(thumbnails.getIfPresent(IMAGE, 60, 60));
+
+            assertEquals(List.of(IMAGE + "/preview"), requested);
+            assertEquals(1, thumbnails.getDownloadCount());
+            assertEquals(1, thumbnails.getMemoryHitCount());
+        }
+    }
+
+    /*
+     * Test the fallback to the full image, and that large targets skip the preview.
+     */
+    @Test
+    public void testFullSize() {
+        images.remove(IMAGE + "/preview");
+        try (ThumbnailService<BufferedImage> thumbnails = service(10_000_000)) {
+            assertEquals(100, thumbnails.load(IMAGE, 100, 100).join().getWidth());
+            assertEquals(1, thumbnails.getPreviewFallbackCount());
+
+            assertEquals(400, thumbnails.load(IMAGE, 400, 400).join().getWidth());
+            assertEquals(List.of(IMAGE + "/preview", IMAGE, IMAGE), requested);
+
+            CompletionException e = assertThrows(CompletionException.class,
+                    () -> thumbnails.load(IMAGE + "x", 400, 400).join());
+            assertInstanceOf(ApiException.class, e.getCause());
+        }
+    }
+
+    /*
+     * Test that a new service (cold memory) decodes from the disk tier instead of downloading.
+     */
+    @Test
+    public void testDiskTier(@TempDir Path directory) throws IOException {
+        try (DiskResponseCache disk = new DiskResponseCache(directory, 1_000_000, Duration.ofHours(1))) {
+            try (ThumbnailService<BufferedImage> thumbnails = service(1_000_000)) {
+                thumbnails.setDiskCache(disk);
+                thumbnails.load(IMAGE, 120, 120).join();
+            }
+
+            try (ThumbnailService<BufferedImage> thumbnails = service(1_000_000)) {
+                thumbnails.setDiskCache(disk);
+                assertEquals(80, thumbnails.load(IMAGE, 80, 80).join().getWidth());
+                assertEquals(1, thumbnails.getDiskHitCount());
+                assertEquals(0, thumbnails.getDownloadCount());
+            }
+        }
+        assertEquals(1, requested.size());
+    }
+
+    /*
+     * Test that decoded images stay within the memory budget, oldest out first.
+     */
+    @Test
+    public void testMemoryBudget() {
+        long oneImage = 100L * 100 * 4;
+        try (ThumbnailService<BufferedImage> thumbnails = service(oneImage * 2)) {
+            images.put(IMAGE + "2", images.get(IMAGE));
+            images.put(IMAGE + "3", images.get(IMAGE));
+
+            thumbnails.load(IMAGE, 100, 100).join();
+            thumbnails.load(IMAGE + "2", 100, 100).join();
+            thumbnails.load(IMAGE, 100, 100).join();      // Now the most recently used
+            thumbnails.load(IMAGE + "3", 100, 100).join();
+
+            assertEquals(2, thumbnails.size());
+            assertEquals(oneImage * 2, thumbnails.getMemoryBytes());
+            assertEquals(1, thumbnails.getEvictionCount());
+            assertNotNull(thumbnails.getIfPresent(IMAGE, 100, 100));
+            assertNull(thumbnails.getIfPresent(IMAGE + "2", 100, 100));
+        }
+    }
+
+    /*
+     * Test that downloads are bounded and concurrent loads of one image share a download,
+     * also when they decode it to different sizes.
+     */
+    @Test
+    public void testBoundedDownloads() throws IOException {
+        Map<String, CompletableFuture<byte[]>> pending = new HashMap<>();
+        transport = url -> {
+            CompletableFuture<byte[]> future = new CompletableFuture<>();
+            synchronized (pending) {
+                pending.put(url, future);
+            }
+            return future;
+        };
+        byte[] body = ImageIoDecoderTests.jpeg(300, 300);
+
+        try (ThumbnailService<BufferedImage> thumbnails = service(10_000_000)) {
+            thumbnails.setPreviewSuffix(null);
+            List<CompletableFuture<BufferedImage>> loads = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                loads.add(thumbnails.load(IMAGE + i, 100, 100));
+            }
+            assertSame(loads.get(0), thumbnails.load(IMAGE + 0, 100, 100));
+            CompletableFuture<BufferedImage> smaller = thumbnails.load(IMAGE + 0, 60, 60);
+            assertEquals(2, pending.size());
+
+            // Each finished download lets the next one start
+            for (int i = 0; i < 5; i++) {
+                CompletableFuture<byte[]> download;
+                synchronized (pending) {
+                    download = pending.get(IMAGE + i);
+                }
+                download.complete(body);
+            }
+            for (CompletableFuture<BufferedImage> load : loads) {
+                assertEquals(100, load.join().getWidth());
+            }
+            assertEquals(60, smaller.join().getWidth());
+            assertEquals(5, pending.size());
+            assertEquals(5, thumbnails.getDownloadCount());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.meallab.api.limit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimitTests {
+
+    private static final long FAST = 10_000_000;   // 10 ms
+    private static final long SLOW = 100_000_000;  // 100 ms
+
+    /*
+     * Test that fast responses grow the limit while it is in use.
+     */
+    @Test
+    public void testAdditiveIncrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10);
+
+        // Mostly idle: no growth
+        for (int i = 0; i < 100; i++) {
+            limit.onSuccess(FAST, 1);
+        }
+        assertEquals(4, limit.getLimit());
+
+        // Saturated: about +1 per round trip, capped at max
+        for (int i = 0; i < 20; i++) {
+            limit.onSuccess(FAST, limit.getLimit());
+        }
+        assertTrue(limit.getLimit() > 4);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.onSuccess(FAST, limit.getLimit());
+        }
+        assertEquals(10, limit.getLimit());
+        assertEquals(FAST, limit.getBaselineNanos(), FAST * 0.01);
+    }
+
+    /*
+     * Test that drops halve the limit, at most once per round trip.
+     */
+    @Test
+    public void testDropsDecrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 1, 32);
+
+        limit.onDropped();
+        assertEquals(8, limit.getLimit());
+
+        // The rest of the same burst is not punished again
+        for (int i = 0; i < 5; i++) {
+            limit.onDropped();
+        }
+        assertEquals(8, limit.getLimit());
+
+        // Once a round trip (8 samples) has passed it halves again
+        for (int i = 0; i < 4; i++) {
+            limit.onDropped();
+        }
+        assertEquals(4, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limit.onDropped();
+        }
+        assertEquals(1, limit.getLimit());
+    }
+
+    /*
+     * Test that rising latency shrinks the limit.
+     */
+    @Test
+    public void testLatencyDecrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 32);
+        limit.onSuccess(FAST, 20);
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSuccess(SLOW, 20);
+        }
+        assertTrue(limit.getLimit() < before);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(6, 1, 5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 5, 2));
+    }
+}
@@ -0,0 +1,140 @@
+package com.meallab.api.limit;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.service.FakeHttpClient;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.TestJson;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class RequestLimiterTests {
+
+    /*
+     * Test that requests over the limit wait and start in arrival order.
+     */
+    @Test
+    public void testQueuesInOrder() {
+        RequestLimiter limiter = new RequestLimiter(
+                new AdaptiveConcurrencyLimit(2, 2, 2), null, Duration.ofSeconds(5));
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        List<Integer> started = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int index = i;
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            results.add(limiter.execute(() -> {
+                started.add(index);
+                return call;
+            }));
+        }
+
+        assertEquals(List.of(0, 1), started);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(3, limiter.getQueueLength());
+
+        calls.get(1).complete("b");
+        assertEquals(List.of(0, 1, 2), started);
+        assertEquals("b", results.get(1).join());
+
+        for (CompletableFuture<String> call : calls) {
+            call.complete("done");
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), started);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueueLength());
+    }
+
+    /*
+     * Test that a request waiting too long fails with ApiException.
+     */
+    @Test
+    public void testQueueTimeout() {
+        RequestLimiter limiter = new RequestLimiter(
+                new AdaptiveConcurrencyLimit(1, 1, 1), null, Duration.ofMillis(50));
+
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        limiter.execute(() -> blocker);
+        CompletableFuture<String> waiting = limiter.execute(() -> CompletableFuture.completedFuture("late"));
+
+        CompletionException e = assertThrows(CompletionException.class, waiting::join);
+        assertInstanceOf(ApiException.class, e.getCause());
+        assertEquals(1, limiter.getTimedOutCount());
+        assertEquals(0, limiter.getQueueLength());
+        blocker.complete("done");
+    }
+
+    /*
+     * Test that overload responses shrink the limit.
+     */
+    @Test
+    public void testOverloadShrinksLimit() {
+        RequestLimiter limiter = new RequestLimiter(
+                new AdaptiveConcurrencyLimit(8, 1, 8), null, Duration.ofSeconds(5));
+
+        CompletableFuture<String> result = limiter.execute(() ->
+                CompletableFuture.failedFuture(new ApiException("Too many requests", 429)));
+
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(1, limiter.getDroppedCount());
+
+        // Other errors are not an overload signal
+        limiter.execute(() -> CompletableFuture.failedFuture(new ApiException("Not found", 404)));
+        assertEquals(1, limiter.getDroppedCount());
+    }
+
+    /*
+     * Test that the token bucket spaces out requests.
+     */
+    @Test
+    public void testRateLimit() {
+        RequestLimiter limiter = new RequestLimiter(
+                new AdaptiveConcurrencyLimit(8, 8, 8), new TokenBucket(50, 1), Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int index = i;
+            results.add(limiter.execute(() -> CompletableFuture.completedFuture(index)));
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, results.get(i).join());
+        }
+
+        // 1 immediately, then one every 20 ms
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis >= 55, "Finished after " + elapsedMillis + " ms");
+    }
+
+    /*
+     * Test the client routing its requests through the limiter.
+     */
+    @Test
+    public void testClientUsesLimiter() throws ApiException {
+        FakeHttpClient http = new FakeHttpClient()
+                .respond(TestJson.BASE + "/lookup.php?i=52772",
+                        TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole")))
+                .fail(TestJson.BASE + "/lookup.php?i=3", 503);
+        MealDbApiClient client = new MealDbApiClient(http);
+        RequestLimiter limiter = new RequestLimiter(
+                new AdaptiveConcurrencyLimit(4, 1, 4), null, Duration.ofSeconds(5));
+        client.setRequestLimiter(limiter);
+
+        assertEquals("52772", client.getMealById("52772").getId());
+        assertThrows(ApiException.class, () -> client.getMealById("3"));
+
+        assertEquals(1, limiter.getDroppedCount());
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,41 @@
+package com.meallab.api.limit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketTests {
+
+    /*
+     * Test that a full bucket allows a burst and then refills at the rate.
+     */
+    @Test
+    public void testBurstAndRefill() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);  // one token per 100 ms
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+
+        long wait = bucket.tryAcquire();
+        assertEquals(100_000_000, wait, 1);
+
+        clock.addAndGet(50_000_000);
+        assertEquals(50_000_000, bucket.tryAcquire(), 1);
+
+        clock.addAndGet(50_000_000);
+        assertEquals(0, bucket.tryAcquire());
+
+        // Never more than the burst size
+        clock.addAndGet(10_000_000_000L);
+        assertEquals(3, bucket.getAvailableTokens());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
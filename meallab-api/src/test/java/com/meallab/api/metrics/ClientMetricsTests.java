@@ -0,0 +1,116 @@
+package com.meallab.api.metrics;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.service.FakeHttpClient;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.TestJson;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+/*
+ * Tests ClientMetrics on its own and as recorded by MealDbApiClient.
+ */
+
+public class ClientMetricsTests {
+    private FakeHttpClient http;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() {
+        http = new FakeHttpClient()
+                .respond(TestJson.BASE + "/lookup.php?i=52772",
+                        TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole")))
+                .respond(TestJson.BASE + "/lookup.php?i=1", TestJson.noMeals())
+                .respond(TestJson.BASE + "/lookup.php?i=2", "{not json")
+                .fail(TestJson.BASE + "/lookup.php?i=3", 503)
+                .respond(TestJson.BASE + "/filter.php?i=chicken",
+                        TestJson.meals(TestJson.simplified("1", "A")));
+        client = new MealDbApiClient(http);
+        client.setRecipeCache(null);
+    }
+
+    /*
+     * Test that the client records requests, bytes, statuses and both latencies.
+     */
+    @Test
+    public void testClientRecordsMetrics() throws ApiException {
+        client.getMealById("52772");
+        client.searchByIngredient("chicken");
+        assertThrows(MealNotFoundException.class, () -> client.getMealById("1"));
+        assertThrows(ApiException.class, () -> client.getMealById("2"));
+        ApiException error = assertThrows(ApiException.class, () -> client.getMealById("3"));
+        assertEquals(503, error.getStatusCode());
+        assertThrows(ApiException.class, () -> client.getMealById("4"));  // 404
+
+        MetricsSnapshot snapshot = client.getMetrics().snapshot();
+        EndpointSnapshot lookups = snapshot.getEndpoint(ApiEndpoint.LOOKUP_BY_ID);
+        assertEquals(5, lookups.getRequestCount());
+        assertEquals(2, lookups.getErrorCount());
+        assertEquals(1L, lookups.getErrorsByStatus().get(503));
+        assertEquals(1L, lookups.getErrorsByStatus().get(404));
+        assertEquals(1, lookups.getDeserializationErrorCount());
+        assertEquals(5, lookups.getNetworkLatency().getCount());
+        assertEquals(3, lookups.getDeserializationLatency().getCount());
+        assertTrue(lookups.getBytesReceived() > 0);
+
+        EndpointSnapshot filter = snapshot.getEndpoint(ApiEndpoint.FILTER_BY_INGREDIENT);
+        assertEquals(1, filter.getRequestCount());
+        assertEquals(0, filter.getErrorCount());
+
+        assertEquals(6, snapshot.getRequestCount());
+        assertEquals(2, snapshot.getErrorCount());
+        assertEquals(0, snapshot.getEndpoint(ApiEndpoint.RANDOM_MEAL).getRequestCount());
+    }
+
+    /*
+     * Test that metrics can be disabled and reset.
+     */
+    @Test
+    public void testDisableAndReset() throws ApiException {
+        client.getMealById("52772");
+        ClientMetrics metrics = client.getMetrics();
+        assertEquals(1, metrics.getRequestCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getRequestCount());
+        assertEquals(0, metrics.snapshot(ApiEndpoint.LOOKUP_BY_ID).getNetworkLatency().getCount());
+
+        client.setMetrics(null);
+        client.getMealById("52772");
+        assertEquals(0, metrics.getRequestCount());
+    }
+
+    /*
+     * Test that the metrics are readable over JMX.
+     */
+    @Test
+    public void testMBean() throws JMException, ApiException {
+        ClientMetrics metrics = client.getMetrics();
+        ObjectName name = metrics.registerMBean("metrics-test");
+        try {
+            client.getMealById("52772");
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "RequestCount"));
+
+            CompositeData snapshot = (CompositeData) server.getAttribute(name, "Snapshot");
+            assertNotNull(snapshot.get("endpoints"));
+
+            assertThrows(IllegalStateException.class, () -> metrics.registerMBean("other"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+
+        assertNull(metrics.getRegisteredName());
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,85 @@
+package com.meallab.api.metrics;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.service.FakeHttpClient;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.TestJson;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * Tests that MealDbApiClient emits its JFR events into a recording.
+ */
+
+public class FlightRecorderEventsTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testEventsAreRecorded() throws IOException, ApiException {
+        FakeHttpClient http = new FakeHttpClient()
+                .respond(TestJson.BASE + "/lookup.php?i=52772",
+                        TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole")))
+                .respond(TestJson.BASE + "/lookup.php?i=1", TestJson.noMeals())
+                .fail(TestJson.BASE + "/lookup.php?i=3", 503);
+        MealDbApiClient client = new MealDbApiClient(http);
+
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ApiRequestEvent.class);
+            recording.enable(JsonDeserializationEvent.class);
+            recording.enable(MealNotFoundEvent.class);
+            recording.enable(RecipeCacheEvent.class);
+            recording.start();
+
+            client.getMealById("52772");
+            client.getMealById("52772");  // Cache hit
+            assertThrows(MealNotFoundException.class, () -> client.getMealById("1"));
+            assertThrows(ApiException.class, () -> client.getMealById("3"));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> requests = ofType(events, "com.meallab.api.ApiRequest");
+        assertEquals(3, requests.size());
+        assertTrue(requests.stream().allMatch(e -> "lookup.php".equals(e.getString("endpoint"))));
+        assertTrue(requests.stream().anyMatch(e -> e.getInt("statusCode") == 503 && e.getString("error") != null));
+        assertTrue(requests.stream().anyMatch(e -> e.getInt("statusCode") == 200 && e.getLong("bytes") > 0));
+        assertEquals(Thread.currentThread().getName(), requests.get(0).getThread("callerThread").getJavaName());
+
+        List<RecordedEvent> parses = ofType(events, "com.meallab.api.JsonDeserialization");
+        assertEquals(2, parses.size());
+        assertEquals(MealResponse.class.getName(), parses.get(0).getClass("type").getName());
+
+        List<RecordedEvent> notFound = ofType(events, "com.meallab.api.MealNotFound");
+        assertEquals(1, notFound.size());
+        assertEquals("1", notFound.get(0).getString("query"));
+        assertEquals("api", notFound.get(0).getString("source"));
+
+        List<RecordedEvent> cache = ofType(events, "com.meallab.api.RecipeCacheLookup");
+        assertEquals(1, cache.stream().filter(e -> e.getBoolean("hit")).count());
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,69 @@
+package com.meallab.api.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTests {
+
+    /*
+     * Test that every value falls inside the bounds of its bucket.
+     */
+    @Test
+    public void testBucketBounds() {
+        long[] values = {0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456, 10_000_000, (1L << 32) - 1};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKET_COUNT, "Index for " + value);
+            assertTrue(LatencyHistogram.bucketLowerBound(index) <= value, "Lower bound for " + value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, "Upper bound for " + value);
+        }
+
+        // Buckets are contiguous
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            assertEquals(LatencyHistogram.bucketUpperBound(i - 1) + 1, LatencyHistogram.bucketLowerBound(i));
+        }
+    }
+
+    /*
+     * Test percentiles on a uniform distribution (within the 3% precision).
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000, snapshot.getMaxMicros());
+        assertEquals(5000.5, snapshot.getMeanMicros(), 0.001);
+        assertEquals(5000, snapshot.getP50Micros(), 5000 * 0.035);
+        assertEquals(9900, snapshot.getP99Micros(), 9900 * 0.035);
+        assertEquals(9990, snapshot.getP999Micros(), 9990 * 0.035);
+        assertEquals(1, snapshot.getValueAtPercentile(0.0));
+        assertEquals(10_000, snapshot.getValueAtPercentile(100.0));
+    }
+
+    /*
+     * Test nanosecond input, out-of-range values and reset.
+     */
+    @Test
+    public void testRecordNanosAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(2_500_000);  // 2.5 ms
+        histogram.recordNanos(-5);
+        histogram.recordMicros(Long.MAX_VALUE);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(3, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(10.0));
+        assertEquals(2500, snapshot.getP50Micros(), 2500 * 0.035);
+        assertEquals((1L << 32) - 1, snapshot.getMaxMicros());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.snapshot().getP99Micros());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtPercentile(101.0));
+    }
+}
@@ -0,0 +1,155 @@
+package com.meallab.api.mirror;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.*;
+import com.meallab.api.service.FakeHttpClient;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.TestJson;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Offline tests for CatalogMirror.
+ *
+ * The fake API serves a three-meal catalog: two meals under 'a',
+ * one under 'b', and no meals for every other letter.
+ */
+
+public class CatalogMirrorTests {
+    private FakeHttpClient http;
+    private MealDbApiClient client;
+    private Path storageFile;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() {
+        http = new FakeHttpClient();
+        for (char letter = 'c'; letter <= 'z'; letter++) {
+            http.respond(TestJson.BASE + "/search.php?f=" + letter, TestJson.noMeals());
+        }
+        http.respond(TestJson.BASE + "/search.php?f=a", TestJson.meals(
+                        TestJson.recipe("1", "Apple Pie"),
+                        TestJson.recipe("2", "Arrabiata")))
+                .respond(TestJson.BASE + "/search.php?f=b", TestJson.meals(
+                        TestJson.recipe("3", "Beef Apple Stew")));
+
+        client = new MealDbApiClient(http);
+        storageFile = tempDir.resolve("catalog.json");
+    }
+
+    /*
+     * Test that refresh crawls every letter once and keeps all meals.
+     */
+    @Test
+    public void testRefresh_CrawlsWholeCatalog() throws ApiException {
+        CatalogMirror mirror = new CatalogMirror(client, storageFile);
+        assertFalse(mirror.isLoaded());
+
+        mirror.refresh();
+
+        assertTrue(mirror.isLoaded());
+        assertEquals(3, mirror.size());
+        assertEquals(26, http.getRequestCount());
+        assertNotNull(mirror.getLastRefreshed());
+        assertTrue(Files.exists(storageFile), "Catalog should be saved to disk");
+    }
+
+    /*
+     * Test that a saved catalog can be loaded without any network access.
+     */
+    @Test
+    public void testLoad_WorksOffline() throws ApiException {
+        new CatalogMirror(client, storageFile).refresh();
+
+        FakeHttpClient offline = new FakeHttpClient();
+        CatalogMirror mirror = new CatalogMirror(new MealDbApiClient(offline), storageFile);
+
+        assertTrue(mirror.load());
+        assertEquals(3, mirror.size());
+
+        Recipe pie = mirror.getMealById("1");
+        assertEquals("Apple Pie", pie.getName());
+        assertEquals(2, pie.getIngredients().size());
+        assertEquals("3/4 cup", pie.getIngredients().get(0).getMeasure());
+        assertEquals(2, pie.getTagsList().size());
+        assertEquals(0, offline.getRequestCount());
+    }
+
+    /*
+     * Test that load reports a missing file instead of failing.
+     */
+    @Test
+    public void testLoad_NoSavedCatalog() throws ApiException {
+        CatalogMirror mirror = new CatalogMirror(client, storageFile);
+
+        assertFalse(mirror.load());
+        assertFalse(mirror.isLoaded());
+        assertThrows(ApiException.class, () -> mirror.getMealById("1"));
+    }
+
+    /*
+     * Test the local queries and their not-found behaviour.
+     */
+    @Test
+    public void testQueries() throws ApiException {
+        CatalogMirror mirror = new CatalogMirror(client, storageFile);
+        mirror.refresh();
+
+        assertEquals(2, mirror.searchByName("apple").getMealCount());
+        assertEquals(3, mirror.searchByIngredient("SOY SAUCE").getMealCount());
+        assertEquals(3, mirror.searchByIngredient("soy_sauce").getMealCount());
+        assertNotNull(mirror.getRandomMeal());
+
+        assertThrows(MealNotFoundException.class, () -> mirror.searchByName("pizza"));
+        assertThrows(MealNotFoundException.class, () -> mirror.searchByIngredient("saffron"));
+        assertThrows(MealNotFoundException.class, () -> mirror.getMealById("999"));
+        assertThrows(IllegalArgumentException.class, () -> mirror.searchByName(" "));
+
+        assertFalse(mirror.findMealById("999").isFound());
+        assertFalse(mirror.findByName("pizza").isFound());
+        assertEquals(2, mirror.findByName("apple").get().getMealCount());
+    }
+
+    /*
+     * Test that a failed crawl keeps the previous catalog.
+     */
+    @Test
+    public void testRefresh_FailureKeepsPreviousCatalog() throws ApiException {
+        CatalogMirror mirror = new CatalogMirror(client, storageFile);
+        mirror.refresh();
+
+        http.fail(TestJson.BASE + "/search.php?f=q", 500);
+
+        assertThrows(ApiException.class, mirror::refresh);
+        assertEquals(3, mirror.size());
+    }
+
+    /*
+     * Test that the client answers from a loaded mirror instead of the API.
+     */
+    @Test
+    public void testClientUsesMirror() throws ApiException {
+        CatalogMirror mirror = new CatalogMirror(client, storageFile);
+        mirror.refresh();
+        client.setCatalogMirror(mirror);
+        int requests = http.getRequestCount();
+
+        assertEquals("Arrabiata", client.getMealById("2").getName());
+        assertEquals(1, client.searchByName("stew").getMealCount());
+        assertEquals(3, client.searchByIngredient("chicken").getMealCount());
+        assertNotNull(client.getRandomMeal());
+        assertThrows(MealNotFoundException.class, () -> client.getMealById("999"));
+        assertFalse(client.findMealById("999").isFound());
+
+        assertEquals(requests, http.getRequestCount(), "No request should reach the API");
+    }
+}
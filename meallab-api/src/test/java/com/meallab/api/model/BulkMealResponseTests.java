@@ -0,0 +1,63 @@
+package com.meallab.api.model;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BulkMealResponseTests {
+    private BulkMealResponse response;
+
+    @BeforeEach
+    public void setUp() {
+        Map<String, Recipe> meals = new LinkedHashMap<>();
+        meals.put("1", new Recipe("1", "Recipe 1", "Cat", "Area", "Instr", "url1"));
+        meals.put("3", new Recipe("3", "Recipe 3", "Cat", "Area", "Instr", "url3"));
+
+        Map<String, ApiException> failures = new LinkedHashMap<>();
+        failures.put("2", new MealNotFoundException("No meal found with ID: 2"));
+        failures.put("4", new ApiException("API request failed with status code 500"));
+
+        response = new BulkMealResponse(Arrays.asList("1", "2", "3", "4"), meals, failures);
+    }
+
+    /*
+     * Test that found meals keep the request order.
+     */
+    @Test
+    public void testMealsInRequestOrder() {
+        List<Recipe> meals = response.getMeals();
+
+        assertEquals(2, response.getMealCount());
+        assertEquals("1", meals.get(0).getId());
+        assertEquals("3", meals.get(1).getId());
+        assertEquals("3", response.getMeal("3").getId());
+        assertNull(response.getMeal("2"), "Failed lookups have no recipe");
+    }
+
+    /*
+     * Test that not-found IDs are told apart from other failures.
+     */
+    @Test
+    public void testFailures() {
+        assertTrue(response.hasFailures());
+        assertEquals(2, response.getFailureCount());
+        assertEquals(List.of("2"), response.getNotFoundIds());
+    }
+
+    /*
+     * Test that the response cannot be modified by callers.
+     */
+    @Test
+    public void testImmutable() {
+        assertThrows(UnsupportedOperationException.class, () -> response.getFailures().clear());
+        assertThrows(UnsupportedOperationException.class, () -> response.getRequestedIds().add("5"));
+    }
+}
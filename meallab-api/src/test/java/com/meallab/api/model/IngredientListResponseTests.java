@@ -0,0 +1,52 @@
+package com.meallab.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngredientListResponseTests {
+
+    /*
+     * Test deserializing the list.php?i=list response (extra fields ignored).
+     */
+    @Test
+    public void testDeserialize() throws Exception {
+        String json = "{\"meals\":[" +
+                "{\"idIngredient\":\"1\",\"strIngredient\":\"Chicken\",\"strDescription\":\"Fowl.\",\"strType\":null,\"strThumb\":\"x\"}," +
+                "{\"idIngredient\":\"2\",\"strIngredient\":\"Salmon\",\"strDescription\":null,\"strType\":\"Fish\"}]}";
+
+        IngredientListResponse response = new ObjectMapper().readValue(json, IngredientListResponse.class);
+
+        assertEquals(2, response.getIngredientCount());
+        assertEquals("Chicken", response.getIngredients().get(0).getName());
+        assertEquals("Fowl.", response.getIngredients().get(0).getDescription());
+        assertEquals("Fish", response.getIngredients().get(1).getType());
+    }
+
+    /*
+     * Test constructor with null (defensive).
+     */
+    @Test
+    public void testConstructorWithNull() {
+        IngredientListResponse response = new IngredientListResponse(null);
+
+        assertNotNull(response.getIngredients(), "Should return empty list, not null");
+        assertFalse(response.hasIngredients());
+        assertEquals(0, response.getIngredientCount());
+    }
+
+    /*
+     * Test that ingredients are equal by ID.
+     */
+    @Test
+    public void testIngredientEquality() {
+        IngredientListResponse response = new IngredientListResponse(Arrays.asList(
+                new IngredientInfo("1", "Chicken"), new IngredientInfo("2", "Salmon")));
+
+        assertEquals(new IngredientInfo("1", "chicken"), response.getIngredients().get(0));
+        assertNotEquals(response.getIngredients().get(0), response.getIngredients().get(1));
+    }
+}
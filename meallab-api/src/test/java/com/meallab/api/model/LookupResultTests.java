@@ -0,0 +1,56 @@
+package com.meallab.api.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+public class LookupResultTests {
+
+    /*
+     * Test a found result.
+     */
+    @Test
+    public void testFound() {
+        LookupResult<String> result = LookupResult.found("52772");
+
+        assertTrue(result.isFound());
+        assertEquals("52772", result.get());
+        assertEquals("52772", result.orElse("other"));
+        assertEquals(Optional.of("52772"), result.toOptional());
+        assertEquals(LookupResult.found("52772"), result);
+        assertThrows(IllegalArgumentException.class, () -> LookupResult.found(null));
+    }
+
+    /*
+     * Test that NotFound is one shared instance.
+     */
+    @Test
+    public void testNotFound() {
+        LookupResult<String> result = LookupResult.notFound();
+        LookupResult<Recipe> other = LookupResult.notFound();
+
+        assertFalse(result.isFound());
+        assertSame(result, other);
+        assertEquals("other", result.orElse("other"));
+        assertEquals(Optional.empty(), result.toOptional());
+        assertThrows(NoSuchElementException.class, result::get);
+    }
+
+    /*
+     * Test pattern matching over the sealed type.
+     */
+    @Test
+    public void testPatternMatching() {
+        assertEquals("found 1", describe(LookupResult.found(1)));
+        assertEquals("not found", describe(LookupResult.notFound()));
+    }
+
+    private static String describe(LookupResult<Integer> result) {
+        if (result instanceof LookupResult.Found<Integer> found) {
+            return "found " + found.get();
+        }
+        return "not found";
+    }
+}
@@ -0,0 +1,120 @@
+package com.meallab.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class RecipeDeserializerTests {
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    public void setUp() {
+        mapper = new ObjectMapper();
+    }
+
+    /*
+     * Builds a lookup-style recipe JSON with the given ingredient slots filled in.
+     */
+    private static String recipeJson(String... slots) {
+        StringBuilder sb = new StringBuilder("{\"idMeal\":\"52772\",\"strMeal\":\"Teriyaki Chicken Casserole\"," +
+                "\"strCategory\":\"Chicken\",\"strArea\":\"Japanese\",\"strInstructions\":\"Preheat oven...\"," +
+                "\"strMealThumb\":\"https://img.jpg\",\"strTags\":\"Meat,Casserole\",\"strYoutube\":\"https://yt\"," +
+                "\"strSource\":null,\"strDrinkAlternate\":null");
+        for (int i = 1; i <= 20; i++) {
+            String name = 2 * (i - 1) < slots.length ? slots[2 * (i - 1)] : "";
+            String measure = 2 * (i - 1) + 1 < slots.length ? slots[2 * (i - 1) + 1] : "";
+            sb.append(",\"strIngredient").append(i).append("\":\"").append(name).append('"');
+            sb.append(",\"strMeasure").append(i).append("\":\"").append(measure).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    /*
+     * Test that all basic fields are read.
+     */
+    @Test
+    public void testBasicFields() throws Exception {
+        Recipe recipe = mapper.readValue(recipeJson("soy sauce", "3/4 cup"), Recipe.class);
+
+        assertEquals("52772", recipe.getId());
+        assertEquals("Teriyaki Chicken Casserole", recipe.getName());
+        assertEquals("Chicken", recipe.getCategory());
+        assertEquals("Japanese", recipe.getArea());
+        assertEquals("Preheat oven...", recipe.getInstructions());
+        assertEquals("https://img.jpg", recipe.getThumbnailUrl());
+        assertEquals(List.of("Meat", "Casserole"), recipe.getTagsList());
+        assertTrue(recipe.hasYoutubeVideo());
+    }
+
+    /*
+     * Test that the slots are paired and empty ones are dropped.
+     */
+    @Test
+    public void testIngredientSlots() throws Exception {
+        Recipe recipe = mapper.readValue(
+                recipeJson("soy sauce", "3/4 cup", "water", "1/2 cup", "", "", "salt", ""), Recipe.class);
+
+        List<Ingredient> ingredients = recipe.getIngredients();
+        assertEquals(3, ingredients.size());
+        assertEquals(new Ingredient("soy sauce", "3/4 cup"), ingredients.get(0));
+        assertEquals(new Ingredient("water", "1/2 cup"), ingredients.get(1));
+        assertEquals("salt", ingredients.get(2).getName());
+    }
+
+    /*
+     * Test that the list is built once and cannot be modified.
+     */
+    @Test
+    public void testIngredientsAreImmutable() throws Exception {
+        Recipe recipe = mapper.readValue(recipeJson(), Recipe.class);
+
+        assertTrue(recipe.getIngredients().isEmpty());
+        assertSame(recipe.getIngredients(), recipe.getIngredients(), "List should not be rebuilt");
+        assertThrows(UnsupportedOperationException.class,
+                () -> recipe.getIngredients().add(new Ingredient("x", "y")));
+    }
+
+    /*
+     * Test that unknown and nested fields are skipped, and null slots are handled.
+     */
+    @Test
+    public void testUnknownAndNullFields() throws Exception {
+        String json = "{\"idMeal\":52772,\"extra\":{\"a\":[1,2,{\"b\":3}]},\"strIngredient1\":\"egg\"," +
+                "\"strMeasure1\":null,\"strIngredient2\":null,\"strIngredient99\":\"ignored\"}";
+        Recipe recipe = mapper.readValue(json, Recipe.class);
+
+        assertEquals("52772", recipe.getId(), "Numeric IDs should be read as text");
+        assertEquals(1, recipe.getIngredients().size());
+        assertEquals("egg", recipe.getIngredients().get(0).getName());
+    }
+
+    /*
+     * Test that a serialized Recipe can be read back.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        Recipe original = mapper.readValue(recipeJson("soy sauce", "3/4 cup", "water", "1/2 cup"), Recipe.class);
+
+        Recipe copy = mapper.readValue(mapper.writeValueAsString(original), Recipe.class);
+
+        assertEquals(original.getId(), copy.getId());
+        assertEquals(original.getName(), copy.getName());
+        assertEquals(original.getIngredients(), copy.getIngredients());
+    }
+
+    /*
+     * Test parsing a whole response envelope.
+     */
+    @Test
+    public void testInsideMealResponse() throws Exception {
+        MealResponse response = mapper.readValue(
+                "{\"meals\":[" + recipeJson("a", "1") + "," + recipeJson("b", "2") + "]}", MealResponse.class);
+
+        assertEquals(2, response.getMealCount());
+        assertEquals("b", response.getMeals().get(1).getIngredients().get(0).getName());
+    }
+}
@@ -0,0 +1,131 @@
+package com.meallab.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class StringPoolTests {
+    private StringPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new StringPool(4);
+    }
+
+    /*
+     * Test that equal strings are mapped to one shared instance.
+     */
+    @Test
+    public void testCanonicalize() {
+        String a = new String("Salt");
+        String b = new String("Salt");
+
+        assertSame(pool.canonicalize(a), pool.canonicalize(b));
+        assertNull(pool.canonicalize(null));
+        assertEquals(1, pool.size());
+    }
+
+    /*
+     * Test that dictionary IDs are dense, stable and reversible.
+     */
+    @Test
+    public void testIds() {
+        int salt = pool.idOf("Salt");
+        int onion = pool.idOf("Onion");
+
+        assertEquals(0, salt);
+        assertEquals(1, onion);
+        assertEquals(salt, pool.idOf(new String("Salt")));
+        assertEquals("Onion", pool.valueOf(onion));
+        assertNull(pool.valueOf(99));
+        assertEquals(StringPool.NO_ID, pool.idOf(null));
+    }
+
+    /*
+     * Test that a full pool stops retaining new values.
+     */
+    @Test
+    public void testBoundedRetention() {
+        for (String s : new String[]{"a", "b", "c", "d"}) {
+            pool.canonicalize(s);
+        }
+
+        String extra = new String("e");
+        assertSame(extra, pool.canonicalize(extra), "Full pool returns the value unchanged");
+        assertEquals(StringPool.NO_ID, pool.idOf("e"));
+        assertEquals(4, pool.size());
+        assertEquals(0, pool.idOf("a"), "Existing values keep working");
+    }
+
+    /*
+     * Test concurrent use: every thread sees the same instance and ID.
+     */
+    @Test
+    public void testConcurrentUse() {
+        StringPool shared = new StringPool();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                int id = -1;
+                for (int j = 0; j < 1000; j++) {
+                    id = shared.idOf(new String("Olive Oil"));
+                }
+                return id;
+            }));
+        }
+
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(0, future.join());
+        }
+        assertEquals(1, shared.size());
+    }
+
+    /*
+     * Test that RecipeDeserializer shares values through the pool, leaving tags out.
+     */
+    @Test
+    public void testDeserializationUsesPool() throws Exception {
+        String json = "{\"meals\":[" +
+                "{\"idMeal\":\"1\",\"strCategory\":\"Chicken\",\"strArea\":\"Greek\",\"strTags\":\"Meat,Pie\"," +
+                "\"strIngredient1\":\"Salt\",\"strMeasure1\":\"1 tsp\"}," +
+                "{\"idMeal\":\"2\",\"strCategory\":\"Chicken\",\"strArea\":\"Greek\",\"strTags\":\"Soup\"," +
+                "\"strIngredient1\":\"Salt\",\"strMeasure1\":\"1 tsp\"}]}";
+        StringPool shared = new StringPool();
+        ObjectReader reader = new ObjectMapper().readerFor(MealResponse.class)
+                .withAttribute(StringPool.class, shared);
+
+        MealResponse response = reader.readValue(json);
+        Recipe first = response.getMeals().get(0);
+        Recipe second = response.getMeals().get(1);
+
+        assertSame(first.getCategory(), second.getCategory());
+        assertSame(first.getArea(), second.getArea());
+        assertSame(first.getIngredients().get(0).getName(), second.getIngredients().get(0).getName());
+        assertSame(first.getIngredients().get(0).getMeasure(), second.getIngredients().get(0).getMeasure());
+        assertEquals(first.getCategoryId(), second.getCategoryId());
+        assertNotEquals(StringPool.NO_ID, first.getIngredients().get(0).getNameId());
+        assertEquals("Salt", shared.valueOf(first.getIngredients().get(0).getNameId()));
+        assertEquals(4, shared.size(), "Tags should not take pool slots");
+    }
+
+    /*
+     * Test that changing a pooled value clears its dictionary ID.
+     */
+    @Test
+    public void testSetterClearsId() throws Exception {
+        ObjectReader reader = new ObjectMapper().readerFor(Recipe.class)
+                .withAttribute(StringPool.class, new StringPool());
+        Recipe recipe = reader.readValue("{\"idMeal\":\"1\",\"strArea\":\"Greek\"}");
+
+        assertNotEquals(StringPool.NO_ID, recipe.getAreaId());
+        recipe.setArea("Italian");
+        assertEquals(StringPool.NO_ID, recipe.getAreaId());
+    }
+}
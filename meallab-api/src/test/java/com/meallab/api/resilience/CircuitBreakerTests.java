@@ -0,0 +1,80 @@
+package com.meallab.api.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreakerTests {
+    private AtomicLong clock;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong();
+        breaker = new CircuitBreaker(3, Duration.ofSeconds(10), 1, clock::get);
+    }
+
+    /*
+     * Test that consecutive failures open the breaker and successes reset the count.
+     */
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    /*
+     * Test the half-open trial: one request passes, its success closes the breaker.
+     */
+    @Test
+    public void testHalfOpenTrialSucceeds() {
+        openBreaker();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "Only one trial request at a time");
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    /*
+     * Test that a failed trial opens the breaker for another period.
+     */
+    @Test
+    public void testHalfOpenTrialFails() {
+        openBreaker();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertFalse(breaker.tryAcquire());
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
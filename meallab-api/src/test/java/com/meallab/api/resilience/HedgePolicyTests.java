@@ -0,0 +1,92 @@
+package com.meallab.api.resilience;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.metrics.ApiEndpoint;
+import com.meallab.api.metrics.EndpointSnapshot;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.MealDbTransport;
+import com.meallab.api.service.TestJson;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HedgePolicyTests {
+
+    private static final byte[] RECIPE_JSON = TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole"))
+            .getBytes(StandardCharsets.UTF_8);
+
+    /*
+     * Test that a straggling first request is overtaken by the hedge.
+     */
+    @Test
+    public void testHedgeWins() throws ApiException {
+        AtomicInteger calls = new AtomicInteger();
+        MealDbTransport transport = url -> calls.incrementAndGet() == 1
+                ? CompletableFuture.supplyAsync(() -> RECIPE_JSON,
+                        CompletableFuture.delayedExecutor(2, TimeUnit.SECONDS))
+                : CompletableFuture.completedFuture(RECIPE_JSON);
+
+        MealDbApiClient client = new MealDbApiClient(transport, TestJson.BASE, ForkJoinPool.commonPool());
+        HedgePolicy policy = new HedgePolicy(95.0, Duration.ofMillis(50), Duration.ofMillis(10), Duration.ofSeconds(1));
+        client.setHedgePolicy(policy);
+
+        long start = System.nanoTime();
+        assertEquals("52772", client.getMealById("52772").getId());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1000, "Answered after " + elapsedMillis + " ms");
+        assertEquals(2, calls.get());
+        assertEquals(1, policy.getHedgeCount());
+        assertEquals(1, policy.getHedgeWinCount());
+
+        EndpointSnapshot lookups = client.getMetrics().snapshot(ApiEndpoint.LOOKUP_BY_ID);
+        assertEquals(1, lookups.getHedgeCount());
+        assertEquals(1, lookups.getHedgeWinCount());
+    }
+
+    /*
+     * Test that fast requests are not hedged and the delay follows observed latency.
+     */
+    @Test
+    public void testDelayFollowsLatency() {
+        HedgePolicy policy = new HedgePolicy(95.0, Duration.ofMillis(500), Duration.ofMillis(1), Duration.ofSeconds(1));
+        assertEquals(Duration.ofMillis(500), policy.getHedgeDelay(ApiEndpoint.SEARCH_BY_NAME));
+
+        for (int i = 0; i < HedgePolicy.MIN_SAMPLES; i++) {
+            policy.execute(ApiEndpoint.SEARCH_BY_NAME, () -> CompletableFuture.completedFuture("ok"), null).join();
+        }
+
+        assertTrue(policy.getHedgeDelay(ApiEndpoint.SEARCH_BY_NAME).toMillis() < 50);
+        assertEquals(Duration.ofMillis(500), policy.getHedgeDelay(ApiEndpoint.LOOKUP_BY_ID));
+        assertEquals(0, policy.getHedgeCount());
+    }
+
+    /*
+     * Test that the result fails only when both requests have failed.
+     */
+    @Test
+    public void testFailsWhenAllFail() {
+        HedgePolicy policy = new HedgePolicy(95.0, Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.execute(ApiEndpoint.LOOKUP_BY_ID, () -> {
+            int call = calls.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> {
+                throw new CompletionException(new ApiException("Failed " + call, 503));
+            }, CompletableFuture.delayedExecutor(call == 1 ? 100 : 200, TimeUnit.MILLISECONDS));
+        }, null);
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertEquals("Failed 2", e.getCause().getMessage());
+        assertEquals(2, calls.get());
+        assertEquals(0, policy.getHedgeWinCount());
+    }
+}
@@ -0,0 +1,120 @@
+package com.meallab.api.resilience;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.metrics.ApiEndpoint;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.MealDbTransport;
+import com.meallab.api.service.TestJson;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RetryPolicyTests {
+
+    private static final String RECIPE_JSON = TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole"));
+
+    /*
+     * Transport that fails the first failures requests with the given error.
+     */
+    private static MealDbTransport failingTransport(AtomicInteger calls, int failures, ApiException error) {
+        return url -> calls.incrementAndGet() <= failures
+                ? CompletableFuture.failedFuture(error)
+                : CompletableFuture.completedFuture(RECIPE_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Test that 5xx responses are retried until one succeeds.
+     */
+    @Test
+    public void testRetriesServerErrors() throws ApiException {
+        AtomicInteger calls = new AtomicInteger();
+        MealDbApiClient client = new MealDbApiClient(
+                failingTransport(calls, 2, new ApiException("Service unavailable", 503)),
+                TestJson.BASE, ForkJoinPool.commonPool());
+        client.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5)));
+
+        assertEquals("52772", client.getMealById("52772").getId());
+        assertEquals(3, calls.get());
+        assertEquals(2, client.getMetrics().snapshot(ApiEndpoint.LOOKUP_BY_ID).getRetryCount());
+    }
+
+    /*
+     * Test that the last error is reported once the attempts run out.
+     */
+    @Test
+    public void testGivesUp() {
+        AtomicInteger calls = new AtomicInteger();
+        MealDbApiClient client = new MealDbApiClient(
+                failingTransport(calls, 10, new ApiException("Bad gateway", 502)),
+                TestJson.BASE, ForkJoinPool.commonPool());
+        client.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5)));
+
+        ApiException e = assertThrows(ApiException.class, () -> client.getMealById("52772"));
+        assertEquals(502, e.getStatusCode());
+        assertEquals(3, calls.get());
+    }
+
+    /*
+     * Test that client errors are not retried.
+     */
+    @Test
+    public void testDoesNotRetryClientErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        MealDbApiClient client = new MealDbApiClient(
+                failingTransport(calls, 10, new ApiException("Not found", 404)),
+                TestJson.BASE, ForkJoinPool.commonPool());
+        client.setRetryPolicy(new RetryPolicy());
+
+        assertThrows(ApiException.class, () -> client.getMealById("52772"));
+        assertEquals(1, calls.get());
+    }
+
+    /*
+     * Test which failures count as transient.
+     */
+    @Test
+    public void testIsRetryable() {
+        RetryPolicy policy = new RetryPolicy();
+
+        assertTrue(policy.isRetryable(new ApiException("", 500)));
+        assertTrue(policy.isRetryable(new CompletionException(new ApiException("", 503))));
+        assertTrue(policy.isRetryable(new ApiException("Network error", new ConnectException("refused"))));
+        assertTrue(policy.isRetryable(new ApiException("Network error", new IOException("connection reset"))));
+        assertTrue(policy.isRetryable(new ApiException("Network error", new HttpConnectTimeoutException("connect"))));
+
+        assertFalse(policy.isRetryable(new ApiException("Network error", new HttpTimeoutException("timed out"))));
+        assertFalse(policy.isRetryable(new ApiException("", 404)));
+        assertFalse(policy.isRetryable(new ApiException("", 429)));
+        assertFalse(policy.isRetryable(new ApiException("Failed to parse")));
+        assertFalse(policy.isRetryable(new IllegalStateException()));
+    }
+
+    /*
+     * Test that backoff grows exponentially, stays within the jitter range and the cap.
+     */
+    @Test
+    public void testBackoff() {
+        RetryPolicy policy = new RetryPolicy(10, Duration.ofMillis(100), Duration.ofSeconds(1));
+        for (int i = 0; i < 100; i++) {
+            long first = policy.backoffNanos(1);
+            assertTrue(first >= 50_000_000 && first <= 100_000_000);
+
+            long third = policy.backoffNanos(3);
+            assertTrue(third >= 200_000_000 && third <= 400_000_000);
+
+            long capped = policy.backoffNanos(60);
+            assertTrue(capped >= 500_000_000 && capped <= 1_000_000_000);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.meallab.api.resilience;
+
+import com.meallab.api.cache.RecipeCache;
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.CircuitOpenException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.metrics.EndpointFamily;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.service.EncodedBody;
+import com.meallab.api.service.FakeHttpClient;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.TestJson;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Tests MealDbApiClient with a CircuitBreakerPolicy and a StaleResponseCache.
+ */
+
+public class StaleWhileRevalidateTests {
+    private static final String LOOKUP_URL = TestJson.BASE + "/lookup.php?i=52772";
+
+    private FakeHttpClient http;
+    private MealDbApiClient client;
+    private CircuitBreakerPolicy breakers;
+    private StaleResponseCache stale;
+
+    @BeforeEach
+    public void setUp() {
+        http = new FakeHttpClient()
+                .respond(LOOKUP_URL, TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole")))
+                .respond(TestJson.BASE + "/lookup.php?i=1", TestJson.noMeals())
+                .respond(TestJson.BASE + "/search.php?s=Arrabiata",
+                        TestJson.meals(TestJson.recipe("52771", "Spicy Arrabiata Penne")));
+        client = new MealDbApiClient(http);
+        client.setRecipeCache(null);
+
+        breakers = new CircuitBreakerPolicy(2, Duration.ofMinutes(1), 1);
+        stale = new StaleResponseCache();
+        client.setCircuitBreakerPolicy(breakers);
+        client.setStaleResponseCache(stale);
+    }
+
+    /*
+     * Test that the last good response is served once the API fails,
+     * and that the open breaker stops requests from being sent.
+     */
+    @Test
+    public void testServesStaleWhileOpen() throws ApiException {
+        assertEquals("52772", client.getMealById("52772").getId());
+
+        http.fail(LOOKUP_URL, 503);
+        assertEquals("52772", client.getMealById("52772").getId());
+        assertEquals("52772", client.getMealById("52772").getId());
+        assertEquals(CircuitBreaker.State.OPEN, breakers.getBreaker(EndpointFamily.LOOKUP).getState());
+
+        int sent = http.getRequestCount();
+        assertEquals("52772", client.getMealById("52772").getId());
+        assertEquals(sent, http.getRequestCount(), "No request while the breaker is open");
+        assertEquals(3, stale.getServedCount());
+
+        // Without a stale response the open breaker fails fast
+        assertThrows(CircuitOpenException.class, () -> client.getMealById("2"));
+
+        // Other families are not affected
+        assertEquals(CircuitBreaker.State.CLOSED, breakers.getBreaker(EndpointFamily.SEARCH).getState());
+        assertTrue(client.searchByName("Arrabiata").hasMeals());
+    }
+
+    /*
+     * Test that stale responses are not put back into the recipe cache,
+     * where they would look fresh for a whole TTL.
+     */
+    @Test
+    public void testStaleNotRecached() throws ApiException {
+        RecipeCache recipes = new RecipeCache();
+        client.setRecipeCache(recipes);
+        client.getMealById("52772");
+        assertEquals(1, recipes.size());
+        recipes.invalidateAll();
+
+        http.fail(LOOKUP_URL, 503);
+        assertEquals("52772", client.getMealById("52772").getId());
+        assertEquals(1, stale.getServedCount());
+        assertEquals(0, recipes.size());
+    }
+
+    /*
+     * Test that healthy answers (404, empty results) do not open the breaker.
+     */
+    @Test
+    public void testHealthyErrorsDoNotOpen() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(MealNotFoundException.class, () -> client.getMealById("1"));
+            assertThrows(ApiException.class, () -> client.getMealById("404404"));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breakers.getBreaker(EndpointFamily.LOOKUP).getState());
+    }
+
+    /*
+     * Test that callers arriving while a refresh is in flight get the stale response.
+     */
+    @Test
+    public void testServesStaleWhileRefreshing() throws ApiException {
+        client.searchByName("Arrabiata");
+
+        http.delay(300);
+        CompletableFuture<MealResponse> refresh = client.searchByNameAsync("Arrabiata");
+
+        long start = System.nanoTime();
+        MealResponse response = client.searchByName("Arrabiata");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("52771", response.getFirstMeal().getId());
+        assertTrue(elapsedMillis < 250, "Answered after " + elapsedMillis + " ms");
+        assertEquals("52771", refresh.join().getFirstMeal().getId());
+    }
+
+    /*
+     * Test the byte and age limits of the cache.
+     */
+    @Test
+    public void testCacheLimits() {
+        AtomicLong clock = new AtomicLong();
+        StaleResponseCache cache = new StaleResponseCache(2, 10, Duration.ofSeconds(60), clock::get);
+        EncodedBody four = new EncodedBody("abcd".getBytes(StandardCharsets.UTF_8));
+
+        cache.put("a", four);
+        cache.put("b", four);
+        cache.put("c", four);
+        assertNull(cache.get("a"), "Least recently used entry evicted");
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getTotalBytes());
+
+        cache.put("big", new EncodedBody(new byte[11]));
+        assertNull(cache.get("big"));
+
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,179 @@
+package com.meallab.api.search;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.model.*;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.MealDbTransport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Unit tests for AutocompleteIndex.
+ */
+
+public class AutocompleteIndexTests {
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new AutocompleteIndex();
+        index.addMeal(recipe("1", "Chicken Curry", "Chicken", "Curry Powder"));
+        index.addMeal(recipe("2", "Chicken Handi", "Chicken", "Onion"));
+        index.addMeal(recipe("3", "Beef Stew", "Beef", "Onion"));
+        index.addMeal(recipe("4", "Crème Brûlée", "Cream", "Sugar"));
+        index.addIngredients(List.of(new IngredientInfo("10", "Chickpeas"), new IngredientInfo("11", "Chicken")));
+        index.rebuild();
+    }
+
+    /*
+     * Test prefix completion and ranking (popular ingredient first).
+     */
+    @Test
+    public void testComplete_Prefix() {
+        List<Suggestion> suggestions = index.complete("chi", 10);
+
+        assertEquals("Chicken", suggestions.get(0).getText());
+        assertEquals(Suggestion.Type.INGREDIENT, suggestions.get(0).getType());
+        assertEquals(List.of("Chicken", "Chickpeas", "Chicken Curry", "Chicken Handi"), texts(suggestions));
+    }
+
+    /*
+     * Test that any word of a meal name can be completed.
+     */
+    @Test
+    public void testComplete_LaterWord() {
+        List<Suggestion> suggestions = index.complete("cur", 10);
+
+        assertTrue(texts(suggestions).contains("Chicken Curry"));
+        assertTrue(texts(suggestions).contains("Curry Powder"));
+        assertEquals("1", find(suggestions, "Chicken Curry").getMealId());
+    }
+
+    /*
+     * Test that case and accents are ignored.
+     */
+    @Test
+    public void testComplete_FoldsCaseAndAccents() {
+        assertEquals(List.of("Crème Brûlée"), texts(index.complete("CREME BR", 10)));
+    }
+
+    /*
+     * Test that typos are corrected by suggest().
+     */
+    @Test
+    public void testSuggest_Fuzzy() {
+        List<Suggestion> suggestions = index.suggest("chiken", 5);
+
+        assertFalse(suggestions.isEmpty());
+        assertEquals("Chicken", suggestions.get(0).getText());
+        assertTrue(suggestions.get(0).isFuzzy());
+        assertEquals(1, suggestions.get(0).getEditDistance());
+    }
+
+    /*
+     * Test that exact matches come before fuzzy ones.
+     */
+    @Test
+    public void testSuggest_ExactFirst() {
+        List<Suggestion> suggestions = index.suggest("beef", 5);
+
+        assertEquals("Beef", suggestions.get(0).getText());
+        assertFalse(suggestions.get(0).isFuzzy());
+        assertEquals("Beef Stew", suggestions.get(1).getText());
+    }
+
+    /*
+     * Test that new names only appear after rebuild().
+     */
+    @Test
+    public void testRebuild() {
+        index.addMeal(recipe("5", "Lamb Tagine", "Lamb"));
+        assertTrue(index.isDirty());
+        assertTrue(index.complete("lamb", 5).isEmpty());
+
+        index.rebuild();
+        assertFalse(index.isDirty());
+        assertEquals(2, index.complete("lamb", 5).size());
+    }
+
+    /*
+     * Test the limit and inputs that cannot match.
+     */
+    @Test
+    public void testLimitAndEmptyInput() {
+        assertEquals(1, index.complete("c", 1).size());
+        assertTrue(index.complete("", 5).isEmpty());
+        assertTrue(index.suggest("zzzz", 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.complete("a", 0));
+    }
+
+    /*
+     * Test that stopping the background refresh keeps its thread for a restart,
+     * and that close() ends the thread.
+     */
+    @Test
+    public void testBackgroundRefreshLifecycle() throws Exception {
+        Semaphore refreshed = new Semaphore(0);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        MealDbTransport transport = url -> {
+            threads.add(Thread.currentThread());
+            refreshed.release();
+            return CompletableFuture.failedFuture(new ApiException("HTTP error: 503", 503));
+        };
+        MealDbApiClient client = new MealDbApiClient(transport, "https://example.com/", Runnable::run);
+
+        index.startBackgroundRefresh(client, Duration.ofHours(1));
+        assertTrue(refreshed.tryAcquire(5, TimeUnit.SECONDS));
+        index.stopBackgroundRefresh();
+
+        index.startBackgroundRefresh(client, Duration.ofHours(1));
+        assertTrue(refreshed.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals(1, threads.size(), "Restarting should reuse the refresh thread");
+
+        index.close();
+        Thread thread = threads.iterator().next();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertNotNull(index.getLastRefreshError());
+    }
+
+    // Helper Methods
+
+    private static Recipe recipe(String id, String name, String... ingredients) {
+        Recipe recipe = new Recipe(id, name, "Misc", "Unknown", "Cook it.", null);
+        List<Ingredient> list = new ArrayList<>();
+        for (String ingredient : ingredients) {
+            list.add(new Ingredient(ingredient, "1"));
+        }
+        recipe.setIngredients(list);
+        return recipe;
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        List<String> texts = new ArrayList<>();
+        for (Suggestion suggestion : suggestions) {
+            texts.add(suggestion.getText());
+        }
+        return texts;
+    }
+
+    private static Suggestion find(List<Suggestion> suggestions, String text) {
+        for (Suggestion suggestion : suggestions) {
+            if (suggestion.getText().equals(text)) {
+                return suggestion;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.meallab.api.search;
+
+import com.meallab.api.model.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Unit tests for FullTextIndex.
+ */
+
+public class FullTextIndexTests {
+    private FullTextIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new FullTextIndex();
+        index.add(recipe("1", "Slow Cooker Beef Stew", "Beef", "British", "Stew,Winter",
+                "Put everything in the slow cooker and leave it overnight."));
+        index.add(recipe("2", "Overnight Oats", "Breakfast", "American", "Breakfast",
+                "Mix oats with milk and leave in the fridge overnight."));
+        index.add(recipe("3", "Chicken Curry", "Chicken", "Indian", "Curry,Spicy",
+                "Cook the chicken slowly. Use a cooker or a heavy pan."));
+        index.add(recipe("4", "Crème Brûlée", "Dessert", "French", null,
+                "Bake the custard, chill and caramelise the sugar."));
+    }
+
+    /*
+     * Test that the best match for all query words is ranked first.
+     */
+    @Test
+    public void testSearch_RanksBestMatchFirst() {
+        List<SearchHit> hits = index.search("slow cooker overnight", 10);
+
+        assertEquals(3, hits.size());
+        assertEquals("1", hits.get(0).getRecipe().getId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    /*
+     * Test that name matches outrank instruction matches.
+     */
+    @Test
+    public void testSearch_NameWeighsMore() {
+        List<SearchHit> hits = index.search("oats", 10);
+        assertEquals("2", hits.get(0).getRecipe().getId());
+
+        hits = index.search("chicken", 10);
+        assertEquals(1, hits.size());
+    }
+
+    /*
+     * Test that quoted phrases must appear word for word.
+     */
+    @Test
+    public void testSearch_Phrase() {
+        List<SearchHit> hits = index.search("\"slow cooker\"", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals("1", hits.get(0).getRecipe().getId());
+        assertTrue(index.search("\"cooker slow\"", 10).isEmpty());
+    }
+
+    /*
+     * Test that stop words inside a phrase must match too, and do not leave it without a gap.
+     */
+    @Test
+    public void testSearch_PhraseWithStopWords() {
+        index.add(recipe("5", "Seasoned Fries", "Side", "British", null, "Season with salt and pepper."));
+        index.add(recipe("6", "Plain Fries", "Side", "British", null, "Add salt or pepper to taste."));
+        index.add(recipe("7", "Crispy Fries", "Side", "British", null, "Toss with salt, pepper and oil."));
+
+        assertEquals(List.of("5"), ids(index.search("\"salt and pepper\"", 10)));
+        assertEquals(List.of("6"), ids(index.search("\"salt or pepper\"", 10)));
+        assertEquals(List.of("7"), ids(index.search("\"salt pepper\"", 10)));
+        assertEquals(List.of("1"), ids(index.search("\"the slow cooker\"", 10)));
+        assertEquals(List.of("1"), ids(index.search("\"in the slow cooker\"", 10)));
+        assertTrue(index.search("\"leave the slow cooker\"", 10).isEmpty());
+    }
+
+    /*
+     * Test that tags, category and area are searchable.
+     */
+    @Test
+    public void testSearch_OtherFields() {
+        assertEquals("3", index.search("spicy", 10).get(0).getRecipe().getId());
+        assertEquals("4", index.search("french dessert", 10).get(0).getRecipe().getId());
+    }
+
+    /*
+     * Test that accents and case are ignored.
+     */
+    @Test
+    public void testSearch_FoldsAccents() {
+        assertEquals("4", index.search("CREME brulee", 10).get(0).getRecipe().getId());
+    }
+
+    /*
+     * Test that the limit keeps only the top results.
+     */
+    @Test
+    public void testSearch_Limit() {
+        List<SearchHit> all = index.search("overnight cooker", 10);
+        List<SearchHit> top = index.search("overnight cooker", 1);
+
+        assertEquals(1, top.size());
+        assertEquals(all.get(0).getRecipe().getId(), top.get(0).getRecipe().getId());
+    }
+
+    /*
+     * Test that removed and replaced recipes no longer match their old text.
+     */
+    @Test
+    public void testRemoveAndReplace() {
+        assertTrue(index.remove("2"));
+        assertEquals(List.of("1"), ids(index.search("overnight", 10)));
+
+        index.add(recipe("1", "Beef Stew", "Beef", "British", null, "Simmer for two hours."));
+        assertTrue(index.search("overnight", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    /*
+     * Test queries that cannot match and invalid input.
+     */
+    @Test
+    public void testSearch_NoMatchAndInvalidInput() {
+        assertTrue(index.search("pizza", 10).isEmpty());
+        assertTrue(index.search("the and", 10).isEmpty(), "Only stop words");
+        assertThrows(IllegalArgumentException.class, () -> index.search(" ", 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("beef", 0));
+    }
+
+    /*
+     * Test the tokenizer rules shared by indexing and queries.
+     */
+    @Test
+    public void testTokenizer() {
+        assertEquals(List.of("slow", "cooker", "beef", "1kg"),
+                TextTokenizer.tokenize("Slow-cooker: the BEEF (1kg)!"));
+        assertEquals(List.of("jalapeno"), TextTokenizer.tokenize("Jalapeño"));
+        assertTrue(TextTokenizer.tokenize(null).isEmpty());
+        assertEquals(List.of("salt", "and", "pepper"), TextTokenizer.words("Salt and pepper"));
+    }
+
+    // Helper Methods
+
+    private static Recipe recipe(String id, String name, String category, String area,
+                                 String tags, String instructions) {
+        Recipe recipe = new Recipe(id, name, category, area, instructions, null);
+        recipe.setTags(tags);
+        return recipe;
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        List<String> ids = new ArrayList<>();
+        for (SearchHit hit : hits) {
+            ids.add(hit.getRecipe().getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,136 @@
+package com.meallab.api.search;
+
+import com.meallab.api.model.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Unit tests for IngredientIndex and IngredientQuery.
+ */
+
+public class IngredientIndexTests {
+    private IngredientIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new IngredientIndex();
+        index.add(recipe("1", "Chicken Alfredo", "Chicken", "Garlic", "Heavy Cream"));
+        index.add(recipe("2", "Garlic Chicken", "chicken", "garlic", "Olive Oil"));
+        index.add(recipe("3", "Beef Stew", "Beef", "Garlic", "Carrots"));
+        index.add(recipe("4", "Pasta", "Spaghetti", "Olive Oil"));
+    }
+
+    /*
+     * Test "chicken AND garlic NOT cream".
+     */
+    @Test
+    public void testSearch_AndNot() {
+        List<Recipe> result = index.search(new IngredientQuery()
+                .all("chicken", "garlic")
+                .none("heavy cream"));
+
+        assertEquals(List.of("2"), ids(result));
+    }
+
+    /*
+     * Test OR queries and their combination with AND.
+     */
+    @Test
+    public void testSearch_Or() {
+        assertEquals(List.of("1", "2", "3"), ids(index.searchAny("chicken", "beef")));
+        assertEquals(List.of("2", "4"), ids(index.search(new IngredientQuery()
+                .all("olive oil")
+                .any("chicken", "spaghetti"))));
+    }
+
+    /*
+     * Test that names are normalized (case, underscores, spaces).
+     */
+    @Test
+    public void testSearch_NormalizesNames() {
+        assertEquals(2, index.searchAll("OLIVE_OIL").size());
+        assertEquals(2, index.searchAll("  olive   oil ").size());
+        assertEquals(2, index.getRecipeCount("Chicken"));
+    }
+
+    /*
+     * Test that an unknown ingredient in an AND query matches nothing.
+     */
+    @Test
+    public void testSearch_UnknownIngredient() {
+        assertTrue(index.searchAll("garlic", "saffron").isEmpty());
+        assertEquals(0, index.count(new IngredientQuery().all("saffron")));
+    }
+
+    /*
+     * Test that a NOT-only query starts from every indexed recipe.
+     */
+    @Test
+    public void testSearch_NotOnly() {
+        assertEquals(List.of("4"), ids(index.search(new IngredientQuery().none("garlic"))));
+        assertEquals(4, index.count(new IngredientQuery()));
+    }
+
+    /*
+     * Test that removing a recipe updates the postings and frees its slot.
+     */
+    @Test
+    public void testRemove() {
+        assertTrue(index.remove("2"));
+        assertFalse(index.remove("2"));
+
+        assertEquals(List.of("1"), ids(index.searchAll("chicken")));
+        assertEquals(3, index.size());
+
+        index.add(recipe("5", "Chicken Soup", "Chicken"));
+        assertEquals(4, index.size());
+        assertEquals(2, index.searchAll("chicken").size());
+    }
+
+    /*
+     * Test that re-adding a recipe replaces its old ingredients.
+     */
+    @Test
+    public void testAdd_ReplacesPreviousVersion() {
+        index.add(recipe("4", "Pasta", "Spaghetti", "Tomato"));
+
+        assertEquals(4, index.size());
+        assertEquals(1, index.getRecipeCount("olive oil"));
+        assertEquals(List.of("4"), ids(index.searchAll("tomato")));
+    }
+
+    /*
+     * Test that empty ingredient names are rejected.
+     */
+    @Test
+    public void testQuery_RejectsBlankIngredient() {
+        assertThrows(IllegalArgumentException.class, () -> new IngredientQuery().all(" "));
+        assertThrows(IllegalArgumentException.class, () -> index.search(null));
+    }
+
+    // Helper Methods
+
+    private static Recipe recipe(String id, String name, String... ingredients) {
+        Recipe recipe = new Recipe(id, name, "Misc", "Unknown", "Cook it.", null);
+        List<Ingredient> list = new ArrayList<>();
+        for (String ingredient : ingredients) {
+            list.add(new Ingredient(ingredient, "1"));
+        }
+        recipe.setIngredients(list);
+        return recipe;
+    }
+
+    private static List<String> ids(List<Recipe> recipes) {
+        List<String> ids = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            ids.add(recipe.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+}
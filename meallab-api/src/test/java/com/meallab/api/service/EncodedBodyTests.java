@@ -0,0 +1,113 @@
+package com.meallab.api.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+public class EncodedBodyTests {
+    private static final byte[] JSON = "{\"meals\":[{\"idMeal\":\"52772\",\"strMeal\":\"Teriyaki Chicken Casserole\"}]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    /*
+     * Body that records what its decoded() hook reports (-1 = never called).
+     */
+    private static EncodedBody counted(byte[] bytes, String encoding, AtomicLong decoded) {
+        decoded.set(-1);
+        return new EncodedBody(bytes, encoding) {
+            @Override
+            protected void decoded(long decodedLength) {
+                decoded.set(decodedLength);
+            }
+        };
+    }
+
+    /*
+     * Test that plain bodies are passed through untouched.
+     */
+    @Test
+    public void testIdentity() throws IOException {
+        EncodedBody body = new EncodedBody(JSON, " Identity ");
+        assertFalse(body.isCompressed());
+        assertSame(JSON, body.decode());
+        try (InputStream in = body.openStream()) {
+            assertArrayEquals(JSON, in.readAllBytes());
+        }
+    }
+
+    /*
+     * Test gzip decoding, in one piece and as a stream, and the decoded() report.
+     */
+    @Test
+    public void testGzip() throws IOException {
+        AtomicLong decoded = new AtomicLong();
+        byte[] compressed = gzip(JSON);
+
+        EncodedBody body = counted(compressed, "x-gzip", decoded);
+        assertEquals("gzip", body.getContentEncoding());
+        assertArrayEquals(JSON, body.decode());
+        assertEquals(JSON.length, decoded.get());
+
+        body = counted(compressed, "gzip", decoded);
+        try (InputStream in = body.openStream()) {
+            assertArrayEquals(JSON, in.readAllBytes());
+        }
+        assertEquals(JSON.length, decoded.get());
+
+        // Closing early still decodes (and checks) the rest
+        body = counted(compressed, "gzip", decoded);
+        try (InputStream in = body.openStream()) {
+            assertEquals('{', in.read());
+        }
+        assertEquals(JSON.length, decoded.get());
+    }
+
+    /*
+     * Test that concatenated gzip members (the trailer only covers the last) decode fully.
+     */
+    @Test
+    public void testGzipMembers() throws IOException {
+        byte[] first = gzip(JSON);
+        byte[] second = gzip("[]".getBytes(StandardCharsets.UTF_8));
+        byte[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+
+        byte[] expected = Arrays.copyOf(JSON, JSON.length + 2);
+        expected[JSON.length] = '[';
+        expected[JSON.length + 1] = ']';
+        assertArrayEquals(expected, new EncodedBody(both, "gzip").decode());
+    }
+
+    /*
+     * Test that corrupt or unsupported bodies fail and are not reported as decoded.
+     */
+    @Test
+    public void testCorrupt() throws IOException {
+        AtomicLong decoded = new AtomicLong();
+        byte[] truncated = Arrays.copyOf(gzip(JSON), 30);
+
+        assertThrows(IOException.class, () -> counted(truncated, "gzip", decoded).decode());
+        assertThrows(IOException.class, () -> counted(JSON, "gzip", decoded).decode());
+        assertThrows(IOException.class, () -> counted(JSON, "br", decoded).openStream());
+        assertEquals(-1, decoded.get());
+
+        // A trailer claiming an absurd size is not used to size the array
+        byte[] forged = gzip(JSON);
+        forged[forged.length - 1] = 0x7F;
+        assertThrows(IOException.class, () -> new EncodedBody(forged, "gzip").decode());
+    }
+}
@@ -0,0 +1,177 @@
+package com.meallab.api.service;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * In-memory HttpClient used by the offline tests.
+ *
+ * Serves canned JSON bodies per URL (or a 404 when nothing is registered),
+ * optionally after a delay, and counts how many requests it has seen.
+ * This lets MealDbApiClient be tested without an internet connection,
+ * through its MealDbApiClient(HttpClient) constructor.
+ */
+
+public class FakeHttpClient extends HttpClient {
+
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private final Map<String, Integer> statuses = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile long delayMillis;
+
+    /*
+     * Registers the JSON body returned for an exact URL.
+     */
+    public FakeHttpClient respond(String url, String json) {
+        bodies.put(url, json);
+        return this;
+    }
+
+    /*
+     * Registers a non-200 status code for an exact URL.
+     */
+    public FakeHttpClient fail(String url, int statusCode) {
+        statuses.put(url, statusCode);
+        return this;
+    }
+
+    /*
+     * Delays every response by the given number of milliseconds.
+     */
+    public FakeHttpClient delay(long millis) {
+        this.delayMillis = millis;
+        return this;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> handler) {
+        requestCount.incrementAndGet();
+        String url = request.uri().toString();
+
+        Executor executor = delayMillis > 0
+                ? CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS)
+                : Runnable::run;
+
+        return CompletableFuture.supplyAsync(() -> url, executor)
+                .thenCompose(u -> respond(request, handler));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> respond(HttpRequest request,
+                                                          HttpResponse.BodyHandler<T> handler) {
+        String url = request.uri().toString();
+        int status = statuses.getOrDefault(url, bodies.containsKey(url) ? 200 : 404);
+        String body = bodies.getOrDefault(url, "");
+        HttpHeaders headers = HttpHeaders.of(Map.of("Content-Type", List.of("application/json")), (k, v) -> true);
+
+        HttpResponse.ResponseInfo info = new HttpResponse.ResponseInfo() {
+            public int statusCode() { return status; }
+            public HttpHeaders headers() { return headers; }
+            public Version version() { return Version.HTTP_1_1; }
+        };
+
+        // Push the body through the real body handler, exactly like the JDK client does
+        HttpResponse.BodySubscriber<T> subscriber = handler.apply(info);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            public void request(long n) { }
+            public void cancel() { }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8))));
+        subscriber.onComplete();
+
+        return subscriber.getBody().toCompletableFuture()
+                .thenApply(value -> new FakeResponse<>(request, status, headers, value));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> handler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return sendAsync(request, handler);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        return sendAsync(request, handler).join();
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() { return Optional.empty(); }
+
+    @Override
+    public Optional<Duration> connectTimeout() { return Optional.empty(); }
+
+    @Override
+    public Redirect followRedirects() { return Redirect.NEVER; }
+
+    @Override
+    public Optional<ProxySelector> proxy() { return Optional.empty(); }
+
+    @Override
+    public SSLContext sslContext() { return null; }
+
+    @Override
+    public SSLParameters sslParameters() { return null; }
+
+    @Override
+    public Optional<Authenticator> authenticator() { return Optional.empty(); }
+
+    @Override
+    public Version version() { return Version.HTTP_1_1; }
+
+    @Override
+    public Optional<Executor> executor() { return Optional.empty(); }
+
+    /*
+     * Minimal HttpResponse implementation carrying the status, headers and body.
+     */
+    private static class FakeResponse<T> implements HttpResponse<T> {
+        private final HttpRequest request;
+        private final int status;
+        private final HttpHeaders headers;
+        private final T body;
+
+        FakeResponse(HttpRequest request, int status, HttpHeaders headers, T body) {
+            this.request = request;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int statusCode() { return status; }
+        public HttpRequest request() { return request; }
+        public Optional<HttpResponse<T>> previousResponse() { return Optional.empty(); }
+        public HttpHeaders headers() { return headers; }
+        public T body() { return body; }
+        public Optional<SSLSession> sslSession() { return Optional.empty(); }
+        public URI uri() { return request.uri(); }
+        public Version version() { return Version.HTTP_1_1; }
+    }
+}
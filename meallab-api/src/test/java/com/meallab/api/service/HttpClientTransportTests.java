@@ -0,0 +1,125 @@
+package com.meallab.api.service;
+
+import com.meallab.api.cache.CachedResponse;
+import com.meallab.api.cache.DiskResponseCache;
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.stub.MealDbStubServer;
+import com.meallab.api.stub.StubCatalog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/*
+ * Tests HttpClientTransport's response compression against the local stub server.
+ */
+
+public class HttpClientTransportTests {
+    private MealDbStubServer server;
+    private HttpClientTransport transport;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MealDbStubServer(StubCatalog.generate(50, 7));
+        server.setInstructionsPadding(5_000);
+        server.setGzip(true);
+        server.start();
+
+        transport = new HttpClientTransport();
+        client = new MealDbApiClient(transport, server.getBaseUrl(), ForkJoinPool.commonPool());
+        client.setRecipeCache(null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    /*
+     * Test that gzip bodies are negotiated and decoded transparently.
+     */
+    @Test
+    public void testGzip() throws ApiException {
+        Recipe recipe = client.getMealById("60000");
+        assertEquals("60000", recipe.getId());
+        assertTrue(recipe.getInstructions().length() >= 5_000);
+
+        assertEquals(1, transport.getCompressedResponseCount());
+        assertEquals(server.getBytesSent(), transport.getBytesReceived());
+        assertTrue(transport.getBytesReceived() * 2 < transport.getBytesDecoded(),
+                transport.getBytesReceived() + " bytes received for " + transport.getBytesDecoded());
+    }
+
+    /*
+     * Test that nothing is compressed when compression is disabled.
+     */
+    @Test
+    public void testCompressionDisabled() throws ApiException {
+        transport.setCompression(false);
+        client.getMealById("60000");
+
+        assertEquals(0, transport.getCompressedResponseCount());
+        assertEquals(transport.getBytesReceived(), transport.getBytesDecoded());
+        assertEquals(server.getBytesSent(), transport.getBytesReceived());
+    }
+
+    /*
+     * Test that the response cache stores the decoded body.
+     */
+    @Test
+    public void testCacheStoresDecodedBody(@TempDir Path directory) throws IOException, ApiException {
+        try (DiskResponseCache cache = new DiskResponseCache(directory, 1_000_000, Duration.ofHours(1))) {
+            transport.setResponseCache(cache);
+            client.getMealById("60001");
+
+            CachedResponse cached = cache.get(server.getBaseUrl() + "/lookup.php?i=60001");
+            assertNotNull(cached);
+            assertTrue(new String(cached.getBody(), StandardCharsets.UTF_8).startsWith("{\"meals\":"));
+            assertEquals("60001", client.getMealById("60001").getId());
+            assertEquals(1, server.getRequestCount());
+        }
+    }
+
+    /*
+     * Test deflate (zlib-wrapped and raw), identity and unknown encodings.
+     */
+    @Test
+    public void testDecode() throws IOException {
+        byte[] json = "{\"meals\":null}".getBytes(StandardCharsets.UTF_8);
+
+        assertArrayEquals(json, transport.decode(null, json));
+        assertArrayEquals(json, transport.decode("identity", json));
+        assertArrayEquals(json, transport.decode("deflate", deflate(json, false)));
+        assertArrayEquals(json, transport.decode("Deflate", deflate(json, true)));
+        assertEquals(2, transport.getCompressedResponseCount());
+
+        assertThrows(IOException.class, () -> transport.decode("br", json));
+        assertThrows(IOException.class, () -> transport.decode("gzip", json));
+        assertThrows(IOException.class, () -> transport.decode("deflate", json));
+        assertEquals(2, transport.getCompressedResponseCount(), "Corrupt bodies are not counted");
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(data);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+}
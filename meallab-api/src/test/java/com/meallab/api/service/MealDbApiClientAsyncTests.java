@@ -0,0 +1,183 @@
+package com.meallab.api.service;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/*
+ * Offline tests for the async methods of MealDbApiClient.
+ *
+ * These tests use FakeHttpClient instead of the real TheMealDB,
+ * so they run without an internet connection.
+ */
+
+public class MealDbApiClientAsyncTests {
+    private FakeHttpClient http;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() {
+        http = new FakeHttpClient()
+                .respond(TestJson.BASE + "/lookup.php?i=52772",
+                        TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole")))
+                .respond(TestJson.BASE + "/lookup.php?i=1", TestJson.noMeals())
+                .respond(TestJson.BASE + "/search.php?s=Arrabiata",
+                        TestJson.meals(TestJson.recipe("52771", "Spicy Arrabiata Penne")))
+                .respond(TestJson.BASE + "/filter.php?i=chicken",
+                        TestJson.meals(TestJson.simplified("1", "A"), TestJson.simplified("2", "B")))
+                .respond(TestJson.BASE + "/filter.php?i=olive+oil",
+                        TestJson.meals(TestJson.simplified("3", "C")))
+                .respond(TestJson.BASE + "/random.php",
+                        TestJson.meals(TestJson.recipe("52999", "Random Stew")));
+        client = new MealDbApiClient(http);
+    }
+
+    /*
+     * Test that getMealByIdAsync completes with the parsed recipe.
+     */
+    @Test
+    public void testGetMealByIdAsync_ValidId() {
+        Recipe meal = client.getMealByIdAsync("52772").join();
+
+        assertEquals("52772", meal.getId());
+        assertEquals("Teriyaki Chicken Casserole", meal.getName());
+        assertEquals(2, meal.getIngredients().size(), "Empty ingredient slots should be skipped");
+    }
+
+    /*
+     * Test that a miss completes the future with MealNotFoundException.
+     */
+    @Test
+    public void testGetMealByIdAsync_NotFound() {
+        CompletableFuture<Recipe> future = client.getMealByIdAsync("1");
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(MealNotFoundException.class, e.getCause());
+    }
+
+    /*
+     * Test that the blocking method still throws the checked exception.
+     */
+    @Test
+    public void testGetMealById_NotFoundStillThrows() {
+        assertThrows(MealNotFoundException.class, () -> client.getMealById("1"));
+    }
+
+    /*
+     * Test that the find methods report a miss as the shared NotFound result.
+     */
+    @Test
+    public void testFindMethods_NotFoundWithoutException() throws ApiException {
+        http.respond(TestJson.BASE + "/search.php?s=pizza", TestJson.noMeals())
+                .respond(TestJson.BASE + "/filter.php?i=saffron", TestJson.noMeals());
+
+        LookupResult<Recipe> missing = client.findMealById("1");
+        assertFalse(missing.isFound());
+        assertSame(LookupResult.notFound(), missing);
+        assertSame(missing, client.findByName("pizza"));
+        assertSame(missing, client.findByIngredient("saffron"));
+
+        assertEquals("52772", client.findMealById("52772").get().getId());
+        assertEquals(1, client.findByName("Arrabiata").get().getMealCount());
+        assertEquals(2, client.findByIngredientAsync("chicken").join().get().getMealCount());
+
+        // Errors other than "no results" still throw
+        http.fail(TestJson.BASE + "/search.php?s=Arrabiata", 500);
+        client.setRecipeCache(null);
+        assertThrows(ApiException.class, () -> client.findByName("Arrabiata"));
+    }
+
+    /*
+     * Test that HTTP errors become ApiException (not MealNotFoundException).
+     */
+    @Test
+    public void testSearchByNameAsync_HttpError() {
+        http.fail(TestJson.BASE + "/search.php?s=broken", 500);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> client.searchByNameAsync("broken").join());
+        assertEquals(ApiException.class, e.getCause().getClass());
+        assertTrue(e.getCause().getMessage().contains("500"));
+    }
+
+    /*
+     * Test that invalid input is rejected before any request is sent.
+     */
+    @Test
+    public void testAsync_InvalidInputThrowsImmediately() {
+        assertThrows(IllegalArgumentException.class, () -> client.searchByIngredientAsync(" "));
+        assertThrows(IllegalArgumentException.class, () -> client.getMealByIdAsync(null));
+        assertEquals(0, http.getRequestCount());
+    }
+
+    /*
+     * Test that the ingredient is trimmed and URL-encoded.
+     */
+    @Test
+    public void testSearchByIngredientAsync_EncodesInput() {
+        MealListResponse response = client.searchByIngredientAsync(" olive oil ").join();
+
+        assertEquals(1, response.getMealCount());
+        assertEquals("3", response.getMealAt(0).getId());
+    }
+
+    /*
+     * Test that many lookups can be in flight at the same time.
+     */
+    @Test
+    public void testManyConcurrentRequests() {
+        http.delay(50);
+
+        // Random meals are never coalesced or cached, so every call is a real request
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            futures.add(client.getRandomMealAsync());
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        assertEquals(300, http.getRequestCount());
+    }
+
+    /*
+     * Test that recipe listeners see every full recipe received from the API.
+     */
+    @Test
+    public void testRecipeListener() throws ApiException {
+        List<String> seen = new ArrayList<>();
+        client.addRecipeListener(recipe -> seen.add(recipe.getId()));
+        client.addRecipeListener(recipe -> {
+            throw new IllegalStateException("broken listener");
+        });
+
+        client.getMealById("52772");
+        client.searchByName("Arrabiata");
+        client.searchByIngredient("chicken");  // simplified meals are not reported
+
+        assertEquals(List.of("52772", "52771"), seen);
+    }
+
+    /*
+     * Test that the ingredient list is parsed.
+     */
+    @Test
+    public void testListIngredients() throws ApiException {
+        http.respond(TestJson.BASE + "/list.php?i=list",
+                "{\"meals\":[{\"idIngredient\":\"1\",\"strIngredient\":\"Chicken\"," +
+                        "\"strDescription\":null,\"strType\":null}]}");
+
+        IngredientListResponse response = client.listIngredients();
+
+        assertEquals(1, response.getIngredientCount());
+        assertEquals("Chicken", response.getIngredients().get(0).getName());
+    }
+}
@@ -0,0 +1,91 @@
+package com.meallab.api.service;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Offline tests for MealDbApiClient.getMealsByIds().
+ */
+
+public class MealDbApiClientBulkTests {
+    private FakeHttpClient http;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() {
+        http = new FakeHttpClient();
+        for (int i = 1; i <= 50; i++) {
+            http.respond(TestJson.BASE + "/lookup.php?i=" + i, TestJson.meals(TestJson.recipe(String.valueOf(i), "Meal " + i)));
+        }
+        http.respond(TestJson.BASE + "/lookup.php?i=404", TestJson.noMeals());
+        http.fail(TestJson.BASE + "/lookup.php?i=500", 500);
+        client = new MealDbApiClient(http);
+    }
+
+    /*
+     * Test that results keep the input order and duplicates are fetched once.
+     */
+    @Test
+    public void testOrderAndDuplicates() throws ApiException {
+        BulkMealResponse response = client.getMealsByIds(Arrays.asList("3", "1", "3", " 2 ", "1"));
+
+        assertEquals(List.of("3", "1", "2"), response.getRequestedIds());
+        assertEquals("3", response.getMeals().get(0).getId());
+        assertEquals("1", response.getMeals().get(1).getId());
+        assertEquals("2", response.getMeals().get(2).getId());
+        assertEquals(3, http.getRequestCount(), "Duplicate IDs should be looked up once");
+    }
+
+    /*
+     * Test that failures are reported per ID instead of failing the batch.
+     */
+    @Test
+    public void testPartialFailures() throws ApiException {
+        BulkMealResponse response = client.getMealsByIds(Arrays.asList("1", "404", "500", "2"));
+
+        assertEquals(2, response.getMealCount());
+        assertEquals(2, response.getFailureCount());
+        assertInstanceOf(MealNotFoundException.class, response.getFailures().get("404"));
+        assertEquals(ApiException.class, response.getFailures().get("500").getClass());
+        assertEquals(List.of("404"), response.getNotFoundIds());
+    }
+
+    /*
+     * Test a large batch with a small concurrency limit.
+     */
+    @Test
+    public void testBoundedConcurrency() throws ApiException {
+        http.delay(5);
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            ids.add(String.valueOf(i));
+        }
+
+        BulkMealResponse response = client.getMealsByIds(ids, 4);
+
+        assertEquals(50, response.getMealCount());
+        assertFalse(response.hasFailures());
+        assertEquals("50", response.getMeals().get(49).getId());
+    }
+
+    /*
+     * Test the empty batch and invalid arguments.
+     */
+    @Test
+    public void testEdgeCases() throws ApiException {
+        assertEquals(0, client.getMealsByIds(Collections.emptyList()).getMealCount());
+        assertThrows(IllegalArgumentException.class, () -> client.getMealsByIds(null));
+        assertThrows(IllegalArgumentException.class, () -> client.getMealsByIds(Arrays.asList("1", "")));
+        assertThrows(IllegalArgumentException.class, () -> client.getMealsByIds(List.of("1"), 0));
+    }
+}
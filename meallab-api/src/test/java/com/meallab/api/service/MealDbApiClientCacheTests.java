@@ -0,0 +1,114 @@
+package com.meallab.api.service;
+
+import com.meallab.api.cache.QueryCache;
+import com.meallab.api.cache.RecipeCache;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.model.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Offline tests for the recipe cache built into MealDbApiClient.
+ */
+
+public class MealDbApiClientCacheTests {
+    private FakeHttpClient http;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() {
+        http = new FakeHttpClient()
+                .respond(TestJson.BASE + "/lookup.php?i=52772",
+                        TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole")))
+                .respond(TestJson.BASE + "/search.php?s=Arrabiata",
+                        TestJson.meals(TestJson.recipe("52771", "Spicy Arrabiata Penne")))
+                .respond(TestJson.BASE + "/random.php",
+                        TestJson.meals(TestJson.recipe("52999", "Random Stew")));
+        client = new MealDbApiClient(http);
+    }
+
+    /*
+     * Test that a second lookup of the same ID is served from the cache.
+     */
+    @Test
+    public void testRepeatedLookupHitsCache() throws ApiException {
+        Recipe first = client.getMealById("52772");
+        Recipe second = client.getMealById(" 52772 ");
+
+        assertSame(first, second);
+        assertEquals(1, http.getRequestCount());
+        assertEquals(1, client.getRecipeCache().stats().getHitCount());
+    }
+
+    /*
+     * Test that recipes from searchByName and getRandomMeal populate the cache.
+     */
+    @Test
+    public void testSearchAndRandomPopulateCache() throws ApiException {
+        client.searchByName("Arrabiata");
+        client.getRandomMeal();
+
+        assertEquals("Spicy Arrabiata Penne", client.getMealById("52771").getName());
+        assertEquals("Random Stew", client.getMealById("52999").getName());
+        assertEquals(2, http.getRequestCount(), "Lookups should not reach the API");
+    }
+
+    /*
+     * Test that caching can be disabled.
+     */
+    @Test
+    public void testCacheDisabled() throws ApiException {
+        client.setRecipeCache(null);
+
+        client.getMealById("52772");
+        client.getMealById("52772");
+
+        assertEquals(2, http.getRequestCount());
+    }
+
+    /*
+     * Test replacing the cache with custom limits.
+     */
+    @Test
+    public void testCustomCache() throws ApiException {
+        RecipeCache cache = new RecipeCache(10, 1024 * 1024, java.time.Duration.ofMinutes(5));
+        client.setRecipeCache(cache);
+
+        client.getMealById("52772");
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.stats().getMissCount());
+    }
+
+    /*
+     * Test that repeated searches (any spelling) and known misses are served by the query cache.
+     */
+    @Test
+    public void testQueryCache() throws ApiException {
+        http.respond(TestJson.BASE + "/filter.php?i=Chicken",
+                        TestJson.meals(TestJson.simplified("1", "A"), TestJson.simplified("2", "B")))
+                .respond(TestJson.BASE + "/search.php?s=pizza", TestJson.noMeals());
+        QueryCache queries = new QueryCache();
+        client.setQueryCache(queries);
+
+        assertEquals(2, client.searchByIngredient("Chicken").getMealCount());
+        assertEquals(2, client.searchByIngredient(" chicken ").getMealCount());
+        assertEquals(1, client.searchByName("Arrabiata").getMealCount());
+        assertEquals("52771", client.searchByName("ARRABIATA").getFirstMeal().getId());
+
+        assertThrows(MealNotFoundException.class, () -> client.searchByName("pizza"));
+        assertFalse(client.findByName("Pizza").isFound());
+
+        assertEquals(3, http.getRequestCount());
+        assertEquals(2, queries.getHitCount());
+        assertEquals(1, queries.getNegativeHitCount());
+
+        // Without the recipes, name results go upstream again
+        client.getRecipeCache().invalidateAll();
+        client.searchByName("Arrabiata");
+        assertEquals(4, http.getRequestCount());
+    }
+}
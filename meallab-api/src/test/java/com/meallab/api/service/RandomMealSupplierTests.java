@@ -0,0 +1,148 @@
+package com.meallab.api.service;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.model.Recipe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/*
+ * Tests RandomMealSupplier against a transport that cycles through a small catalog.
+ */
+
+public class RandomMealSupplierTests {
+    private static final int CATALOG_SIZE = 20;
+
+    private AtomicInteger calls;
+    private AtomicBoolean failing;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() {
+        calls = new AtomicInteger();
+        failing = new AtomicBoolean();
+
+        // random.php answers 60000, 60001, ... 60019, 60000, ...
+        MealDbTransport transport = url -> {
+            if (failing.get()) {
+                return CompletableFuture.failedFuture(new ApiException("HTTP error: 503", 503));
+            }
+            String id = String.valueOf(60000 + calls.getAndIncrement() % CATALOG_SIZE);
+            String json = TestJson.meals(TestJson.recipe(id, "Meal " + id));
+            return CompletableFuture.completedFuture(json.getBytes(StandardCharsets.UTF_8));
+        };
+        client = new MealDbApiClient(transport, TestJson.BASE, Runnable::run);
+    }
+
+    /*
+     * Test that a started supplier serves meals from memory.
+     */
+    @Test
+    public void testServesFromBuffer() throws Exception {
+        RandomMealSupplier supplier = new RandomMealSupplier(client, 5, 2, 10);
+        supplier.start();
+        awaitCondition(() -> supplier.size() == 5 && !supplier.isRefilling());
+        assertEquals(5, calls.get());
+
+        Recipe recipe = supplier.get();
+        assertEquals("60000", recipe.getId());
+        assertEquals(1, supplier.getHitCount());
+        assertEquals(0, supplier.getMissCount());
+
+        // Fetched meals went through the client's cache
+        assertNotNull(client.getRecipeCache().get("60000"));
+        supplier.close();
+    }
+
+    /*
+     * Test that the buffer is refilled after dropping below the low-water mark.
+     */
+    @Test
+    public void testRefillsBelowLowWaterMark() throws Exception {
+        RandomMealSupplier supplier = new RandomMealSupplier(client, 4, 2, 0);
+        supplier.start();
+        awaitCondition(() -> supplier.size() == 4 && !supplier.isRefilling());
+
+        supplier.get();
+        supplier.get();
+        assertEquals(4, calls.get(), "Still at the low-water mark");
+
+        supplier.get();
+        awaitCondition(() -> supplier.size() == 4 && !supplier.isRefilling());
+        assertEquals(7, calls.get());
+        assertEquals(3, supplier.getHitCount());
+    }
+
+    /*
+     * Test that meals served recently are not buffered again.
+     */
+    @Test
+    public void testNoDuplicatesWithinWindow() throws ApiException {
+        RandomMealSupplier supplier = new RandomMealSupplier(client, 2, 1, 10);
+        supplier.start();
+        assertEquals("60000", supplier.get().getId());
+
+        // The API starts over: 60000 and 60001 were just served, so the refill skips them
+        calls.set(0);
+        assertEquals("60001", supplier.get().getId());
+        assertEquals(2, supplier.getDuplicateCount());
+        assertEquals("60002", supplier.get().getId());
+        assertEquals("60003", supplier.get().getId());
+        assertEquals(6, calls.get());
+    }
+
+    /*
+     * Test the fallback to a direct call when the buffer is empty,
+     * and that refill errors are kept.
+     */
+    @Test
+    public void testFallsBackWhenEmpty() throws Exception {
+        failing.set(true);
+        RandomMealSupplier supplier = new RandomMealSupplier(client);
+        supplier.start();
+        awaitCondition(() -> !supplier.isRefilling());
+
+        assertEquals(0, supplier.size());
+        assertTrue(supplier.getLastRefillError() instanceof ApiException);
+        assertThrows(ApiException.class, supplier::get);
+
+        failing.set(false);
+        assertNotNull(supplier.get());
+        assertEquals(2, supplier.getMissCount());
+        awaitCondition(() -> supplier.size() == RandomMealSupplier.DEFAULT_CAPACITY);
+        assertNull(supplier.getLastRefillError());
+
+        supplier.close();
+        assertEquals(0, supplier.size());
+        assertThrows(IllegalStateException.class, supplier::poll);
+    }
+
+    /*
+     * Test constructor validation.
+     */
+    @Test
+    public void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new RandomMealSupplier(null));
+        assertThrows(IllegalArgumentException.class, () -> new RandomMealSupplier(client, 0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RandomMealSupplier(client, 4, 5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RandomMealSupplier(client, 4, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RandomMealSupplier(client, 4, 2, -1));
+    }
+
+    // Helper Methods
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(5);
+        }
+    }
+}
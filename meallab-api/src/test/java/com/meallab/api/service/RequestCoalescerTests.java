@@ -0,0 +1,125 @@
+package com.meallab.api.service;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Tests for RequestCoalescer and its use inside MealDbApiClient.
+ */
+
+public class RequestCoalescerTests {
+    private FakeHttpClient http;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() {
+        http = new FakeHttpClient()
+                .respond(TestJson.BASE + "/lookup.php?i=52772",
+                        TestJson.meals(TestJson.recipe("52772", "Teriyaki Chicken Casserole")))
+                .respond(TestJson.BASE + "/search.php?s=chicken", TestJson.noMeals())
+                .respond(TestJson.BASE + "/filter.php?i=chicken",
+                        TestJson.meals(TestJson.simplified("1", "A")))
+                .respond(TestJson.BASE + "/filter.php?i=Chicken",
+                        TestJson.meals(TestJson.simplified("1", "A")))
+                .respond(TestJson.BASE + "/random.php",
+                        TestJson.meals(TestJson.recipe("52999", "Random Stew")))
+                .delay(100);
+        client = new MealDbApiClient(http);
+    }
+
+    /*
+     * Test that concurrent lookups of the same ID share one HTTP request.
+     */
+    @Test
+    public void testConcurrentLookupsAreCoalesced() {
+        List<CompletableFuture<Recipe>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(client.getMealByIdAsync("52772"));
+        }
+
+        for (CompletableFuture<Recipe> future : futures) {
+            assertEquals("52772", future.join().getId());
+        }
+        assertEquals(1, http.getRequestCount());
+        assertEquals(19, client.getCoalescedRequestCount());
+    }
+
+    /*
+     * Test that searches differing only in case or surrounding spaces are coalesced.
+     */
+    @Test
+    public void testNormalizedSearchTermsAreCoalesced() {
+        CompletableFuture<MealListResponse> a = client.searchByIngredientAsync("chicken");
+        CompletableFuture<MealListResponse> b = client.searchByIngredientAsync(" Chicken ");
+
+        assertEquals(1, a.join().getMealCount());
+        assertEquals(1, b.join().getMealCount());
+        assertEquals(1, http.getRequestCount());
+    }
+
+    /*
+     * Test that a shared failure reaches every waiter.
+     */
+    @Test
+    public void testFailureIsShared() {
+        CompletableFuture<MealResponse> a = client.searchByNameAsync("chicken");
+        CompletableFuture<MealResponse> b = client.searchByNameAsync("chicken");
+
+        CompletionException ea = assertThrows(CompletionException.class, a::join);
+        CompletionException eb = assertThrows(CompletionException.class, b::join);
+        assertInstanceOf(MealNotFoundException.class, ea.getCause());
+        assertInstanceOf(MealNotFoundException.class, eb.getCause());
+        assertEquals(1, http.getRequestCount());
+    }
+
+    /*
+     * Test that random meal requests are never coalesced.
+     */
+    @Test
+    public void testRandomIsNotCoalesced() throws ApiException {
+        CompletableFuture<Recipe> a = client.getRandomMealAsync();
+        CompletableFuture<Recipe> b = client.getRandomMealAsync();
+        a.join();
+        b.join();
+
+        assertEquals(2, http.getRequestCount());
+        assertEquals(0, client.getCoalescedRequestCount());
+    }
+
+    /*
+     * Test that cancelling one waiter does not cancel the shared request.
+     */
+    @Test
+    public void testCancelOneWaiter() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> source = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> a = coalescer.coalesce("k", () -> {
+            calls.incrementAndGet();
+            return source;
+        });
+        CompletableFuture<String> b = coalescer.coalesce("k", () -> {
+            calls.incrementAndGet();
+            return source;
+        });
+
+        a.cancel(true);
+        source.complete("done");
+
+        assertEquals("done", b.join());
+        assertEquals(1, calls.get());
+        assertEquals(0, coalescer.getInFlightCount(), "Completed calls should be unregistered");
+    }
+}
@@ -0,0 +1,48 @@
+package com.meallab.api.service;
+
+/*
+ * Small helpers that build TheMealDB-shaped JSON for the offline tests.
+ */
+
+public final class TestJson {
+
+    public static final String BASE = "https://www.themealdb.com/api/json/v1/1";
+
+    private TestJson() {
+    }
+
+    /*
+     * A full recipe object as returned by lookup.php / search.php / random.php.
+     */
+    public static String recipe(String id, String name) {
+        return "{\"idMeal\":\"" + id + "\",\"strMeal\":\"" + name + "\"," +
+                "\"strCategory\":\"Chicken\",\"strArea\":\"Japanese\"," +
+                "\"strInstructions\":\"Cook it.\",\"strMealThumb\":\"https://img/" + id + ".jpg\"," +
+                "\"strTags\":\"Meat,Casserole\",\"strYoutube\":\"\"," +
+                "\"strIngredient1\":\"soy sauce\",\"strMeasure1\":\"3/4 cup\"," +
+                "\"strIngredient2\":\"Chicken\",\"strMeasure2\":\"2 lbs\"," +
+                "\"strIngredient3\":\"\",\"strMeasure3\":\"\"}";
+    }
+
+    /*
+     * A simplified meal object as returned by filter.php.
+     */
+    public static String simplified(String id, String name) {
+        return "{\"idMeal\":\"" + id + "\",\"strMeal\":\"" + name + "\"," +
+                "\"strMealThumb\":\"https://img/" + id + ".jpg\"}";
+    }
+
+    /*
+     * Wraps meal objects in the {"meals": [...]} envelope.
+     */
+    public static String meals(String... meals) {
+        return "{\"meals\":[" + String.join(",", meals) + "]}";
+    }
+
+    /*
+     * The envelope TheMealDB returns when nothing matched.
+     */
+    public static String noMeals() {
+        return "{\"meals\":null}";
+    }
+}
@@ -0,0 +1,170 @@
+package com.meallab.api.stub;
+
+import com.meallab.api.cache.DiskResponseCache;
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.*;
+import com.meallab.api.service.HttpClientTransport;
+import com.meallab.api.service.MealDbApiClient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Tests MealDbApiClient against the local stub server over real (loopback) HTTP.
+ */
+
+public class MealDbStubServerTests {
+    private MealDbStubServer server;
+    private MealDbApiClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MealDbStubServer(StubCatalog.generate(50, 7));
+        server.start();
+
+        client = new MealDbApiClient(server.getBaseUrl());
+        client.setRecipeCache(null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    /*
+     * Test that the four client operations work against the stub.
+     */
+    @Test
+    public void testClientOperations() throws ApiException {
+        Recipe recipe = client.getMealById("60000");
+        assertEquals("60000", recipe.getId());
+        assertFalse(recipe.getIngredients().isEmpty());
+
+        String ingredient = recipe.getIngredients().get(0).getName();
+        MealListResponse byIngredient = client.searchByIngredient(ingredient);
+        assertTrue(byIngredient.getMeals().stream().anyMatch(meal -> meal.getId().equals("60000")));
+
+        String word = recipe.getName().split(" ")[0];
+        assertTrue(client.searchByName(word).hasMeals());
+        assertNotNull(client.getRandomMeal());
+        assertTrue(client.listIngredients().hasIngredients());
+
+        assertThrows(MealNotFoundException.class, () -> client.getMealById("1"));
+        assertTrue(server.getRequestCount() >= 6);
+    }
+
+    /*
+     * Test that the configured base URL is used.
+     */
+    @Test
+    public void testBaseUrl() {
+        assertTrue(client.getBaseUrl().startsWith("http://127.0.0.1:"));
+        assertTrue(client.getBaseUrl().endsWith(MealDbStubServer.API_PATH));
+        assertEquals("http://x/api", new MealDbApiClient("http://x/api/").getBaseUrl());
+        assertThrows(IllegalArgumentException.class, () -> new MealDbApiClient(" "));
+    }
+
+    /*
+     * Test that injected errors reach the client as ApiException.
+     */
+    @Test
+    public void testErrorRate() {
+        server.setErrorRate(1.0);
+
+        ApiException e = assertThrows(ApiException.class, () -> client.getMealById("60000"));
+        assertTrue(e.getMessage().contains("500"));
+        assertEquals(1, server.getErrorCount());
+    }
+
+    /*
+     * Test that responses are delayed by the configured latency.
+     */
+    @Test
+    public void testLatency() throws ApiException {
+        client.getMealById("60001");  // Warm up the connection
+
+        server.setLatency(Duration.ofMillis(150));
+        long start = System.nanoTime();
+        client.getMealById("60002");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 140, "Response came back after " + elapsedMillis + " ms");
+    }
+
+    /*
+     * Test the response size settings.
+     */
+    @Test
+    public void testResponseSize() throws ApiException {
+        server.setMaxResults(3);
+        MealResponse response = client.searchByName("a");
+        assertEquals(3, response.getMealCount());
+
+        int before = client.getMealById("60003").getInstructions().length();
+        server.setInstructionsPadding(10_000);
+        int after = client.getMealById("60004").getInstructions().length();
+        assertTrue(after >= 10_000 && after > before);
+    }
+
+    /*
+     * Test that the disk response cache revalidates with ETags and survives a restart.
+     */
+    @Test
+    public void testDiskResponseCache(@TempDir Path directory) throws IOException, ApiException {
+        server.setEtags(true);
+
+        // No freshness: every lookup after the first is a conditional GET
+        try (DiskResponseCache cache = new DiskResponseCache(directory, 1_000_000, Duration.ZERO)) {
+            MealDbApiClient cachedClient = cachedClient(cache);
+            String name = cachedClient.getMealById("60000").getName();
+            assertEquals(name, cachedClient.getMealById("60000").getName());
+
+            assertEquals(2, server.getRequestCount());
+            assertEquals(1, server.getNotModifiedCount());
+            assertEquals(1, cache.getRevalidatedCount());
+        }
+
+        // Restart: the stored response is revalidated once, then served from disk
+        try (DiskResponseCache cache = new DiskResponseCache(directory, 1_000_000, Duration.ofHours(1))) {
+            MealDbApiClient cachedClient = cachedClient(cache);
+            cachedClient.getMealById("60000");
+            cachedClient.getMealById("60000");
+
+            assertEquals(3, server.getRequestCount());
+            assertEquals(2, server.getNotModifiedCount());
+            assertEquals(1, cache.getHitCount());
+        }
+    }
+
+    private MealDbApiClient cachedClient(DiskResponseCache cache) {
+        HttpClientTransport transport = new HttpClientTransport();
+        transport.setResponseCache(cache);
+        MealDbApiClient cachedClient = new MealDbApiClient(transport, server.getBaseUrl(), ForkJoinPool.commonPool());
+        cachedClient.setRecipeCache(null);
+        return cachedClient;
+    }
+
+    /*
+     * Test that the generated catalog is deterministic.
+     */
+    @Test
+    public void testCatalogIsDeterministic() {
+        List<Recipe> a = StubCatalog.generate(5, 1);
+        List<Recipe> b = StubCatalog.generate(5, 1);
+
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).getName(), b.get(i).getName());
+            assertEquals(a.get(i).getIngredients(), b.get(i).getIngredients());
+        }
+    }
+}
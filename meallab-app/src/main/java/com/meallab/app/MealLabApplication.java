@@ -1,11 +1,15 @@
 package com.meallab.app;
 
+import com.meallab.app.storage.MealListStore;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /*
  * Main JavaFX application class for MealLab.
  *
@@ -23,6 +27,23 @@ import javafx.stage.Stage;
 
 public class MealLabApplication extends Application {
 
+    /*
+     * Favorites and Cooked lists, kept in ~/.meallab/lists
+     * (or the directory in the meallab.data.dir system property)
+     */
+    private MealListStore listStore;
+
+    /*
+     * Opens the saved lists before the window is shown.
+     *
+     * Runs on the JavaFX launcher thread, so replaying the journal does not
+     * hold up the FX application thread.
+     */
+    @Override
+    public void init() throws IOException {
+        listStore = new MealListStore(dataDirectory().resolve("lists"));
+    }
+
     /*
      * The main entry point for the JavaFX application.
      *
@@ -66,6 +87,24 @@ public class MealLabApplication extends Application {
     @Override
     public void stop(){
         System.out.println("MealLab Application is shutting down...");
+
+        // Write out the last list changes
+        if (listStore != null) {
+            try {
+                listStore.close();
+            } catch (IOException e) {
+                System.err.println("Failed to save lists: " + e.getMessage());
+            }
+        }
+    }
+
+    public MealListStore getListStore() {
+        return listStore;
+    }
+
+    private static Path dataDirectory() {
+        String configured = System.getProperty("meallab.data.dir");
+        return configured != null ? Path.of(configured) : Path.of(System.getProperty("user.home"), ".meallab");
     }
 
     /*
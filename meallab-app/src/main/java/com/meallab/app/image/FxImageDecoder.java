@@ -0,0 +1,33 @@
+package com.meallab.app.image;
+
+import com.meallab.api.image.ImageDecoder;
+import javafx.scene.image.Image;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/*
+ * ImageDecoder producing JavaFX Images for ThumbnailService.
+ *
+ * The image is decoded synchronously at the requested size (aspect ratio
+ * kept, smooth scaling) on ThumbnailService's decode thread, so an
+ * ImageView can show it right away without decoding on the FX thread.
+ */
+
+public class FxImageDecoder implements ImageDecoder<Image> {
+
+    @Override
+    public Image decode(byte[] data, int width, int height) throws IOException {
+        Image image = new Image(new ByteArrayInputStream(data), width, height, true, true);
+        if (image.isError()) {
+            Exception cause = image.getException();
+            throw new IOException("Unreadable image" + (cause != null ? ": " + cause.getMessage() : ""), cause);
+        }
+        return image;
+    }
+
+    @Override
+    public long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+}
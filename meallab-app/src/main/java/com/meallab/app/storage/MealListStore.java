@@ -0,0 +1,588 @@
+package com.meallab.app.storage;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Persistent Favorites and Cooked lists.
+ *
+ * Every change is one line appended to a journal (JSON lines), so a change
+ * costs O(1) I/O however long the lists are. The lists themselves live in
+ * memory (insertion order).
+ *
+ * - Durability: lines are buffered and a background thread writes them and
+ *   fsyncs the journal every flushInterval (group commit), so clicking
+ *   "favorite" never waits for the disk. At most one interval of changes
+ *   is lost on a power failure; flush() forces the pending ones out, and
+ *   close() flushes. With a zero interval every change is forced before
+ *   it returns.
+ * - Compaction: once the journal holds more than compactThreshold lines
+ *   and over twice as many lines as there are saved meals, both lists are
+ *   written to a snapshot (temp file, fsync, atomic rename, fsync of the
+ *   directory) and only then does the journal start over, so the new
+ *   snapshot is on disk before the journal is emptied.
+ * - Startup: the snapshot is read, then the journal is replayed. A last
+ *   line torn by a crash (no newline) is cut off; a complete line that
+ *   cannot be read (corrupt, or an operation from a newer version) is
+ *   skipped and the lines after it still apply. Replaying is idempotent
+ *   (every operation sets a meal's final state), so a crash between
+ *   writing the snapshot and emptying the journal is harmless.
+ *
+ * Files in the directory: snapshot.json, journal.jsonl
+ *
+ * Example usage:
+ * <pre>
+ * MealListStore store = new MealListStore(Path.of(System.getProperty("user.home"), ".meallab"));
+ * store.addFavorite(meal.getId(), meal.getName(), meal.getThumbnailUrl());
+ * store.markCooked(meal.getId(), meal.getName(), meal.getThumbnailUrl());
+ * ...
+ * store.close();
+ * </pre>
+ */
+
+public class MealListStore implements AutoCloseable {
+
+    /*
+     * Defaults
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+    public static final int DEFAULT_COMPACT_THRESHOLD = 1000;
+
+    static final String SNAPSHOT_FILE = "snapshot.json";
+    static final String JOURNAL_FILE = "journal.jsonl";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.json.tmp";
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /*
+     * Journal operations
+     */
+    private static final String ADD_FAVORITE = "fav+";
+    private static final String REMOVE_FAVORITE = "fav-";
+    private static final String MARK_COOKED = "cooked+";
+    private static final String REMOVE_COOKED = "cooked-";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private static final ObjectReader RECORD_READER = MAPPER.readerFor(JournalRecord.class);
+    private static final ObjectWriter RECORD_WRITER = MAPPER.writerFor(JournalRecord.class);
+    private static final ObjectReader SNAPSHOT_READER = MAPPER.readerFor(SnapshotFile.class);
+    private static final ObjectWriter SNAPSHOT_WRITER = MAPPER.writerFor(SnapshotFile.class);
+
+    private final Path directory;
+    private final long flushIntervalMillis;
+    private final int compactThreshold;
+
+    // Lists and unwritten journal lines (guarded by this)
+    private final LinkedHashMap<String, SavedMeal> favorites = new LinkedHashMap<>();
+    private final LinkedHashMap<String, SavedMeal> cooked = new LinkedHashMap<>();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private int journalLines;
+    private boolean closed;
+
+    // File writes happen under ioLock, so journal lines stay in order
+    private final Object ioLock = new Object();
+    private final FileChannel journal;
+    private final ScheduledExecutorService flusher;
+    private volatile IOException lastFlushError;
+
+    // Runs after the snapshot is durable, before the journal is emptied (tests)
+    volatile Runnable beforeJournalTruncate;
+
+    // Statistics
+    private long syncCount;
+    private long compactionCount;
+    private int skippedLines;
+
+    /*
+     * Opens (or creates) the lists in the directory with the default
+     * flush interval and compaction threshold.
+     */
+    public MealListStore(Path directory) throws IOException {
+        this(directory, DEFAULT_FLUSH_INTERVAL, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /*
+     * Opens (or creates) the lists in the directory.
+     *
+     * @param flushInterval     how often pending changes are written and fsynced (zero = on every change)
+     * @param compactThreshold  journal lines before a snapshot is considered
+     */
+    public MealListStore(Path directory, Duration flushInterval, int compactThreshold) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Storage directory cannot be null");
+        }
+        if (flushInterval == null || flushInterval.isNegative()) {
+            throw new IllegalArgumentException("Flush interval cannot be negative");
+        }
+        if (compactThreshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        this.directory = directory;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.compactThreshold = compactThreshold;
+
+        Files.createDirectories(directory);
+        readSnapshot();
+        journal = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replayJournal();
+        compactIfNeeded();
+
+        if (flushIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "meallab-list-store-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::backgroundFlush,
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    // Favorites
+
+    /*
+     * Adds a meal to the favorites. Returns false if it already is one.
+     */
+    public boolean addFavorite(String mealId, String name, String thumbnailUrl) throws IOException {
+        return record(new JournalRecord(ADD_FAVORITE, mealId, name, thumbnailUrl, System.currentTimeMillis()));
+    }
+
+    public boolean removeFavorite(String mealId) throws IOException {
+        return record(new JournalRecord(REMOVE_FAVORITE, mealId, null, null, 0));
+    }
+
+    public synchronized boolean isFavorite(String mealId) {
+        return favorites.containsKey(mealId);
+    }
+
+    /*
+     * Favorites, oldest first
+     */
+    public synchronized List<SavedMeal> getFavorites() {
+        return new ArrayList<>(favorites.values());
+    }
+
+    // Cooked
+
+    /*
+     * Marks a meal as cooked now: it moves from the favorites (if it is one)
+     * to the cooked list. Returns false if it already was cooked.
+     */
+    public boolean markCooked(String mealId, String name, String thumbnailUrl) throws IOException {
+        return record(new JournalRecord(MARK_COOKED, mealId, name, thumbnailUrl, System.currentTimeMillis()));
+    }
+
+    public boolean removeCooked(String mealId) throws IOException {
+        return record(new JournalRecord(REMOVE_COOKED, mealId, null, null, 0));
+    }
+
+    public synchronized boolean isCooked(String mealId) {
+        return cooked.containsKey(mealId);
+    }
+
+    /*
+     * Cooked meals, in the order they were cooked
+     */
+    public synchronized List<SavedMeal> getCooked() {
+        return new ArrayList<>(cooked.values());
+    }
+
+    // Persistence
+
+    /*
+     * Writes and fsyncs the pending changes now.
+     */
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            byte[] lines;
+            synchronized (this) {
+                if (pending.size() == 0) {
+                    return;
+                }
+                lines = pending.toByteArray();
+                pending = new ByteArrayOutputStream();
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines);
+            while (buffer.hasRemaining()) {
+                journal.write(buffer, journal.size());
+            }
+            journal.force(false);
+            synchronized (this) {
+                syncCount++;
+            }
+        }
+    }
+
+    /*
+     * Writes both lists to the snapshot and empties the journal.
+     */
+    public void compact() throws IOException {
+        synchronized (ioLock) {
+            SnapshotFile snapshot = new SnapshotFile();
+            byte[] unwritten;
+            synchronized (this) {
+                snapshot.version = SNAPSHOT_VERSION;
+                snapshot.favorites = new ArrayList<>(favorites.values());
+                snapshot.cooked = new ArrayList<>(cooked.values());
+                unwritten = pending.toByteArray();
+                pending = new ByteArrayOutputStream();
+            }
+
+            try {
+                writeSnapshot(snapshot);
+            } catch (IOException e) {
+                // Keep the journal complete: the changes it is missing are still unwritten
+                synchronized (this) {
+                    ByteArrayOutputStream newer = pending;
+                    pending = new ByteArrayOutputStream();
+                    pending.writeBytes(unwritten);
+                    pending.writeBytes(newer.toByteArray());
+                }
+                throw e;
+            }
+
+            // Everything up to the snapshot is in it, and the snapshot is durable
+            Runnable hook = beforeJournalTruncate;
+            if (hook != null) {
+                hook.run();
+            }
+            journal.truncate(0);
+            journal.force(false);
+            synchronized (this) {
+                journalLines = pending.size() > 0 ? countLines(pending) : 0;
+                compactionCount++;
+            }
+        }
+    }
+
+    /*
+     * Flushes pending changes and stops the background flusher.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    // Getters
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Duration getFlushInterval() {
+        return Duration.ofMillis(flushIntervalMillis);
+    }
+
+    public int getCompactThreshold() {
+        return compactThreshold;
+    }
+
+    /*
+     * Changes recorded in the journal (written or pending) since the last snapshot
+     */
+    public synchronized int getJournalLines() {
+        return journalLines;
+    }
+
+    /*
+     * Number of fsyncs of the journal (each covers a batch of changes)
+     */
+    public synchronized long getSyncCount() {
+        return syncCount;
+    }
+
+    public synchronized long getCompactionCount() {
+        return compactionCount;
+    }
+
+    /*
+     * Complete journal lines that could not be read at startup and were skipped
+     */
+    public synchronized int getSkippedLines() {
+        return skippedLines;
+    }
+
+    /*
+     * Failure of the last background flush, or null if it succeeded
+     */
+    public IOException getLastFlushError() {
+        return lastFlushError;
+    }
+
+    // Helper Methods
+
+    /*
+     * Applies a change and queues its journal line; O(1) apart from the batch write.
+     */
+    private boolean record(JournalRecord record) throws IOException {
+        if (record.id == null || record.id.isBlank()) {
+            throw new IllegalArgumentException("Meal ID cannot be empty");
+        }
+
+        byte[] line = RECORD_WRITER.writeValueAsBytes(record);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Store is closed");
+            }
+            if (!apply(record)) {
+                return false;
+            }
+            pending.writeBytes(line);
+            pending.write('\n');
+            journalLines++;
+        }
+
+        if (flusher == null) {
+            flush();
+            compactIfNeeded();
+        }
+        return true;
+    }
+
+    /*
+     * Updates the lists for one operation; false if nothing changed.
+     * Each operation sets the meal's final state, so applying it twice is harmless.
+     */
+    private boolean apply(JournalRecord record) {
+        switch (record.op) {
+            case ADD_FAVORITE:
+                if (favorites.containsKey(record.id)) {
+                    return false;
+                }
+                favorites.put(record.id, record.toSavedMeal());
+                return true;
+            case REMOVE_FAVORITE:
+                return favorites.remove(record.id) != null;
+            case MARK_COOKED:
+                boolean wasFavorite = favorites.remove(record.id) != null;
+                if (cooked.containsKey(record.id)) {
+                    return wasFavorite;
+                }
+                cooked.put(record.id, record.toSavedMeal());
+                return true;
+            case REMOVE_COOKED:
+                return cooked.remove(record.id) != null;
+            default:
+                throw new IllegalArgumentException("Unknown journal operation: " + record.op);
+        }
+    }
+
+    private void backgroundFlush() {
+        try {
+            flush();
+            compactIfNeeded();
+            lastFlushError = null;
+        } catch (IOException e) {
+            lastFlushError = e;  // Pending changes are lost only if the next flush fails too
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        boolean due;
+        synchronized (this) {
+            due = journalLines > compactThreshold && journalLines > 2 * (favorites.size() + cooked.size());
+        }
+        if (due) {
+            compact();
+        }
+    }
+
+    private void readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        SnapshotFile snapshot = SNAPSHOT_READER.readValue(file.toFile());
+        if (snapshot.version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported snapshot version " + snapshot.version + ": " + file);
+        }
+        if (snapshot.favorites != null) {
+            for (SavedMeal meal : snapshot.favorites) {
+                favorites.put(meal.getMealId(), meal);
+            }
+        }
+        if (snapshot.cooked != null) {
+            for (SavedMeal meal : snapshot.cooked) {
+                cooked.put(meal.getMealId(), meal);
+            }
+        }
+    }
+
+    /*
+     * Applies every complete journal line, skipping the ones that cannot be
+     * read. Only an unterminated last line (torn by a crash) is cut off.
+     */
+    private void replayJournal() throws IOException {
+        long size = journal.size();
+        if (size == 0) {
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal too large: " + directory.resolve(JOURNAL_FILE));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && journal.read(buffer, buffer.position()) >= 0) {
+            // Read the whole file
+        }
+        byte[] data = buffer.array();
+
+        int start = 0;
+        int lines = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != '\n') {
+                continue;
+            }
+            if (!replayLine(data, start, i - start)) {
+                skippedLines++;
+            }
+            lines++;
+            start = i + 1;
+        }
+
+        journalLines = lines;
+        if (start < data.length) {
+            journal.truncate(start);
+            journal.force(false);
+        }
+    }
+
+    /*
+     * Applies one journal line; false if it cannot be read.
+     */
+    private boolean replayLine(byte[] data, int offset, int length) {
+        try {
+            JournalRecord record = RECORD_READER.readValue(data, offset, length);
+            if (record == null || record.op == null || record.id == null) {
+                return false;
+            }
+            apply(record);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void writeSnapshot(SnapshotFile snapshot) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        byte[] data = SNAPSHOT_WRITER.writeValueAsBytes(snapshot);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory();
+    }
+
+    /*
+     * Makes the rename durable. Some file systems (btrfs, for one) may
+     * otherwise persist the journal truncation that follows before it.
+     */
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows cannot open a directory; its renames are durable on their own
+        }
+    }
+
+    private static int countLines(ByteArrayOutputStream lines) {
+        int count = 0;
+        for (byte b : lines.toByteArray()) {
+            if (b == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /*
+     * One journal line (fields added by newer versions are ignored)
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class JournalRecord {
+        public String op;
+        public String id;
+        public String name;
+        public String thumb;
+        public long at;
+
+        JournalRecord() {
+        }
+
+        JournalRecord(String op, String id, String name, String thumb, long at) {
+            this.op = op;
+            this.id = id;
+            this.name = name;
+            this.thumb = thumb;
+            this.at = at;
+        }
+
+        SavedMeal toSavedMeal() {
+            return new SavedMeal(id, name, thumb, at);
+        }
+    }
+
+    /*
+     * Contents of snapshot.json
+     */
+    static class SnapshotFile {
+        public int version;
+        public List<SavedMeal> favorites;
+        public List<SavedMeal> cooked;
+    }
+}
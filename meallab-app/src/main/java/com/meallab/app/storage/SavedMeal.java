@@ -0,0 +1,81 @@
+package com.meallab.app.storage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/*
+ * A meal on the Favorites or Cooked list: enough to show it in a list
+ * (name, thumbnail) without calling the API, plus when it was added
+ * (for Cooked: when it was cooked).
+ */
+
+public final class SavedMeal {
+
+    @JsonProperty("id")
+    private final String mealId;
+
+    @JsonProperty("name")
+    private final String name;
+
+    @JsonProperty("thumb")
+    private final String thumbnailUrl;
+
+    @JsonProperty("at")
+    private final long savedAtMillis;
+
+    @JsonCreator
+    public SavedMeal(@JsonProperty("id") String mealId,
+                     @JsonProperty("name") String name,
+                     @JsonProperty("thumb") String thumbnailUrl,
+                     @JsonProperty("at") long savedAtMillis) {
+        this.mealId = mealId;
+        this.name = name;
+        this.thumbnailUrl = thumbnailUrl;
+        this.savedAtMillis = savedAtMillis;
+    }
+
+    public String getMealId() {
+        return mealId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public long getSavedAtMillis() {
+        return savedAtMillis;
+    }
+
+    // Override Methods
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SavedMeal)) return false;
+        SavedMeal that = (SavedMeal) o;
+        return savedAtMillis == that.savedAtMillis
+                && Objects.equals(mealId, that.mealId)
+                && Objects.equals(name, that.name)
+                && Objects.equals(thumbnailUrl, that.thumbnailUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mealId, name, thumbnailUrl, savedAtMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "SavedMeal{" +
+                "mealId='" + mealId + '\'' +
+                ", name='" + name + '\'' +
+                ", savedAtMillis=" + savedAtMillis +
+                '}';
+    }
+}
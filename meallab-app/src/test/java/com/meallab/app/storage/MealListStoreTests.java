@@ -0,0 +1,229 @@
+package com.meallab.app.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+public class MealListStoreTests {
+
+    @TempDir
+    Path directory;
+
+    private MealListStore open() throws IOException {
+        return new MealListStore(directory, Duration.ZERO, 1000);
+    }
+
+    private static List<String> ids(List<SavedMeal> meals) {
+        return meals.stream().map(SavedMeal::getMealId).toList();
+    }
+
+    /*
+     * Test the list operations and that they survive a restart.
+     */
+    @Test
+    public void testOperationsPersist() throws IOException {
+        try (MealListStore store = open()) {
+            assertTrue(store.addFavorite("52772", "Teriyaki Chicken Casserole", "https://x/1.jpg"));
+            assertFalse(store.addFavorite("52772", "Teriyaki Chicken Casserole", "https://x/1.jpg"));
+            assertTrue(store.addFavorite("52773", "Honey Teriyaki Salmon", null));
+            assertTrue(store.addFavorite("52774", "Pad See Ew", null));
+            assertTrue(store.removeFavorite("52774"));
+            assertFalse(store.removeFavorite("52774"));
+
+            assertTrue(store.markCooked("52772", "Teriyaki Chicken Casserole", "https://x/1.jpg"));
+            assertFalse(store.markCooked("52772", "Teriyaki Chicken Casserole", "https://x/1.jpg"));
+            assertTrue(store.markCooked("52775", "Vegan Lasagna", null));
+            assertTrue(store.removeCooked("52775"));
+        }
+
+        try (MealListStore store = open()) {
+            assertEquals(List.of("52773"), ids(store.getFavorites()));
+            assertEquals(List.of("52772"), ids(store.getCooked()));
+            assertTrue(store.isCooked("52772"));
+            assertFalse(store.isFavorite("52772"));
+
+            SavedMeal meal = store.getCooked().get(0);
+            assertEquals("Teriyaki Chicken Casserole", meal.getName());
+            assertEquals("https://x/1.jpg", meal.getThumbnailUrl());
+            assertTrue(meal.getSavedAtMillis() > 0);
+            assertEquals(7, store.getJournalLines());  // Only changes are journaled
+        }
+    }
+
+    /*
+     * Test that changes are batched until the flush, and that close() flushes.
+     */
+    @Test
+    public void testBatchedSync() throws IOException {
+        try (MealListStore store = new MealListStore(directory, Duration.ofHours(1), 1000)) {
+            for (int i = 0; i < 50; i++) {
+                store.addFavorite(String.valueOf(i), "Meal " + i, null);
+            }
+            assertEquals(0, store.getSyncCount());
+            assertEquals(0, Files.size(directory.resolve(MealListStore.JOURNAL_FILE)));
+
+            store.flush();
+            assertEquals(1, store.getSyncCount());
+            store.removeFavorite("0");
+        }
+
+        try (MealListStore store = open()) {
+            assertEquals(49, store.getFavorites().size());
+            assertFalse(store.isFavorite("0"));
+        }
+    }
+
+    /*
+     * Test that the journal is compacted into a snapshot.
+     */
+    @Test
+    public void testCompaction() throws IOException {
+        try (MealListStore store = new MealListStore(directory, Duration.ZERO, 10)) {
+            store.addFavorite("1", "Kept", null);
+            for (int i = 0; i < 20; i++) {
+                store.addFavorite("2", "Toggled", null);
+                store.removeFavorite("2");
+            }
+            assertTrue(store.getCompactionCount() > 0);
+            assertTrue(store.getJournalLines() <= 10);
+        }
+        assertTrue(Files.exists(directory.resolve(MealListStore.SNAPSHOT_FILE)));
+
+        try (MealListStore store = open()) {
+            assertEquals(List.of("1"), ids(store.getFavorites()));
+        }
+    }
+
+    /*
+     * Test that replaying journal lines already in the snapshot changes nothing
+     * (a crash between writing the snapshot and emptying the journal).
+     */
+    @Test
+    public void testReplayIsIdempotent() throws IOException {
+        byte[] journal;
+        try (MealListStore store = open()) {
+            store.addFavorite("1", "A", null);
+            store.addFavorite("2", "B", null);
+            store.markCooked("1", "A", null);
+            store.removeFavorite("2");
+            store.addFavorite("2", "B", null);
+            journal = Files.readAllBytes(directory.resolve(MealListStore.JOURNAL_FILE));
+            store.compact();
+        }
+        Files.write(directory.resolve(MealListStore.JOURNAL_FILE), journal);
+
+        try (MealListStore store = open()) {
+            assertEquals(List.of("2"), ids(store.getFavorites()));
+            assertEquals(List.of("1"), ids(store.getCooked()));
+        }
+    }
+
+    /*
+     * Test that a line torn by a crash is cut off and the rest is kept.
+     */
+    @Test
+    public void testTornLine() throws IOException {
+        try (MealListStore store = open()) {
+            store.addFavorite("1", "A", null);
+        }
+        Path journal = directory.resolve(MealListStore.JOURNAL_FILE);
+        long intact = Files.size(journal);
+        Files.write(journal, "{\"op\":\"fav+\",\"id\":\"2".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (MealListStore store = open()) {
+            assertEquals(List.of("1"), ids(store.getFavorites()));
+            assertEquals(intact, Files.size(journal));
+            store.addFavorite("3", "C", null);
+        }
+
+        try (MealListStore store = open()) {
+            assertEquals(List.of("1", "3"), ids(store.getFavorites()));
+        }
+    }
+
+    /*
+     * Test that an unreadable line in the middle is skipped, not used to cut off the lines after it.
+     */
+    @Test
+    public void testBadLineInMiddle() throws IOException {
+        try (MealListStore store = open()) {
+            store.addFavorite("1", "A", null);
+        }
+        Path journal = directory.resolve(MealListStore.JOURNAL_FILE);
+        Files.writeString(journal, "garbage\n"
+                + "{\"op\":\"pin+\",\"id\":\"9\"}\n"
+                + "{\"op\":\"fav+\",\"id\":\"2\",\"name\":\"B\",\"rating\":5}\n"
+                + "{\"op\":\"cooked+\",\"id\":\"1\",\"name\":\"A\"}\n", StandardOpenOption.APPEND);
+        long size = Files.size(journal);
+
+        try (MealListStore store = open()) {
+            assertEquals(List.of("2"), ids(store.getFavorites()));
+            assertEquals(List.of("1"), ids(store.getCooked()));
+            assertEquals(2, store.getSkippedLines());
+            assertEquals(size, Files.size(journal), "Nothing is cut off");
+        }
+    }
+
+    /*
+     * Test that the snapshot is in place before the journal is emptied, so the state
+     * "new snapshot, truncated journal" a crash can leave behind keeps every change.
+     */
+    @Test
+    public void testSnapshotBeforeTruncatedJournal(@TempDir Path crashed) throws IOException {
+        try (MealListStore store = open()) {
+            store.addFavorite("1", "A", null);
+            store.compact();
+            store.addFavorite("2", "B", null);
+            store.markCooked("1", "A", null);
+
+            // Capture the files the moment the journal is about to be truncated
+            store.beforeJournalTruncate = () -> {
+                try {
+                    Files.copy(directory.resolve(MealListStore.SNAPSHOT_FILE),
+                            crashed.resolve(MealListStore.SNAPSHOT_FILE));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            store.compact();
+        }
+        assertFalse(Files.exists(directory.resolve("snapshot.json.tmp")));
+
+        // Crash with the journal already truncated
+        Files.createFile(crashed.resolve(MealListStore.JOURNAL_FILE));
+        try (MealListStore store = new MealListStore(crashed, Duration.ZERO, 1000)) {
+            assertEquals(List.of("2"), ids(store.getFavorites()));
+            assertEquals(List.of("1"), ids(store.getCooked()));
+        }
+    }
+
+    /*
+     * Test that a long journal replays correctly on startup.
+     */
+    @Test
+    public void testLargeReplay() throws IOException {
+        try (MealListStore store = new MealListStore(directory, Duration.ofHours(1), 100_000)) {
+            for (int i = 0; i < 30_000; i++) {
+                store.addFavorite(String.valueOf(i), "Meal " + i, "https://x/" + i + ".jpg");
+            }
+            for (int i = 0; i < 30_000; i += 3) {
+                store.markCooked(String.valueOf(i), "Meal " + i, "https://x/" + i + ".jpg");
+            }
+        }
+
+        try (MealListStore store = new MealListStore(directory, Duration.ofHours(1), 100_000)) {
+            assertEquals(20_000, store.getFavorites().size());
+            assertEquals(10_000, store.getCooked().size());
+            assertEquals("1", store.getFavorites().get(0).getMealId());
+        }
+    }
+}
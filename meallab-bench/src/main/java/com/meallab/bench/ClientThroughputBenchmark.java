@@ -0,0 +1,132 @@
+package com.meallab.bench;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.model.BulkMealResponse;
+import com.meallab.api.model.MealListResponse;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.stub.MealDbStubServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * End-to-end MealDbApiClient calls against a local MealDbStubServer.
+ *
+ * Covers HTTP, parsing and the client's own machinery, without network.
+ * The recipe cache is disabled so every call reaches the stub; latency
+ * simulates the round trip to TheMealDB. With gzip the stub compresses
+ * bodies and the transport decodes them (CPU traded for transfer size).
+ *
+ * Run with the allocation profiler:
+ *   java -jar target/benchmarks.jar ClientThroughputBenchmark -prof gc
+ * or through main() below, which adds it automatically.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ClientThroughputBenchmark {
+
+    @Param({"0", "20"})
+    public int latencyMillis;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private MealDbStubServer server;
+    private MealDbApiClient client;
+    private List<String> mealIds;
+    private List<String> ingredients;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new MealDbStubServer();
+        server.setLatency(Duration.ofMillis(latencyMillis));
+        server.setJitter(Duration.ofMillis(latencyMillis / 4));
+        server.setGzip(gzip);
+        server.start();
+
+        client = new MealDbApiClient(server.getBaseUrl());
+        client.setRecipeCache(null);
+
+        mealIds = new ArrayList<>();
+        ingredients = new ArrayList<>();
+        for (Recipe recipe : server.getRecipes()) {
+            mealIds.add(recipe.getId());
+            ingredients.add(recipe.getIngredients().get(0).getName());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Recipe getMealById() throws ApiException {
+        return client.getMealById(randomOf(mealIds));
+    }
+
+    @Benchmark
+    public MealListResponse searchByIngredient() throws ApiException {
+        return client.searchByIngredient(randomOf(ingredients));
+    }
+
+    @Benchmark
+    public Recipe getRandomMeal() throws ApiException {
+        return client.getRandomMeal();
+    }
+
+    /*
+     * One search result's worth of lookups (20 IDs) through the bulk API.
+     */
+    @Benchmark
+    public BulkMealResponse getMealsByIds() throws ApiException {
+        int start = ThreadLocalRandom.current().nextInt(mealIds.size() - 20);
+        return client.getMealsByIds(mealIds.subList(start, start + 20));
+    }
+
+    private static String randomOf(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    /*
+     * Runs this benchmark with the GC/allocation profiler enabled.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ClientThroughputBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.meallab.bench;
+
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.stub.StubCatalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Ingredient.equals/hashCode as used by hash-based collections
+ * (e.g. shopping lists or de-duplicating ingredients across recipes).
+ *
+ * Probes are separate but equal Ingredient instances, so every lookup
+ * really runs hashCode() and equals() instead of the identity shortcut.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngredientHashBenchmark {
+
+    @Param({"16", "256", "1024"})
+    public int size;
+
+    private List<Ingredient> ingredients;
+    private List<Ingredient> equalProbes;
+    private List<Ingredient> missingProbes;
+    private Set<Ingredient> set;
+
+    @Setup
+    public void setUp() {
+        // Distinct (name, measure) pairs from a generated catalog
+        Set<Ingredient> distinct = new LinkedHashSet<>();
+        for (Recipe recipe : StubCatalog.generate(size * 2, 42)) {
+            distinct.addAll(recipe.getIngredients());
+        }
+        ingredients = new ArrayList<>(distinct).subList(0, Math.min(size, distinct.size()));
+
+        equalProbes = new ArrayList<>();
+        missingProbes = new ArrayList<>();
+        for (Ingredient ingredient : ingredients) {
+            equalProbes.add(new Ingredient(new String(ingredient.getName()), new String(ingredient.getMeasure())));
+            missingProbes.add(new Ingredient(ingredient.getName(), ingredient.getMeasure() + " extra"));
+        }
+        set = new HashSet<>(ingredients);
+    }
+
+    @Benchmark
+    public Set<Ingredient> buildHashSet() {
+        return new HashSet<>(ingredients);
+    }
+
+    @Benchmark
+    public void containsHit(Blackhole blackhole) {
+        for (Ingredient probe : equalProbes) {
+            blackhole.consume(set.contains(probe));
+        }
+    }
+
+    @Benchmark
+    public void containsMiss(Blackhole blackhole) {
+        for (Ingredient probe : missingProbes) {
+            blackhole.consume(set.contains(probe));
+        }
+    }
+
+    @Benchmark
+    public void hashCodes(Blackhole blackhole) {
+        for (Ingredient probe : equalProbes) {
+            blackhole.consume(probe.hashCode());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.meallab.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.meallab.api.model.MealListResponse;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.model.StringPool;
+import com.meallab.api.stub.MealDbJson;
+import com.meallab.api.stub.StubCatalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * JSON deserialization into MealResponse / MealListResponse.
+ *
+ * Payloads are in TheMealDB's format (all 20 ingredient slots, extra fields):
+ * - meals: number of full recipes in a search.php response (1 = lookup.php)
+ * - filter.php responses carry 4x as many simplified meals
+ *
+ * Compares the old path (String body + ObjectMapper.readValue) with the
+ * client's current one (bytes + prebuilt ObjectReader, optionally with a StringPool).
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonParsingBenchmark {
+
+    @Param({"1", "10", "25"})
+    public int meals;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader mealReader;
+    private ObjectReader pooledMealReader;
+    private ObjectReader listReader;
+
+    private String mealsJsonString;
+    private byte[] mealsJson;
+    private String filterJsonString;
+    private byte[] filterJson;
+
+    @Setup
+    public void setUp() {
+        List<Recipe> recipes = StubCatalog.generate(meals * 4, 42);
+
+        mealsJson = MealDbJson.mealsResponse(recipes.subList(0, meals));
+        mealsJsonString = new String(mealsJson, StandardCharsets.UTF_8);
+        filterJson = MealDbJson.filterResponse(recipes);
+        filterJsonString = new String(filterJson, StandardCharsets.UTF_8);
+
+        objectMapper = new ObjectMapper();
+        mealReader = objectMapper.readerFor(MealResponse.class);
+        pooledMealReader = mealReader.withAttribute(StringPool.class, new StringPool());
+        listReader = objectMapper.readerFor(MealListResponse.class);
+    }
+
+    @Benchmark
+    public MealResponse mealResponseFromString() throws IOException {
+        return objectMapper.readValue(mealsJsonString, MealResponse.class);
+    }
+
+    @Benchmark
+    public MealResponse mealResponseFromBytes() throws IOException {
+        return mealReader.readValue(mealsJson);
+    }
+
+    @Benchmark
+    public MealResponse mealResponseWithStringPool() throws IOException {
+        return pooledMealReader.readValue(mealsJson);
+    }
+
+    @Benchmark
+    public MealListResponse mealListResponseFromString() throws IOException {
+        return objectMapper.readValue(filterJsonString, MealListResponse.class);
+    }
+
+    @Benchmark
+    public MealListResponse mealListResponseFromBytes() throws IOException {
+        return listReader.readValue(filterJson);
+    }
+}
@@ -0,0 +1,86 @@
+package com.meallab.bench;
+
+import com.meallab.api.exception.ApiException;
+import com.meallab.api.exception.MealNotFoundException;
+import com.meallab.api.model.LookupResult;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.service.MealDbApiClient;
+import com.meallab.api.service.MealDbTransport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of a miss ("no results") through the two client APIs.
+ *
+ * - getMealById / searchByName: throw MealNotFoundException
+ * - findMealById / findByName: return the shared LookupResult.NotFound
+ *
+ * The transport answers {"meals":null} from memory and parsing runs on the
+ * calling thread, so the numbers are the client's own miss path. The recipe
+ * cache is disabled so lookups reach the transport.
+ *
+ *   java -jar target/benchmarks.jar NotFoundBenchmark -prof gc
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotFoundBenchmark {
+
+    private static final byte[] NO_MEALS = "{\"meals\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private MealDbApiClient client;
+
+    @Setup
+    public void setUp() {
+        MealDbTransport transport = url -> CompletableFuture.completedFuture(NO_MEALS);
+        client = new MealDbApiClient(transport, "http://localhost/api/json/v1/1", Runnable::run);
+        client.setRecipeCache(null);
+    }
+
+    @Benchmark
+    public Recipe getMealById_exception() throws ApiException {
+        try {
+            return client.getMealById("1");
+        } catch (MealNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Recipe findMealById_result() throws ApiException {
+        return client.findMealById("1").orElse(null);
+    }
+
+    @Benchmark
+    public MealResponse searchByName_exception() throws ApiException {
+        try {
+            return client.searchByName("pizza");
+        } catch (MealNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public MealResponse findByName_result() throws ApiException {
+        LookupResult<MealResponse> result = client.findByName("pizza");
+        return result.isFound() ? result.get() : null;
+    }
+}
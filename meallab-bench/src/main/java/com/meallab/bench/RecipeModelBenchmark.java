@@ -0,0 +1,70 @@
+package com.meallab.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.stub.MealDbJson;
+import com.meallab.api.stub.StubCatalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of building and reading the Recipe model.
+ *
+ * - recipeWithIngredientList: deserializes one full recipe, which is where
+ *   the 20 strIngredient/strMeasure slots are turned into List<Ingredient>
+ *   (RecipeDeserializer; there is no separate buildIngredientList() any more)
+ * - getIngredients / getTagsList: the accessors the UI calls on every render
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeModelBenchmark {
+
+    private ObjectReader recipeReader;
+    private byte[] recipeJson;
+    private Recipe recipe;
+
+    @Setup
+    public void setUp() throws IOException {
+        Recipe generated = StubCatalog.generate(1, 42).get(0);
+        generated.setTags("Meat,Casserole,Warming");
+
+        recipeJson = MealDbJson.fullRecipe(generated, 0);
+        recipeReader = new ObjectMapper().readerFor(Recipe.class);
+        recipe = recipeReader.readValue(recipeJson);
+    }
+
+    @Benchmark
+    public Recipe recipeWithIngredientList() throws IOException {
+        return recipeReader.readValue(recipeJson);
+    }
+
+    @Benchmark
+    public List<Ingredient> getIngredients() {
+        return recipe.getIngredients();
+    }
+
+    @Benchmark
+    public List<String> getTagsList() {
+        return recipe.getTagsList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.meallab.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.meallab.api.model.Ingredient;
+import com.meallab.api.model.MealResponse;
+import com.meallab.api.model.Recipe;
+import com.meallab.api.model.StringPool;
+import com.meallab.api.stub.MealDbJson;
+import com.meallab.api.stub.StubCatalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Memory kept by parsed recipes, with and without a StringPool.
+ *
+ * Each operation parses the same search.php response (25 recipes) 400
+ * times, as if the recipes had been fetched separately, and keeps them.
+ * The time and -prof gc show what pooling costs while parsing; at the end
+ * of the trial the heap retained per recipe is printed (strings counted
+ * once per distinct instance, so shared values are only paid for once).
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringPoolFootprintBenchmark {
+
+    private static final int RESPONSES = 400;
+    private static final int RECIPES_PER_RESPONSE = 25;
+
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    private ObjectReader reader;
+    private byte[] searchJson;
+    private List<MealResponse> retained;
+
+    @Setup
+    public void setUp() {
+        searchJson = MealDbJson.mealsResponse(StubCatalog.generate(RECIPES_PER_RESPONSE, 42));
+        reader = new ObjectMapper().readerFor(MealResponse.class);
+    }
+
+    @Benchmark
+    public List<MealResponse> parseAndKeep() throws IOException {
+        // A new pool per operation, like a freshly started application
+        ObjectReader parser = pooled ? reader.withAttribute(StringPool.class, new StringPool()) : reader;
+        List<MealResponse> responses = new ArrayList<>(RESPONSES);
+        for (int i = 0; i < RESPONSES; i++) {
+            responses.add(parser.readValue(searchJson));
+        }
+        retained = responses;
+        return responses;
+    }
+
+    @TearDown(Level.Trial)
+    public void reportFootprint() {
+        if (retained == null) {
+            return;
+        }
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        int recipes = 0;
+        for (MealResponse response : retained) {
+            for (Recipe recipe : response.getMeals()) {
+                bytes += recipeBytes(recipe, seen);
+                recipes++;
+            }
+        }
+        System.out.printf("%nRetained (pooled=%s): %,d recipes, %,d bytes/recipe%n", pooled, recipes, bytes / recipes);
+    }
+
+    // Helper Methods
+
+    /*
+     * Shallow sizes (compressed oops, 8-byte alignment) plus distinct strings.
+     */
+    private static long recipeBytes(Recipe recipe, Set<Object> seen) {
+        long bytes = 56;  // Recipe: header + 9 references + 2 ints
+        bytes += string(recipe.getId(), seen);
+        bytes += string(recipe.getName(), seen);
+        bytes += string(recipe.getCategory(), seen);
+        bytes += string(recipe.getArea(), seen);
+        bytes += string(recipe.getInstructions(), seen);
+        bytes += string(recipe.getThumbnailUrl(), seen);
+        bytes += string(recipe.getTags(), seen);
+        bytes += string(recipe.getYoutubeUrl(), seen);
+
+        List<Ingredient> ingredients = recipe.getIngredients();
+        bytes += 16 + 24 + align(16 + 4L * ingredients.size());  // unmodifiable wrapper, ArrayList, array
+        for (Ingredient ingredient : ingredients) {
+            bytes += 24;  // Ingredient: header + 2 references + 1 int
+            bytes += string(ingredient.getName(), seen);
+            bytes += string(ingredient.getMeasure(), seen);
+        }
+        return bytes;
+    }
+
+    private static long string(String s, Set<Object> seen) {
+        if (s == null || !seen.add(s)) {
+            return 0;
+        }
+        // String object (24) + byte[] (16 header + content), Latin-1 assumed
+        return 24 + align(16 + s.length());
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}